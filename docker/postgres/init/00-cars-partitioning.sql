@@ -0,0 +1,31 @@
+-- Tabela cars particionada por estacionamento (lista em lot_id)
+--
+-- Executado antes de a API subir: o Hibernate (ddl-auto=update) encontra a tabela já criada
+-- e apenas acrescenta colunas novas, que o PostgreSQL propaga para as partições.
+-- A partição de cada estacionamento é criada pela API (CarPartitionManager) quando o
+-- estacionamento é cadastrado; cars_default recebe registros de estacionamentos ainda sem partição.
+--
+-- Todas as consultas da API filtram por lot_id, então o planejador lê somente a partição
+-- do estacionamento da requisição.
+
+CREATE TABLE IF NOT EXISTS cars (
+    id                BIGSERIAL    NOT NULL,
+    lot_id            BIGINT       NOT NULL,
+    modelo            VARCHAR(255) NOT NULL,
+    cor               VARCHAR(255) NOT NULL,
+    placa             VARCHAR(10)  NOT NULL,
+    nome_proprietario VARCHAR(255) NOT NULL,
+    data_entrada      TIMESTAMP(6) NOT NULL,
+    data_saida        TIMESTAMP(6),
+    vaga              INTEGER,
+    PRIMARY KEY (id, lot_id)
+) PARTITION BY LIST (lot_id);
+
+CREATE TABLE IF NOT EXISTS cars_default PARTITION OF cars DEFAULT;
+
+-- Uma placa só pode estar ativa (sem saída) uma vez por estacionamento
+CREATE UNIQUE INDEX IF NOT EXISTS uk_cars_lot_placa_ativa ON cars (lot_id, placa) WHERE data_saida IS NULL;
+CREATE INDEX IF NOT EXISTS idx_cars_lot_placa ON cars (lot_id, placa);
+CREATE INDEX IF NOT EXISTS idx_cars_lot_data_saida ON cars (lot_id, data_saida);
+-- Paginação por chave do job de rollup de ocupação
+CREATE INDEX IF NOT EXISTS idx_cars_data_saida_id ON cars (data_saida, id);
@@ -9,11 +9,10 @@ WHERE NOT EXISTS (SELECT FROM pg_database WHERE datname = 'park_assembly')\gexec
 -- Note: With spring.jpa.hibernate.ddl-auto=update, Hibernate will create tables automatically
 -- This script is mainly for creating the admin user
 
--- Insert admin user with default password 'admin'
--- Note: This password should be encoded with BCrypt in production
--- BCrypt hash for 'admin': $2a$10$8.UnVuG9HHgffUDAlk8qfOuVGkqRzgVymGe07xd00DMxs.AQubh4a
+-- Insert admin user with default password 'admin' (change it after the first login)
+-- BCrypt hash for 'admin': $2a$10$Iembr17oNh2rSnP4Oqxm/.hpcGXVjUTX3JhwOOIa8tz9Q2M.1LZz.
 INSERT INTO users (username, password, role, created_at)
-VALUES ('admin', '$2a$10$8.UnVuG9HHgffUDAlk8qfOuVGkqRzgVymGe07xd00DMxs.AQubh4a', 'ADMIN', CURRENT_TIMESTAMP)
+VALUES ('admin', '$2a$10$Iembr17oNh2rSnP4Oqxm/.hpcGXVjUTX3JhwOOIa8tz9Q2M.1LZz.', 'ADMIN', CURRENT_TIMESTAMP)
 ON CONFLICT (username) DO NOTHING;
 
 -- Create indexes for better performance
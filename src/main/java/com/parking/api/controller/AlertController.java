@@ -0,0 +1,51 @@
+package com.parking.api.controller;
+
+import com.parking.api.dto.AlertResponse;
+import com.parking.api.model.Permission;
+import com.parking.api.service.AlertService;
+import com.parking.api.service.CapacityService;
+import com.parking.api.web.RequiresPermission;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/alerts")
+@CrossOrigin(origins = "http://localhost:4200")
+@RequiredArgsConstructor
+public class AlertController {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final AlertService alertService;
+    private final CapacityService capacityService;
+
+    /**
+     * GET /api/alerts?limit=50 - Alertas mais recentes do estacionamento
+     */
+    @GetMapping
+    @RequiresPermission(Permission.ALERTS_READ)
+    public ResponseEntity<List<AlertResponse>> getAlerts(@RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("'limit' deve estar entre 1 e " + MAX_LIMIT);
+        }
+        return ResponseEntity.ok(alertService.recent(capacityService.currentLot(), limit));
+    }
+
+    /**
+     * GET /api/alerts/stream - Novos alertas do estacionamento via Server-Sent Events
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequiresPermission(Permission.ALERTS_READ)
+    public SseEmitter stream() {
+        return alertService.subscribe(capacityService.currentLot());
+    }
+}
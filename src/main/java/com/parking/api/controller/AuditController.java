@@ -0,0 +1,50 @@
+package com.parking.api.controller;
+
+import com.parking.api.model.AuditEntry;
+import com.parking.api.model.Permission;
+import com.parking.api.service.AuditLog;
+import com.parking.api.service.CapacityService;
+import com.parking.api.web.RequiresPermission;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/audit")
+@CrossOrigin(origins = "http://localhost:4200")
+@RequiredArgsConstructor
+public class AuditController {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final AuditLog auditLog;
+    private final CapacityService capacityService;
+
+    /**
+     * GET /api/audit - Alterações do estacionamento corrente, da mais recente à mais antiga;
+     * {@code from} e {@code to} são datas inclusivas
+     */
+    @GetMapping
+    @RequiresPermission(Permission.AUDIT_READ)
+    public ResponseEntity<Page<AuditEntry>> search(
+            @RequestParam(required = false) AuditEntry.Entidade entidade,
+            @RequestParam(required = false) Long entidadeId,
+            @RequestParam(required = false) Long usuarioId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("Período inválido: 'from' deve ser anterior ou igual a 'to'");
+        }
+        return ResponseEntity.ok(auditLog.search(capacityService.currentLot(), entidade, entidadeId, usuarioId,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)))));
+    }
+}
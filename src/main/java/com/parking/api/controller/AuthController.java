@@ -2,9 +2,12 @@ package com.parking.api.controller;
 
 import com.parking.api.dto.LoginRequest;
 import com.parking.api.dto.LoginResponse;
+import com.parking.api.dto.RefreshTokenRequest;
 import com.parking.api.service.UserService;
+import com.parking.api.web.AuthenticationFilter;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,4 +24,19 @@ public class AuthController {
         LoginResponse response = userService.authenticate(request);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        LoginResponse response = userService.refresh(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody(required = false) RefreshTokenRequest request) {
+        userService.logout(AuthenticationFilter.bearerToken(authorization),
+                request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
 }
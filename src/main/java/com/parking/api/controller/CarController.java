@@ -1,9 +1,16 @@
 package com.parking.api.controller;
 
+import com.parking.api.dto.QuoteResponse;
 import com.parking.api.model.Car;
+import com.parking.api.model.CarEventRecord;
+import com.parking.api.model.Permission;
 import com.parking.api.service.CarService;
+import com.parking.api.util.PlateCodec;
+import com.parking.api.web.RequiresPermission;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,32 +23,67 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CarController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final CarService carService;
 
     /**
      * GET /api/cars - Lista todos os carros
      */
     @GetMapping
+    @RequiresPermission(Permission.CARS_READ)
     public ResponseEntity<List<Car>> getAllCars() {
         List<Car> cars = carService.getAllCars();
         return ResponseEntity.ok(cars);
     }
 
+    /**
+     * GET /api/cars/search?nome= - Busca carros pelo nome do proprietário, paginado por relevância
+     */
+    @GetMapping("/search")
+    @RequiresPermission(Permission.CARS_READ)
+    public ResponseEntity<Page<Car>> searchByOwner(@RequestParam String nome,
+                                                   @RequestParam(defaultValue = "0") int page,
+                                                   @RequestParam(defaultValue = "20") int size) {
+        Page<Car> cars = carService.searchByOwner(nome, PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE))));
+        return ResponseEntity.ok(cars);
+    }
+
     /**
      * GET /api/cars/{id} - Busca um carro por ID
      */
     @GetMapping("/{id}")
+    @RequiresPermission(Permission.CARS_READ)
     public ResponseEntity<Car> getCarById(@PathVariable Long id) {
         Car car = carService.getCarById(id);
         return ResponseEntity.ok(car);
     }
 
+    /**
+     * GET /api/cars/{id}/history - Entradas, alterações, saídas e remoção do carro, em ordem
+     */
+    @GetMapping("/{id}/history")
+    @RequiresPermission(Permission.CARS_READ)
+    public ResponseEntity<List<CarEventRecord>> getHistory(@PathVariable Long id) {
+        return ResponseEntity.ok(carService.getHistory(id));
+    }
+
+    /**
+     * GET /api/cars/{id}/quote - Valor da permanência até agora (ou o cobrado, se o carro já saiu)
+     */
+    @GetMapping("/{id}/quote")
+    @RequiresPermission(Permission.CARS_READ)
+    public ResponseEntity<QuoteResponse> quote(@PathVariable Long id) {
+        return ResponseEntity.ok(carService.quote(id));
+    }
+
     /**
      * GET /api/cars/placa/{placa} - Busca um carro pela placa
      */
     @GetMapping("/placa/{placa}")
+    @RequiresPermission(Permission.CARS_READ)
     public ResponseEntity<Car> getCarByPlaca(@PathVariable String placa) {
-        Car car = carService.getCarByPlaca(placa);
+        Car car = carService.getCarByPlaca(PlateCodec.normalize(placa));
         return ResponseEntity.ok(car);
     }
 
@@ -49,7 +91,9 @@ public class CarController {
      * POST /api/cars - Registra entrada de um novo carro
      */
     @PostMapping
+    @RequiresPermission(Permission.CARS_WRITE)
     public ResponseEntity<Car> createCar(@Valid @RequestBody Car car) {
+        car.setPlaca(PlateCodec.normalize(car.getPlaca()));
         Car newCar = carService.createCar(car);
         return ResponseEntity.status(HttpStatus.CREATED).body(newCar);
     }
@@ -58,18 +102,22 @@ public class CarController {
      * PUT /api/cars/{id} - Atualiza informações de um carro
      */
     @PutMapping("/{id}")
+    @RequiresPermission(Permission.CARS_WRITE)
     public ResponseEntity<Car> updateCar(@PathVariable Long id,
                                          @Valid @RequestBody Car carDetails) {
+        carDetails.setPlaca(PlateCodec.normalize(carDetails.getPlaca()));
         Car updatedCar = carService.updateCar(id, carDetails);
         return ResponseEntity.ok(updatedCar);
     }
 
     /**
-     * PATCH /api/cars/{id}/exit - Registra saída de um carro
+     * PATCH /api/cars/{id}/exit - Registra saída de um carro (X-Operador identifica o caixa)
      */
     @PatchMapping("/{id}/exit")
-    public ResponseEntity<Car> registerExit(@PathVariable Long id) {
-        Car car = carService.registerExit(id);
+    @RequiresPermission(Permission.CARS_WRITE)
+    public ResponseEntity<Car> registerExit(@PathVariable Long id,
+                                            @RequestHeader(value = "X-Operador", required = false) String operador) {
+        Car car = carService.registerExit(id, operador);
         return ResponseEntity.ok(car);
     }
 
@@ -77,6 +125,7 @@ public class CarController {
      * DELETE /api/cars/{id} - Remove um carro do registro
      */
     @DeleteMapping("/{id}")
+    @RequiresPermission(Permission.CARS_DELETE)
     public ResponseEntity<Void> deleteCar(@PathVariable Long id) {
         carService.deleteCar(id);
         return ResponseEntity.noContent().build();
@@ -0,0 +1,48 @@
+package com.parking.api.controller;
+
+import com.parking.api.dto.JournalStatusResponse;
+import com.parking.api.model.JournalConflict;
+import com.parking.api.model.Permission;
+import com.parking.api.service.JournalReplayer;
+import com.parking.api.web.RequiresPermission;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/journal")
+@CrossOrigin(origins = "http://localhost:4200")
+@RequiredArgsConstructor
+public class JournalController {
+
+    private final JournalReplayer journalReplayer;
+
+    /**
+     * GET /api/journal - Ocupação do diário da cancela e conflitos aguardando o operador
+     */
+    @GetMapping
+    @RequiresPermission(Permission.CARS_READ)
+    public ResponseEntity<JournalStatusResponse> getStatus() {
+        return ResponseEntity.ok(journalReplayer.getStatus());
+    }
+
+    /**
+     * GET /api/journal/conflicts - Eventos do diário recusados pelo banco, do mais antigo ao mais recente
+     */
+    @GetMapping("/conflicts")
+    @RequiresPermission(Permission.CARS_READ)
+    public ResponseEntity<List<JournalConflict>> getConflicts() {
+        return ResponseEntity.ok(journalReplayer.getOpenConflicts());
+    }
+
+    /**
+     * PATCH /api/journal/conflicts/{id}/resolve - Marca o conflito como tratado
+     */
+    @PatchMapping("/conflicts/{id}/resolve")
+    @RequiresPermission(Permission.CARS_WRITE)
+    public ResponseEntity<JournalConflict> resolveConflict(@PathVariable Long id) {
+        return ResponseEntity.ok(journalReplayer.resolveConflict(id));
+    }
+}
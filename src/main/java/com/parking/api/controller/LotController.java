@@ -0,0 +1,49 @@
+package com.parking.api.controller;
+
+import com.parking.api.dto.LotResponse;
+import com.parking.api.model.ParkingLot;
+import com.parking.api.model.Permission;
+import com.parking.api.service.CapacityService;
+import com.parking.api.web.RequiresPermission;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/lots")
+@CrossOrigin(origins = "http://localhost:4200")
+@RequiredArgsConstructor
+public class LotController {
+
+    private final CapacityService capacityService;
+
+    /**
+     * GET /api/lots - Lista os estacionamentos com capacidade e vagas livres por nível
+     */
+    @GetMapping
+    public ResponseEntity<List<LotResponse>> getLots() {
+        return ResponseEntity.ok(capacityService.getLots());
+    }
+
+    /**
+     * GET /api/lots/{id} - Capacidade e vagas livres de um estacionamento
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<LotResponse> getLot(@PathVariable Long id) {
+        return ResponseEntity.ok(capacityService.getLot(id));
+    }
+
+    /**
+     * POST /api/lots - Cadastra um estacionamento com seus níveis
+     */
+    @PostMapping
+    @RequiresPermission(Permission.LOTS_WRITE)
+    public ResponseEntity<LotResponse> createLot(@Valid @RequestBody ParkingLot lot) {
+        LotResponse created = capacityService.createLot(lot);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+}
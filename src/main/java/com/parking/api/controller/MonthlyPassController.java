@@ -0,0 +1,83 @@
+package com.parking.api.controller;
+
+import com.parking.api.dto.GateDecisionResponse;
+import com.parking.api.model.MonthlyPass;
+import com.parking.api.model.Permission;
+import com.parking.api.service.MonthlyPassService;
+import com.parking.api.util.PlateCodec;
+import com.parking.api.web.RequiresPermission;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/passes")
+@CrossOrigin(origins = "http://localhost:4200")
+@RequiredArgsConstructor
+public class MonthlyPassController {
+
+    private final MonthlyPassService monthlyPassService;
+
+    /**
+     * GET /api/passes - Lista as mensalidades do estacionamento (incluindo as válidas em todos)
+     */
+    @GetMapping
+    @RequiresPermission(Permission.PASSES_READ)
+    public ResponseEntity<List<MonthlyPass>> getPasses() {
+        return ResponseEntity.ok(monthlyPassService.getPasses());
+    }
+
+    /**
+     * GET /api/passes/{id} - Busca uma mensalidade
+     */
+    @GetMapping("/{id}")
+    @RequiresPermission(Permission.PASSES_READ)
+    public ResponseEntity<MonthlyPass> getPass(@PathVariable Long id) {
+        return ResponseEntity.ok(monthlyPassService.getPass(id));
+    }
+
+    /**
+     * GET /api/passes/authorize?placa=ABC1234 - Decisão da cancela para a placa, sem acessar o banco
+     */
+    @GetMapping("/authorize")
+    @RequiresPermission(Permission.PASSES_READ)
+    public ResponseEntity<GateDecisionResponse> authorize(@RequestParam String placa) {
+        return ResponseEntity.ok(monthlyPassService.authorize(PlateCodec.normalize(placa)));
+    }
+
+    /**
+     * POST /api/passes?todos=false - Cadastra uma mensalidade no estacionamento (ou em todos)
+     */
+    @PostMapping
+    @RequiresPermission(Permission.PASSES_WRITE)
+    public ResponseEntity<MonthlyPass> createPass(@Valid @RequestBody MonthlyPass pass,
+                                                  @RequestParam(defaultValue = "false") boolean todos) {
+        pass.setPlaca(PlateCodec.normalize(pass.getPlaca()));
+        MonthlyPass created = monthlyPassService.createPass(pass, todos);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    /**
+     * PUT /api/passes/{id} - Altera placa, titular, validade ou situação da mensalidade
+     */
+    @PutMapping("/{id}")
+    @RequiresPermission(Permission.PASSES_WRITE)
+    public ResponseEntity<MonthlyPass> updatePass(@PathVariable Long id, @Valid @RequestBody MonthlyPass pass) {
+        pass.setPlaca(PlateCodec.normalize(pass.getPlaca()));
+        return ResponseEntity.ok(monthlyPassService.updatePass(id, pass));
+    }
+
+    /**
+     * DELETE /api/passes/{id} - Desativa a mensalidade
+     */
+    @DeleteMapping("/{id}")
+    @RequiresPermission(Permission.PASSES_WRITE)
+    public ResponseEntity<Void> deactivatePass(@PathVariable Long id) {
+        monthlyPassService.deactivatePass(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.parking.api.controller;
+
+import com.parking.api.dto.OccupancyReportResponse;
+import com.parking.api.dto.SettlementResponse;
+import com.parking.api.model.OccupancyRollup;
+import com.parking.api.model.Permission;
+import com.parking.api.service.CapacityService;
+import com.parking.api.service.OccupancyRollupService;
+import com.parking.api.service.SettlementService;
+import com.parking.api.web.RequiresPermission;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "http://localhost:4200")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final OccupancyRollupService occupancyRollupService;
+    private final CapacityService capacityService;
+    private final SettlementService settlementService;
+
+    /**
+     * GET /api/reports/occupancy?from=&to=&granularity= - Curva de ocupação por hora ou por dia
+     */
+    @GetMapping("/occupancy")
+    @RequiresPermission(Permission.REPORTS_READ)
+    public ResponseEntity<OccupancyReportResponse> getOccupancy(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+        return ResponseEntity.ok(occupancyRollupService.getOccupancyReport(
+                capacityService.currentLot(), from, to, OccupancyRollup.Granularidade.parse(granularity)));
+    }
+
+    /**
+     * GET /api/reports/settlement?date= - Fechamento de caixa do dia (gravado ou calculado na hora)
+     */
+    @GetMapping("/settlement")
+    @RequiresPermission(Permission.REPORTS_READ)
+    public ResponseEntity<SettlementResponse> getSettlement(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(settlementService.getSettlement(date));
+    }
+
+    /**
+     * POST /api/reports/settlement?date= - Calcula e grava o fechamento do dia
+     */
+    @PostMapping("/settlement")
+    @RequiresPermission(Permission.REPORTS_WRITE)
+    public ResponseEntity<SettlementResponse> generateSettlement(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(settlementService.generate(date));
+    }
+}
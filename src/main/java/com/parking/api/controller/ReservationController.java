@@ -0,0 +1,75 @@
+package com.parking.api.controller;
+
+import com.parking.api.dto.AvailabilityResponse;
+import com.parking.api.model.Permission;
+import com.parking.api.model.Reservation;
+import com.parking.api.service.ReservationService;
+import com.parking.api.util.PlateCodec;
+import com.parking.api.web.RequiresPermission;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reservations")
+@CrossOrigin(origins = "http://localhost:4200")
+@RequiredArgsConstructor
+public class ReservationController {
+
+    private final ReservationService reservationService;
+
+    /**
+     * GET /api/reservations?status=ATIVA - Lista as reservas do estacionamento
+     */
+    @GetMapping
+    @RequiresPermission(Permission.RESERVATIONS_READ)
+    public ResponseEntity<List<Reservation>> getReservations(@RequestParam(required = false) Reservation.Status status) {
+        return ResponseEntity.ok(reservationService.getReservations(status));
+    }
+
+    /**
+     * GET /api/reservations/{id} - Busca uma reserva
+     */
+    @GetMapping("/{id}")
+    @RequiresPermission(Permission.RESERVATIONS_READ)
+    public ResponseEntity<Reservation> getReservation(@PathVariable Long id) {
+        return ResponseEntity.ok(reservationService.getReservation(id));
+    }
+
+    /**
+     * GET /api/reservations/availability?from=...&to=... - Vagas reservadas no pico do período
+     */
+    @GetMapping("/availability")
+    @RequiresPermission(Permission.RESERVATIONS_READ)
+    public ResponseEntity<AvailabilityResponse> getAvailability(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(reservationService.getAvailability(from, to));
+    }
+
+    /**
+     * POST /api/reservations - Reserva uma vaga para a placa no período
+     */
+    @PostMapping
+    @RequiresPermission(Permission.RESERVATIONS_WRITE)
+    public ResponseEntity<Reservation> createReservation(@Valid @RequestBody Reservation reservation) {
+        reservation.setPlaca(PlateCodec.normalize(reservation.getPlaca()));
+        Reservation created = reservationService.createReservation(reservation);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    /**
+     * DELETE /api/reservations/{id} - Cancela uma reserva ativa
+     */
+    @DeleteMapping("/{id}")
+    @RequiresPermission(Permission.RESERVATIONS_WRITE)
+    public ResponseEntity<Reservation> cancelReservation(@PathVariable Long id) {
+        return ResponseEntity.ok(reservationService.cancelReservation(id));
+    }
+}
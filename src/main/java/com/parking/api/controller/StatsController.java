@@ -0,0 +1,82 @@
+package com.parking.api.controller;
+
+import com.parking.api.dto.AuditStatsResponse;
+import com.parking.api.dto.LimiterStatsResponse;
+import com.parking.api.dto.LookupStatsResponse;
+import com.parking.api.dto.OccupancyStatsResponse;
+import com.parking.api.model.Permission;
+import com.parking.api.service.AuditLog;
+import com.parking.api.service.CapacityService;
+import com.parking.api.service.CarService;
+import com.parking.api.service.OccupancyStatsService;
+import com.parking.api.util.AdaptiveLimiter;
+import com.parking.api.util.AdaptiveLimiter.Priority;
+import com.parking.api.web.ConcurrencyLimitFilter;
+import com.parking.api.web.RequiresPermission;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "http://localhost:4200")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final OccupancyStatsService occupancyStatsService;
+    private final CapacityService capacityService;
+    private final CarService carService;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+    private final AuditLog auditLog;
+
+    /**
+     * GET /api/stats/occupancy - Carros dentro, entradas e saídas por hora do dia e tempo de permanência
+     */
+    @GetMapping("/occupancy")
+    @RequiresPermission(Permission.STATS_READ)
+    public ResponseEntity<OccupancyStatsResponse> getOccupancy() {
+        return ResponseEntity.ok(occupancyStatsService.getStats(capacityService.currentLot()));
+    }
+
+    /**
+     * GET /api/stats/lookups - Consultas de carro por ID e por placa feitas no banco e agrupadas
+     */
+    @GetMapping("/lookups")
+    @RequiresPermission(Permission.STATS_READ)
+    public ResponseEntity<LookupStatsResponse> getLookups() {
+        return ResponseEntity.ok(carService.getLookupStats());
+    }
+
+    /**
+     * GET /api/stats/limiter - Limite atual de requisições simultâneas e recusas por prioridade
+     */
+    @GetMapping("/limiter")
+    @RequiresPermission(Permission.STATS_READ)
+    public ResponseEntity<LimiterStatsResponse> getLimiter() {
+        AdaptiveLimiter limiter = concurrencyLimitFilter.limiter();
+        return ResponseEntity.ok(new LimiterStatsResponse(
+                limiter.limit(),
+                limiter.inFlight(),
+                Math.round(limiter.baselineNanos() / 10_000.0) / 100.0,
+                limiter.rejected(Priority.CRITICAL),
+                limiter.rejected(Priority.NORMAL),
+                limiter.rejected(Priority.LOW)));
+    }
+
+    /**
+     * GET /api/stats/audit - Registros de auditoria na fila, gravados e descartados (fila cheia ou recusados pelo banco)
+     */
+    @GetMapping("/audit")
+    @RequiresPermission(Permission.STATS_READ)
+    public ResponseEntity<AuditStatsResponse> getAudit() {
+        return ResponseEntity.ok(new AuditStatsResponse(
+                auditLog.pending(),
+                auditLog.capacity(),
+                auditLog.written(),
+                auditLog.dropped(),
+                auditLog.overflow().name()));
+    }
+}
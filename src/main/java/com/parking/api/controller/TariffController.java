@@ -0,0 +1,49 @@
+package com.parking.api.controller;
+
+import com.parking.api.model.Permission;
+import com.parking.api.model.TariffPlan;
+import com.parking.api.service.TariffService;
+import com.parking.api.web.RequiresPermission;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tariffs")
+@CrossOrigin(origins = "http://localhost:4200")
+@RequiredArgsConstructor
+public class TariffController {
+
+    private final TariffService tariffService;
+
+    /**
+     * GET /api/tariffs - Lista os planos de tarifação
+     */
+    @GetMapping
+    public ResponseEntity<List<TariffPlan>> getPlans() {
+        return ResponseEntity.ok(tariffService.getPlans());
+    }
+
+    /**
+     * POST /api/tariffs - Cadastra um plano; passa a valer imediatamente para o estacionamento
+     */
+    @PostMapping
+    @RequiresPermission(Permission.TARIFFS_WRITE)
+    public ResponseEntity<TariffPlan> createPlan(@Valid @RequestBody TariffPlan plan) {
+        TariffPlan created = tariffService.createPlan(plan);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    /**
+     * PUT /api/tariffs/{id} - Altera um plano
+     */
+    @PutMapping("/{id}")
+    @RequiresPermission(Permission.TARIFFS_WRITE)
+    public ResponseEntity<TariffPlan> updatePlan(@PathVariable Long id, @Valid @RequestBody TariffPlan plan) {
+        return ResponseEntity.ok(tariffService.updatePlan(id, plan));
+    }
+}
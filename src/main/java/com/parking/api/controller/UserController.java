@@ -1,7 +1,9 @@
 package com.parking.api.controller;
 
 import com.parking.api.dto.*;
+import com.parking.api.model.Permission;
 import com.parking.api.service.UserService;
+import com.parking.api.web.RequiresPermission;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -19,24 +21,28 @@ public class UserController {
     private UserService userService;
 
     @GetMapping
+    @RequiresPermission(Permission.USERS_READ)
     public ResponseEntity<List<UserResponse>> getAllUsers() {
         List<UserResponse> users = userService.getAllUsers();
         return ResponseEntity.ok(users);
     }
 
     @GetMapping("/{id}")
+    @RequiresPermission(Permission.USERS_READ)
     public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
         UserResponse user = userService.getUserById(id);
         return ResponseEntity.ok(user);
     }
 
     @PostMapping
+    @RequiresPermission(Permission.USERS_WRITE)
     public ResponseEntity<UserResponse> createUser(@Valid @RequestBody UserRequest request) {
         UserResponse user = userService.createUser(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(user);
     }
 
     @PutMapping("/{id}")
+    @RequiresPermission(Permission.USERS_WRITE)
     public ResponseEntity<UserResponse> updateUser(
             @PathVariable Long id,
             @Valid @RequestBody UserRequest request) {
@@ -45,6 +51,7 @@ public class UserController {
     }
 
     @PatchMapping("/{id}/password")
+    @RequiresPermission(value = Permission.USERS_WRITE, allowSelf = true)
     public ResponseEntity<String> changePassword(
             @PathVariable Long id,
             @Valid @RequestBody ChangePasswordRequest request) {
@@ -53,6 +60,7 @@ public class UserController {
     }
 
     @DeleteMapping("/{id}")
+    @RequiresPermission(Permission.USERS_DELETE)
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
@@ -0,0 +1,51 @@
+package com.parking.api.controller;
+
+import com.parking.api.model.Permission;
+import com.parking.api.model.WatchlistEntry;
+import com.parking.api.service.WatchlistService;
+import com.parking.api.web.RequiresPermission;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/watchlist")
+@CrossOrigin(origins = "http://localhost:4200")
+@RequiredArgsConstructor
+public class WatchlistController {
+
+    private final WatchlistService watchlistService;
+
+    /**
+     * GET /api/watchlist - Lista as placas e padrões monitorados
+     */
+    @GetMapping
+    @RequiresPermission(Permission.WATCHLIST_READ)
+    public ResponseEntity<List<WatchlistEntry>> getEntries() {
+        return ResponseEntity.ok(watchlistService.getEntries());
+    }
+
+    /**
+     * POST /api/watchlist - Monitora uma placa ou padrão (ex.: ABC-1234, ABC*, ABC1?23)
+     */
+    @PostMapping
+    @RequiresPermission(Permission.WATCHLIST_WRITE)
+    public ResponseEntity<WatchlistEntry> createEntry(@Valid @RequestBody WatchlistEntry entry) {
+        WatchlistEntry created = watchlistService.createEntry(entry);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    /**
+     * DELETE /api/watchlist/{id} - Deixa de monitorar a placa ou padrão
+     */
+    @DeleteMapping("/{id}")
+    @RequiresPermission(Permission.WATCHLIST_WRITE)
+    public ResponseEntity<Void> deactivateEntry(@PathVariable Long id) {
+        watchlistService.deactivateEntry(id);
+        return ResponseEntity.noContent().build();
+    }
+}
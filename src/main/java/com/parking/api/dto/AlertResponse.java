@@ -0,0 +1,88 @@
+package com.parking.api.dto;
+
+import java.time.LocalDateTime;
+
+public class AlertResponse {
+
+    public enum Tipo {
+        OVERSTAY,
+        WATCHLIST
+    }
+
+    private Long id;
+    private Tipo tipo;
+    private Long lotId;
+    private Long carId;
+    private String placa;
+    private String mensagem;
+    private LocalDateTime criadoEm;
+
+    public AlertResponse() {}
+
+    public AlertResponse(Long id, Tipo tipo, Long lotId, Long carId, String placa, String mensagem,
+                         LocalDateTime criadoEm) {
+        this.id = id;
+        this.tipo = tipo;
+        this.lotId = lotId;
+        this.carId = carId;
+        this.placa = placa;
+        this.mensagem = mensagem;
+        this.criadoEm = criadoEm;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(Tipo tipo) {
+        this.tipo = tipo;
+    }
+
+    public Long getLotId() {
+        return lotId;
+    }
+
+    public void setLotId(Long lotId) {
+        this.lotId = lotId;
+    }
+
+    public Long getCarId() {
+        return carId;
+    }
+
+    public void setCarId(Long carId) {
+        this.carId = carId;
+    }
+
+    public String getPlaca() {
+        return placa;
+    }
+
+    public void setPlaca(String placa) {
+        this.placa = placa;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+
+    public LocalDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    public void setCriadoEm(LocalDateTime criadoEm) {
+        this.criadoEm = criadoEm;
+    }
+}
@@ -0,0 +1,60 @@
+package com.parking.api.dto;
+
+public class AuditStatsResponse {
+
+    private int pendentes;
+    private int capacidade;
+    private long gravados;
+    private long descartados;
+    private String politica;
+
+    public AuditStatsResponse() {}
+
+    public AuditStatsResponse(int pendentes, int capacidade, long gravados, long descartados, String politica) {
+        this.pendentes = pendentes;
+        this.capacidade = capacidade;
+        this.gravados = gravados;
+        this.descartados = descartados;
+        this.politica = politica;
+    }
+
+    public int getPendentes() {
+        return pendentes;
+    }
+
+    public void setPendentes(int pendentes) {
+        this.pendentes = pendentes;
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    public void setCapacidade(int capacidade) {
+        this.capacidade = capacidade;
+    }
+
+    public long getGravados() {
+        return gravados;
+    }
+
+    public void setGravados(long gravados) {
+        this.gravados = gravados;
+    }
+
+    public long getDescartados() {
+        return descartados;
+    }
+
+    public void setDescartados(long descartados) {
+        this.descartados = descartados;
+    }
+
+    public String getPolitica() {
+        return politica;
+    }
+
+    public void setPolitica(String politica) {
+        this.politica = politica;
+    }
+}
@@ -0,0 +1,72 @@
+package com.parking.api.dto;
+
+import java.time.LocalDateTime;
+
+public class AvailabilityResponse {
+
+    private Long lotId;
+    private LocalDateTime inicio;
+    private LocalDateTime fim;
+    private int capacidade;
+    private int reservadas;
+    private int disponiveis;
+
+    public AvailabilityResponse() {}
+
+    public AvailabilityResponse(Long lotId, LocalDateTime inicio, LocalDateTime fim, int capacidade, int reservadas) {
+        this.lotId = lotId;
+        this.inicio = inicio;
+        this.fim = fim;
+        this.capacidade = capacidade;
+        this.reservadas = reservadas;
+        this.disponiveis = Math.max(0, capacidade - reservadas);
+    }
+
+    public Long getLotId() {
+        return lotId;
+    }
+
+    public void setLotId(Long lotId) {
+        this.lotId = lotId;
+    }
+
+    public LocalDateTime getInicio() {
+        return inicio;
+    }
+
+    public void setInicio(LocalDateTime inicio) {
+        this.inicio = inicio;
+    }
+
+    public LocalDateTime getFim() {
+        return fim;
+    }
+
+    public void setFim(LocalDateTime fim) {
+        this.fim = fim;
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    public void setCapacidade(int capacidade) {
+        this.capacidade = capacidade;
+    }
+
+    public int getReservadas() {
+        return reservadas;
+    }
+
+    public void setReservadas(int reservadas) {
+        this.reservadas = reservadas;
+    }
+
+    public int getDisponiveis() {
+        return disponiveis;
+    }
+
+    public void setDisponiveis(int disponiveis) {
+        this.disponiveis = disponiveis;
+    }
+}
@@ -0,0 +1,50 @@
+package com.parking.api.dto;
+
+public class GateDecisionResponse {
+
+    private Long lotId;
+    private String placa;
+    private boolean autorizado;
+    private boolean mensalista;
+
+    public GateDecisionResponse() {}
+
+    public GateDecisionResponse(Long lotId, String placa, boolean autorizado, boolean mensalista) {
+        this.lotId = lotId;
+        this.placa = placa;
+        this.autorizado = autorizado;
+        this.mensalista = mensalista;
+    }
+
+    public Long getLotId() {
+        return lotId;
+    }
+
+    public void setLotId(Long lotId) {
+        this.lotId = lotId;
+    }
+
+    public String getPlaca() {
+        return placa;
+    }
+
+    public void setPlaca(String placa) {
+        this.placa = placa;
+    }
+
+    public boolean isAutorizado() {
+        return autorizado;
+    }
+
+    public void setAutorizado(boolean autorizado) {
+        this.autorizado = autorizado;
+    }
+
+    public boolean isMensalista() {
+        return mensalista;
+    }
+
+    public void setMensalista(boolean mensalista) {
+        this.mensalista = mensalista;
+    }
+}
@@ -0,0 +1,61 @@
+package com.parking.api.dto;
+
+public class JournalStatusResponse {
+
+    private boolean habilitado;
+    private long bytesPendentes;
+    private long bytesUsados;
+    private long capacidadeBytes;
+    private long conflitosAbertos;
+
+    public JournalStatusResponse() {}
+
+    public JournalStatusResponse(boolean habilitado, long bytesPendentes, long bytesUsados, long capacidadeBytes,
+                                 long conflitosAbertos) {
+        this.habilitado = habilitado;
+        this.bytesPendentes = bytesPendentes;
+        this.bytesUsados = bytesUsados;
+        this.capacidadeBytes = capacidadeBytes;
+        this.conflitosAbertos = conflitosAbertos;
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public long getBytesPendentes() {
+        return bytesPendentes;
+    }
+
+    public void setBytesPendentes(long bytesPendentes) {
+        this.bytesPendentes = bytesPendentes;
+    }
+
+    public long getBytesUsados() {
+        return bytesUsados;
+    }
+
+    public void setBytesUsados(long bytesUsados) {
+        this.bytesUsados = bytesUsados;
+    }
+
+    public long getCapacidadeBytes() {
+        return capacidadeBytes;
+    }
+
+    public void setCapacidadeBytes(long capacidadeBytes) {
+        this.capacidadeBytes = capacidadeBytes;
+    }
+
+    public long getConflitosAbertos() {
+        return conflitosAbertos;
+    }
+
+    public void setConflitosAbertos(long conflitosAbertos) {
+        this.conflitosAbertos = conflitosAbertos;
+    }
+}
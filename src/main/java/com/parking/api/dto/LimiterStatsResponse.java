@@ -0,0 +1,71 @@
+package com.parking.api.dto;
+
+public class LimiterStatsResponse {
+
+    private int limite;
+    private int emAndamento;
+    private double latenciaReferenciaMs;
+    private long recusadasCriticas;
+    private long recusadasNormais;
+    private long recusadasBaixas;
+
+    public LimiterStatsResponse() {}
+
+    public LimiterStatsResponse(int limite, int emAndamento, double latenciaReferenciaMs,
+                                long recusadasCriticas, long recusadasNormais, long recusadasBaixas) {
+        this.limite = limite;
+        this.emAndamento = emAndamento;
+        this.latenciaReferenciaMs = latenciaReferenciaMs;
+        this.recusadasCriticas = recusadasCriticas;
+        this.recusadasNormais = recusadasNormais;
+        this.recusadasBaixas = recusadasBaixas;
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public void setLimite(int limite) {
+        this.limite = limite;
+    }
+
+    public int getEmAndamento() {
+        return emAndamento;
+    }
+
+    public void setEmAndamento(int emAndamento) {
+        this.emAndamento = emAndamento;
+    }
+
+    public double getLatenciaReferenciaMs() {
+        return latenciaReferenciaMs;
+    }
+
+    public void setLatenciaReferenciaMs(double latenciaReferenciaMs) {
+        this.latenciaReferenciaMs = latenciaReferenciaMs;
+    }
+
+    public long getRecusadasCriticas() {
+        return recusadasCriticas;
+    }
+
+    public void setRecusadasCriticas(long recusadasCriticas) {
+        this.recusadasCriticas = recusadasCriticas;
+    }
+
+    public long getRecusadasNormais() {
+        return recusadasNormais;
+    }
+
+    public void setRecusadasNormais(long recusadasNormais) {
+        this.recusadasNormais = recusadasNormais;
+    }
+
+    public long getRecusadasBaixas() {
+        return recusadasBaixas;
+    }
+
+    public void setRecusadasBaixas(long recusadasBaixas) {
+        this.recusadasBaixas = recusadasBaixas;
+    }
+}
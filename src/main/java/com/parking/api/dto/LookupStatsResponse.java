@@ -0,0 +1,59 @@
+package com.parking.api.dto;
+
+public class LookupStatsResponse {
+
+    private Counters porId;
+    private Counters porPlaca;
+
+    public LookupStatsResponse() {}
+
+    public LookupStatsResponse(Counters porId, Counters porPlaca) {
+        this.porId = porId;
+        this.porPlaca = porPlaca;
+    }
+
+    public Counters getPorId() {
+        return porId;
+    }
+
+    public void setPorId(Counters porId) {
+        this.porId = porId;
+    }
+
+    public Counters getPorPlaca() {
+        return porPlaca;
+    }
+
+    public void setPorPlaca(Counters porPlaca) {
+        this.porPlaca = porPlaca;
+    }
+
+    public static class Counters {
+
+        private long consultas;
+        private long agrupadas;
+
+        public Counters() {}
+
+        public Counters(long consultas, long agrupadas) {
+            this.consultas = consultas;
+            this.agrupadas = agrupadas;
+        }
+
+        public long getConsultas() {
+            return consultas;
+        }
+
+        public void setConsultas(long consultas) {
+            this.consultas = consultas;
+        }
+
+        public long getAgrupadas() {
+            return agrupadas;
+        }
+
+        public void setAgrupadas(long agrupadas) {
+            this.agrupadas = agrupadas;
+        }
+    }
+}
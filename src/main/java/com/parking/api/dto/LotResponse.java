@@ -0,0 +1,130 @@
+package com.parking.api.dto;
+
+import java.util.List;
+
+public class LotResponse {
+
+    private Long id;
+    private String nome;
+    private int capacidade;
+    private int ocupadas;
+    private int livres;
+    private boolean somenteMensalistas;
+    private List<LevelResponse> niveis;
+
+    public LotResponse() {}
+
+    public LotResponse(Long id, String nome, int capacidade, int ocupadas, List<LevelResponse> niveis) {
+        this.id = id;
+        this.nome = nome;
+        this.capacidade = capacidade;
+        this.ocupadas = ocupadas;
+        this.livres = capacidade - ocupadas;
+        this.niveis = niveis;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    public void setCapacidade(int capacidade) {
+        this.capacidade = capacidade;
+    }
+
+    public int getOcupadas() {
+        return ocupadas;
+    }
+
+    public void setOcupadas(int ocupadas) {
+        this.ocupadas = ocupadas;
+    }
+
+    public int getLivres() {
+        return livres;
+    }
+
+    public void setLivres(int livres) {
+        this.livres = livres;
+    }
+
+    public boolean isSomenteMensalistas() {
+        return somenteMensalistas;
+    }
+
+    public void setSomenteMensalistas(boolean somenteMensalistas) {
+        this.somenteMensalistas = somenteMensalistas;
+    }
+
+    public List<LevelResponse> getNiveis() {
+        return niveis;
+    }
+
+    public void setNiveis(List<LevelResponse> niveis) {
+        this.niveis = niveis;
+    }
+
+    public static class LevelResponse {
+
+        private String nome;
+        private int primeiraVaga;
+        private int capacidade;
+        private int livres;
+
+        public LevelResponse() {}
+
+        public LevelResponse(String nome, int primeiraVaga, int capacidade, int livres) {
+            this.nome = nome;
+            this.primeiraVaga = primeiraVaga;
+            this.capacidade = capacidade;
+            this.livres = livres;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+
+        public void setNome(String nome) {
+            this.nome = nome;
+        }
+
+        public int getPrimeiraVaga() {
+            return primeiraVaga;
+        }
+
+        public void setPrimeiraVaga(int primeiraVaga) {
+            this.primeiraVaga = primeiraVaga;
+        }
+
+        public int getCapacidade() {
+            return capacidade;
+        }
+
+        public void setCapacidade(int capacidade) {
+            this.capacidade = capacidade;
+        }
+
+        public int getLivres() {
+            return livres;
+        }
+
+        public void setLivres(int livres) {
+            this.livres = livres;
+        }
+    }
+}
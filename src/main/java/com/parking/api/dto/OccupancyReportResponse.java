@@ -0,0 +1,132 @@
+package com.parking.api.dto;
+
+import com.parking.api.model.OccupancyRollup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class OccupancyReportResponse {
+
+    private Long lotId;
+    private OccupancyRollup.Granularidade granularidade;
+    private LocalDate from;
+    private LocalDate to;
+    private LocalDateTime atualizadoAte;
+    private List<PointResponse> pontos;
+
+    public OccupancyReportResponse() {}
+
+    public OccupancyReportResponse(Long lotId, OccupancyRollup.Granularidade granularidade, LocalDate from, LocalDate to,
+                                   LocalDateTime atualizadoAte, List<PointResponse> pontos) {
+        this.lotId = lotId;
+        this.granularidade = granularidade;
+        this.from = from;
+        this.to = to;
+        this.atualizadoAte = atualizadoAte;
+        this.pontos = pontos;
+    }
+
+    public Long getLotId() {
+        return lotId;
+    }
+
+    public void setLotId(Long lotId) {
+        this.lotId = lotId;
+    }
+
+    public OccupancyRollup.Granularidade getGranularidade() {
+        return granularidade;
+    }
+
+    public void setGranularidade(OccupancyRollup.Granularidade granularidade) {
+        this.granularidade = granularidade;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    /**
+     * Saída mais recente já incluída nos agregados
+     */
+    public LocalDateTime getAtualizadoAte() {
+        return atualizadoAte;
+    }
+
+    public void setAtualizadoAte(LocalDateTime atualizadoAte) {
+        this.atualizadoAte = atualizadoAte;
+    }
+
+    public List<PointResponse> getPontos() {
+        return pontos;
+    }
+
+    public void setPontos(List<PointResponse> pontos) {
+        this.pontos = pontos;
+    }
+
+    public static class PointResponse {
+
+        private LocalDateTime inicio;
+        private long entradas;
+        private long saidas;
+        private double ocupacaoMedia;
+
+        public PointResponse() {}
+
+        public PointResponse(LocalDateTime inicio, long entradas, long saidas, double ocupacaoMedia) {
+            this.inicio = inicio;
+            this.entradas = entradas;
+            this.saidas = saidas;
+            this.ocupacaoMedia = ocupacaoMedia;
+        }
+
+        public LocalDateTime getInicio() {
+            return inicio;
+        }
+
+        public void setInicio(LocalDateTime inicio) {
+            this.inicio = inicio;
+        }
+
+        public long getEntradas() {
+            return entradas;
+        }
+
+        public void setEntradas(long entradas) {
+            this.entradas = entradas;
+        }
+
+        public long getSaidas() {
+            return saidas;
+        }
+
+        public void setSaidas(long saidas) {
+            this.saidas = saidas;
+        }
+
+        /**
+         * Média de carros estacionados no período
+         */
+        public double getOcupacaoMedia() {
+            return ocupacaoMedia;
+        }
+
+        public void setOcupacaoMedia(double ocupacaoMedia) {
+            this.ocupacaoMedia = ocupacaoMedia;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.parking.api.dto;
+
+import java.util.List;
+
+public class OccupancyStatsResponse {
+
+    private Long lotId;
+    private long ocupadas;
+    private long entradasHoje;
+    private long saidasHoje;
+    private List<Long> entradasPorHora;
+    private List<Long> saidasPorHora;
+    private DwellResponse permanencia;
+
+    public OccupancyStatsResponse() {}
+
+    public OccupancyStatsResponse(Long lotId, long ocupadas, List<Long> entradasPorHora, List<Long> saidasPorHora,
+                                  DwellResponse permanencia) {
+        this.lotId = lotId;
+        this.ocupadas = ocupadas;
+        this.entradasHoje = entradasPorHora.stream().mapToLong(Long::longValue).sum();
+        this.saidasHoje = saidasPorHora.stream().mapToLong(Long::longValue).sum();
+        this.entradasPorHora = entradasPorHora;
+        this.saidasPorHora = saidasPorHora;
+        this.permanencia = permanencia;
+    }
+
+    public Long getLotId() {
+        return lotId;
+    }
+
+    public void setLotId(Long lotId) {
+        this.lotId = lotId;
+    }
+
+    public long getOcupadas() {
+        return ocupadas;
+    }
+
+    public void setOcupadas(long ocupadas) {
+        this.ocupadas = ocupadas;
+    }
+
+    public long getEntradasHoje() {
+        return entradasHoje;
+    }
+
+    public void setEntradasHoje(long entradasHoje) {
+        this.entradasHoje = entradasHoje;
+    }
+
+    public long getSaidasHoje() {
+        return saidasHoje;
+    }
+
+    public void setSaidasHoje(long saidasHoje) {
+        this.saidasHoje = saidasHoje;
+    }
+
+    public List<Long> getEntradasPorHora() {
+        return entradasPorHora;
+    }
+
+    public void setEntradasPorHora(List<Long> entradasPorHora) {
+        this.entradasPorHora = entradasPorHora;
+    }
+
+    public List<Long> getSaidasPorHora() {
+        return saidasPorHora;
+    }
+
+    public void setSaidasPorHora(List<Long> saidasPorHora) {
+        this.saidasPorHora = saidasPorHora;
+    }
+
+    public DwellResponse getPermanencia() {
+        return permanencia;
+    }
+
+    public void setPermanencia(DwellResponse permanencia) {
+        this.permanencia = permanencia;
+    }
+
+    public static class DwellResponse {
+
+        private long amostras;
+        private double mediaMinutos;
+        private double p50Minutos;
+        private double p95Minutos;
+
+        public DwellResponse() {}
+
+        public DwellResponse(long amostras, double mediaMinutos, double p50Minutos, double p95Minutos) {
+            this.amostras = amostras;
+            this.mediaMinutos = mediaMinutos;
+            this.p50Minutos = p50Minutos;
+            this.p95Minutos = p95Minutos;
+        }
+
+        public long getAmostras() {
+            return amostras;
+        }
+
+        public void setAmostras(long amostras) {
+            this.amostras = amostras;
+        }
+
+        public double getMediaMinutos() {
+            return mediaMinutos;
+        }
+
+        public void setMediaMinutos(double mediaMinutos) {
+            this.mediaMinutos = mediaMinutos;
+        }
+
+        public double getP50Minutos() {
+            return p50Minutos;
+        }
+
+        public void setP50Minutos(double p50Minutos) {
+            this.p50Minutos = p50Minutos;
+        }
+
+        public double getP95Minutos() {
+            return p95Minutos;
+        }
+
+        public void setP95Minutos(double p95Minutos) {
+            this.p95Minutos = p95Minutos;
+        }
+    }
+}
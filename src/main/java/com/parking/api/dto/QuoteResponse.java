@@ -0,0 +1,97 @@
+package com.parking.api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class QuoteResponse {
+
+    private Long carId;
+    private String placa;
+    private Long tarifaId;
+    private String tarifa;
+    private LocalDateTime dataEntrada;
+    private LocalDateTime calculadoAte;
+    private long minutos;
+    private BigDecimal valor;
+
+    public QuoteResponse() {}
+
+    public QuoteResponse(Long carId, String placa, Long tarifaId, String tarifa, LocalDateTime dataEntrada,
+                         LocalDateTime calculadoAte, long minutos, BigDecimal valor) {
+        this.carId = carId;
+        this.placa = placa;
+        this.tarifaId = tarifaId;
+        this.tarifa = tarifa;
+        this.dataEntrada = dataEntrada;
+        this.calculadoAte = calculadoAte;
+        this.minutos = minutos;
+        this.valor = valor;
+    }
+
+    public Long getCarId() {
+        return carId;
+    }
+
+    public void setCarId(Long carId) {
+        this.carId = carId;
+    }
+
+    public String getPlaca() {
+        return placa;
+    }
+
+    public void setPlaca(String placa) {
+        this.placa = placa;
+    }
+
+    public Long getTarifaId() {
+        return tarifaId;
+    }
+
+    public void setTarifaId(Long tarifaId) {
+        this.tarifaId = tarifaId;
+    }
+
+    public String getTarifa() {
+        return tarifa;
+    }
+
+    public void setTarifa(String tarifa) {
+        this.tarifa = tarifa;
+    }
+
+    public LocalDateTime getDataEntrada() {
+        return dataEntrada;
+    }
+
+    public void setDataEntrada(LocalDateTime dataEntrada) {
+        this.dataEntrada = dataEntrada;
+    }
+
+    /**
+     * Saída registrada, ou o instante do cálculo se o carro ainda estiver estacionado
+     */
+    public LocalDateTime getCalculadoAte() {
+        return calculadoAte;
+    }
+
+    public void setCalculadoAte(LocalDateTime calculadoAte) {
+        this.calculadoAte = calculadoAte;
+    }
+
+    public long getMinutos() {
+        return minutos;
+    }
+
+    public void setMinutos(long minutos) {
+        this.minutos = minutos;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+}
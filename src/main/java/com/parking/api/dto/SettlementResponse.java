@@ -0,0 +1,159 @@
+package com.parking.api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class SettlementResponse {
+
+    private LocalDate dia;
+    private LocalDateTime geradoEm;
+    private boolean persistido;
+    private long sessoes;
+    private BigDecimal total;
+    private List<LineResponse> porEstacionamento;
+    private List<LineResponse> porTarifa;
+    private List<LineResponse> porHora;
+    private List<LineResponse> porOperador;
+
+    public SettlementResponse() {}
+
+    public SettlementResponse(LocalDate dia, LocalDateTime geradoEm, boolean persistido, long sessoes, BigDecimal total,
+                              List<LineResponse> porEstacionamento, List<LineResponse> porTarifa,
+                              List<LineResponse> porHora, List<LineResponse> porOperador) {
+        this.dia = dia;
+        this.geradoEm = geradoEm;
+        this.persistido = persistido;
+        this.sessoes = sessoes;
+        this.total = total;
+        this.porEstacionamento = porEstacionamento;
+        this.porTarifa = porTarifa;
+        this.porHora = porHora;
+        this.porOperador = porOperador;
+    }
+
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public void setDia(LocalDate dia) {
+        this.dia = dia;
+    }
+
+    public LocalDateTime getGeradoEm() {
+        return geradoEm;
+    }
+
+    public void setGeradoEm(LocalDateTime geradoEm) {
+        this.geradoEm = geradoEm;
+    }
+
+    /**
+     * Se o fechamento foi gravado (pelo job diário ou por POST) ou calculado agora
+     */
+    public boolean isPersistido() {
+        return persistido;
+    }
+
+    public void setPersistido(boolean persistido) {
+        this.persistido = persistido;
+    }
+
+    public long getSessoes() {
+        return sessoes;
+    }
+
+    public void setSessoes(long sessoes) {
+        this.sessoes = sessoes;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public List<LineResponse> getPorEstacionamento() {
+        return porEstacionamento;
+    }
+
+    public void setPorEstacionamento(List<LineResponse> porEstacionamento) {
+        this.porEstacionamento = porEstacionamento;
+    }
+
+    public List<LineResponse> getPorTarifa() {
+        return porTarifa;
+    }
+
+    public void setPorTarifa(List<LineResponse> porTarifa) {
+        this.porTarifa = porTarifa;
+    }
+
+    public List<LineResponse> getPorHora() {
+        return porHora;
+    }
+
+    public void setPorHora(List<LineResponse> porHora) {
+        this.porHora = porHora;
+    }
+
+    public List<LineResponse> getPorOperador() {
+        return porOperador;
+    }
+
+    public void setPorOperador(List<LineResponse> porOperador) {
+        this.porOperador = porOperador;
+    }
+
+    public static class LineResponse {
+
+        private String chave;
+        private String descricao;
+        private long sessoes;
+        private BigDecimal total;
+
+        public LineResponse() {}
+
+        public LineResponse(String chave, String descricao, long sessoes, BigDecimal total) {
+            this.chave = chave;
+            this.descricao = descricao;
+            this.sessoes = sessoes;
+            this.total = total;
+        }
+
+        public String getChave() {
+            return chave;
+        }
+
+        public void setChave(String chave) {
+            this.chave = chave;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+
+        public void setDescricao(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public long getSessoes() {
+            return sessoes;
+        }
+
+        public void setSessoes(long sessoes) {
+            this.sessoes = sessoes;
+        }
+
+        public BigDecimal getTotal() {
+            return total;
+        }
+
+        public void setTotal(BigDecimal total) {
+            this.total = total;
+        }
+    }
+}
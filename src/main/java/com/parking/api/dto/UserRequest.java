@@ -12,6 +12,18 @@ public class UserRequest {
 
     private String role = "USER";
 
+    private Long lotId;
+
+    /**
+     * Torna o usuário global (sem estacionamento); só usuários globais podem pedir
+     */
+    private boolean global;
+
+    /**
+     * Versão lida pelo cliente; se informada e diferente da atual, a alteração é recusada com 409
+     */
+    private Long version;
+
     public UserRequest() {}
 
     public UserRequest(String username, String password, String role) {
@@ -43,4 +55,28 @@ public class UserRequest {
     public void setRole(String role) {
         this.role = role;
     }
+
+    public Long getLotId() {
+        return lotId;
+    }
+
+    public void setLotId(Long lotId) {
+        this.lotId = lotId;
+    }
+
+    public boolean isGlobal() {
+        return global;
+    }
+
+    public void setGlobal(boolean global) {
+        this.global = global;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -8,6 +8,9 @@ public class UserResponse {
     private Long id;
     private String username;
     private String role;
+    private Long lotId;
+
+    private Long version;
     private LocalDateTime createdAt;
 
     public UserResponse() {}
@@ -20,12 +23,15 @@ public class UserResponse {
     }
 
     public static UserResponse fromUser(User user) {
-        return new UserResponse(
+        UserResponse response = new UserResponse(
             user.getId(),
             user.getUsername(),
             user.getRole(),
             user.getCreatedAt()
         );
+        response.setLotId(user.getLotId());
+        response.setVersion(user.getVersion());
+        return response;
     }
 
     public Long getId() {
@@ -52,6 +58,22 @@ public class UserResponse {
         this.role = role;
     }
 
+    public Long getLotId() {
+        return lotId;
+    }
+
+    public void setLotId(Long lotId) {
+        this.lotId = lotId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,42 @@
+package com.parking.api.event;
+
+import com.parking.api.model.Car;
+
+/**
+ * Evento publicado pelo CarService a cada alteração de um carro.
+ * <p>
+ * {@code before} e {@code after} são cópias desacopladas da entidade gerenciada:
+ * {@code before} é nulo em uma entrada e {@code after} é nulo em uma remoção.
+ */
+public record CarEvent(Type type, Car before, Car after) {
+
+    public enum Type {
+        ENTRY,
+        UPDATE,
+        EXIT,
+        DELETE
+    }
+
+    public static CarEvent entry(Car car) {
+        return new CarEvent(Type.ENTRY, null, Car.copyOf(car));
+    }
+
+    public static CarEvent update(Car before, Car after) {
+        return new CarEvent(Type.UPDATE, before, Car.copyOf(after));
+    }
+
+    public static CarEvent exit(Car before, Car after) {
+        return new CarEvent(Type.EXIT, before, Car.copyOf(after));
+    }
+
+    public static CarEvent delete(Car car) {
+        return new CarEvent(Type.DELETE, Car.copyOf(car), null);
+    }
+
+    /**
+     * Estado mais recente do carro (após a alteração, ou o último estado conhecido em uma remoção)
+     */
+    public Car current() {
+        return after != null ? after : before;
+    }
+}
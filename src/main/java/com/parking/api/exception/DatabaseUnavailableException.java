@@ -0,0 +1,12 @@
+package com.parking.api.exception;
+
+/**
+ * Banco de dados indisponível (disjuntor aberto ou falha de conexão); respondido como
+ * {@code 503} com {@code Retry-After}, como as demais recusas por sobrecarga
+ */
+public class DatabaseUnavailableException extends ServiceOverloadedException {
+
+    public DatabaseUnavailableException(String message, long retryAfterSeconds) {
+        super(message, retryAfterSeconds);
+    }
+}
@@ -0,0 +1,8 @@
+package com.parking.api.exception;
+
+public class InvalidPlacaException extends RuntimeException {
+
+    public InvalidPlacaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.parking.api.exception;
+
+public class LotFullException extends RuntimeException {
+
+    public LotFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.parking.api.exception;
+
+public class ReservationConflictException extends RuntimeException {
+
+    public ReservationConflictException(String message) {
+        super(message);
+    }
+}
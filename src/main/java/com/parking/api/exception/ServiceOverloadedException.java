@@ -0,0 +1,18 @@
+package com.parking.api.exception;
+
+/**
+ * Requisição recusada por sobrecarga; o cliente deve tentar de novo depois de {@link #getRetryAfterSeconds()}
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
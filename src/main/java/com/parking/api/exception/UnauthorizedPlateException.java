@@ -0,0 +1,8 @@
+package com.parking.api.exception;
+
+public class UnauthorizedPlateException extends RuntimeException {
+
+    public UnauthorizedPlateException(String message) {
+        super(message);
+    }
+}
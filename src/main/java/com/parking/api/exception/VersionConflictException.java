@@ -0,0 +1,19 @@
+package com.parking.api.exception;
+
+/**
+ * Alteração feita sobre uma versão que já não é a atual; carrega o estado atual do registro para
+ * que o cliente possa reaplicar a alteração
+ */
+public class VersionConflictException extends RuntimeException {
+
+    private final transient Object atual;
+
+    public VersionConflictException(String message, Object atual) {
+        super(message);
+        this.atual = atual;
+    }
+
+    public Object getAtual() {
+        return atual;
+    }
+}
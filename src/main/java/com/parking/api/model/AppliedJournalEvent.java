@@ -0,0 +1,27 @@
+package com.parking.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento do diário já aplicado (ou enviado à fila do operador), gravado na mesma transação que a
+ * alteração para que reprocessar o diário depois de uma queda não aplique o evento duas vezes
+ */
+@Entity
+@Table(name = "journal_applied")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppliedJournalEvent {
+
+    @Id
+    @Column(length = 36)
+    private String eventId;
+
+    @Column(nullable = false)
+    private LocalDateTime aplicadoEm;
+}
@@ -0,0 +1,83 @@
+package com.parking.api.model;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Alteração de um carro ou usuário: quem fez, quando e o que mudou. Gravado em lotes pelo
+ * AuditLog, fora da thread da requisição; nunca é alterado nem apagado pela API.
+ */
+@Entity
+@Immutable
+@Table(name = "audit_log", indexes = {
+        @Index(name = "idx_audit_log_entidade", columnList = "entidade, entidade_id"),
+        @Index(name = "idx_audit_log_usuario", columnList = "usuario_id"),
+        @Index(name = "idx_audit_log_ocorrido_em", columnList = "ocorrido_em")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditEntry {
+
+    public enum Entidade {
+        CAR,
+        USER
+    }
+
+    public enum Acao {
+        CREATE,
+        ENTRY,
+        UPDATE,
+        EXIT,
+        DELETE,
+        PASSWORD_CHANGE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Entidade entidade;
+
+    @Column(nullable = false)
+    private Long entidadeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Acao acao;
+
+    @Column(name = "lot_id")
+    private Long lotId;
+
+    /**
+     * Usuário autenticado que fez a alteração; nulo sem autenticação ou em tarefas do servidor
+     */
+    private Long usuarioId;
+
+    /**
+     * Operador informado no cabeçalho {@code X-Operador}
+     */
+    @Column(length = 100)
+    private String operador;
+
+    @Column(length = 45)
+    private String ip;
+
+    /**
+     * Campos alterados, em JSON: {@code {"campo": {"de": ..., "para": ...}}}
+     */
+    @JsonRawValue
+    @Column(nullable = false, length = 4000)
+    private String alteracoes;
+
+    @Column(nullable = false)
+    private LocalDateTime ocorridoEm;
+}
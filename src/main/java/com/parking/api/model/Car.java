@@ -1,15 +1,24 @@
 package com.parking.api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.parking.api.validation.Placa;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.beans.BeanUtils;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "cars")
+@Table(name = "cars", indexes = {
+        @Index(name = "idx_cars_lot_placa", columnList = "lot_id, placa"),
+        @Index(name = "idx_cars_lot_data_saida", columnList = "lot_id, data_saida"),
+        @Index(name = "idx_cars_data_saida_id", columnList = "data_saida, id"),
+        @Index(name = "idx_cars_saida_registrada_em_id", columnList = "saida_registrada_em, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -28,7 +37,8 @@ public class Car {
     private String cor;
 
     @NotBlank(message = "Placa é obrigatória")
-    @Column(nullable = false, unique = true, length = 10)
+    @Placa
+    @Column(nullable = false, length = 10)
     private String placa;
 
     @NotBlank(message = "Nome do proprietário é obrigatório")
@@ -41,8 +51,86 @@ public class Car {
     @Column
     private LocalDateTime dataSaida;
 
+    /**
+     * Quando a saída foi gravada no banco; fica depois de {@code dataSaida} nas saídas aplicadas do
+     * diário da cancela. Os agregados de ocupação processam as saídas nessa ordem
+     */
+    @JsonIgnore
+    @Column
+    private LocalDateTime saidaRegistradaEm;
+
+    /**
+     * Estacionamento do registro; no PostgreSQL, chave de particionamento da tabela {@code cars}
+     */
+    @Column(name = "lot_id")
+    private Long lotId;
+
+    /**
+     * Vaga ocupada no estacionamento, numerada de 0 em diante na ordem dos níveis
+     */
+    @Column
+    private Integer vaga;
+
+    /**
+     * Tarifa aplicada na saída
+     */
+    @Column
+    private Long tarifaId;
+
+    /**
+     * Valor calculado na saída pela tarifa do estacionamento
+     */
+    @Column(precision = 10, scale = 2)
+    private BigDecimal valorPago;
+
+    /**
+     * Operador que registrou a saída (cabeçalho {@code X-Operador})
+     */
+    @Column(length = 100)
+    private String operadorSaida;
+
+    /**
+     * Reserva utilizada na entrada, se houver
+     */
+    @Column
+    private Long reservaId;
+
+    /**
+     * Entrada da lista de monitoramento que corresponde à placa, registrada após a entrada
+     */
+    @Column
+    private Long watchlistId;
+
+    @Column(length = 200)
+    private String motivoWatchlist;
+
+    /**
+     * Versão do registro para detectar alterações concorrentes; enviada de volta no {@code PUT}
+     * para que uma edição sobre um estado antigo seja recusada
+     */
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long versao;
+
+    /**
+     * Sem horário informado pelo servidor (entradas aplicadas do diário da cancela), a entrada é agora
+     */
     @PrePersist
     protected void onCreate() {
-        dataEntrada = LocalDateTime.now();
+        if (dataEntrada == null) {
+            dataEntrada = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Cria uma cópia desacoplada do carro, fora do contexto de persistência
+     */
+    public static Car copyOf(Car source) {
+        if (source == null) {
+            return null;
+        }
+        Car copy = new Car();
+        BeanUtils.copyProperties(source, copy);
+        return copy;
     }
 }
@@ -0,0 +1,57 @@
+package com.parking.api.model;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.parking.api.event.CarEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro imutável de um {@link CarEvent}, gravado na mesma transação que a alteração do carro.
+ * <p>
+ * A sequência de registros é o histórico completo de cada carro e a origem do estado em memória
+ * dos carros estacionados: o estado é o último {@link OccupancySnapshot} mais os registros
+ * posteriores. Registros nunca são alterados nem apagados.
+ */
+@Entity
+@Immutable
+@Table(name = "car_events", indexes = {
+        @Index(name = "idx_car_events_car", columnList = "car_id, id"),
+        @Index(name = "idx_car_events_registrado_em", columnList = "registrado_em")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarEventRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private CarEvent.Type tipo;
+
+    @Column(nullable = false)
+    private Long carId;
+
+    @Column(name = "lot_id")
+    private Long lotId;
+
+    @Column(length = 10)
+    private String placa;
+
+    /**
+     * Carro depois da alteração (na remoção, o último estado), em JSON
+     */
+    @JsonRawValue
+    @Column(nullable = false, length = 4000)
+    private String estado;
+
+    @Column(nullable = false)
+    private LocalDateTime registradoEm;
+}
@@ -0,0 +1,44 @@
+package com.parking.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fechamento de caixa de um dia: total das permanências encerradas no dia e o detalhamento
+ * por estacionamento, tarifa, hora da saída e operador
+ */
+@Entity
+@Table(name = "daily_settlements")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySettlement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private LocalDate dia;
+
+    @Column(nullable = false)
+    private LocalDateTime geradoEm;
+
+    @Column(nullable = false)
+    private long sessoes;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal total;
+
+    @OneToMany(mappedBy = "settlement", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OrderBy("dimensao ASC, id ASC")
+    private List<SettlementLine> linhas = new ArrayList<>();
+}
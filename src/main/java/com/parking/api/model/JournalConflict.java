@@ -0,0 +1,60 @@
+package com.parking.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de cancela aceito no diário durante uma queda do banco que não pôde ser aplicado depois
+ * (por exemplo, placa já estacionada ou carro inexistente); fica na fila do operador até ser resolvido
+ */
+@Entity
+@Table(name = "journal_conflicts", indexes = {
+        @Index(name = "idx_journal_conflicts_resolvido", columnList = "resolvido")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalConflict {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 36)
+    private String eventId;
+
+    @Column(nullable = false, length = 10)
+    private String tipo;
+
+    @Column(name = "lot_id")
+    private Long lotId;
+
+    private Long carId;
+
+    @Column(length = 10)
+    private String placa;
+
+    @Column(nullable = false)
+    private LocalDateTime ocorridoEm;
+
+    @Column(nullable = false, length = 500)
+    private String motivo;
+
+    /**
+     * Evento original, em JSON
+     */
+    @Column(nullable = false, length = 2000)
+    private String evento;
+
+    @Column(nullable = false)
+    private LocalDateTime criadoEm;
+
+    @Column(nullable = false)
+    private boolean resolvido;
+
+    private LocalDateTime resolvidoEm;
+}
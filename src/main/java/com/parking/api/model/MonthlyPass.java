@@ -0,0 +1,71 @@
+package com.parking.api.model;
+
+import com.parking.api.validation.Placa;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Mensalidade (ou autorização permanente) de uma placa em um estacionamento, ou em todos quando
+ * {@code lotId} é nulo, válida de {@code validoDe} a {@code validoAte}, inclusive
+ */
+@Entity
+@Table(name = "monthly_passes", indexes = {
+        @Index(name = "idx_monthly_passes_placa", columnList = "placa"),
+        @Index(name = "idx_monthly_passes_lot", columnList = "lot_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyPass {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "Placa é obrigatória")
+    @Placa
+    @Column(nullable = false, length = 10)
+    private String placa;
+
+    @NotBlank(message = "Nome do titular é obrigatório")
+    @Column(nullable = false)
+    private String titular;
+
+    @Column(name = "lot_id")
+    private Long lotId;
+
+    @NotNull(message = "Início da validade é obrigatório")
+    @Column(nullable = false)
+    private LocalDate validoDe;
+
+    /**
+     * Último dia de validade; nulo para autorizações sem prazo
+     */
+    @Column
+    private LocalDate validoAte;
+
+    @Column(nullable = false)
+    private boolean ativo = true;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime criadoEm;
+
+    @PrePersist
+    protected void onCreate() {
+        criadoEm = LocalDateTime.now();
+    }
+
+    /**
+     * Se a mensalidade está ativa e vale no dia informado
+     */
+    public boolean isValidOn(LocalDate dia) {
+        return ativo && !dia.isBefore(validoDe) && (validoAte == null || !dia.isAfter(validoAte));
+    }
+}
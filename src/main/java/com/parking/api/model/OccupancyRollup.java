@@ -0,0 +1,71 @@
+package com.parking.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Agregado de ocupação de um estacionamento em uma hora ou em um dia.
+ * <p>
+ * Preenchido pelo job de rollup a partir das permanências encerradas: a entrada conta no período
+ * em que ocorreu, a saída no período da saída, e o tempo estacionado é distribuído entre todos os
+ * períodos que a permanência atravessou.
+ */
+@Entity
+@Table(name = "occupancy_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_occupancy_rollups_lot_bucket", columnNames = {"lot_id", "granularidade", "inicio"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancyRollup {
+
+    public enum Granularidade {
+        HOUR,
+        DAY;
+
+        /**
+         * Converte o parâmetro da API ({@code hour} ou {@code day}, sem diferenciar maiúsculas)
+         */
+        public static Granularidade parse(String value) {
+            for (Granularidade granularidade : values()) {
+                if (granularidade.name().equalsIgnoreCase(value)) {
+                    return granularidade;
+                }
+            }
+            throw new IllegalArgumentException("Granularidade inválida: " + value + " (use 'hour' ou 'day')");
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "lot_id", nullable = false)
+    private Long lotId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Granularidade granularidade;
+
+    /**
+     * Início do período (hora cheia ou meia-noite)
+     */
+    @Column(nullable = false)
+    private LocalDateTime inicio;
+
+    @Column(nullable = false)
+    private long entradas;
+
+    @Column(nullable = false)
+    private long saidas;
+
+    /**
+     * Soma dos segundos que cada carro permaneceu estacionado dentro do período
+     */
+    @Column(nullable = false)
+    private long segundosOcupados;
+}
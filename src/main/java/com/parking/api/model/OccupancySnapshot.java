@@ -0,0 +1,38 @@
+package com.parking.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Carros estacionados em todos os estacionamentos depois de aplicados os {@link CarEventRecord}
+ * até {@code ultimoEvento}, inclusive; {@code dados} é a lista de carros em JSON compactado com GZIP
+ */
+@Entity
+@Table(name = "occupancy_snapshots", indexes = {
+        @Index(name = "idx_occupancy_snapshots_ultimo_evento", columnList = "ultimo_evento")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancySnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long ultimoEvento;
+
+    @Column(nullable = false)
+    private int carros;
+
+    @Column(nullable = false, length = 64 * 1024 * 1024)
+    private byte[] dados;
+
+    @Column(nullable = false)
+    private LocalDateTime criadoEm;
+}
@@ -0,0 +1,62 @@
+package com.parking.api.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.parking.api.event.CarEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mensagem para os sistemas externos (faturamento, câmeras), gravada na mesma transação que a
+ * alteração do carro e apagada depois de entregue a todos os destinos. A entrega é pelo menos uma
+ * vez: quem recebe deve descartar mensagens com {@code id} repetido.
+ */
+@Entity
+@Table(name = "outbox_messages", indexes = {
+        @Index(name = "idx_outbox_messages_proxima_tentativa", columnList = "proxima_tentativa, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private CarEvent.Type tipo;
+
+    @Column(nullable = false)
+    private Long carId;
+
+    @Column(name = "lot_id")
+    private Long lotId;
+
+    /**
+     * Carro depois da alteração (na remoção, o último estado), em JSON
+     */
+    @JsonRawValue
+    @Column(nullable = false, length = 4000)
+    private String carro;
+
+    @Column(nullable = false)
+    private LocalDateTime criadoEm;
+
+    @JsonIgnore
+    @Column(nullable = false)
+    private int tentativas;
+
+    @JsonIgnore
+    @Column(nullable = false)
+    private LocalDateTime proximaTentativa;
+
+    @JsonIgnore
+    @Column(length = 500)
+    private String ultimoErro;
+}
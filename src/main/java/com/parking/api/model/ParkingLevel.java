@@ -0,0 +1,45 @@
+package com.parking.api.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Nível (andar/setor) de um estacionamento. As vagas de um nível são numeradas de forma
+ * contígua dentro do estacionamento, na ordem dos níveis.
+ */
+@Entity
+@Table(name = "parking_levels")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParkingLevel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "lot_id", nullable = false)
+    private ParkingLot lot;
+
+    @NotBlank(message = "Nome do nível é obrigatório")
+    @Column(nullable = false, length = 50)
+    private String nome;
+
+    @Min(value = 0, message = "Capacidade não pode ser negativa")
+    @Column(nullable = false)
+    private int capacidade;
+
+    @Column(nullable = false)
+    private int ordem;
+}
@@ -0,0 +1,56 @@
+package com.parking.api.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(name = "parking_lots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParkingLot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "Nome do estacionamento é obrigatório")
+    @Column(nullable = false, unique = true, length = 100)
+    private String nome;
+
+    @Valid
+    @NotEmpty(message = "O estacionamento precisa de ao menos um nível")
+    @OneToMany(mappedBy = "lot", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OrderBy("ordem ASC")
+    private List<ParkingLevel> niveis = new ArrayList<>();
+
+    /**
+     * Se apenas placas com mensalidade válida podem entrar
+     */
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean somenteMensalistas;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Capacidade total do estacionamento (soma dos níveis)
+     */
+    public int getCapacidade() {
+        return niveis.stream().mapToInt(ParkingLevel::getCapacidade).sum();
+    }
+}
@@ -0,0 +1,27 @@
+package com.parking.api.model;
+
+/**
+ * Ações protegidas da API. A posição de cada constante é o bit correspondente na
+ * {@link com.parking.api.service.PermissionMatrix}, então novas permissões entram no fim.
+ */
+public enum Permission {
+    CARS_READ,
+    CARS_WRITE,
+    CARS_DELETE,
+    USERS_READ,
+    USERS_WRITE,
+    USERS_DELETE,
+    AUDIT_READ,
+    LOTS_WRITE,
+    TARIFFS_WRITE,
+    WATCHLIST_READ,
+    WATCHLIST_WRITE,
+    PASSES_READ,
+    PASSES_WRITE,
+    RESERVATIONS_READ,
+    RESERVATIONS_WRITE,
+    REPORTS_READ,
+    REPORTS_WRITE,
+    ALERTS_READ,
+    STATS_READ
+}
@@ -0,0 +1,70 @@
+package com.parking.api.model;
+
+import com.parking.api.validation.Placa;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reserva de vaga para uma placa em um período {@code [inicio, fim)}
+ */
+@Entity
+@Table(name = "reservations", indexes = {
+        @Index(name = "idx_reservations_lot_inicio", columnList = "lot_id, inicio"),
+        @Index(name = "idx_reservations_status_fim", columnList = "status, fim")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Reservation {
+
+    public enum Status {
+        ATIVA,
+        UTILIZADA,
+        CANCELADA,
+        EXPIRADA
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "Placa é obrigatória")
+    @Placa
+    @Column(nullable = false, length = 10)
+    private String placa;
+
+    @Column(name = "lot_id", nullable = false)
+    private Long lotId;
+
+    @NotNull(message = "Início da reserva é obrigatório")
+    @Column(nullable = false)
+    private LocalDateTime inicio;
+
+    @NotNull(message = "Fim da reserva é obrigatório")
+    @Column(nullable = false)
+    private LocalDateTime fim;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    /**
+     * Carro cuja entrada utilizou a reserva
+     */
+    @Column
+    private Long carId;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime criadoEm;
+
+    @PrePersist
+    protected void onCreate() {
+        criadoEm = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,27 @@
+package com.parking.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Token de acesso revogado antes de expirar (logout). A linha pode ser apagada depois de
+ * {@code expiraEm}, quando o token já não seria aceito de qualquer forma.
+ */
+@Entity
+@Table(name = "revoked_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @Column(length = 32)
+    private String jti;
+
+    @Column(nullable = false)
+    private LocalDateTime expiraEm;
+}
@@ -0,0 +1,39 @@
+package com.parking.api.model;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Perfis de usuário ({@link User#getRole()}) e as permissões que cada um recebe quando
+ * {@code parking.authz.roles.<PERFIL>} não está configurado
+ */
+public enum Role {
+    USER(EnumSet.of(Permission.CARS_READ, Permission.CARS_WRITE, Permission.PASSES_READ,
+            Permission.RESERVATIONS_READ, Permission.RESERVATIONS_WRITE, Permission.ALERTS_READ)),
+    ADMIN(EnumSet.allOf(Permission.class));
+
+    private final Set<Permission> defaults;
+
+    Role(Set<Permission> defaults) {
+        this.defaults = defaults;
+    }
+
+    public Set<Permission> defaults() {
+        return EnumSet.copyOf(defaults);
+    }
+
+    /**
+     * Perfil pelo nome, sem diferenciar maiúsculas; nulo se o nome não for de um perfil conhecido
+     */
+    public static Role parse(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
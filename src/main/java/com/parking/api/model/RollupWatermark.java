@@ -0,0 +1,37 @@
+package com.parking.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Posição até onde um job incremental já processou as permanências encerradas, ordenadas por
+ * ({@code saidaRegistradaEm}, {@code id})
+ */
+@Entity
+@Table(name = "rollup_watermarks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupWatermark {
+
+    @Id
+    @Column(length = 50)
+    private String nome;
+
+    /**
+     * A coluna mantém o nome de quando a ordem era por {@code dataSaida}: saídas anteriores ao
+     * {@code saidaRegistradaEm} recebem o próprio {@code dataSaida}, então a posição continua válida
+     */
+    @Column(name = "data_saida", nullable = false)
+    private LocalDateTime saidaRegistradaEm;
+
+    @Column(nullable = false)
+    private Long carId;
+
+    @Column
+    private LocalDateTime atualizadoEm;
+}
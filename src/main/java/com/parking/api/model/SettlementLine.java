@@ -0,0 +1,56 @@
+package com.parking.api.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * Total de um fechamento em uma dimensão (um estacionamento, uma tarifa, uma hora ou um operador)
+ */
+@Entity
+@Table(name = "settlement_lines")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementLine {
+
+    public enum Dimensao {
+        LOT,
+        TARIFF,
+        HOUR,
+        OPERATOR
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "settlement_id", nullable = false)
+    private DailySettlement settlement;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Dimensao dimensao;
+
+    @Column(nullable = false, length = 100)
+    private String chave;
+
+    @Column(length = 100)
+    private String descricao;
+
+    @Column(nullable = false)
+    private long sessoes;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal total;
+}
@@ -0,0 +1,83 @@
+package com.parking.api.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+
+/**
+ * Plano de tarifação de um estacionamento (ou de todos, quando {@code lotId} é nulo).
+ * <p>
+ * A primeira hora tem valor fixo; depois dela cada fração iniciada é cobrada, com valor noturno
+ * para as frações que começam dentro do período noturno. Permanências até a tolerância são
+ * gratuitas, e cada período de 24 horas a partir da entrada é limitado ao teto diário.
+ */
+@Entity
+@Table(name = "tariff_plans")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TariffPlan {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "Nome da tarifa é obrigatório")
+    @Column(nullable = false, length = 100)
+    private String nome;
+
+    /**
+     * Estacionamento do plano; nulo para o plano padrão de todos os estacionamentos
+     */
+    @Column(name = "lot_id")
+    private Long lotId;
+
+    @Min(value = 0, message = "Tolerância não pode ser negativa")
+    @Max(value = 1440, message = "Tolerância não pode passar de 24 horas")
+    @Column(nullable = false)
+    private int toleranciaMinutos;
+
+    @NotNull(message = "Valor da primeira hora é obrigatório")
+    @DecimalMin(value = "0.00", message = "Valor da primeira hora não pode ser negativo")
+    @Digits(integer = 8, fraction = 2, message = "Valor da primeira hora inválido")
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal valorPrimeiraHora;
+
+    @Min(value = 5, message = "Fração deve ter ao menos 5 minutos")
+    @Max(value = 60, message = "Fração deve ter no máximo 60 minutos")
+    @Column(nullable = false)
+    private int fracaoMinutos;
+
+    @NotNull(message = "Valor da fração é obrigatório")
+    @DecimalMin(value = "0.00", message = "Valor da fração não pode ser negativo")
+    @Digits(integer = 8, fraction = 2, message = "Valor da fração inválido")
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal valorFracao;
+
+    /**
+     * Teto por período de 24 horas; nulo para cobrança sem teto
+     */
+    @DecimalMin(value = "0.00", message = "Teto diário não pode ser negativo")
+    @Digits(integer = 8, fraction = 2, message = "Teto diário inválido")
+    @Column(precision = 10, scale = 2)
+    private BigDecimal tetoDiario;
+
+    /**
+     * Período noturno [início, fim), podendo atravessar a meia-noite; nulo para tarifa única
+     */
+    @Column
+    private LocalTime inicioNoturno;
+
+    @Column
+    private LocalTime fimNoturno;
+
+    @DecimalMin(value = "0.00", message = "Valor da fração noturna não pode ser negativo")
+    @Digits(integer = 8, fraction = 2, message = "Valor da fração noturna inválido")
+    @Column(precision = 10, scale = 2)
+    private BigDecimal valorFracaoNoturna;
+}
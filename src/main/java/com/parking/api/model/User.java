@@ -23,9 +23,22 @@ public class User {
     @Column(length = 20)
     private String role = "USER";
 
+    /**
+     * Estacionamento do usuário; nulo para usuários com acesso a todos os estacionamentos
+     */
+    @Column(name = "lot_id")
+    private Long lotId;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    /**
+     * Versão do registro para detectar alterações concorrentes
+     */
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     // Constructors
     public User() {}
 
@@ -68,6 +81,14 @@ public class User {
         this.role = role;
     }
 
+    public Long getLotId() {
+        return lotId;
+    }
+
+    public void setLotId(Long lotId) {
+        this.lotId = lotId;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -75,4 +96,12 @@ public class User {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,47 @@
+package com.parking.api.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Placa (ou padrão de placas) monitorada pela segurança. O padrão aceita {@code ?} para um
+ * caractere qualquer e {@code *} no fim para qualquer sufixo, por exemplo {@code ABC*} ou
+ * {@code ABC1?23}; sem curingas, é uma placa exata.
+ */
+@Entity
+@Table(name = "watchlist")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "Padrão da placa é obrigatório")
+    @Column(nullable = false, length = 10)
+    private String padrao;
+
+    @NotBlank(message = "Motivo é obrigatório")
+    @Size(max = 200, message = "Motivo deve ter no máximo 200 caracteres")
+    @Column(nullable = false, length = 200)
+    private String motivo;
+
+    @Column(nullable = false)
+    private boolean ativo = true;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime criadoEm;
+
+    @PrePersist
+    protected void onCreate() {
+        criadoEm = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,9 @@
+package com.parking.api.repository;
+
+import com.parking.api.model.AppliedJournalEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AppliedJournalEventRepository extends JpaRepository<AppliedJournalEvent, String> {
+}
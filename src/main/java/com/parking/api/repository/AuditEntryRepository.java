@@ -0,0 +1,32 @@
+package com.parking.api.repository;
+
+import com.parking.api.model.AuditEntry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface AuditEntryRepository extends JpaRepository<AuditEntry, Long> {
+
+    /**
+     * Registros do estacionamento (e os sem estacionamento) em [{@code from}, {@code to}); filtros
+     * nulos não restringem
+     */
+    @Query("SELECT a FROM AuditEntry a WHERE (a.lotId = :lotId OR a.lotId IS NULL) "
+            + "AND (:entidade IS NULL OR a.entidade = :entidade) "
+            + "AND (:entidadeId IS NULL OR a.entidadeId = :entidadeId) "
+            + "AND (:usuarioId IS NULL OR a.usuarioId = :usuarioId) "
+            + "AND a.ocorridoEm >= :from AND a.ocorridoEm < :to")
+    Page<AuditEntry> search(@Param("lotId") Long lotId,
+                            @Param("entidade") AuditEntry.Entidade entidade,
+                            @Param("entidadeId") Long entidadeId,
+                            @Param("usuarioId") Long usuarioId,
+                            @Param("from") LocalDateTime from,
+                            @Param("to") LocalDateTime to,
+                            Pageable pageable);
+}
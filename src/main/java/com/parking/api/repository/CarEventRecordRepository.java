@@ -0,0 +1,35 @@
+package com.parking.api.repository;
+
+import com.parking.api.model.CarEventRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface CarEventRecordRepository extends JpaRepository<CarEventRecord, Long> {
+
+    List<CarEventRecord> findByCarIdOrderByIdAsc(Long carId);
+
+    /**
+     * Registros posteriores a {@code after}, em ordem, lidos por cursor
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<CarEventRecord> streamByIdGreaterThanOrderByIdAsc(Long after);
+
+    /**
+     * Registros em ({@code after}, {@code upTo}], em ordem, lidos por cursor
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<CarEventRecord> streamByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(Long after, Long upTo);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM CarEventRecord e WHERE e.registradoEm < :before")
+    long findLastIdBefore(@Param("before") LocalDateTime before);
+}
@@ -1,15 +1,132 @@
 package com.parking.api.repository;
 
 import com.parking.api.model.Car;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CarRepository extends JpaRepository<Car, Long> {
 
-    Optional<Car> findByPlaca(String placa);
+    List<Car> findByLotId(Long lotId);
 
-    boolean existsByPlaca(String placa);
+    Optional<Car> findByIdAndLotId(Long id, Long lotId);
+
+    List<Car> findByIdInAndLotId(Collection<Long> ids, Long lotId);
+
+    /**
+     * Registro mais recente da placa no estacionamento (o ativo, se o carro ainda estiver lá)
+     */
+    Optional<Car> findFirstByLotIdAndPlacaOrderByDataEntradaDesc(Long lotId, String placa);
+
+    boolean existsByLotIdAndPlacaAndDataSaidaIsNull(Long lotId, String placa);
+
+    List<Car> findByDataSaidaIsNull();
+
+    /**
+     * Quantidade de carros ativos por estacionamento
+     */
+    @Query("SELECT c.lotId AS lotId, COUNT(c) AS total FROM Car c WHERE c.dataSaida IS NULL GROUP BY c.lotId")
+    List<LotCount> countActiveByLot();
+
+    /**
+     * Horários de entrada e saída dos registros com entrada ou saída a partir de {@code since}
+     */
+    @Query("SELECT c.lotId AS lotId, c.dataEntrada AS dataEntrada, c.dataSaida AS dataSaida FROM Car c "
+            + "WHERE c.dataEntrada >= :since OR c.dataSaida >= :since")
+    Stream<CarTimes> streamTimesSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Próximas permanências encerradas gravadas depois da posição ({@code saidaRegistradaEm},
+     * {@code id}) e antes de {@code until}, na ordem em que as saídas foram gravadas (paginação por
+     * chave, sem OFFSET)
+     */
+    @Query("SELECT c.id AS id, c.lotId AS lotId, c.dataEntrada AS dataEntrada, c.dataSaida AS dataSaida, "
+            + "c.saidaRegistradaEm AS saidaRegistradaEm FROM Car c "
+            + "WHERE c.saidaRegistradaEm < :until AND (c.saidaRegistradaEm > :registradaEm "
+            + "OR (c.saidaRegistradaEm = :registradaEm AND c.id > :id)) "
+            + "ORDER BY c.saidaRegistradaEm ASC, c.id ASC")
+    List<ClosedSession> findClosedAfter(@Param("registradaEm") LocalDateTime registradaEm, @Param("id") Long id,
+                                        @Param("until") LocalDateTime until, Pageable pageable);
+
+    /**
+     * Preenche {@code saidaRegistradaEm} das saídas gravadas antes dessa coluna existir (ou direto
+     * no banco) com a própria {@code dataSaida}
+     */
+    @Modifying
+    @Query("UPDATE Car c SET c.saidaRegistradaEm = c.dataSaida "
+            + "WHERE c.dataSaida IS NOT NULL AND c.saidaRegistradaEm IS NULL")
+    int fillMissingExitRegistration();
+
+    /**
+     * Permanências encerradas em [{@code from}, {@code to}), lidas por cursor em vez de carregadas de uma vez
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.lotId AS lotId, c.tarifaId AS tarifaId, c.dataSaida AS dataSaida, c.valorPago AS valorPago, "
+            + "c.operadorSaida AS operadorSaida FROM Car c WHERE c.dataSaida >= :from AND c.dataSaida < :to")
+    Stream<SettlementRow> streamSettlementRows(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Permanências encerradas em [{@code from}, {@code to}) em um estacionamento, lidas por cursor
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.lotId AS lotId, c.tarifaId AS tarifaId, c.dataSaida AS dataSaida, c.valorPago AS valorPago, "
+            + "c.operadorSaida AS operadorSaida FROM Car c "
+            + "WHERE c.lotId = :lotId AND c.dataSaida >= :from AND c.dataSaida < :to")
+    Stream<SettlementRow> streamSettlementRowsInLot(@Param("lotId") Long lotId, @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+
+    /**
+     * Registra no carro a correspondência com a lista de monitoramento, sem carregar a entidade;
+     * incrementa a versão para que uma edição concorrente não apague a marca
+     */
+    @Modifying
+    @Query("UPDATE Car c SET c.watchlistId = :watchlistId, c.motivoWatchlist = :motivo, c.versao = c.versao + 1 "
+            + "WHERE c.id = :id")
+    int markWatchlistMatch(@Param("id") Long id, @Param("watchlistId") Long watchlistId, @Param("motivo") String motivo);
+
+    interface LotCount {
+        Long getLotId();
+
+        long getTotal();
+    }
+
+    interface CarTimes {
+        Long getLotId();
+
+        LocalDateTime getDataEntrada();
+
+        LocalDateTime getDataSaida();
+    }
+
+    interface ClosedSession extends CarTimes {
+        Long getId();
+
+        LocalDateTime getSaidaRegistradaEm();
+    }
+
+    interface SettlementRow {
+        Long getLotId();
+
+        Long getTarifaId();
+
+        LocalDateTime getDataSaida();
+
+        BigDecimal getValorPago();
+
+        String getOperadorSaida();
+    }
 }
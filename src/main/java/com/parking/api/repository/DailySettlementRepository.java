@@ -0,0 +1,14 @@
+package com.parking.api.repository;
+
+import com.parking.api.model.DailySettlement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface DailySettlementRepository extends JpaRepository<DailySettlement, Long> {
+
+    Optional<DailySettlement> findByDia(LocalDate dia);
+}
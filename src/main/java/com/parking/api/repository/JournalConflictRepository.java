@@ -0,0 +1,15 @@
+package com.parking.api.repository;
+
+import com.parking.api.model.JournalConflict;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JournalConflictRepository extends JpaRepository<JournalConflict, Long> {
+
+    List<JournalConflict> findByResolvidoFalseOrderByOcorridoEmAsc();
+
+    long countByResolvidoFalse();
+}
@@ -0,0 +1,44 @@
+package com.parking.api.repository;
+
+import com.parking.api.model.MonthlyPass;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface MonthlyPassRepository extends JpaRepository<MonthlyPass, Long> {
+
+    /**
+     * Mensalidades do estacionamento, incluindo as válidas em todos
+     */
+    @Query("SELECT p FROM MonthlyPass p WHERE p.lotId = :lotId OR p.lotId IS NULL ORDER BY p.placa, p.validoDe")
+    List<MonthlyPass> findVisibleInLot(@Param("lotId") Long lotId);
+
+    @Query("SELECT p FROM MonthlyPass p WHERE p.id = :id AND (p.lotId = :lotId OR p.lotId IS NULL)")
+    Optional<MonthlyPass> findVisibleInLot(@Param("id") Long id, @Param("lotId") Long lotId);
+
+    /**
+     * Mensalidades ativas válidas no dia
+     */
+    @Query("SELECT p.placa AS placa, p.lotId AS lotId FROM MonthlyPass p WHERE p.ativo = true "
+            + "AND p.validoDe <= :dia AND (p.validoAte IS NULL OR p.validoAte >= :dia)")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<PassKey> streamValidOn(@Param("dia") LocalDate dia);
+
+    List<MonthlyPass> findByPlaca(String placa);
+
+    interface PassKey {
+        String getPlaca();
+
+        Long getLotId();
+    }
+}
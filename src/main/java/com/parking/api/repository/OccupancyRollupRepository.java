@@ -0,0 +1,18 @@
+package com.parking.api.repository;
+
+import com.parking.api.model.OccupancyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OccupancyRollupRepository extends JpaRepository<OccupancyRollup, Long> {
+
+    List<OccupancyRollup> findByLotIdAndGranularidadeAndInicioBetweenOrderByInicioAsc(
+            Long lotId, OccupancyRollup.Granularidade granularidade, LocalDateTime from, LocalDateTime to);
+
+    List<OccupancyRollup> findByGranularidadeAndInicioBetween(
+            OccupancyRollup.Granularidade granularidade, LocalDateTime from, LocalDateTime to);
+}
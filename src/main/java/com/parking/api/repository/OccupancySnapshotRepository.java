@@ -0,0 +1,20 @@
+package com.parking.api.repository;
+
+import com.parking.api.model.OccupancySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OccupancySnapshotRepository extends JpaRepository<OccupancySnapshot, Long> {
+
+    Optional<OccupancySnapshot> findFirstByOrderByUltimoEventoDesc();
+
+    @Modifying
+    @Query("DELETE FROM OccupancySnapshot s WHERE s.ultimoEvento < :ultimoEvento")
+    int deleteOlderThan(@Param("ultimoEvento") Long ultimoEvento);
+}
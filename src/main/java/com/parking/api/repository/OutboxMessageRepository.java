@@ -0,0 +1,38 @@
+package com.parking.api.repository;
+
+import com.parking.api.model.OutboxMessage;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Mensagens com entrega vencida, em ordem, travadas para a transação; linhas já travadas por
+     * outra instância são puladas ({@code FOR UPDATE SKIP LOCKED} no PostgreSQL, -2 é
+     * {@code LockOptions.SKIP_LOCKED})
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT m FROM OutboxMessage m WHERE m.proximaTentativa <= :now ORDER BY m.id")
+    List<OutboxMessage> lockDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Adia a próxima tentativa das mensagens até {@code until}, reservando-as para quem as travou
+     */
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.proximaTentativa = :until WHERE m.id IN :ids")
+    int claim(@Param("ids") List<Long> ids, @Param("until") LocalDateTime until);
+}
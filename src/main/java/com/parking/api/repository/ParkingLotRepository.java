@@ -0,0 +1,15 @@
+package com.parking.api.repository;
+
+import com.parking.api.model.ParkingLot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ParkingLotRepository extends JpaRepository<ParkingLot, Long> {
+
+    List<ParkingLot> findAllByOrderByIdAsc();
+
+    boolean existsByNome(String nome);
+}
@@ -0,0 +1,32 @@
+package com.parking.api.repository;
+
+import com.parking.api.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Marca o token como usado se ainda não estava; retorna 0 se outra transação já o usou
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revogado = true WHERE r.id = :id AND r.revogado = false")
+    int revoke(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revogado = true WHERE r.userId = :userId AND r.revogado = false")
+    int revokeAllByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiraEm < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
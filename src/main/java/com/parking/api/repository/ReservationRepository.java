@@ -0,0 +1,24 @@
+package com.parking.api.repository;
+
+import com.parking.api.model.Reservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+    Optional<Reservation> findByIdAndLotId(Long id, Long lotId);
+
+    List<Reservation> findByLotIdOrderByInicioAsc(Long lotId);
+
+    List<Reservation> findByLotIdAndStatusOrderByInicioAsc(Long lotId, Reservation.Status status);
+
+    List<Reservation> findByStatusInAndFimAfter(Collection<Reservation.Status> status, LocalDateTime fim);
+
+    List<Reservation> findByStatusAndFimLessThanEqual(Reservation.Status status, LocalDateTime fim);
+}
@@ -0,0 +1,18 @@
+package com.parking.api.repository;
+
+import com.parking.api.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiraEm <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,22 @@
+package com.parking.api.repository;
+
+import com.parking.api.model.RollupWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RollupWatermarkRepository extends JpaRepository<RollupWatermark, String> {
+
+    /**
+     * Lê a marca com trava de escrita, para que apenas uma instância processe o lote por vez
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM RollupWatermark w WHERE w.nome = :nome")
+    Optional<RollupWatermark> findForUpdate(@Param("nome") String nome);
+}
@@ -0,0 +1,13 @@
+package com.parking.api.repository;
+
+import com.parking.api.model.TariffPlan;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TariffPlanRepository extends JpaRepository<TariffPlan, Long> {
+
+    List<TariffPlan> findAllByOrderByIdAsc();
+}
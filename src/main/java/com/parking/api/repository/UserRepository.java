@@ -2,12 +2,21 @@ package com.parking.api.repository;
 
 import com.parking.api.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
+
+    /**
+     * Usuários do estacionamento e os usuários globais (sem estacionamento)
+     */
+    @Query("SELECT u FROM User u WHERE u.lotId = :lotId OR u.lotId IS NULL ORDER BY u.id")
+    List<User> findVisibleInLot(@Param("lotId") Long lotId);
 }
@@ -0,0 +1,15 @@
+package com.parking.api.repository;
+
+import com.parking.api.model.WatchlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WatchlistRepository extends JpaRepository<WatchlistEntry, Long> {
+
+    List<WatchlistEntry> findAllByOrderByIdAsc();
+
+    List<WatchlistEntry> findByAtivoTrue();
+}
@@ -0,0 +1,163 @@
+package com.parking.api.service;
+
+import com.parking.api.event.CarEvent;
+import com.parking.api.exception.DatabaseUnavailableException;
+import com.parking.api.model.Car;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Última cópia boa dos carros estacionados, por estacionamento e placa, usada pelo
+ * {@link DatabaseGuard} para responder leituras enquanto o banco está indisponível.
+ * <p>
+ * É a projeção do log de eventos do {@link CarEventStore}: na inicialização e a cada
+ * {@code parking.db.snapshot-interval-ms} (enquanto o banco responde) é recalculada a partir do
+ * último snapshot mais os eventos posteriores, sem varrer a tabela {@code cars}, e acompanha os
+ * {@link CarEvent} do CarService entre um recálculo e outro. Os eventos recebidos durante um
+ * recálculo são reaplicados sobre o resultado antes de ele substituir a cópia, já que a projeção
+ * pode ter sido lida antes deles. Só guarda carros ainda dentro: uma placa que já saiu não é
+ * conhecida pela cópia.
+ */
+@Slf4j
+@Service
+public class ActiveCarSnapshot {
+
+    private final CarEventStore carEventStore;
+    private final DatabaseGuard databaseGuard;
+    private final Clock clock;
+
+    private final Object refreshLock = new Object();
+
+    private volatile Map<Long, Map<String, Car>> lots = new ConcurrentHashMap<>();
+    private volatile LocalDateTime asOf;
+
+    /**
+     * Eventos recebidos durante o recálculo em andamento; nulo fora dele (guardado por {@code this})
+     */
+    private List<CarEvent> receivedDuringRefresh;
+
+    @Autowired
+    public ActiveCarSnapshot(CarEventStore carEventStore, DatabaseGuard databaseGuard) {
+        this(carEventStore, databaseGuard, Clock.systemDefaultZone());
+    }
+
+    ActiveCarSnapshot(CarEventStore carEventStore, DatabaseGuard databaseGuard, Clock clock) {
+        this.carEventStore = carEventStore;
+        this.databaseGuard = databaseGuard;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${parking.db.snapshot-interval-ms:30000}",
+            initialDelayString = "${parking.db.snapshot-interval-ms:30000}")
+    public void refresh() {
+        synchronized (refreshLock) {
+            LocalDateTime startedAt = LocalDateTime.now(clock);
+            synchronized (this) {
+                receivedDuringRefresh = new ArrayList<>();
+            }
+            CarEventStore.Projection projection;
+            try {
+                projection = databaseGuard.read(carEventStore::project);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    receivedDuringRefresh = null;
+                }
+                if (e instanceof DatabaseUnavailableException) {
+                    log.debug("Cópia dos carros estacionados mantida de {}: banco indisponível", asOf);
+                    return;
+                }
+                throw e;
+            }
+
+            Map<Long, Map<String, Car>> loaded = new ConcurrentHashMap<>();
+            for (Car car : projection.parked()) {
+                if (car.getLotId() != null) {
+                    loaded.computeIfAbsent(car.getLotId(), id -> new ConcurrentHashMap<>())
+                            .put(car.getPlaca(), Car.copyOf(car));
+                }
+            }
+            synchronized (this) {
+                // Cada evento traz o estado completo: reaplicar um já contido na projeção não muda nada
+                receivedDuringRefresh.forEach(event -> apply(loaded, event));
+                receivedDuringRefresh = null;
+                lots = loaded;
+            }
+            if (asOf == null) {
+                log.info("Carros estacionados carregados em {} ms: snapshot até o evento {} mais {} eventos",
+                        Duration.between(startedAt, LocalDateTime.now(clock)).toMillis(),
+                        projection.snapshotEvent(), projection.tailEvents());
+            }
+            asOf = startedAt;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCarEvent(CarEvent event) {
+        apply(lots, event);
+        if (receivedDuringRefresh != null) {
+            receivedDuringRefresh.add(event);
+        }
+    }
+
+    private static void apply(Map<Long, Map<String, Car>> lots, CarEvent event) {
+        Car car = event.current();
+        if (car == null || car.getLotId() == null) {
+            return;
+        }
+        Map<String, Car> lot = lots.computeIfAbsent(car.getLotId(), id -> new ConcurrentHashMap<>());
+        if (event.before() != null) {
+            lot.remove(event.before().getPlaca());
+        }
+        if (event.after() != null && event.after().getDataSaida() == null) {
+            lot.put(car.getPlaca(), Car.copyOf(car));
+        }
+    }
+
+    /**
+     * Carros estacionados no estacionamento, pela cópia; nulo se ainda não houve carga
+     */
+    public List<Car> activeCars(Long lotId) {
+        if (asOf == null) {
+            return null;
+        }
+        DatabaseGuard.markStale(asOf);
+        return lots.getOrDefault(lotId, Map.of()).values().stream()
+                .sorted(Comparator.comparing(Car::getDataEntrada, Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(Car::copyOf)
+                .toList();
+    }
+
+    /**
+     * Se a placa está estacionada segundo a cópia (sem marcar a resposta como desatualizada)
+     */
+    public boolean isParked(Long lotId, String placa) {
+        return lots.getOrDefault(lotId, Map.of()).containsKey(placa);
+    }
+
+    /**
+     * Carro estacionado com a placa, pela cópia; nulo se a placa não está na cópia
+     */
+    public Car findByPlaca(Long lotId, String placa) {
+        Car car = asOf == null ? null : lots.getOrDefault(lotId, Map.of()).get(placa);
+        if (car == null) {
+            return null;
+        }
+        DatabaseGuard.markStale(asOf);
+        return Car.copyOf(car);
+    }
+}
@@ -0,0 +1,166 @@
+package com.parking.api.service;
+
+import com.parking.api.dto.AlertResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publica alertas operacionais: guarda os mais recentes em memória (limitados a
+ * {@code parking.alerts.history-size}) e envia cada alerta aos clientes conectados ao stream
+ * do estacionamento correspondente.
+ * <p>
+ * O envio não acontece na thread de quem publica (o monitor de permanência, o consumidor da lista
+ * de monitoramento): cada cliente tem uma fila própria de até {@code parking.alerts.stream-queue}
+ * alertas, escrita por uma thread própria que só existe enquanto há o que enviar. Um cliente lento
+ * não atrasa os demais; se a fila dele encher, ele é desconectado e pode recuperar os alertas
+ * perdidos em {@link #recent}.
+ */
+@Slf4j
+@Service
+public class AlertService {
+
+    private final AtomicLong ids = new AtomicLong();
+    private final Deque<AlertResponse> history = new ArrayDeque<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger streams = new AtomicInteger();
+    private final int streamQueueCapacity;
+
+    @Value("${parking.alerts.history-size:500}")
+    private int historySize = 500;
+
+    @Value("${parking.alerts.stream-timeout-ms:1800000}")
+    private long streamTimeoutMillis = 1_800_000;
+
+    public AlertService(@Value("${parking.alerts.stream-queue:100}") int streamQueueCapacity) {
+        this.streamQueueCapacity = streamQueueCapacity;
+    }
+
+    public AlertResponse publish(AlertResponse.Tipo tipo, Long lotId, Long carId, String placa, String mensagem) {
+        AlertResponse alert = new AlertResponse(ids.incrementAndGet(), tipo, lotId, carId, placa, mensagem,
+                LocalDateTime.now());
+        synchronized (history) {
+            history.addFirst(alert);
+            while (history.size() > historySize) {
+                history.removeLast();
+            }
+        }
+        log.info("Alerta {} no estacionamento {}: {}", tipo, lotId, mensagem);
+
+        for (Subscriber subscriber : subscribers) {
+            if (Objects.equals(subscriber.lotId, lotId)) {
+                enqueue(subscriber, alert);
+            }
+        }
+        return alert;
+    }
+
+    /**
+     * Alertas mais recentes do estacionamento, do mais novo para o mais antigo
+     */
+    public List<AlertResponse> recent(Long lotId, int limit) {
+        List<AlertResponse> result = new ArrayList<>();
+        synchronized (history) {
+            Iterator<AlertResponse> iterator = history.iterator();
+            while (iterator.hasNext() && result.size() < limit) {
+                AlertResponse alert = iterator.next();
+                if (Objects.equals(alert.getLotId(), lotId)) {
+                    result.add(alert);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Abre um stream (Server-Sent Events) com os novos alertas do estacionamento
+     */
+    public SseEmitter subscribe(Long lotId) {
+        return subscribe(lotId, new SseEmitter(streamTimeoutMillis));
+    }
+
+    SseEmitter subscribe(Long lotId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(lotId, emitter, streamQueueCapacity, streams.incrementAndGet());
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        return emitter;
+    }
+
+    int subscribers() {
+        return subscribers.size();
+    }
+
+    private void enqueue(Subscriber subscriber, AlertResponse alert) {
+        try {
+            subscriber.executor.execute(() -> send(subscriber, alert));
+        } catch (RejectedExecutionException e) {
+            // Fila cheia: o cliente não acompanha os alertas e é desconectado; o envio em andamento
+            // é interrompido na thread dele
+            if (remove(subscriber)) {
+                log.warn("Stream de alertas do estacionamento {} desconectado: {} alertas sem envio",
+                        subscriber.lotId, streamQueueCapacity);
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber, AlertResponse alert) {
+        try {
+            subscriber.emitter.send(SseEmitter.event()
+                    .id(String.valueOf(alert.getId()))
+                    .name(alert.getTipo().name())
+                    .data(alert));
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado: deixa de receber
+            remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        boolean removed = subscribers.remove(subscriber);
+        subscriber.executor.shutdownNow();
+        return removed;
+    }
+
+    /**
+     * Cliente do stream e o executor que escreve nele: no máximo uma thread, encerrada quando ociosa
+     */
+    private static final class Subscriber {
+
+        private static final long IDLE_SECONDS = 30;
+
+        private final Long lotId;
+        private final SseEmitter emitter;
+        private final ThreadPoolExecutor executor;
+
+        Subscriber(Long lotId, SseEmitter emitter, int queueCapacity, int number) {
+            this.lotId = lotId;
+            this.emitter = emitter;
+            this.executor = new ThreadPoolExecutor(0, 1, IDLE_SECONDS, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), task -> {
+                        Thread thread = new Thread(task, "alert-stream-" + number);
+                        thread.setDaemon(true);
+                        return thread;
+                    }, new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package com.parking.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.api.dto.UserResponse;
+import com.parking.api.event.CarEvent;
+import com.parking.api.exception.DatabaseUnavailableException;
+import com.parking.api.model.AuditEntry;
+import com.parking.api.model.AuditEntry.Acao;
+import com.parking.api.model.AuditEntry.Entidade;
+import com.parking.api.model.Car;
+import com.parking.api.repository.AuditEntryRepository;
+import com.parking.api.util.RingBuffer;
+import com.parking.api.web.AuthenticationFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Registro de auditoria das alterações de carros e usuários, gravado fora da thread da requisição.
+ * <p>
+ * A requisição só calcula a diferença entre o estado anterior e o novo, identifica quem fez a
+ * alteração (usuário do token, cabeçalho {@code X-Operador} e IP) e publica o registro em um
+ * {@link RingBuffer}. Uma thread própria esvazia a fila em lotes de {@code parking.audit.batch-size}
+ * gravados com um único {@code batchUpdate} do JDBC. Com o banco fora, o lote é mantido e tentado de
+ * novo a cada {@code parking.audit.retry-interval-ms}, e a fila enche. Um lote recusado por outro
+ * motivo (um registro inválido, por exemplo) é gravado registro a registro, e só os recusados são
+ * descartados. Com a fila cheia, a política
+ * {@code parking.audit.overflow} decide: {@code BLOCK} segura a requisição até haver espaço (no
+ * máximo {@code parking.audit.block-timeout}); {@code DROP} descarta o registro na hora. Registros
+ * descartados nos dois casos são contados.
+ * <p>
+ * Alterações de carros são registradas depois do commit; as de usuários, depois de gravadas.
+ */
+@Slf4j
+@Service
+public class AuditLog {
+
+    public enum Overflow {
+        BLOCK,
+        DROP
+    }
+
+    static final String INSERT_SQL = "INSERT INTO audit_log (entidade, entidade_id, acao, lot_id, usuario_id, "
+            + "operador, ip, alteracoes, ocorrido_em) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_CHANGES_LENGTH = 4000;
+    private static final Set<String> IGNORED_FIELDS = Set.of("versao", "version");
+    private static final TypeReference<Map<String, Object>> FIELDS = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditEntryRepository auditRepository;
+    private final DatabaseGuard databaseGuard;
+    private final ObjectMapper objectMapper;
+    private final RingBuffer<AuditEntry> buffer;
+    private final Overflow overflow;
+    private final Duration blockTimeout;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long retryIntervalNanos;
+    private final Clock clock;
+
+    private final Object drainLock = new Object();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private List<AuditEntry> failedBatch = List.of();
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    @Autowired
+    public AuditLog(JdbcTemplate jdbcTemplate, AuditEntryRepository auditRepository, DatabaseGuard databaseGuard,
+                    ObjectMapper objectMapper,
+                    @Value("${parking.audit.capacity:8192}") int capacity,
+                    @Value("${parking.audit.overflow:BLOCK}") Overflow overflow,
+                    @Value("${parking.audit.block-timeout:PT1S}") Duration blockTimeout,
+                    @Value("${parking.audit.batch-size:500}") int batchSize,
+                    @Value("${parking.audit.flush-interval-ms:200}") long flushIntervalMs,
+                    @Value("${parking.audit.retry-interval-ms:5000}") long retryIntervalMs) {
+        this(jdbcTemplate, auditRepository, databaseGuard, objectMapper, capacity, overflow, blockTimeout, batchSize,
+                flushIntervalMs, retryIntervalMs, Clock.systemDefaultZone());
+    }
+
+    AuditLog(JdbcTemplate jdbcTemplate, AuditEntryRepository auditRepository, DatabaseGuard databaseGuard,
+             ObjectMapper objectMapper, int capacity, Overflow overflow, Duration blockTimeout, int batchSize,
+             long flushIntervalMs, long retryIntervalMs, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditRepository = auditRepository;
+        this.databaseGuard = databaseGuard;
+        this.objectMapper = objectMapper;
+        this.buffer = new RingBuffer<>(capacity);
+        this.overflow = overflow;
+        this.blockTimeout = blockTimeout;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = Duration.ofMillis(flushIntervalMs).toNanos();
+        this.retryIntervalNanos = Duration.ofMillis(retryIntervalMs).toNanos();
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::run, "audit-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+    }
+
+    /**
+     * Para a thread de gravação e grava o que ainda estiver na fila
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Thread thread = writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(Duration.ofSeconds(5).toMillis());
+        }
+        flush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarEvent(CarEvent event) {
+        Car car = event.current();
+        if (car == null || car.getId() == null) {
+            return;
+        }
+        Acao acao = switch (event.type()) {
+            case ENTRY -> Acao.ENTRY;
+            case UPDATE -> Acao.UPDATE;
+            case EXIT -> Acao.EXIT;
+            case DELETE -> Acao.DELETE;
+        };
+        record(Entidade.CAR, car.getId(), acao, car.getLotId(), event.before(), event.after());
+    }
+
+    /**
+     * Registra a alteração de um usuário; {@code before} é nulo na criação e {@code after} na remoção
+     */
+    public void onUserChanged(Acao acao, UserResponse before, UserResponse after) {
+        UserResponse user = after != null ? after : before;
+        record(Entidade.USER, user.getId(), acao, user.getLotId(), before, after);
+    }
+
+    public void onPasswordChanged(Long userId, Long lotId) {
+        record(Entidade.USER, userId, Acao.PASSWORD_CHANGE, lotId, null, null);
+    }
+
+    /**
+     * Registros do estacionamento corrente, do mais recente ao mais antigo
+     */
+    public Page<AuditEntry> search(Long lotId, Entidade entidade, Long entidadeId, Long usuarioId,
+                                   LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        LocalDateTime start = from != null ? from : LocalDateTime.of(1970, 1, 1, 0, 0);
+        LocalDateTime end = to != null ? to : LocalDateTime.of(9999, 1, 1, 0, 0);
+        return databaseGuard.read(() -> auditRepository.search(lotId, entidade, entidadeId, usuarioId, start, end,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "id"))));
+    }
+
+    /**
+     * Grava o que está na fila, na thread de quem chamou; retorna quantos registros foram gravados
+     */
+    public int flush() {
+        int total = 0;
+        int batch;
+        while ((batch = drainOnce()) > 0) {
+            total += batch;
+        }
+        return total;
+    }
+
+    public int pending() {
+        return buffer.size() + failedBatchSize();
+    }
+
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    public long written() {
+        return written.get();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public Overflow overflow() {
+        return overflow;
+    }
+
+    private void record(Entidade entidade, Long entidadeId, Acao acao, Long lotId, Object before, Object after) {
+        Actor actor = Actor.current();
+        AuditEntry entry = new AuditEntry(null, entidade, entidadeId, acao, lotId, actor.usuarioId(),
+                actor.operador(), actor.ip(), diff(before, after), LocalDateTime.now(clock));
+        if (buffer.offer(entry)) {
+            if (buffer.size() >= batchSize) {
+                LockSupport.unpark(writer);
+            }
+            return;
+        }
+
+        if (overflow == Overflow.BLOCK) {
+            long deadline = System.nanoTime() + blockTimeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(Duration.ofMillis(1).toNanos());
+                if (buffer.offer(entry)) {
+                    return;
+                }
+            }
+        }
+        long total = dropped.incrementAndGet();
+        if (Long.bitCount(total) == 1) {
+            log.error("Auditoria: fila cheia ({} registros), {} registros descartados até agora",
+                    buffer.capacity(), total);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            int result = drainOnce();
+            if (result < 0) {
+                LockSupport.parkNanos(retryIntervalNanos);
+            } else if (result < batchSize) {
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+    }
+
+    /**
+     * Grava um lote: o que falhou da última vez ou o próximo da fila. Retorna quantos registros
+     * saíram da fila (gravados ou descartados), ou -1 se o banco falhou
+     */
+    private int drainOnce() {
+        synchronized (drainLock) {
+            List<AuditEntry> batch = failedBatch;
+            if (batch.isEmpty()) {
+                List<AuditEntry> next = new ArrayList<>(Math.min(batchSize, buffer.size()));
+                buffer.drain(next::add, batchSize);
+                batch = next;
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                List<AuditEntry> rows = batch;
+                databaseGuard.write(() -> insert(rows));
+            } catch (RuntimeException e) {
+                if (!isRetryable(e)) {
+                    return insertEach(batch);
+                }
+                retryLater(batch, e);
+                return -1;
+            }
+            failedBatch = List.of();
+            written.addAndGet(batch.size());
+            return batch.size();
+        }
+    }
+
+    /**
+     * Grava o lote recusado registro a registro, descartando só os que o banco recusa de novo
+     */
+    private int insertEach(List<AuditEntry> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            AuditEntry entry = batch.get(i);
+            try {
+                databaseGuard.write(() -> insert(List.of(entry)));
+            } catch (RuntimeException e) {
+                if (isRetryable(e)) {
+                    retryLater(batch.subList(i, batch.size()), e);
+                    return -1;
+                }
+                dropped.incrementAndGet();
+                log.error("Auditoria: registro de {} {} descartado: {}", entry.getEntidade(), entry.getEntidadeId(),
+                        e.getMessage());
+                continue;
+            }
+            written.incrementAndGet();
+        }
+        failedBatch = List.of();
+        return batch.size();
+    }
+
+    private void retryLater(List<AuditEntry> batch, RuntimeException e) {
+        if (failedBatch.isEmpty()) {
+            log.warn("Auditoria: falha ao gravar {} registros, nova tentativa em {} ms: {}", batch.size(),
+                    Duration.ofNanos(retryIntervalNanos).toMillis(), e.getMessage());
+        }
+        failedBatch = List.copyOf(batch);
+    }
+
+    private static boolean isRetryable(RuntimeException e) {
+        return e instanceof DatabaseUnavailableException || DatabaseGuard.isDatabaseFailure(e);
+    }
+
+    private void insert(List<AuditEntry> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, entry) -> {
+            statement.setString(1, entry.getEntidade().name());
+            statement.setLong(2, entry.getEntidadeId());
+            statement.setString(3, entry.getAcao().name());
+            statement.setObject(4, entry.getLotId(), Types.BIGINT);
+            statement.setObject(5, entry.getUsuarioId(), Types.BIGINT);
+            statement.setString(6, entry.getOperador());
+            statement.setString(7, entry.getIp());
+            statement.setString(8, entry.getAlteracoes());
+            statement.setTimestamp(9, Timestamp.valueOf(entry.getOcorridoEm()));
+        });
+    }
+
+    private int failedBatchSize() {
+        synchronized (drainLock) {
+            return failedBatch.size();
+        }
+    }
+
+    /**
+     * Campos que mudaram entre os dois estados, em JSON; sem um dos lados, todos os campos do outro
+     */
+    String diff(Object before, Object after) {
+        Map<String, Object> old = before != null ? objectMapper.convertValue(before, FIELDS) : Map.of();
+        Map<String, Object> current = after != null ? objectMapper.convertValue(after, FIELDS) : Map.of();
+        Set<String> fields = new LinkedHashSet<>(old.keySet());
+        fields.addAll(current.keySet());
+
+        Map<String, Map<String, Object>> changes = new LinkedHashMap<>();
+        for (String field : fields) {
+            Object from = old.get(field);
+            Object to = current.get(field);
+            if (!IGNORED_FIELDS.contains(field) && !Objects.equals(from, to)) {
+                Map<String, Object> change = new LinkedHashMap<>();
+                change.put("de", from);
+                change.put("para", to);
+                changes.put(field, change);
+            }
+        }
+        try {
+            String json = objectMapper.writeValueAsString(changes);
+            return json.length() <= MAX_CHANGES_LENGTH ? json : "{\"truncado\":true}";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Alterações não serializáveis", e);
+        }
+    }
+
+    /**
+     * Quem fez a alteração, lido da requisição corrente
+     */
+    record Actor(Long usuarioId, String operador, String ip) {
+
+        static final Actor SYSTEM = new Actor(null, null, null);
+
+        static Actor current() {
+            if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+                return SYSTEM;
+            }
+            HttpServletRequest request = attributes.getRequest();
+            Long usuarioId = request.getAttribute(AuthenticationFilter.CLAIMS_ATTRIBUTE)
+                    instanceof TokenSigner.AccessClaims claims ? claims.userId() : null;
+            String operador = request.getHeader("X-Operador");
+            if (operador != null && operador.length() > 100) {
+                operador = operador.substring(0, 100);
+            }
+            return new Actor(usuarioId, operador, request.getRemoteAddr());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.parking.api.service;
+
+import com.parking.api.model.Permission;
+import com.parking.api.model.Role;
+import com.parking.api.model.User;
+import com.parking.api.repository.UserRepository;
+import com.parking.api.util.AfterCommit;
+import com.parking.api.util.LongObjectHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decide se um usuário pode executar uma {@link Permission}.
+ * <p>
+ * As permissões de cada perfil vêm de {@code parking.authz.roles.<PERFIL>} (lista separada por
+ * vírgula, ou {@code *} para todas; sem a propriedade, valem as de {@link Role}) e são compiladas
+ * na inicialização em uma {@link PermissionMatrix}. O perfil de cada usuário fica em um mapa
+ * imutável em memória, carregado do banco e substituído por inteiro (cópia e troca da referência)
+ * quando um perfil muda ou um usuário é criado ou removido, então uma alteração de perfil vale na
+ * requisição seguinte, sem reiniciar e sem esperar o token expirar. Trocas feitas durante uma
+ * recarga são reaplicadas sobre o que ela leu, para que a recarga não as desfaça.
+ */
+@Slf4j
+@Service
+public class AuthorizationService {
+
+    private final UserRepository userRepository;
+    private final PermissionMatrix matrix;
+
+    private final Object loadLock = new Object();
+
+    private volatile LongObjectHashMap<Role> roles = new LongObjectHashMap<>();
+
+    /**
+     * Perfis trocados durante a recarga em andamento (nulo: usuário removido); nulo fora dela
+     */
+    private Map<Long, Role> swappedDuringLoad;
+
+    @Autowired
+    public AuthorizationService(UserRepository userRepository, Environment environment) {
+        this(userRepository, compile(environment));
+    }
+
+    AuthorizationService(UserRepository userRepository, PermissionMatrix matrix) {
+        this.userRepository = userRepository;
+        this.matrix = matrix;
+    }
+
+    /**
+     * Recarrega todos os perfis do banco; a recarga periódica cobre alterações feitas fora da API
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${parking.authz.reload-ms:300000}",
+            initialDelayString = "${parking.authz.reload-ms:300000}")
+    @Transactional(readOnly = true)
+    public void load() {
+        synchronized (loadLock) {
+            synchronized (this) {
+                swappedDuringLoad = new HashMap<>();
+            }
+            LongObjectHashMap<Role> loaded = new LongObjectHashMap<>();
+            try {
+                for (User user : userRepository.findAll()) {
+                    Role role = Role.parse(user.getRole());
+                    if (role != null) {
+                        loaded.put(user.getId(), role);
+                    }
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    swappedDuringLoad = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                swappedDuringLoad.forEach((userId, role) -> apply(loaded, userId, role));
+                swappedDuringLoad = null;
+                roles = loaded;
+            }
+            log.debug("Perfis de acesso carregados: {} usuários", loaded.size());
+        }
+    }
+
+    public boolean isAllowed(Long userId, Permission permission) {
+        return userId != null && matrix.allows(roles.get(userId), permission);
+    }
+
+    /**
+     * Registra o perfil atual do usuário quando a transação corrente for confirmada
+     */
+    public void onRoleChanged(Long userId, String role) {
+        Role parsed = Role.parse(role);
+        AfterCommit.run(() -> swap(userId, parsed));
+    }
+
+    public void onUserDeleted(Long userId) {
+        AfterCommit.run(() -> swap(userId, null));
+    }
+
+    private synchronized void swap(Long userId, Role role) {
+        LongObjectHashMap<Role> next = new LongObjectHashMap<>(roles);
+        apply(next, userId, role);
+        roles = next;
+        if (swappedDuringLoad != null) {
+            swappedDuringLoad.put(userId, role);
+        }
+    }
+
+    private static void apply(LongObjectHashMap<Role> roles, Long userId, Role role) {
+        if (role != null) {
+            roles.put(userId, role);
+        } else {
+            roles.remove(userId);
+        }
+    }
+
+    static PermissionMatrix compile(Environment environment) {
+        Map<Role, Set<Permission>> permissions = new EnumMap<>(Role.class);
+        for (Role role : Role.values()) {
+            String configured = environment.getProperty("parking.authz.roles." + role.name());
+            permissions.put(role, configured == null ? role.defaults() : parse(configured));
+        }
+        return PermissionMatrix.compile(permissions);
+    }
+
+    private static Set<Permission> parse(String configured) {
+        if (configured.trim().equals("*")) {
+            return EnumSet.allOf(Permission.class);
+        }
+        Set<Permission> permissions = EnumSet.noneOf(Permission.class);
+        Arrays.stream(configured.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .forEach(name -> permissions.add(Permission.valueOf(name)));
+        return permissions;
+    }
+}
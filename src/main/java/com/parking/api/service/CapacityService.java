@@ -0,0 +1,252 @@
+package com.parking.api.service;
+
+import com.parking.api.dto.LotResponse;
+import com.parking.api.exception.LotFullException;
+import com.parking.api.exception.ResourceNotFoundException;
+import com.parking.api.model.Car;
+import com.parking.api.model.ParkingLevel;
+import com.parking.api.model.ParkingLot;
+import com.parking.api.repository.CarRepository;
+import com.parking.api.repository.ParkingLotRepository;
+import com.parking.api.util.AfterCommit;
+import com.parking.api.util.SpotBitmap;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Controla a capacidade dos estacionamentos (estacionamento → níveis → vagas).
+ * <p>
+ * A ocupação de cada estacionamento fica em um {@link SpotBitmap} em memória; entrada e saída
+ * apenas alteram um bit, sem consultar o banco. A vaga de cada carro é persistida em
+ * {@code cars.vaga} e o mapa é reconstruído a partir dos carros ativos na inicialização.
+ * Cada estacionamento tem seu próprio mapa; nenhuma operação de um estacionamento toca o de outro.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CapacityService {
+
+    private final ParkingLotRepository parkingLotRepository;
+    private final CarRepository carRepository;
+    private final CarPartitionManager carPartitionManager;
+
+    @Value("${parking.capacity.default-lot-name:Estacionamento Principal}")
+    private String defaultLotName;
+
+    @Value("${parking.capacity.default-spots:100}")
+    private int defaultSpots;
+
+    private final Map<Long, LotState> lots = new ConcurrentHashMap<>();
+    private volatile Long defaultLotId;
+
+    @PostConstruct
+    public void load() {
+        List<ParkingLot> persisted = parkingLotRepository.findAllByOrderByIdAsc();
+        if (persisted.isEmpty()) {
+            persisted = List.of(parkingLotRepository.save(defaultLot()));
+            log.info("Nenhum estacionamento cadastrado; criado '{}' com {} vagas", defaultLotName, defaultSpots);
+        }
+
+        lots.clear();
+        persisted.forEach(lot -> {
+            carPartitionManager.ensurePartition(lot.getId());
+            register(lot);
+        });
+        defaultLotId = persisted.get(0).getId();
+        reconcile();
+    }
+
+    /**
+     * Estacionamento da requisição corrente ({@link LotContext}), ou o padrão se nenhum foi informado
+     *
+     * @throws ResourceNotFoundException se o estacionamento informado não existir
+     */
+    public Long currentLot() {
+        Long requested = LotContext.current();
+        return requested != null ? lot(requested).id() : defaultLotId;
+    }
+
+    /**
+     * Se quem faz a requisição vale em todos os estacionamentos (usuário global ou sem autenticação)
+     */
+    public boolean isGlobalCaller() {
+        return LotContext.scope() == null;
+    }
+
+    public Long defaultLotId() {
+        return defaultLotId;
+    }
+
+    /**
+     * Se o estacionamento só aceita placas com mensalidade válida
+     */
+    public boolean isSubscribersOnly(Long lotId) {
+        return lot(lotId).somenteMensalistas();
+    }
+
+    /**
+     * Ocupa uma vaga livre no estacionamento. Se a transação corrente for desfeita, a vaga é liberada.
+     *
+     * @throws LotFullException se não houver vagas livres
+     */
+    public int allocate(Long lotId) {
+        return allocate(lotId, 0);
+    }
+
+    /**
+     * Ocupa uma vaga livre deixando pelo menos {@code held} vagas livres (as guardadas para reservas
+     * de outras placas). Se a transação corrente for desfeita, a vaga é liberada.
+     *
+     * @throws LotFullException se não houver vagas livres além das guardadas
+     */
+    public int allocate(Long lotId, int held) {
+        LotState state = lot(lotId);
+        int vaga = state.spots().allocate();
+        if (vaga < 0) {
+            throw new LotFullException("Estacionamento lotado: não há vagas livres em " + state.nome());
+        }
+        // Conferido depois de ocupar: entradas simultâneas nunca passam juntas da reserva
+        if (state.spots().free() < held) {
+            state.spots().release(vaga);
+            throw new LotFullException("Estacionamento lotado: as vagas livres em " + state.nome()
+                    + " estão reservadas");
+        }
+
+        AfterCommit.onRollback(() -> state.spots().release(vaga));
+        return vaga;
+    }
+
+    /**
+     * Libera a vaga assim que a transação corrente for confirmada
+     */
+    public void release(Long lotId, Integer vaga) {
+        LotState state = lotId != null ? lots.get(lotId) : null;
+        if (state == null || vaga == null || vaga >= state.spots().capacity()) {
+            return;
+        }
+        AfterCommit.run(() -> state.spots().release(vaga));
+    }
+
+    public List<LotResponse> getLots() {
+        return lots.values().stream()
+                .sorted((a, b) -> Long.compare(a.id(), b.id()))
+                .map(this::toResponse)
+                .toList();
+    }
+
+    public LotResponse getLot(Long id) {
+        return toResponse(lot(id));
+    }
+
+    @Transactional
+    public LotResponse createLot(ParkingLot lot) {
+        if (parkingLotRepository.existsByNome(lot.getNome())) {
+            throw new IllegalArgumentException("Já existe um estacionamento com o nome: " + lot.getNome());
+        }
+
+        for (int i = 0; i < lot.getNiveis().size(); i++) {
+            ParkingLevel level = lot.getNiveis().get(i);
+            level.setLot(lot);
+            level.setOrdem(i);
+        }
+        ParkingLot saved = parkingLotRepository.save(lot);
+        carPartitionManager.ensurePartition(saved.getId());
+        AfterCommit.run(() -> register(saved));
+        return toResponse(state(saved));
+    }
+
+    private void reconcile() {
+        int restored = 0;
+        List<Car> unassigned = new ArrayList<>();
+        for (Car car : carRepository.findByDataSaidaIsNull()) {
+            LotState state = car.getLotId() != null ? lots.get(car.getLotId()) : null;
+            Integer vaga = car.getVaga();
+            if (state != null && vaga != null && vaga < state.spots().capacity() && state.spots().occupy(vaga)) {
+                restored++;
+            } else {
+                unassigned.add(car);
+            }
+        }
+
+        // Carros ativos sem estacionamento ou vaga válida (anteriores ao controle de capacidade,
+        // ou com vaga duplicada) recebem uma vaga nova; os sem estacionamento vão para o padrão
+        for (Car car : unassigned) {
+            if (car.getLotId() == null || !lots.containsKey(car.getLotId())) {
+                car.setLotId(defaultLotId);
+            }
+            int vaga = lots.get(car.getLotId()).spots().allocate();
+            if (vaga < 0) {
+                log.warn("Carro {} ({}) ativo sem vaga disponível", car.getId(), car.getPlaca());
+                car.setVaga(null);
+            } else {
+                car.setVaga(vaga);
+            }
+            carRepository.save(car);
+        }
+        log.info("Capacidade reconciliada: {} vagas restauradas, {} reatribuídas", restored, unassigned.size());
+    }
+
+    private void register(ParkingLot lot) {
+        lots.put(lot.getId(), state(lot));
+    }
+
+    private LotState state(ParkingLot lot) {
+        List<LevelState> levels = new ArrayList<>();
+        int offset = 0;
+        for (ParkingLevel level : lot.getNiveis()) {
+            levels.add(new LevelState(level.getNome(), offset, level.getCapacidade()));
+            offset += level.getCapacidade();
+        }
+        return new LotState(lot.getId(), lot.getNome(), lot.isSomenteMensalistas(), List.copyOf(levels),
+                new SpotBitmap(offset));
+    }
+
+    private LotState lot(Long id) {
+        LotState state = id != null ? lots.get(id) : null;
+        if (state == null) {
+            throw new ResourceNotFoundException("Estacionamento não encontrado com ID: " + id);
+        }
+        return state;
+    }
+
+    private LotResponse toResponse(LotState state) {
+        SpotBitmap spots = state.spots();
+        List<LotResponse.LevelResponse> levels = state.levels().stream()
+                .map(level -> new LotResponse.LevelResponse(
+                        level.nome(),
+                        level.offset(),
+                        level.capacidade(),
+                        level.capacidade() - spots.countOccupied(level.offset(), level.offset() + level.capacidade())))
+                .toList();
+        LotResponse response = new LotResponse(state.id(), state.nome(), spots.capacity(), spots.occupied(), levels);
+        response.setSomenteMensalistas(state.somenteMensalistas());
+        return response;
+    }
+
+    private ParkingLot defaultLot() {
+        ParkingLot lot = new ParkingLot();
+        lot.setNome(defaultLotName);
+        ParkingLevel level = new ParkingLevel();
+        level.setLot(lot);
+        level.setNome("Térreo");
+        level.setCapacidade(defaultSpots);
+        lot.getNiveis().add(level);
+        return lot;
+    }
+
+    private record LotState(Long id, String nome, boolean somenteMensalistas, List<LevelState> levels,
+                            SpotBitmap spots) {
+    }
+
+    private record LevelState(String nome, int offset, int capacidade) {
+    }
+}
@@ -0,0 +1,227 @@
+package com.parking.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.api.event.CarEvent;
+import com.parking.api.model.Car;
+import com.parking.api.model.CarEventRecord;
+import com.parking.api.model.OccupancySnapshot;
+import com.parking.api.repository.CarEventRecordRepository;
+import com.parking.api.repository.CarRepository;
+import com.parking.api.repository.OccupancySnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Log de eventos dos carros ({@link CarEventRecord}) e os snapshots ({@link OccupancySnapshot}) dos
+ * carros estacionados calculados a partir dele.
+ * <p>
+ * Cada {@link CarEvent} publicado pelo CarService é gravado na transação da própria alteração, então
+ * o log e a tabela {@code cars} nunca divergem. O estado dos carros estacionados é o último snapshot
+ * mais os eventos posteriores, aplicados em ordem; a cada {@code parking.events.snapshot-interval-ms}
+ * um novo snapshot é calculado a partir do anterior, e só os dois mais recentes são mantidos. Como
+ * os IDs dos eventos são gerados antes do commit, eventos mais recentes que
+ * {@code parking.events.snapshot-lag-seconds} ficam fora do snapshot, dando tempo para transações
+ * concorrentes confirmarem. Sem nenhum snapshot (primeira execução), o primeiro é montado a partir
+ * da tabela {@code cars} com a mesma marca: a leitura da tabela, feita depois, já contém os eventos
+ * até a marca, e os posteriores são reaplicados sobre ela. Reaplicar é seguro porque cada evento
+ * traz o estado completo do carro.
+ */
+@Slf4j
+@Service
+public class CarEventStore {
+
+    private static final TypeReference<List<Car>> CAR_LIST = new TypeReference<>() {
+    };
+
+    private final CarEventRecordRepository eventRepository;
+    private final OccupancySnapshotRepository snapshotRepository;
+    private final CarRepository carRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    @Value("${parking.events.snapshot-lag-seconds:60}")
+    private long lagSeconds = 60;
+
+    @Autowired
+    public CarEventStore(CarEventRecordRepository eventRepository, OccupancySnapshotRepository snapshotRepository,
+                         CarRepository carRepository, ObjectMapper objectMapper,
+                         TransactionTemplate transactionTemplate) {
+        this(eventRepository, snapshotRepository, carRepository, objectMapper, transactionTemplate,
+                Clock.systemDefaultZone());
+    }
+
+    CarEventStore(CarEventRecordRepository eventRepository, OccupancySnapshotRepository snapshotRepository,
+                  CarRepository carRepository, ObjectMapper objectMapper, TransactionTemplate transactionTemplate,
+                  Clock clock) {
+        this.eventRepository = eventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.carRepository = carRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+    }
+
+    /**
+     * Grava o evento na transação de quem o publicou; uma falha aqui desfaz a alteração
+     */
+    @EventListener
+    public void append(CarEvent event) {
+        Car car = event.current();
+        if (car == null || car.getId() == null) {
+            return;
+        }
+        eventRepository.save(new CarEventRecord(null, event.type(), car.getId(), car.getLotId(), car.getPlaca(),
+                toJson(car), LocalDateTime.now(clock)));
+    }
+
+    /**
+     * Histórico do carro, do evento mais antigo ao mais recente
+     */
+    public List<CarEventRecord> history(Long carId) {
+        return eventRepository.findByCarIdOrderByIdAsc(carId);
+    }
+
+    /**
+     * Carros estacionados agora: o último snapshot mais todos os eventos posteriores
+     */
+    public Projection project() {
+        return transactionTemplate.execute(status -> {
+            OccupancySnapshot snapshot = latestSnapshot();
+            Map<Long, Car> parked = decode(snapshot.getDados());
+            long applied = 0;
+            long lastEvent = snapshot.getUltimoEvento();
+            try (Stream<CarEventRecord> tail = eventRepository.streamByIdGreaterThanOrderByIdAsc(lastEvent)) {
+                for (CarEventRecord record : (Iterable<CarEventRecord>) tail::iterator) {
+                    apply(parked, record.getTipo(), fromJson(record.getEstado()));
+                    lastEvent = record.getId();
+                    applied++;
+                }
+            }
+            return new Projection(parked.values(), snapshot.getUltimoEvento(), applied, lastEvent);
+        });
+    }
+
+    /**
+     * Calcula um novo snapshot a partir do anterior e dos eventos confirmados desde então; retorna o
+     * snapshot mais recente
+     */
+    @Scheduled(fixedDelayString = "${parking.events.snapshot-interval-ms:300000}",
+            initialDelayString = "${parking.events.snapshot-interval-ms:300000}")
+    public OccupancySnapshot compact() {
+        return transactionTemplate.execute(status -> {
+            OccupancySnapshot previous = latestSnapshot();
+            long upTo = eventRepository.findLastIdBefore(LocalDateTime.now(clock).minusSeconds(lagSeconds));
+            if (upTo <= previous.getUltimoEvento()) {
+                return previous;
+            }
+
+            Map<Long, Car> parked = decode(previous.getDados());
+            try (Stream<CarEventRecord> events = eventRepository
+                    .streamByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(previous.getUltimoEvento(), upTo)) {
+                events.forEach(record -> apply(parked, record.getTipo(), fromJson(record.getEstado())));
+            }
+            OccupancySnapshot snapshot = snapshotRepository.save(new OccupancySnapshot(null, upTo, parked.size(),
+                    encode(parked.values()), LocalDateTime.now(clock)));
+            snapshotRepository.deleteOlderThan(previous.getUltimoEvento());
+            log.debug("Snapshot de ocupação até o evento {}: {} carros estacionados", upTo, parked.size());
+            return snapshot;
+        });
+    }
+
+    /**
+     * Aplica um evento ao estado dos carros estacionados, indexado pelo ID do carro
+     */
+    static void apply(Map<Long, Car> parked, CarEvent.Type type, Car car) {
+        switch (type) {
+            case ENTRY, UPDATE -> {
+                if (car.getDataSaida() == null) {
+                    parked.put(car.getId(), car);
+                } else {
+                    parked.remove(car.getId());
+                }
+            }
+            case EXIT, DELETE -> parked.remove(car.getId());
+        }
+    }
+
+    private OccupancySnapshot latestSnapshot() {
+        return snapshotRepository.findFirstByOrderByUltimoEventoDesc().orElseGet(() -> {
+            // Primeira execução: os carros já estacionados não têm eventos no log. A marca é lida antes
+            // dos carros e com a mesma folga do compact: um evento até ela já está confirmado e
+            // refletido na tabela, e os seguintes ficam na cauda
+            long lastEvent = eventRepository.findLastIdBefore(LocalDateTime.now(clock).minusSeconds(lagSeconds));
+            List<Car> active = carRepository.findByDataSaidaIsNull();
+            log.info("Snapshot inicial de ocupação a partir da tabela de carros: {} carros", active.size());
+            return snapshotRepository.save(new OccupancySnapshot(null, lastEvent, active.size(), encode(active),
+                    LocalDateTime.now(clock)));
+        });
+    }
+
+    byte[] encode(Collection<Car> cars) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writerFor(CAR_LIST).writeValue(out, new ArrayList<>(cars));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Snapshot de ocupação não serializável", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    Map<Long, Car> decode(byte[] data) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            List<Car> cars = objectMapper.readValue(in, CAR_LIST);
+            Map<Long, Car> parked = new HashMap<>(cars.size() * 2);
+            cars.forEach(car -> parked.put(car.getId(), car));
+            return parked;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Snapshot de ocupação ilegível", e);
+        }
+    }
+
+    private String toJson(Car car) {
+        try {
+            return objectMapper.writeValueAsString(car);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Carro não serializável: " + car.getId(), e);
+        }
+    }
+
+    private Car fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, Car.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Evento de carro ilegível: " + json, e);
+        }
+    }
+
+    /**
+     * Carros estacionados, o último evento do snapshot usado e quantos eventos foram aplicados sobre ele
+     */
+    public record Projection(Collection<Car> parked, long snapshotEvent, long tailEvents, long lastEvent) {
+    }
+}
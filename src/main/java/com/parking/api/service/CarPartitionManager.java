@@ -0,0 +1,58 @@
+package com.parking.api.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cria a partição de {@code cars} de cada estacionamento quando a tabela é particionada por lista
+ * em {@code lot_id} (ver {@code docker/postgres/init/00-cars-partitioning.sql}).
+ * <p>
+ * Em bancos sem particionamento (H2 nos testes, ou um PostgreSQL com a tabela criada pelo
+ * Hibernate) não faz nada.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CarPartitionManager {
+
+    private static final String IS_PARTITIONED = """
+            SELECT count(*) FROM pg_partitioned_table pt
+            JOIN pg_class c ON c.oid = pt.partrelid
+            WHERE c.relname = 'cars' AND c.relnamespace = current_schema()::regnamespace
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean partitioned;
+
+    public void ensurePartition(Long lotId) {
+        if (lotId == null || !isPartitioned()) {
+            return;
+        }
+        try {
+            // lotId é numérico, então a concatenação no DDL é segura
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS cars_lot_" + lotId
+                    + " PARTITION OF cars FOR VALUES IN (" + lotId + ")");
+            log.debug("Partição cars_lot_{} disponível", lotId);
+        } catch (DataAccessException ex) {
+            // Acontece se cars_default já tiver registros do estacionamento; eles continuam acessíveis lá
+            log.warn("Não foi possível criar a partição cars_lot_{}: {}", lotId, ex.getMessage());
+        }
+    }
+
+    private boolean isPartitioned() {
+        Boolean cached = partitioned;
+        if (cached == null) {
+            boolean postgres = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())));
+            Long count = postgres ? jdbcTemplate.queryForObject(IS_PARTITIONED, Long.class) : null;
+            cached = count != null && count > 0;
+            partitioned = cached;
+        }
+        return cached;
+    }
+}
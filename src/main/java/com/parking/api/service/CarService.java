@@ -1,99 +1,348 @@
 package com.parking.api.service;
 
+import com.parking.api.dto.LookupStatsResponse;
+import com.parking.api.dto.QuoteResponse;
+import com.parking.api.event.CarEvent;
+import com.parking.api.exception.DatabaseUnavailableException;
 import com.parking.api.exception.DuplicatePlacaException;
 import com.parking.api.exception.ResourceNotFoundException;
+import com.parking.api.exception.UnauthorizedPlateException;
+import com.parking.api.exception.VersionConflictException;
 import com.parking.api.model.Car;
+import com.parking.api.model.CarEventRecord;
 import com.parking.api.repository.CarRepository;
+import com.parking.api.util.OptimisticRetry;
+import com.parking.api.util.SingleFlight;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CarService {
 
     private final CarRepository carRepository;
+    private final OwnerNameIndex ownerNameIndex;
+    private final CapacityService capacityService;
+    private final TariffService tariffService;
+    private final ReservationService reservationService;
+    private final MonthlyPassService monthlyPassService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final DatabaseGuard databaseGuard;
+    private final ActiveCarSnapshot activeCarSnapshot;
+    private final GateJournal gateJournal;
+    private final CarEventStore carEventStore;
+
+    @Value("${parking.concurrency.retry-attempts:3}")
+    private int retryAttempts = 3;
+
+    // Consultas simultâneas iguais (cancela, câmera, painéis) compartilham uma ida ao banco
+    private final SingleFlight<LookupKey, Car> lookupsById = new SingleFlight<>(Car::copyOf);
+    private final SingleFlight<LookupKey, Car> lookupsByPlaca = new SingleFlight<>(Car::copyOf);
 
     /**
-     * Lista todos os carros estacionados
+     * Lista todos os carros do estacionamento; com o banco indisponível, só os estacionados, pela
+     * última cópia
      */
     public List<Car> getAllCars() {
-        return carRepository.findAll();
+        Long lotId = capacityService.currentLot();
+        return databaseGuard.read(() -> carRepository.findByLotId(lotId), () -> activeCarSnapshot.activeCars(lotId));
     }
 
     /**
-     * Busca um carro por ID
+     * Busca um carro por ID no estacionamento; chamadas simultâneas para o mesmo carro fazem uma só consulta
      */
     public Car getCarById(Long id) {
-        return carRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Carro não encontrado com ID: " + id));
+        Long lotId = capacityService.currentLot();
+        return databaseGuard.read(() -> lookupsById.execute(new LookupKey(lotId, id), () -> findCar(id, lotId)));
     }
 
     /**
-     * Busca um carro pela placa
+     * Busca um carro pela placa no estacionamento (o registro mais recente da placa); chamadas
+     * simultâneas para a mesma placa fazem uma só consulta. Com o banco indisponível, carros
+     * estacionados são encontrados na última cópia
      */
     public Car getCarByPlaca(String placa) {
-        return carRepository.findByPlaca(placa)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Carro não encontrado com placa: " + placa));
+        Long lotId = capacityService.currentLot();
+        return databaseGuard.read(() -> lookupsByPlaca.execute(new LookupKey(lotId, placa), () ->
+                        carRepository.findFirstByLotIdAndPlacaOrderByDataEntradaDesc(lotId, placa)
+                                .orElseThrow(() -> new ResourceNotFoundException(
+                                        "Carro não encontrado com placa: " + placa))),
+                () -> activeCarSnapshot.findByPlaca(lotId, placa));
+    }
+
+    /**
+     * Consultas por ID e por placa: executadas no banco e atendidas por outra consulta simultânea
+     */
+    public LookupStatsResponse getLookupStats() {
+        return new LookupStatsResponse(
+                new LookupStatsResponse.Counters(lookupsById.executions(), lookupsById.collapsed()),
+                new LookupStatsResponse.Counters(lookupsByPlaca.executions(), lookupsByPlaca.collapsed()));
+    }
+
+    /**
+     * Busca carros pelo nome do proprietário (sem acentos, por prefixo), ordenados por relevância
+     */
+    public Page<Car> searchByOwner(String nome, Pageable pageable) {
+        return databaseGuard.read(() -> search(capacityService.currentLot(), nome, pageable));
+    }
+
+    private Page<Car> search(Long lotId, String nome, Pageable pageable) {
+        Page<Long> ids = ownerNameIndex.search(lotId, nome, pageable);
+        if (ids.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        Map<Long, Car> carsById = carRepository.findByIdInAndLotId(ids.getContent(), lotId).stream()
+                .collect(Collectors.toMap(Car::getId, Function.identity()));
+        List<Car> cars = ids.getContent().stream()
+                .map(carsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(cars, pageable, ids.getTotalElements());
     }
 
     /**
-     * Registra entrada de um carro no estacionamento
+     * Registra entrada de um carro no estacionamento. Com o banco indisponível (ou eventos ainda
+     * pendentes no diário), a entrada é gravada no {@link GateJournal} e aplicada depois
      */
-    @Transactional
     public Car createCar(Car car) {
-        // Verifica se já existe um carro com a mesma placa
-        if (carRepository.existsByPlaca(car.getPlaca())) {
+        Long lotId = capacityService.currentLot();
+        if (gateJournal.hasPending()) {
+            return journalEntry(lotId, car);
+        }
+        try {
+            return databaseGuard.write(() -> transactionTemplate.execute(status -> applyCreate(lotId, car, null)));
+        } catch (DatabaseUnavailableException e) {
+            if (!gateJournal.isEnabled()) {
+                throw e;
+            }
+            return journalEntry(lotId, car);
+        }
+    }
+
+    /**
+     * Aplica uma entrada aceita pelo diário, com o horário da cancela; participa da transação corrente
+     */
+    public Car applyJournaledEntry(GateEvent event) {
+        return transactionTemplate.execute(status -> applyCreate(event.lotId(), event.toCar(), event.ocorridoEm()));
+    }
+
+    private Car journalEntry(Long lotId, Car car) {
+        // A cópia em memória ainda pega a placa repetida; o resto é conferido ao aplicar
+        if (activeCarSnapshot.isParked(lotId, car.getPlaca())) {
+            throw new DuplicatePlacaException("Já existe um carro registrado com a placa: " + car.getPlaca());
+        }
+        return gateJournal.accept(GateEvent.entry(lotId, car, LocalDateTime.now())).toCar();
+    }
+
+    private Car applyCreate(Long lotId, Car car, LocalDateTime dataEntrada) {
+        // Estacionamentos de mensalistas só abrem a cancela para placas com mensalidade válida
+        if (capacityService.isSubscribersOnly(lotId) && !monthlyPassService.hasValidPass(lotId, car.getPlaca())) {
+            throw new UnauthorizedPlateException(
+                    "Placa sem mensalidade válida neste estacionamento: " + car.getPlaca());
+        }
+
+        // Verifica se a mesma placa já está estacionada neste estacionamento
+        if (carRepository.existsByLotIdAndPlacaAndDataSaidaIsNull(lotId, car.getPlaca())) {
             throw new DuplicatePlacaException(
                     "Já existe um carro registrado com a placa: " + car.getPlaca());
         }
 
-        return carRepository.save(car);
+        // Campos controlados pelo servidor não são aceitos do cliente
+        car.setId(null);
+        car.setDataSaida(null);
+        car.setTarifaId(null);
+        car.setValorPago(null);
+        car.setOperadorSaida(null);
+        car.setReservaId(null);
+        car.setWatchlistId(null);
+        car.setMotivoWatchlist(null);
+        car.setVersao(null);
+        car.setDataEntrada(dataEntrada);
+        car.setLotId(lotId);
+        car.setVaga(capacityService.allocate(lotId, reservationService.heldSpots(lotId, car.getPlaca())));
+        Car savedCar = carRepository.save(car);
+        reservationService.claim(savedCar).ifPresent(savedCar::setReservaId);
+        eventPublisher.publishEvent(CarEvent.entry(savedCar));
+        return savedCar;
     }
 
     /**
-     * Atualiza informações de um carro
+     * Atualiza informações de um carro. Uma edição sobre uma versão antiga ({@code versao} do corpo
+     * diferente da atual, ou alteração concorrente confirmada antes) é recusada com o estado atual
      */
-    @Transactional
     public Car updateCar(Long id, Car carDetails) {
-        Car car = getCarById(id);
+        Long lotId = capacityService.currentLot();
+        try {
+            return databaseGuard.write(() -> transactionTemplate.execute(status -> applyUpdate(id, lotId, carDetails)));
+        } catch (OptimisticLockingFailureException e) {
+            throw conflict(id, lotId);
+        }
+    }
+
+    private Car applyUpdate(Long id, Long lotId, Car carDetails) {
+        Car car = findCar(id, lotId);
+        if (carDetails.getVersao() != null && !carDetails.getVersao().equals(car.getVersao())) {
+            throw new VersionConflictException("Carro alterado por outra requisição: " + id, Car.copyOf(car));
+        }
 
-        // Verifica se a placa foi alterada e se já existe outro carro com a nova placa
+        // Verifica se a placa foi alterada e se a nova placa já está estacionada
         if (!car.getPlaca().equals(carDetails.getPlaca()) &&
-            carRepository.existsByPlaca(carDetails.getPlaca())) {
+            carRepository.existsByLotIdAndPlacaAndDataSaidaIsNull(car.getLotId(), carDetails.getPlaca())) {
             throw new DuplicatePlacaException(
                     "Já existe um carro registrado com a placa: " + carDetails.getPlaca());
         }
 
+        Car before = Car.copyOf(car);
         car.setModelo(carDetails.getModelo());
         car.setCor(carDetails.getCor());
         car.setPlaca(carDetails.getPlaca());
         car.setNomeProprietario(carDetails.getNomeProprietario());
 
-        return carRepository.save(car);
+        Car savedCar = carRepository.save(car);
+        eventPublisher.publishEvent(CarEvent.update(before, savedCar));
+        return savedCar;
+    }
+
+    /**
+     * Eventos do carro no estacionamento, do mais antigo ao mais recente; disponível também para
+     * carros já removidos
+     */
+    public List<CarEventRecord> getHistory(Long id) {
+        Long lotId = capacityService.currentLot();
+        List<CarEventRecord> history = databaseGuard.read(() -> carEventStore.history(id)).stream()
+                .filter(record -> Objects.equals(record.getLotId(), lotId))
+                .toList();
+        if (history.isEmpty()) {
+            throw new ResourceNotFoundException("Carro não encontrado com ID: " + id);
+        }
+        return history;
+    }
+
+    /**
+     * Valor da permanência: o cobrado na saída ou, com o carro ainda estacionado, o valor até agora
+     */
+    public QuoteResponse quote(Long id) {
+        Car car = getCarById(id);
+        boolean exited = car.getDataSaida() != null;
+        QuoteResponse quote = tariffService.quote(car, exited ? car.getDataSaida() : LocalDateTime.now());
+        if (exited && car.getValorPago() != null) {
+            quote.setValor(car.getValorPago());
+        }
+        return quote;
     }
 
     /**
      * Registra saída de um carro do estacionamento
      */
-    @Transactional
     public Car registerExit(Long id) {
-        Car car = getCarById(id);
-        car.setDataSaida(LocalDateTime.now());
-        return carRepository.save(car);
+        return registerExit(id, null);
+    }
+
+    /**
+     * Registra saída de um carro do estacionamento, identificando o operador do caixa. A saída é
+     * idempotente, então um conflito de versão com outra alteração do carro é repetido até
+     * {@code parking.concurrency.retry-attempts} vezes, cada uma relendo o registro. Com o banco
+     * indisponível, a saída é gravada no {@link GateJournal} e aplicada depois
+     */
+    public Car registerExit(Long id, String operador) {
+        Long lotId = capacityService.currentLot();
+        if (gateJournal.hasPending()) {
+            return gateJournal.accept(GateEvent.exit(lotId, id, operador, LocalDateTime.now())).toCar();
+        }
+        try {
+            return databaseGuard.write(() -> OptimisticRetry.run(retryAttempts, () -> transactionTemplate.execute(
+                    status -> applyExit(id, lotId, operador, LocalDateTime.now()))));
+        } catch (OptimisticLockingFailureException e) {
+            throw conflict(id, lotId);
+        } catch (DatabaseUnavailableException e) {
+            if (!gateJournal.isEnabled()) {
+                throw e;
+            }
+            return gateJournal.accept(GateEvent.exit(lotId, id, operador, LocalDateTime.now())).toCar();
+        }
+    }
+
+    /**
+     * Aplica uma saída aceita pelo diário, com o horário da cancela; participa da transação corrente
+     */
+    public Car applyJournaledExit(GateEvent event) {
+        return transactionTemplate.execute(
+                status -> applyExit(event.carId(), event.lotId(), event.operador(), event.ocorridoEm()));
+    }
+
+    /**
+     * Só a primeira saída vale: repetida, devolve o carro como está, sem gravar nem publicar evento.
+     * O horário de saída nunca muda depois de gravado (os agregados de ocupação dependem disso)
+     */
+    private Car applyExit(Long id, Long lotId, String operador, LocalDateTime dataSaida) {
+        Car car = findCar(id, lotId);
+        if (car.getDataSaida() != null) {
+            return car;
+        }
+        Car before = Car.copyOf(car);
+        capacityService.release(car.getLotId(), car.getVaga());
+        car.setDataSaida(dataSaida);
+        car.setSaidaRegistradaEm(LocalDateTime.now());
+
+        QuoteResponse quote = tariffService.quote(car, car.getDataSaida());
+        car.setTarifaId(quote.getTarifaId());
+        car.setValorPago(quote.getValor());
+        car.setOperadorSaida(operador);
+
+        Car savedCar = carRepository.save(car);
+        eventPublisher.publishEvent(CarEvent.exit(before, savedCar));
+        return savedCar;
     }
 
     /**
      * Remove um carro do registro
      */
-    @Transactional
     public void deleteCar(Long id) {
-        Car car = getCarById(id);
+        Long lotId = capacityService.currentLot();
+        databaseGuard.write(() -> transactionTemplate.execute(status -> {
+            applyDelete(id, lotId);
+            return null;
+        }));
+    }
+
+    private void applyDelete(Long id, Long lotId) {
+        Car car = findCar(id, lotId);
+        if (car.getDataSaida() == null) {
+            capacityService.release(car.getLotId(), car.getVaga());
+        }
         carRepository.delete(car);
+        eventPublisher.publishEvent(CarEvent.delete(car));
+    }
+
+    /**
+     * Busca sem agrupamento: as alterações precisam da entidade gerenciada pela própria transação
+     */
+    private Car findCar(Long id, Long lotId) {
+        return carRepository.findByIdAndLotId(id, lotId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Carro não encontrado com ID: " + id));
+    }
+
+    private VersionConflictException conflict(Long id, Long lotId) {
+        return new VersionConflictException("Carro alterado por outra requisição: " + id, findCar(id, lotId));
+    }
+
+    private record LookupKey(Long lotId, Object value) {
     }
 }
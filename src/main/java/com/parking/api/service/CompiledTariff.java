@@ -0,0 +1,145 @@
+package com.parking.api.service;
+
+import com.parking.api.model.TariffPlan;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+
+/**
+ * {@link TariffPlan} compilado em uma tabela imutável de valores, para calcular tarifas sem
+ * percorrer frações nem alocar objetos.
+ * <p>
+ * Como cada período de 24 horas começa no mesmo minuto do dia da entrada, o valor de um período
+ * depende só desse minuto e da quantidade de frações cobradas. A tabela guarda, para cada um dos
+ * 1440 minutos de início e cada quantidade de frações, o valor acumulado (primeira hora mais as
+ * frações diurnas e noturnas) já limitado ao teto diário. Calcular uma tarifa é uma divisão e no
+ * máximo duas leituras da tabela.
+ */
+public final class CompiledTariff {
+
+    private static final int MINUTES_PER_DAY = 1440;
+    private static final int FIRST_HOUR_MINUTES = 60;
+
+    private final Long planId;
+    private final String nome;
+    private final int graceMinutes;
+    private final int fractionMinutes;
+    private final int fractionsPerDay;
+    private final int stride;
+    private final long[] table;
+
+    private CompiledTariff(Long planId, String nome, int graceMinutes, int fractionMinutes, long[] table) {
+        this.planId = planId;
+        this.nome = nome;
+        this.graceMinutes = graceMinutes;
+        this.fractionMinutes = fractionMinutes;
+        this.fractionsPerDay = fractions(MINUTES_PER_DAY, fractionMinutes);
+        this.stride = fractionsPerDay + 1;
+        this.table = table;
+    }
+
+    /**
+     * @throws IllegalArgumentException se o plano for inconsistente
+     */
+    public static CompiledTariff compile(TariffPlan plan) {
+        int fraction = plan.getFracaoMinutos();
+        if (fraction < 5 || fraction > FIRST_HOUR_MINUTES) {
+            throw new IllegalArgumentException("Fração deve ter entre 5 e 60 minutos: " + fraction);
+        }
+        if (plan.getToleranciaMinutos() < 0) {
+            throw new IllegalArgumentException("Tolerância não pode ser negativa");
+        }
+        boolean hasNight = plan.getInicioNoturno() != null || plan.getFimNoturno() != null
+                || plan.getValorFracaoNoturna() != null;
+        if (hasNight && (plan.getInicioNoturno() == null || plan.getFimNoturno() == null
+                || plan.getValorFracaoNoturna() == null)) {
+            throw new IllegalArgumentException(
+                    "Período noturno exige início, fim e valor da fração noturna: " + plan.getNome());
+        }
+
+        long firstHour = toCents(plan.getValorPrimeiraHora());
+        long dayFraction = toCents(plan.getValorFracao());
+        long nightFraction = hasNight ? toCents(plan.getValorFracaoNoturna()) : dayFraction;
+        long cap = plan.getTetoDiario() != null ? toCents(plan.getTetoDiario()) : Long.MAX_VALUE;
+        int nightStart = hasNight ? minuteOfDay(plan.getInicioNoturno()) : 0;
+        int nightEnd = hasNight ? minuteOfDay(plan.getFimNoturno()) : 0;
+
+        int fractionsPerDay = fractions(MINUTES_PER_DAY, fraction);
+        int stride = fractionsPerDay + 1;
+        long[] table = new long[MINUTES_PER_DAY * stride];
+        for (int start = 0; start < MINUTES_PER_DAY; start++) {
+            long fee = firstHour;
+            table[start * stride] = Math.min(fee, cap);
+            for (int n = 1; n <= fractionsPerDay; n++) {
+                int fractionStart = (start + FIRST_HOUR_MINUTES + (n - 1) * fraction) % MINUTES_PER_DAY;
+                fee += isNight(fractionStart, nightStart, nightEnd) ? nightFraction : dayFraction;
+                table[start * stride + n] = Math.min(fee, cap);
+            }
+        }
+        return new CompiledTariff(plan.getId(), plan.getNome(), plan.getToleranciaMinutos(), fraction, table);
+    }
+
+    /**
+     * Valor em centavos de uma permanência entre dois instantes em segundos desde a época
+     * (horário local tratado como UTC)
+     */
+    public long feeCents(long entryEpochSecond, long exitEpochSecond) {
+        long seconds = exitEpochSecond - entryEpochSecond;
+        if (seconds <= 0) {
+            return 0;
+        }
+        long minutes = (seconds + 59) / 60;
+        if (minutes <= graceMinutes) {
+            return 0;
+        }
+
+        int row = (int) Math.floorMod(Math.floorDiv(entryEpochSecond, 60), MINUTES_PER_DAY) * stride;
+        long days = minutes / MINUTES_PER_DAY;
+        int remainder = (int) (minutes % MINUTES_PER_DAY);
+        long fee = days * table[row + fractionsPerDay];
+        if (remainder > 0) {
+            fee += table[row + fractions(remainder, fractionMinutes)];
+        }
+        return fee;
+    }
+
+    public long feeCents(LocalDateTime entrada, LocalDateTime saida) {
+        return feeCents(entrada.toEpochSecond(ZoneOffset.UTC), saida.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    public Long getPlanId() {
+        return planId;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * Frações cobradas após a primeira hora em uma permanência de {@code minutes} minutos
+     */
+    private static int fractions(int minutes, int fraction) {
+        return minutes <= FIRST_HOUR_MINUTES ? 0 : (minutes - FIRST_HOUR_MINUTES + fraction - 1) / fraction;
+    }
+
+    private static boolean isNight(int minute, int start, int end) {
+        if (start == end) {
+            return false;
+        }
+        return start < end ? minute >= start && minute < end : minute >= start || minute < end;
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static long toCents(BigDecimal value) {
+        if (value == null || value.signum() < 0) {
+            throw new IllegalArgumentException("Valor da tarifa inválido: " + value);
+        }
+        return value.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
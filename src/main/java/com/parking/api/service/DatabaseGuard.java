@@ -0,0 +1,161 @@
+package com.parking.api.service;
+
+import com.parking.api.exception.DatabaseUnavailableException;
+import com.parking.api.util.CircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Disjuntor ({@link CircuitBreaker}) em volta do acesso ao banco pelos serviços.
+ * <p>
+ * Falhas de conexão, de transação e tempos esgotados (não as regras de negócio nem os conflitos de
+ * versão) e chamadas mais lentas que {@code parking.db.breaker.slow-call} contam para abrir o
+ * disjuntor. Com ele aberto, escritas são recusadas na hora com
+ * {@link DatabaseUnavailableException} ({@code 503}) em vez de esperarem o tempo de conexão, e
+ * leituras com alternativa são respondidas pela última cópia boa em memória, marcada com
+ * {@link #STALE_ATTRIBUTE}. Depois de {@code parking.db.breaker.open-duration}, algumas chamadas de
+ * teste vão ao banco e, se forem bem, o funcionamento normal volta sozinho.
+ */
+@Slf4j
+@Component
+public class DatabaseGuard {
+
+    /** Atributo da requisição com o instante da cópia usada em uma leitura desatualizada */
+    public static final String STALE_ATTRIBUTE = DatabaseGuard.class.getName() + ".staleAsOf";
+
+    private static final String UNAVAILABLE = "Banco de dados indisponível, tente novamente";
+
+    private final CircuitBreaker breaker;
+
+    @Autowired
+    public DatabaseGuard(@Value("${parking.db.breaker.window:20}") int window,
+                         @Value("${parking.db.breaker.minimum-calls:10}") int minimumCalls,
+                         @Value("${parking.db.breaker.failure-rate:0.5}") double failureRate,
+                         @Value("${parking.db.breaker.slow-call:PT2S}") Duration slowCall,
+                         @Value("${parking.db.breaker.slow-call-rate:0.8}") double slowCallRate,
+                         @Value("${parking.db.breaker.open-duration:PT10S}") Duration openDuration,
+                         @Value("${parking.db.breaker.probes:3}") int probes) {
+        this(new CircuitBreaker(window, minimumCalls, failureRate, slowCall.toNanos(), slowCallRate,
+                openDuration.toNanos(), probes, System::nanoTime));
+    }
+
+    DatabaseGuard(CircuitBreaker breaker) {
+        this.breaker = breaker;
+    }
+
+    /**
+     * Leitura sem alternativa: com o banco indisponível, {@link DatabaseUnavailableException}
+     */
+    public <T> T read(Supplier<T> query) {
+        return call(query, null);
+    }
+
+    /**
+     * Leitura com alternativa: com o banco indisponível, o resultado de {@code stale} (que deve
+     * chamar {@link #markStale}); se ele for nulo, {@link DatabaseUnavailableException}
+     */
+    public <T> T read(Supplier<T> query, Supplier<T> stale) {
+        return call(query, stale);
+    }
+
+    public <T> T write(Supplier<T> operation) {
+        return call(operation, null);
+    }
+
+    public void write(Runnable operation) {
+        call(() -> {
+            operation.run();
+            return null;
+        }, null);
+    }
+
+    public CircuitBreaker.State state() {
+        return breaker.state();
+    }
+
+    /**
+     * Marca a resposta da requisição corrente como vinda de uma cópia de {@code asOf}
+     */
+    public static void markStale(LocalDateTime asOf) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(STALE_ATTRIBUTE, asOf, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Se a exceção indica banco indisponível ou degradado (e não um erro da própria requisição)
+     */
+    static boolean isDatabaseFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConcurrencyFailureException) {
+                return false;
+            }
+            if (cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof TransientDataAccessException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T> T call(Supplier<T> operation, Supplier<T> stale) {
+        if (!breaker.tryAcquire()) {
+            return fallback(stale);
+        }
+
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = operation.get();
+        } catch (RuntimeException e) {
+            boolean failure = isDatabaseFailure(e);
+            record(failure, System.nanoTime() - start);
+            if (!failure) {
+                throw e;
+            }
+            log.warn("Falha de acesso ao banco: {}", e.getMessage());
+            return fallback(stale);
+        }
+        record(false, System.nanoTime() - start);
+        return result;
+    }
+
+    private void record(boolean failure, long durationNanos) {
+        CircuitBreaker.State before = breaker.state();
+        CircuitBreaker.State after = breaker.record(failure, durationNanos);
+        if (after != before) {
+            if (after == CircuitBreaker.State.OPEN) {
+                log.warn("Disjuntor do banco aberto: escritas recusadas e leituras pela última cópia");
+            } else if (after == CircuitBreaker.State.CLOSED) {
+                log.info("Disjuntor do banco fechado: acesso normal restabelecido");
+            }
+        }
+    }
+
+    private <T> T fallback(Supplier<T> stale) {
+        T result = stale != null ? stale.get() : null;
+        if (result == null) {
+            long seconds = (breaker.remainingOpenNanos() + 999_999_999L) / 1_000_000_000L;
+            throw new DatabaseUnavailableException(UNAVAILABLE, Math.max(1, seconds));
+        }
+        return result;
+    }
+}
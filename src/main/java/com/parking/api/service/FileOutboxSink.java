@@ -0,0 +1,63 @@
+package com.parking.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.api.model.OutboxMessage;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Acrescenta cada mensagem como uma linha JSON em {@code parking.outbox.file.path} e só confirma o
+ * lote depois de ele estar no disco
+ */
+@Component
+@ConditionalOnProperty("parking.outbox.file.path")
+public class FileOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+
+    public FileOutboxSink(ObjectMapper objectMapper, @Value("${parking.outbox.file.path}") Path path)
+            throws IOException {
+        this.objectMapper = objectMapper;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void deliver(List<OutboxMessage> messages) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (OutboxMessage message : messages) {
+            lines.write(objectMapper.writeValueAsBytes(message));
+            lines.write('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        channel.close();
+    }
+}
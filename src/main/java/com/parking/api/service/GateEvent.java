@@ -0,0 +1,49 @@
+package com.parking.api.service;
+
+import com.parking.api.model.Car;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entrada ou saída aceita pela cancela e gravada no {@link GateJournal} enquanto o banco está
+ * indisponível; {@code ocorridoEm} é o horário da cancela, usado também ao aplicar o evento
+ */
+public record GateEvent(String id, Type type, Long lotId, Long carId, String placa, String modelo, String cor,
+                        String nomeProprietario, String operador, LocalDateTime ocorridoEm) {
+
+    public enum Type {
+        ENTRY,
+        EXIT
+    }
+
+    public static GateEvent entry(Long lotId, Car car, LocalDateTime ocorridoEm) {
+        return new GateEvent(UUID.randomUUID().toString(), Type.ENTRY, lotId, null, car.getPlaca(), car.getModelo(),
+                car.getCor(), car.getNomeProprietario(), null, ocorridoEm);
+    }
+
+    public static GateEvent exit(Long lotId, Long carId, String operador, LocalDateTime ocorridoEm) {
+        return new GateEvent(UUID.randomUUID().toString(), Type.EXIT, lotId, carId, null, null, null, null,
+                operador, ocorridoEm);
+    }
+
+    /**
+     * Carro como a cancela o vê antes de o evento ser aplicado (sem ID numa entrada)
+     */
+    public Car toCar() {
+        Car car = new Car();
+        car.setId(carId);
+        car.setLotId(lotId);
+        car.setPlaca(placa);
+        car.setModelo(modelo);
+        car.setCor(cor);
+        car.setNomeProprietario(nomeProprietario);
+        if (type == Type.ENTRY) {
+            car.setDataEntrada(ocorridoEm);
+        } else {
+            car.setDataSaida(ocorridoEm);
+            car.setOperadorSaida(operador);
+        }
+        return car;
+    }
+}
@@ -0,0 +1,157 @@
+package com.parking.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.api.exception.DatabaseUnavailableException;
+import com.parking.api.util.MappedJournal;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Diário local ({@link MappedJournal}) das entradas e saídas aceitas pela cancela enquanto o banco
+ * está indisponível. O CarService grava o evento e responde na hora; o {@link JournalReplayer}
+ * aplica os eventos no banco, na ordem, quando ele volta.
+ */
+@Slf4j
+@Service
+public class GateJournal {
+
+    /** Atributo da requisição com o ID do evento gravado no diário em vez do banco */
+    public static final String JOURNALED_ATTRIBUTE = GateJournal.class.getName() + ".eventId";
+
+    private static final long RETRY_AFTER_SECONDS = 30;
+
+    private final ObjectMapper objectMapper;
+    private final MappedJournal journal;
+    private final boolean enabled;
+
+    public GateJournal(ObjectMapper objectMapper,
+                       @Value("${parking.journal.enabled:true}") boolean enabled,
+                       @Value("${parking.journal.path:data/gate-journal.dat}") Path path,
+                       @Value("${parking.journal.capacity-bytes:67108864}") int capacity,
+                       @Value("${parking.journal.fsync:true}") boolean fsync) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.journal = enabled ? new MappedJournal(path, capacity, fsync) : null;
+        if (enabled && journal.hasPending()) {
+            log.warn("Diário da cancela com {} bytes pendentes de aplicação", journal.pendingBytes());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Se há eventos ainda não aplicados; enquanto houver, novos eventos também vão para o diário,
+     * para que sejam aplicados na ordem em que aconteceram
+     */
+    public boolean hasPending() {
+        return enabled && journal.hasPending();
+    }
+
+    /**
+     * Grava o evento no disco e marca a resposta da requisição corrente como aceita pelo diário
+     */
+    public GateEvent accept(GateEvent event) {
+        if (!enabled) {
+            throw new DatabaseUnavailableException("Banco de dados indisponível, tente novamente", RETRY_AFTER_SECONDS);
+        }
+        byte[] data;
+        try {
+            data = objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Evento da cancela não serializável", e);
+        }
+        if (!journal.append(data)) {
+            log.error("Diário da cancela cheio ({} bytes): evento {} recusado", journal.capacity(), event.id());
+            throw new DatabaseUnavailableException("Banco de dados indisponível e diário local cheio",
+                    RETRY_AFTER_SECONDS);
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(JOURNALED_ATTRIBUTE, event.id(), RequestAttributes.SCOPE_REQUEST);
+        }
+        return event;
+    }
+
+    /**
+     * Eventos pendentes, na ordem em que foram aceitos
+     */
+    public List<Pending> pending(int max) {
+        if (!enabled) {
+            return List.of();
+        }
+        return journal.pending(max).stream()
+                .map(entry -> new Pending(read(entry.data()), entry))
+                .toList();
+    }
+
+    /**
+     * Marca o evento (e os anteriores) como aplicado; quando não resta nada, o arquivo recomeça
+     */
+    public void commit(Pending pending) {
+        journal.commit(pending.entry());
+    }
+
+    /**
+     * Recomeça o arquivo se todos os eventos foram aplicados; retorna se recomeçou
+     */
+    public boolean reset() {
+        return enabled && journal.reset();
+    }
+
+    public int pendingBytes() {
+        return enabled ? journal.pendingBytes() : 0;
+    }
+
+    public int usedBytes() {
+        return enabled ? journal.usedBytes() : 0;
+    }
+
+    public int capacity() {
+        return enabled ? journal.capacity() : 0;
+    }
+
+    String toJson(GateEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Evento da cancela não serializável", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (enabled) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Evento do registro, ou nulo se ele não puder ser lido (vai para a fila do operador)
+     */
+    private GateEvent read(byte[] data) {
+        try {
+            return objectMapper.readValue(data, GateEvent.class);
+        } catch (IOException e) {
+            log.error("Evento ilegível no diário da cancela: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Evento pendente; {@code event} é nulo se o registro não pôde ser lido
+     */
+    public record Pending(GateEvent event, MappedJournal.Entry entry) {
+    }
+}
@@ -0,0 +1,176 @@
+package com.parking.api.service;
+
+import com.parking.api.dto.JournalStatusResponse;
+import com.parking.api.exception.DatabaseUnavailableException;
+import com.parking.api.exception.ResourceNotFoundException;
+import com.parking.api.model.AppliedJournalEvent;
+import com.parking.api.model.JournalConflict;
+import com.parking.api.repository.AppliedJournalEventRepository;
+import com.parking.api.repository.JournalConflictRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Aplica no banco, na ordem, os eventos pendentes do {@link GateJournal}.
+ * <p>
+ * Cada evento é aplicado na mesma transação que grava seu {@link AppliedJournalEvent}; só depois
+ * a posição do diário avança. Se o processo cair entre as duas coisas, o evento é lido de novo e
+ * ignorado, então nada é aplicado duas vezes. Um evento que o banco recusa por regra de negócio
+ * (placa já estacionada, carro inexistente, estacionamento lotado) ou que não pode ser lido vai
+ * para a fila do operador ({@link JournalConflict}) e o diário segue. Com o banco ainda
+ * indisponível, a aplicação para e recomeça na próxima execução, do mesmo evento.
+ */
+@Slf4j
+@Service
+public class JournalReplayer {
+
+    private final GateJournal gateJournal;
+    private final CarService carService;
+    private final DatabaseGuard databaseGuard;
+    private final AppliedJournalEventRepository appliedRepository;
+    private final JournalConflictRepository conflictRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    @Value("${parking.journal.replay-batch:100}")
+    private int batchSize = 100;
+
+    @Autowired
+    public JournalReplayer(GateJournal gateJournal, CarService carService, DatabaseGuard databaseGuard,
+                           AppliedJournalEventRepository appliedRepository,
+                           JournalConflictRepository conflictRepository, TransactionTemplate transactionTemplate) {
+        this(gateJournal, carService, databaseGuard, appliedRepository, conflictRepository, transactionTemplate,
+                Clock.systemDefaultZone());
+    }
+
+    JournalReplayer(GateJournal gateJournal, CarService carService, DatabaseGuard databaseGuard,
+                    AppliedJournalEventRepository appliedRepository, JournalConflictRepository conflictRepository,
+                    TransactionTemplate transactionTemplate, Clock clock) {
+        this.gateJournal = gateJournal;
+        this.carService = carService;
+        this.databaseGuard = databaseGuard;
+        this.appliedRepository = appliedRepository;
+        this.conflictRepository = conflictRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+    }
+
+    /**
+     * Aplica os eventos pendentes até esvaziar o diário ou o banco falhar; retorna quantos foram processados
+     */
+    @Scheduled(fixedDelayString = "${parking.journal.replay-interval-ms:1000}",
+            initialDelayString = "${parking.journal.replay-interval-ms:1000}")
+    public int replay() {
+        int processed = 0;
+        List<GateJournal.Pending> batch;
+        while (!(batch = gateJournal.pending(batchSize)).isEmpty()) {
+            for (GateJournal.Pending pending : batch) {
+                try {
+                    databaseGuard.write(() -> apply(pending));
+                } catch (DatabaseUnavailableException e) {
+                    log.debug("Diário da cancela: banco indisponível, {} eventos aplicados nesta execução", processed);
+                    return processed;
+                }
+                gateJournal.commit(pending);
+                processed++;
+            }
+        }
+
+        if (gateJournal.reset()) {
+            // Com o arquivo recomeçado, nenhum evento antigo pode ser lido de novo
+            transactionTemplate.executeWithoutResult(status -> appliedRepository.deleteAllInBatch());
+            log.info("Diário da cancela aplicado: {} eventos", processed);
+        }
+        return processed;
+    }
+
+    public JournalStatusResponse getStatus() {
+        return new JournalStatusResponse(gateJournal.isEnabled(), gateJournal.pendingBytes(),
+                gateJournal.usedBytes(), gateJournal.capacity(),
+                databaseGuard.read(conflictRepository::countByResolvidoFalse));
+    }
+
+    public List<JournalConflict> getOpenConflicts() {
+        return databaseGuard.read(conflictRepository::findByResolvidoFalseOrderByOcorridoEmAsc);
+    }
+
+    /**
+     * Marca o conflito como tratado pelo operador; a correção em si é feita pelas rotas normais
+     */
+    public JournalConflict resolveConflict(Long id) {
+        return databaseGuard.write(() -> transactionTemplate.execute(status -> {
+            JournalConflict conflict = conflictRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Conflito não encontrado com ID: " + id));
+            if (!conflict.isResolvido()) {
+                conflict.setResolvido(true);
+                conflict.setResolvidoEm(LocalDateTime.now(clock));
+                conflict = conflictRepository.save(conflict);
+            }
+            return conflict;
+        }));
+    }
+
+    private void apply(GateJournal.Pending pending) {
+        GateEvent event = pending.event();
+        if (event == null) {
+            String raw = new String(pending.entry().data(), StandardCharsets.UTF_8);
+            transactionTemplate.executeWithoutResult(status -> conflictRepository.save(conflict(
+                    "ilegivel-" + pending.entry().next(), "UNKNOWN", null, "Evento ilegível no diário", raw)));
+            return;
+        }
+
+        String rejection = transactionTemplate.execute(status -> {
+            if (appliedRepository.existsById(event.id())) {
+                return null;
+            }
+            try {
+                if (event.type() == GateEvent.Type.ENTRY) {
+                    carService.applyJournaledEntry(event);
+                } else {
+                    carService.applyJournaledExit(event);
+                }
+            } catch (RuntimeException e) {
+                if (DatabaseGuard.isDatabaseFailure(e)) {
+                    throw e;
+                }
+                status.setRollbackOnly();
+                return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            }
+            appliedRepository.save(new AppliedJournalEvent(event.id(), LocalDateTime.now(clock)));
+            return null;
+        });
+
+        if (rejection != null) {
+            log.warn("Evento {} da cancela ({} {}) enviado ao operador: {}",
+                    event.id(), event.type(), event.placa() != null ? event.placa() : event.carId(), rejection);
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!appliedRepository.existsById(event.id())) {
+                    conflictRepository.save(conflict(event.id(), event.type().name(), event, rejection,
+                            gateJournal.toJson(event)));
+                    appliedRepository.save(new AppliedJournalEvent(event.id(), LocalDateTime.now(clock)));
+                }
+            });
+        }
+    }
+
+    private JournalConflict conflict(String eventId, String tipo, GateEvent event, String motivo, String json) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        return new JournalConflict(null, eventId, tipo,
+                event != null ? event.lotId() : null,
+                event != null ? event.carId() : null,
+                event != null ? event.placa() : null,
+                event != null ? event.ocorridoEm() : now,
+                motivo.length() > 500 ? motivo.substring(0, 500) : motivo,
+                json.length() > 2000 ? json.substring(0, 2000) : json,
+                now, false, null);
+    }
+}
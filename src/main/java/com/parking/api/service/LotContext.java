@@ -0,0 +1,44 @@
+package com.parking.api.service;
+
+/**
+ * Estacionamento da requisição corrente, definido na borda HTTP (cabeçalho {@code X-Lot-Id}).
+ * <p>
+ * Os serviços leem o valor por meio de {@link CapacityService#currentLot()}, que valida o
+ * estacionamento e usa o padrão quando nenhum foi informado. Com um token de um estacionamento, a
+ * requisição fica também restrita a ele ({@link #scope()}); usuários globais e requisições sem
+ * autenticação não têm restrição.
+ */
+public final class LotContext {
+
+    public static final String HEADER = "X-Lot-Id";
+
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<Long> SCOPE = new ThreadLocal<>();
+
+    private LotContext() {
+    }
+
+    public static Long current() {
+        return CURRENT.get();
+    }
+
+    public static void set(Long lotId) {
+        CURRENT.set(lotId);
+    }
+
+    /**
+     * Estacionamento ao qual o token da requisição está restrito, ou nulo para quem vale em todos
+     */
+    public static Long scope() {
+        return SCOPE.get();
+    }
+
+    public static void restrictTo(Long lotId) {
+        SCOPE.set(lotId);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+        SCOPE.remove();
+    }
+}
@@ -0,0 +1,237 @@
+package com.parking.api.service;
+
+import com.parking.api.dto.GateDecisionResponse;
+import com.parking.api.exception.AccessDeniedException;
+import com.parking.api.exception.ResourceNotFoundException;
+import com.parking.api.model.MonthlyPass;
+import com.parking.api.repository.MonthlyPassRepository;
+import com.parking.api.util.AfterCommit;
+import com.parking.api.util.LongHashSet;
+import com.parking.api.util.PlateCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Mensalidades e a autorização de placas na cancela.
+ * <p>
+ * As mensalidades válidas no dia ficam em um {@link PassIndex} imutável publicado em um campo
+ * volátil: a cancela consulta o índice sem travas e sem acessar o banco. Cada alteração de
+ * mensalidade recalcula apenas a placa afetada e publica um novo índice depois do commit; o índice
+ * inteiro é refeito na inicialização e na virada do dia ({@code parking.passes.rebuild-cron}), quando
+ * mensalidades começam ou deixam de valer. As placas alteradas enquanto o índice é refeito são
+ * recalculadas de novo sobre o índice novo antes de ele ser publicado, para que a reconstrução não
+ * desfaça uma alteração lida depois da sua consulta.
+ * <p>
+ * Mensalidades válidas em todos os estacionamentos só são cadastradas ou alteradas por usuários
+ * globais.
+ */
+@Slf4j
+@Service
+public class MonthlyPassService {
+
+    private final MonthlyPassRepository passRepository;
+    private final CapacityService capacityService;
+    private final Clock clock;
+
+    private final Object rebuildLock = new Object();
+
+    private volatile PassIndex index = PassIndex.EMPTY;
+
+    /**
+     * Placas alteradas durante a reconstrução em andamento, com os estacionamentos alterados (nulo:
+     * todos); nulo fora dela
+     */
+    private Map<String, Set<Long>> changedDuringRebuild;
+
+    @Autowired
+    public MonthlyPassService(MonthlyPassRepository passRepository, CapacityService capacityService) {
+        this(passRepository, capacityService, Clock.systemDefaultZone());
+    }
+
+    MonthlyPassService(MonthlyPassRepository passRepository, CapacityService capacityService, Clock clock) {
+        this.passRepository = passRepository;
+        this.capacityService = capacityService;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${parking.passes.rebuild-cron:0 0 0 * * *}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changedDuringRebuild = new HashMap<>();
+            }
+            LongHashSet keys = new LongHashSet();
+            try (Stream<MonthlyPassRepository.PassKey> passes = passRepository.streamValidOn(LocalDate.now(clock))) {
+                passes.forEach(pass -> {
+                    long code = PlateCodec.tryEncode(pass.getPlaca());
+                    if (code != 0) {
+                        keys.add(PassIndex.key(pass.getLotId(), code));
+                    }
+                });
+            }
+            int replayed;
+            synchronized (this) {
+                PassIndex rebuilt = PassIndex.build(keys);
+                for (Map.Entry<String, Set<Long>> changed : changedDuringRebuild.entrySet()) {
+                    rebuilt = recompute(rebuilt, changed.getKey(), changed.getValue());
+                }
+                replayed = changedDuringRebuild.size();
+                changedDuringRebuild = null;
+                index = rebuilt;
+            }
+            log.info("Índice de mensalidades reconstruído: {} placas autorizadas, {} alteradas durante a reconstrução",
+                    keys.size(), replayed);
+        }
+    }
+
+    /**
+     * Decisão da cancela para a placa no estacionamento da requisição
+     */
+    public GateDecisionResponse authorize(String placa) {
+        Long lotId = capacityService.currentLot();
+        boolean mensalista = hasValidPass(lotId, placa);
+        boolean autorizado = mensalista || !capacityService.isSubscribersOnly(lotId);
+        return new GateDecisionResponse(lotId, placa, autorizado, mensalista);
+    }
+
+    /**
+     * Se a placa tem mensalidade válida hoje no estacionamento; não acessa o banco
+     */
+    public boolean hasValidPass(Long lotId, String placa) {
+        long code = PlateCodec.tryEncode(placa);
+        return code != 0 && index.allows(lotId, code);
+    }
+
+    public List<MonthlyPass> getPasses() {
+        return passRepository.findVisibleInLot(capacityService.currentLot());
+    }
+
+    public MonthlyPass getPass(Long id) {
+        return passRepository.findVisibleInLot(id, capacityService.currentLot())
+                .orElseThrow(() -> new ResourceNotFoundException("Mensalidade não encontrada com ID: " + id));
+    }
+
+    /**
+     * Cadastra uma mensalidade no estacionamento da requisição, ou em todos se {@code lotId} vier nulo
+     */
+    @Transactional
+    public MonthlyPass createPass(MonthlyPass pass, boolean todosEstacionamentos) {
+        if (todosEstacionamentos) {
+            requireGlobalCaller();
+        }
+        validatePeriod(pass);
+        pass.setId(null);
+        pass.setAtivo(true);
+        pass.setLotId(todosEstacionamentos ? null : capacityService.currentLot());
+        MonthlyPass saved = passRepository.save(pass);
+        refresh(saved.getPlaca(), saved.getLotId());
+        return saved;
+    }
+
+    @Transactional
+    public MonthlyPass updatePass(Long id, MonthlyPass details) {
+        MonthlyPass pass = getModifiablePass(id);
+        validatePeriod(details);
+        String previousPlaca = pass.getPlaca();
+        pass.setPlaca(details.getPlaca());
+        pass.setTitular(details.getTitular());
+        pass.setValidoDe(details.getValidoDe());
+        pass.setValidoAte(details.getValidoAte());
+        pass.setAtivo(details.isAtivo());
+        MonthlyPass saved = passRepository.save(pass);
+        refresh(previousPlaca, saved.getLotId());
+        if (!previousPlaca.equals(saved.getPlaca())) {
+            refresh(saved.getPlaca(), saved.getLotId());
+        }
+        return saved;
+    }
+
+    /**
+     * Desativa a mensalidade (o histórico é mantido)
+     */
+    @Transactional
+    public void deactivatePass(Long id) {
+        MonthlyPass pass = getModifiablePass(id);
+        pass.setAtivo(false);
+        passRepository.save(pass);
+        refresh(pass.getPlaca(), pass.getLotId());
+    }
+
+    /**
+     * Depois do commit, recalcula as chaves da placa a partir das mensalidades gravadas e publica o
+     * novo índice. A leitura fica dentro do bloco sincronizado: duas alterações da mesma placa
+     * publicam na ordem em que leem, então a última sempre reflete o estado confirmado mais recente.
+     * A chave do estacionamento alterado é removida se nenhuma mensalidade a mantiver (por exemplo,
+     * quando a placa da mensalidade foi trocada)
+     */
+    private void refresh(String placa, Long lotId) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                index = recompute(index, placa, Collections.singleton(lotId));
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.computeIfAbsent(placa, p -> new HashSet<>()).add(lotId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Índice com as chaves da placa conforme as mensalidades gravadas; chamado com o monitor do serviço
+     */
+    private PassIndex recompute(PassIndex current, String placa, Set<Long> changedLots) {
+        long code = PlateCodec.encode(placa);
+        LocalDate today = LocalDate.now(clock);
+        Map<Long, Boolean> keys = new HashMap<>();
+        for (Long lot : changedLots) {
+            keys.put(PassIndex.key(lot, code), false);
+        }
+        for (MonthlyPass pass : passRepository.findByPlaca(placa)) {
+            keys.merge(PassIndex.key(pass.getLotId(), code), pass.isValidOn(today), Boolean::logicalOr);
+        }
+        PassIndex updated = current;
+        for (Map.Entry<Long, Boolean> entry : keys.entrySet()) {
+            updated = entry.getValue() ? updated.with(entry.getKey()) : updated.without(entry.getKey());
+        }
+        return updated;
+    }
+
+    /**
+     * Mensalidade visível que a requisição pode alterar: as de todos os estacionamentos só por usuários globais
+     */
+    private MonthlyPass getModifiablePass(Long id) {
+        MonthlyPass pass = getPass(id);
+        if (pass.getLotId() == null) {
+            requireGlobalCaller();
+        }
+        return pass;
+    }
+
+    private void requireGlobalCaller() {
+        if (!capacityService.isGlobalCaller()) {
+            throw new AccessDeniedException("Só usuários globais alteram mensalidades de todos os estacionamentos");
+        }
+    }
+
+    private static void validatePeriod(MonthlyPass pass) {
+        if (pass.getValidoDe() != null && pass.getValidoAte() != null && pass.getValidoAte().isBefore(pass.getValidoDe())) {
+            throw new IllegalArgumentException("Período inválido: 'validoAte' deve ser igual ou posterior a 'validoDe'");
+        }
+    }
+}
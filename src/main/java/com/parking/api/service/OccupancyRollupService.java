@@ -0,0 +1,266 @@
+package com.parking.api.service;
+
+import com.parking.api.dto.OccupancyReportResponse;
+import com.parking.api.model.OccupancyRollup;
+import com.parking.api.model.OccupancyRollup.Granularidade;
+import com.parking.api.model.RollupWatermark;
+import com.parking.api.repository.CarRepository;
+import com.parking.api.repository.OccupancyRollupRepository;
+import com.parking.api.repository.RollupWatermarkRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mantém os agregados de ocupação por hora e por dia ({@link OccupancyRollup}) e responde os
+ * relatórios a partir deles, sem varrer a tabela {@code cars}.
+ * <p>
+ * O job incremental processa apenas as permanências cuja saída foi gravada depois da marca
+ * ({@link RollupWatermark}), em lotes na ordem de gravação ({@code saidaRegistradaEm}), não de
+ * {@code dataSaida}: uma saída aplicada do diário da cancela depois de uma queda do banco tem o
+ * horário da cancela, anterior à marca, mas é gravada depois dela e entra nos agregados do período
+ * em que ocorreu. Os agregados de um lote e o avanço da marca são gravados na mesma transação, então
+ * nenhuma permanência é contada duas vezes, e a marca é lida com trava para que só uma instância
+ * processe por vez. Permanências em aberto entram nos agregados quando se encerram; a saída nunca é
+ * regravada (saídas repetidas são ignoradas pelo CarService), então uma permanência não volta a
+ * passar da marca. Saídas gravadas há menos de {@code parking.rollup.lag-seconds} ficam para a
+ * próxima execução, dando tempo para transações concorrentes confirmarem.
+ */
+@Slf4j
+@Service
+public class OccupancyRollupService {
+
+    static final String WATERMARK = "occupancy";
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /** Limite de pontos de um relatório (cerca de 6 meses por hora ou 13 anos por dia) */
+    static final int MAX_POINTS = 4_800;
+
+    private final CarRepository carRepository;
+    private final OccupancyRollupRepository rollupRepository;
+    private final RollupWatermarkRepository watermarkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    @Value("${parking.rollup.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${parking.rollup.lag-seconds:60}")
+    private long lagSeconds = 60;
+
+    @Autowired
+    public OccupancyRollupService(CarRepository carRepository, OccupancyRollupRepository rollupRepository,
+                                  RollupWatermarkRepository watermarkRepository, TransactionTemplate transactionTemplate) {
+        this(carRepository, rollupRepository, watermarkRepository, transactionTemplate, Clock.systemDefaultZone());
+    }
+
+    OccupancyRollupService(CarRepository carRepository, OccupancyRollupRepository rollupRepository,
+                           RollupWatermarkRepository watermarkRepository, TransactionTemplate transactionTemplate,
+                           Clock clock) {
+        this.carRepository = carRepository;
+        this.rollupRepository = rollupRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+    }
+
+    /**
+     * Saídas gravadas antes de {@code saidaRegistradaEm} existir entram na ordem pela própria
+     * {@code dataSaida}, a mesma ordem em que a marca já as percorria
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void fillMissingExitRegistration() {
+        int filled = transactionTemplate.execute(status -> carRepository.fillMissingExitRegistration());
+        if (filled > 0) {
+            log.info("Rollup de ocupação: {} saídas antigas ordenadas pela data de saída", filled);
+        }
+    }
+
+    /**
+     * Agrega as permanências encerradas desde a última execução; retorna quantas foram processadas
+     */
+    @Scheduled(fixedDelayString = "${parking.rollup.interval-ms:60000}",
+            initialDelayString = "${parking.rollup.interval-ms:60000}")
+    public long runIncremental() {
+        LocalDateTime until = LocalDateTime.now(clock).minusSeconds(lagSeconds);
+        long total = 0;
+        int processed;
+        do {
+            processed = transactionTemplate.execute(status -> processBatch(until));
+            total += processed;
+        } while (processed == batchSize);
+
+        if (total > 0) {
+            log.debug("Rollup de ocupação: {} permanências agregadas", total);
+        }
+        return total;
+    }
+
+    /**
+     * Apaga os agregados e reprocessa todo o histórico de permanências encerradas
+     */
+    public long backfill() {
+        transactionTemplate.executeWithoutResult(status -> {
+            RollupWatermark watermark = lockWatermark();
+            carRepository.fillMissingExitRegistration();
+            rollupRepository.deleteAllInBatch();
+            watermark.setSaidaRegistradaEm(ORIGIN);
+            watermark.setCarId(0L);
+            watermark.setAtualizadoEm(LocalDateTime.now(clock));
+        });
+        long total = runIncremental();
+        log.info("Backfill do rollup de ocupação concluído: {} permanências agregadas", total);
+        return total;
+    }
+
+    public OccupancyReportResponse getOccupancyReport(Long lotId, LocalDate from, LocalDate to, Granularidade granularidade) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("Período inválido: 'from' deve ser anterior ou igual a 'to'");
+        }
+        ChronoUnit unit = granularidade == Granularidade.HOUR ? ChronoUnit.HOURS : ChronoUnit.DAYS;
+        LocalDateTime first = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        long points = unit.between(first, end);
+        if (points > MAX_POINTS) {
+            throw new IllegalArgumentException("Período longo demais para a granularidade " + granularidade
+                    + ": " + points + " pontos (máximo " + MAX_POINTS + ")");
+        }
+
+        Map<LocalDateTime, OccupancyRollup> rows = rollupRepository
+                .findByLotIdAndGranularidadeAndInicioBetweenOrderByInicioAsc(lotId, granularidade, first, end.minus(1, unit))
+                .stream()
+                .collect(Collectors.toMap(OccupancyRollup::getInicio, Function.identity()));
+
+        long bucketSeconds = unit.getDuration().toSeconds();
+        List<OccupancyReportResponse.PointResponse> pontos = new ArrayList<>((int) points);
+        for (LocalDateTime inicio = first; inicio.isBefore(end); inicio = inicio.plus(1, unit)) {
+            OccupancyRollup row = rows.get(inicio);
+            pontos.add(row == null
+                    ? new OccupancyReportResponse.PointResponse(inicio, 0, 0, 0)
+                    : new OccupancyReportResponse.PointResponse(inicio, row.getEntradas(), row.getSaidas(),
+                            Math.round(row.getSegundosOcupados() * 100.0 / bucketSeconds) / 100.0));
+        }
+
+        LocalDateTime atualizadoAte = watermarkRepository.findById(WATERMARK)
+                .map(RollupWatermark::getSaidaRegistradaEm)
+                .filter(registradaEm -> registradaEm.isAfter(ORIGIN))
+                .orElse(null);
+        return new OccupancyReportResponse(lotId, granularidade, from, to, atualizadoAte, pontos);
+    }
+
+    private int processBatch(LocalDateTime until) {
+        RollupWatermark watermark = lockWatermark();
+        List<CarRepository.ClosedSession> sessions = carRepository.findClosedAfter(
+                watermark.getSaidaRegistradaEm(), watermark.getCarId(), until, PageRequest.of(0, batchSize));
+        if (sessions.isEmpty()) {
+            return 0;
+        }
+
+        Map<BucketKey, long[]> deltas = new HashMap<>();
+        sessions.forEach(session -> accumulate(deltas, session));
+        apply(deltas);
+
+        CarRepository.ClosedSession last = sessions.get(sessions.size() - 1);
+        watermark.setSaidaRegistradaEm(last.getSaidaRegistradaEm());
+        watermark.setCarId(last.getId());
+        watermark.setAtualizadoEm(LocalDateTime.now(clock));
+        watermarkRepository.save(watermark);
+        return sessions.size();
+    }
+
+    private RollupWatermark lockWatermark() {
+        return watermarkRepository.findForUpdate(WATERMARK)
+                .orElseGet(() -> watermarkRepository.saveAndFlush(new RollupWatermark(WATERMARK, ORIGIN, 0L, null)));
+    }
+
+    /**
+     * Soma a contribuição de uma permanência: entrada e saída nos períodos em que ocorreram e o
+     * tempo estacionado repartido hora a hora
+     */
+    static void accumulate(Map<BucketKey, long[]> deltas, CarRepository.CarTimes session) {
+        LocalDateTime entrada = session.getDataEntrada();
+        LocalDateTime saida = session.getDataSaida();
+        if (session.getLotId() == null || entrada == null || saida == null) {
+            return;
+        }
+        if (saida.isBefore(entrada)) {
+            saida = entrada;
+        }
+
+        add(deltas, session.getLotId(), entrada, Delta.ENTRADAS, 1);
+        add(deltas, session.getLotId(), saida, Delta.SAIDAS, 1);
+        for (LocalDateTime cursor = entrada; cursor.isBefore(saida); ) {
+            LocalDateTime next = cursor.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            if (next.isAfter(saida)) {
+                next = saida;
+            }
+            add(deltas, session.getLotId(), cursor, Delta.SEGUNDOS, Duration.between(cursor, next).toSeconds());
+            cursor = next;
+        }
+    }
+
+    private static void add(Map<BucketKey, long[]> deltas, Long lotId, LocalDateTime time, Delta delta, long value) {
+        deltas.computeIfAbsent(new BucketKey(lotId, Granularidade.HOUR, time.truncatedTo(ChronoUnit.HOURS)),
+                key -> new long[Delta.values().length])[delta.ordinal()] += value;
+        deltas.computeIfAbsent(new BucketKey(lotId, Granularidade.DAY, time.truncatedTo(ChronoUnit.DAYS)),
+                key -> new long[Delta.values().length])[delta.ordinal()] += value;
+    }
+
+    private void apply(Map<BucketKey, long[]> deltas) {
+        List<OccupancyRollup> changed = new ArrayList<>();
+        for (Granularidade granularidade : Granularidade.values()) {
+            List<BucketKey> keys = deltas.keySet().stream()
+                    .filter(key -> key.granularidade() == granularidade)
+                    .toList();
+            if (keys.isEmpty()) {
+                continue;
+            }
+
+            LocalDateTime min = keys.stream().map(BucketKey::inicio).min(LocalDateTime::compareTo).orElseThrow();
+            LocalDateTime max = keys.stream().map(BucketKey::inicio).max(LocalDateTime::compareTo).orElseThrow();
+            Map<BucketKey, OccupancyRollup> existing = rollupRepository
+                    .findByGranularidadeAndInicioBetween(granularidade, min, max).stream()
+                    .collect(Collectors.toMap(
+                            row -> new BucketKey(row.getLotId(), row.getGranularidade(), row.getInicio()),
+                            Function.identity()));
+
+            for (BucketKey key : keys) {
+                long[] delta = deltas.get(key);
+                OccupancyRollup row = existing.computeIfAbsent(key,
+                        k -> new OccupancyRollup(null, k.lotId(), k.granularidade(), k.inicio(), 0, 0, 0));
+                row.setEntradas(row.getEntradas() + delta[Delta.ENTRADAS.ordinal()]);
+                row.setSaidas(row.getSaidas() + delta[Delta.SAIDAS.ordinal()]);
+                row.setSegundosOcupados(row.getSegundosOcupados() + delta[Delta.SEGUNDOS.ordinal()]);
+                changed.add(row);
+            }
+        }
+        rollupRepository.saveAll(changed);
+    }
+
+    private enum Delta {
+        ENTRADAS,
+        SAIDAS,
+        SEGUNDOS
+    }
+
+    record BucketKey(Long lotId, Granularidade granularidade, LocalDateTime inicio) {
+    }
+}
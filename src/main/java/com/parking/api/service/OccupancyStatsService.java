@@ -0,0 +1,260 @@
+package com.parking.api.service;
+
+import com.parking.api.dto.OccupancyStatsResponse;
+import com.parking.api.event.CarEvent;
+import com.parking.api.model.Car;
+import com.parking.api.repository.CarRepository;
+import com.parking.api.util.DwellHistogram;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Estatísticas de ocupação mantidas incrementalmente a partir dos {@link CarEvent} do CarService.
+ * <p>
+ * Para cada estacionamento guarda a quantidade de carros dentro, as entradas e saídas por hora
+ * das últimas 24 horas e um {@link DwellHistogram} dos tempos de permanência. Consultar as
+ * estatísticas não toca o banco e custa o mesmo com qualquer volume de histórico.
+ * Na inicialização os contadores são carregados do banco (o histograma cobre as saídas da janela
+ * {@code parking.stats.dwell-window-days}); depois, a contagem de ativos e os contadores do dia
+ * são reconciliados periodicamente para corrigir divergências (por exemplo, alterações feitas
+ * direto no banco).
+ */
+@Slf4j
+@Service
+public class OccupancyStatsService {
+
+    private static final int HOURS_PER_DAY = 24;
+
+    private final CarRepository carRepository;
+    private final Clock clock;
+
+    @Value("${parking.stats.dwell-window-days:30}")
+    private int dwellWindowDays = 30;
+
+    private final Map<Long, LotStats> lots = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OccupancyStatsService(CarRepository carRepository) {
+        this(carRepository, Clock.systemDefaultZone());
+    }
+
+    OccupancyStatsService(CarRepository carRepository, Clock clock) {
+        this.carRepository = carRepository;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime today = now.toLocalDate().atStartOfDay();
+        LocalDateTime windowStart = now.minusDays(dwellWindowDays);
+
+        lots.values().forEach(lot -> lot.permanencia().reset());
+        long samples = 0;
+        try (Stream<CarRepository.CarTimes> times = carRepository.streamTimesSince(windowStart)) {
+            for (CarRepository.CarTimes car : (Iterable<CarRepository.CarTimes>) times::iterator) {
+                if (car.getLotId() != null && car.getDataEntrada() != null && car.getDataSaida() != null
+                        && !car.getDataSaida().isBefore(windowStart)) {
+                    lot(car.getLotId()).permanencia().record(dwellSeconds(car.getDataEntrada(), car.getDataSaida()));
+                    samples++;
+                }
+            }
+        }
+        reconcile(today);
+        log.info("Estatísticas de ocupação carregadas: {} permanências desde {}", samples, windowStart.toLocalDate());
+    }
+
+    /**
+     * Recalcula a partir do banco a quantidade de carros dentro e as entradas e saídas do dia
+     */
+    @Scheduled(fixedDelayString = "${parking.stats.reconcile-interval-ms:300000}",
+            initialDelayString = "${parking.stats.reconcile-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        reconcile(LocalDate.now(clock).atStartOfDay());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarEvent(CarEvent event) {
+        Car car = event.current();
+        if (car == null || car.getLotId() == null) {
+            return;
+        }
+        LotStats lot = lot(car.getLotId());
+        switch (event.type()) {
+            case ENTRY -> {
+                lot.ocupadas().incrementAndGet();
+                lot.entradas().add(epochHour(car.getDataEntrada()), 1);
+            }
+            case EXIT -> {
+                // Uma nova saída de um carro que já saiu apenas atualiza o horário; não é contada de novo
+                if (event.before() != null && event.before().getDataSaida() == null) {
+                    lot.ocupadas().decrementAndGet();
+                    lot.saidas().add(epochHour(car.getDataSaida()), 1);
+                    lot.permanencia().record(dwellSeconds(car.getDataEntrada(), car.getDataSaida()));
+                }
+            }
+            case DELETE -> {
+                // Um registro apagado deixa de contar, como se nunca tivesse existido
+                lot.entradas().add(epochHour(car.getDataEntrada()), -1);
+                if (car.getDataSaida() == null) {
+                    lot.ocupadas().decrementAndGet();
+                } else {
+                    lot.saidas().add(epochHour(car.getDataSaida()), -1);
+                    lot.permanencia().remove(dwellSeconds(car.getDataEntrada(), car.getDataSaida()));
+                }
+            }
+            case UPDATE -> {
+                // Alterações cadastrais não mudam horários
+            }
+        }
+    }
+
+    public OccupancyStatsResponse getStats(Long lotId) {
+        LotStats lot = lots.getOrDefault(lotId, LotStats.EMPTY);
+        long firstHour = epochHour(LocalDate.now(clock).atStartOfDay());
+
+        List<Long> entradas = new ArrayList<>(HOURS_PER_DAY);
+        List<Long> saidas = new ArrayList<>(HOURS_PER_DAY);
+        for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+            entradas.add(lot.entradas().get(firstHour + hour));
+            saidas.add(lot.saidas().get(firstHour + hour));
+        }
+
+        DwellHistogram permanencia = lot.permanencia();
+        OccupancyStatsResponse.DwellResponse dwell = new OccupancyStatsResponse.DwellResponse(
+                permanencia.count(),
+                toMinutes(permanencia.mean()),
+                toMinutes(permanencia.percentile(50)),
+                toMinutes(permanencia.percentile(95)));
+        return new OccupancyStatsResponse(lotId, Math.max(0, lot.ocupadas().get()), entradas, saidas, dwell);
+    }
+
+    private void reconcile(LocalDateTime today) {
+        Map<Long, Long> active = new HashMap<>();
+        carRepository.countActiveByLot().forEach(count -> active.put(count.getLotId(), count.getTotal()));
+
+        long firstHour = epochHour(today);
+        Map<Long, long[]> entradas = new HashMap<>();
+        Map<Long, long[]> saidas = new HashMap<>();
+        try (Stream<CarRepository.CarTimes> times = carRepository.streamTimesSince(today)) {
+            times.forEach(car -> {
+                if (car.getLotId() == null) {
+                    return;
+                }
+                countHour(entradas, car.getLotId(), car.getDataEntrada(), firstHour);
+                countHour(saidas, car.getLotId(), car.getDataSaida(), firstHour);
+            });
+        }
+
+        active.keySet().forEach(this::lot);
+        entradas.keySet().forEach(this::lot);
+        saidas.keySet().forEach(this::lot);
+        lots.forEach((lotId, lot) -> {
+            lot.ocupadas().set(active.getOrDefault(lotId, 0L));
+            lot.entradas().replace(firstHour, entradas.getOrDefault(lotId, new long[HOURS_PER_DAY]));
+            lot.saidas().replace(firstHour, saidas.getOrDefault(lotId, new long[HOURS_PER_DAY]));
+        });
+    }
+
+    private static void countHour(Map<Long, long[]> counts, Long lotId, LocalDateTime time, long firstHour) {
+        if (time == null) {
+            return;
+        }
+        long offset = epochHour(time) - firstHour;
+        if (offset >= 0 && offset < HOURS_PER_DAY) {
+            counts.computeIfAbsent(lotId, id -> new long[HOURS_PER_DAY])[(int) offset]++;
+        }
+    }
+
+    private LotStats lot(Long lotId) {
+        return lots.computeIfAbsent(lotId, id -> new LotStats(
+                new AtomicLong(), new HourlyCounter(), new HourlyCounter(), new DwellHistogram()));
+    }
+
+    private static long epochHour(LocalDateTime time) {
+        return time == null ? Long.MIN_VALUE : Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 3600);
+    }
+
+    private static long dwellSeconds(LocalDateTime entrada, LocalDateTime saida) {
+        return entrada == null || saida == null ? 0 : Math.max(0, Duration.between(entrada, saida).toSeconds());
+    }
+
+    private static double toMinutes(double seconds) {
+        return Math.round(seconds / 6.0) / 10.0;
+    }
+
+    private record LotStats(AtomicLong ocupadas, HourlyCounter entradas, HourlyCounter saidas,
+                            DwellHistogram permanencia) {
+
+        static final LotStats EMPTY = new LotStats(
+                new AtomicLong(), new HourlyCounter(), new HourlyCounter(), new DwellHistogram());
+    }
+
+    /**
+     * Contadores das últimas 24 horas em um anel indexado pela hora; cada posição guarda a hora
+     * a que pertence e é zerada quando o anel dá a volta.
+     */
+    private static final class HourlyCounter {
+
+        private final long[] hours = new long[HOURS_PER_DAY];
+        private final long[] counts = new long[HOURS_PER_DAY];
+
+        HourlyCounter() {
+            Arrays.fill(hours, Long.MIN_VALUE);
+        }
+
+        synchronized void add(long hour, long delta) {
+            if (hour == Long.MIN_VALUE) {
+                return;
+            }
+            int slot = (int) Math.floorMod(hour, (long) HOURS_PER_DAY);
+            if (hours[slot] != hour) {
+                if (hours[slot] > hour) {
+                    // Hora mais antiga que o anel: não é mais exibida
+                    return;
+                }
+                hours[slot] = hour;
+                counts[slot] = 0;
+            }
+            counts[slot] = Math.max(0, counts[slot] + delta);
+        }
+
+        synchronized long get(long hour) {
+            int slot = (int) Math.floorMod(hour, (long) HOURS_PER_DAY);
+            return hours[slot] == hour ? counts[slot] : 0;
+        }
+
+        synchronized void replace(long firstHour, long[] values) {
+            for (int i = 0; i < values.length; i++) {
+                int slot = (int) Math.floorMod(firstHour + i, (long) HOURS_PER_DAY);
+                if (hours[slot] <= firstHour + i) {
+                    hours[slot] = firstHour + i;
+                    counts[slot] = values[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.parking.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.api.event.CarEvent;
+import com.parking.api.exception.DatabaseUnavailableException;
+import com.parking.api.model.Car;
+import com.parking.api.model.OutboxMessage;
+import com.parking.api.repository.OutboxMessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outbox transacional das alterações de carros para os sistemas externos.
+ * <p>
+ * Cada {@link CarEvent} vira uma {@link OutboxMessage} na transação da própria alteração, então
+ * uma mensagem existe se e somente se a alteração foi confirmada. A cada
+ * {@code parking.outbox.interval-ms} as mensagens vencidas são lidas em lotes de
+ * {@code parking.outbox.batch-size}, travadas com {@code SKIP LOCKED} e reservadas por
+ * {@code parking.outbox.lease} (a próxima tentativa é adiada) em uma transação curta, para que
+ * várias instâncias dividam o trabalho sem entregar o mesmo lote ao mesmo tempo. A entrega aos
+ * {@link OutboxSink} acontece fora da transação e do {@link DatabaseGuard}: um destino lento não
+ * segura conexão nem travas e não conta como lentidão do banco. Depois, outra transação curta apaga
+ * o lote ou, se um destino falhou, o adia por uma espera que dobra a cada tentativa, de
+ * {@code parking.outbox.backoff-initial} até {@code parking.outbox.backoff-max}. Se a instância cai
+ * no meio, o lote volta a vencer quando a reserva expira. Sem destinos configurados, nenhuma
+ * mensagem é gravada.
+ */
+@Slf4j
+@Service
+public class OutboxPublisher {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxMessageRepository outboxRepository;
+    private final List<OutboxSink> sinks;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final DatabaseGuard databaseGuard;
+    private final Clock clock;
+
+    @Value("${parking.outbox.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${parking.outbox.backoff-initial:PT1S}")
+    private Duration backoffInitial = Duration.ofSeconds(1);
+
+    @Value("${parking.outbox.backoff-max:PT5M}")
+    private Duration backoffMax = Duration.ofMinutes(5);
+
+    @Value("${parking.outbox.lease:PT1M}")
+    private Duration lease = Duration.ofMinutes(1);
+
+    @Autowired
+    public OutboxPublisher(OutboxMessageRepository outboxRepository, List<OutboxSink> sinks,
+                           ObjectMapper objectMapper, TransactionTemplate transactionTemplate,
+                           DatabaseGuard databaseGuard) {
+        this(outboxRepository, sinks, objectMapper, transactionTemplate, databaseGuard, Clock.systemDefaultZone());
+    }
+
+    OutboxPublisher(OutboxMessageRepository outboxRepository, List<OutboxSink> sinks, ObjectMapper objectMapper,
+                    TransactionTemplate transactionTemplate, DatabaseGuard databaseGuard, Clock clock) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = List.copyOf(sinks);
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.databaseGuard = databaseGuard;
+        this.clock = clock;
+    }
+
+    /**
+     * Grava a mensagem na transação de quem publicou o evento; uma falha aqui desfaz a alteração
+     */
+    @EventListener
+    public void enqueue(CarEvent event) {
+        Car car = event.current();
+        if (sinks.isEmpty() || car == null || car.getId() == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        outboxRepository.save(new OutboxMessage(null, event.type(), car.getId(), car.getLotId(), toJson(car), now,
+                0, now, null));
+    }
+
+    /**
+     * Entrega os lotes vencidos até não restar nenhum ou um destino falhar; retorna quantas
+     * mensagens foram entregues
+     */
+    @Scheduled(fixedDelayString = "${parking.outbox.interval-ms:1000}",
+            initialDelayString = "${parking.outbox.interval-ms:1000}")
+    public int publish() {
+        if (sinks.isEmpty()) {
+            return 0;
+        }
+        int total = 0;
+        try {
+            int delivered;
+            do {
+                delivered = publishBatch();
+                total += Math.max(delivered, 0);
+            } while (delivered == batchSize);
+        } catch (DatabaseUnavailableException e) {
+            log.debug("Outbox: banco indisponível, {} mensagens entregues nesta execução", total);
+        }
+        return total;
+    }
+
+    /**
+     * Entrega um lote; retorna quantas mensagens foram entregues, ou -1 se um destino falhou
+     */
+    private int publishBatch() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<OutboxMessage> batch = databaseGuard.write(() -> transactionTemplate.execute(status -> claim(now)));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.deliver(batch);
+            } catch (Exception e) {
+                databaseGuard.write(() -> transactionTemplate.executeWithoutResult(
+                        status -> reschedule(batch, sink, e, now)));
+                return -1;
+            }
+        }
+        databaseGuard.write(() -> transactionTemplate.executeWithoutResult(
+                status -> outboxRepository.deleteAllByIdInBatch(batch.stream().map(OutboxMessage::getId).toList())));
+        return batch.size();
+    }
+
+    /**
+     * Trava o próximo lote vencido e o reserva por {@code parking.outbox.lease}
+     */
+    private List<OutboxMessage> claim(LocalDateTime now) {
+        List<OutboxMessage> batch = outboxRepository.lockDue(now, PageRequest.of(0, batchSize));
+        if (!batch.isEmpty()) {
+            outboxRepository.claim(batch.stream().map(OutboxMessage::getId).toList(), now.plus(lease));
+        }
+        return batch;
+    }
+
+    private void reschedule(List<OutboxMessage> batch, OutboxSink sink, Exception error, LocalDateTime now) {
+        String message = sink.name() + ": " + (error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName());
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        int attempts = 0;
+        for (OutboxMessage outboxMessage : batch) {
+            outboxMessage.setTentativas(outboxMessage.getTentativas() + 1);
+            outboxMessage.setProximaTentativa(now.plus(backoff(outboxMessage.getTentativas())));
+            outboxMessage.setUltimoErro(message);
+            attempts = Math.max(attempts, outboxMessage.getTentativas());
+        }
+        outboxRepository.saveAll(batch);
+        log.warn("Outbox: lote de {} mensagens recusado ({} tentativas), nova tentativa em {}s - {}",
+                batch.size(), attempts, backoff(attempts).toSeconds(), message);
+    }
+
+    /**
+     * Espera antes da tentativa seguinte à {@code attempts}-ésima falha: dobra a cada falha até o máximo
+     */
+    Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = backoffInitial.multipliedBy(1L << doublings);
+        return delay.compareTo(backoffMax) > 0 ? backoffMax : delay;
+    }
+
+    private String toJson(Car car) {
+        try {
+            return objectMapper.writeValueAsString(car);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Carro não serializável: " + car.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.parking.api.service;
+
+import com.parking.api.model.OutboxMessage;
+
+import java.util.List;
+
+/**
+ * Destino das mensagens do {@link OutboxPublisher}. Uma exceção em {@link #deliver} faz o lote
+ * inteiro ser tentado de novo mais tarde, inclusive nos destinos que já o receberam.
+ */
+public interface OutboxSink {
+
+    String name();
+
+    /**
+     * Entrega o lote, em ordem; só deve retornar depois de o destino confirmar o recebimento
+     */
+    void deliver(List<OutboxMessage> messages) throws Exception;
+}
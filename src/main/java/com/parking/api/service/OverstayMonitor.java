@@ -0,0 +1,141 @@
+package com.parking.api.service;
+
+import com.parking.api.dto.AlertResponse;
+import com.parking.api.event.CarEvent;
+import com.parking.api.model.Car;
+import com.parking.api.repository.CarRepository;
+import com.parking.api.util.TimerWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detecta carros que ultrapassaram o tempo máximo de permanência ({@code parking.overstay.limit})
+ * sem consultar o banco periodicamente.
+ * <p>
+ * Cada carro dentro do estacionamento tem um temporizador em uma {@link TimerWheel}, carregada dos
+ * carros ativos na inicialização e mantida pelos {@link CarEvent}: a entrada agenda, a saída e a
+ * remoção cancelam e a alteração da placa reagenda. A roda avança a cada
+ * {@code parking.overstay.tick-ms} e cada temporizador vencido vira um alerta {@code OVERSTAY} no
+ * {@link AlertService}, com custo O(1) por evento independentemente de quantos carros estão dentro.
+ */
+@Slf4j
+@Service
+public class OverstayMonitor {
+
+    private final CarRepository carRepository;
+    private final AlertService alertService;
+    private final Clock clock;
+    private final Duration limit;
+    private final TimerWheel<OverstayTimer> wheel;
+    private final Map<Long, TimerWheel.Timeout<OverstayTimer>> timers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OverstayMonitor(CarRepository carRepository, AlertService alertService,
+                           @Value("${parking.overstay.limit:PT12H}") Duration limit,
+                           @Value("${parking.overstay.tick-ms:1000}") long tickMillis) {
+        this(carRepository, alertService, limit, tickMillis, Clock.systemDefaultZone());
+    }
+
+    OverstayMonitor(CarRepository carRepository, AlertService alertService, Duration limit, long tickMillis,
+                    Clock clock) {
+        if (limit.isNegative() || limit.isZero()) {
+            throw new IllegalArgumentException("Limite de permanência inválido: " + limit);
+        }
+        this.carRepository = carRepository;
+        this.alertService = alertService;
+        this.limit = limit;
+        this.clock = clock;
+        this.wheel = new TimerWheel<>(tickMillis, clock.millis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        List<Car> active = carRepository.findByDataSaidaIsNull();
+        active.forEach(this::schedule);
+        log.info("Monitor de permanência: {} carros ativos, limite de {}", active.size(), limit);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarEvent(CarEvent event) {
+        Car car = event.current();
+        if (car == null || car.getId() == null) {
+            return;
+        }
+        switch (event.type()) {
+            case ENTRY -> schedule(car);
+            case UPDATE -> {
+                // Só reagenda quem ainda tem temporizador, para não reativar um alerta já disparado
+                if (timers.containsKey(car.getId()) && car.getDataSaida() == null) {
+                    schedule(car);
+                }
+            }
+            case EXIT, DELETE -> cancel(car.getId());
+        }
+    }
+
+    /**
+     * Avança a roda até o instante atual e publica um alerta para cada permanência excedida
+     */
+    @Scheduled(fixedRateString = "${parking.overstay.tick-ms:1000}")
+    public void tick() {
+        List<OverstayTimer> expired = new ArrayList<>();
+        wheel.advance(clock.millis(), expired::add);
+        for (OverstayTimer timer : expired) {
+            timers.computeIfPresent(timer.carId(), (id, timeout) -> timeout.payload() == timer ? null : timeout);
+            alertService.publish(AlertResponse.Tipo.OVERSTAY, timer.lotId(), timer.carId(), timer.placa(),
+                    "Carro " + timer.placa() + " está há mais de " + describe(limit)
+                            + " no estacionamento (entrada em " + timer.dataEntrada() + ")");
+        }
+    }
+
+    /**
+     * Quantidade de carros com temporizador pendente
+     */
+    public int pending() {
+        return wheel.size();
+    }
+
+    private void schedule(Car car) {
+        if (car.getDataEntrada() == null || car.getDataSaida() != null) {
+            return;
+        }
+        LocalDateTime deadline = car.getDataEntrada().plus(limit);
+        OverstayTimer timer = new OverstayTimer(car.getId(), car.getLotId(), car.getPlaca(), car.getDataEntrada());
+        long deadlineMillis = deadline.atZone(clock.getZone()).toInstant().toEpochMilli();
+        timers.compute(car.getId(), (id, previous) -> {
+            wheel.cancel(previous);
+            return wheel.schedule(deadlineMillis, timer);
+        });
+    }
+
+    private void cancel(Long carId) {
+        timers.computeIfPresent(carId, (id, timeout) -> {
+            wheel.cancel(timeout);
+            return null;
+        });
+    }
+
+    private static String describe(Duration duration) {
+        long minutes = duration.toMinutes();
+        return minutes % 60 == 0 ? minutes / 60 + "h" : minutes + " min";
+    }
+
+    private record OverstayTimer(Long carId, Long lotId, String placa, LocalDateTime dataEntrada) {
+    }
+}
@@ -0,0 +1,252 @@
+package com.parking.api.service;
+
+import com.parking.api.event.CarEvent;
+import com.parking.api.model.Car;
+import com.parking.api.repository.CarRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido em memória sobre o nome do proprietário.
+ * <p>
+ * Os nomes são normalizados (minúsculas, sem acentos) e quebrados em termos. Cada termo
+ * aponta para os IDs dos carros que o contêm; como os termos ficam ordenados, a busca por
+ * prefixo é um intervalo no mapa e não exige varrer a tabela {@code cars}.
+ * O índice é reconstruído na inicialização e mantido pelos {@link CarEvent} do CarService.
+ * Cada estacionamento tem um índice próprio, então uma busca nunca considera carros de outro.
+ * <p>
+ * As buscas não travam; as alterações de um estacionamento são serializadas no índice dele, e uma
+ * versão do carro ({@code versao}) mais antiga que a indexada é ignorada. A reconstrução monta um
+ * índice novo enquanto o atual continua atendendo, reaplica nele os eventos recebidos nesse meio
+ * tempo e só então o publica.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OwnerNameIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    /** Pontuação de um termo da busca igual a um termo do nome */
+    private static final int EXACT_SCORE = 2;
+    /** Pontuação de um termo da busca que é apenas prefixo de um termo do nome */
+    private static final int PREFIX_SCORE = 1;
+
+    private final CarRepository carRepository;
+
+    private final Object eventLock = new Object();
+
+    private volatile Map<Long, LotIndex> lots = new ConcurrentHashMap<>();
+
+    /**
+     * Eventos recebidos durante a reconstrução em andamento, reaplicados no índice novo; nulo fora dela
+     */
+    private List<CarEvent> receivedDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        synchronized (eventLock) {
+            receivedDuringRebuild = new ArrayList<>();
+        }
+        Map<Long, LotIndex> rebuilt = new ConcurrentHashMap<>();
+        try {
+            Page<Car> page = carRepository.findAll(PageRequest.of(0, REBUILD_BATCH_SIZE));
+            while (true) {
+                page.forEach(car -> index(rebuilt, car));
+                if (!page.hasNext()) {
+                    break;
+                }
+                page = carRepository.findAll(page.nextPageable());
+            }
+        } catch (RuntimeException e) {
+            synchronized (eventLock) {
+                receivedDuringRebuild = null;
+            }
+            throw e;
+        }
+
+        int replayed;
+        synchronized (eventLock) {
+            receivedDuringRebuild.forEach(event -> apply(rebuilt, event));
+            replayed = receivedDuringRebuild.size();
+            receivedDuringRebuild = null;
+            lots = rebuilt;
+        }
+        log.info("Índice de proprietários reconstruído com {} carros em {} estacionamentos ({} eventos reaplicados)",
+                rebuilt.values().stream().mapToInt(lot -> lot.documents.size()).sum(), rebuilt.size(), replayed);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarEvent(CarEvent event) {
+        Map<Long, LotIndex> target;
+        synchronized (eventLock) {
+            if (receivedDuringRebuild != null) {
+                receivedDuringRebuild.add(event);
+            }
+            target = lots;
+        }
+        apply(target, event);
+    }
+
+    /**
+     * Busca carros cujo nome do proprietário contém todos os termos da consulta, cada um como
+     * termo exato ou prefixo. Resultados ordenados por relevância e, em seguida, pela entrada mais recente.
+     */
+    public Page<Long> search(Long lotId, String query, Pageable pageable) {
+        LotIndex lot = lots.get(lotId);
+        String[] terms = tokenize(query);
+        if (lot == null || terms.length == 0) {
+            return Page.empty(pageable);
+        }
+
+        Map<Long, Integer> scores = null;
+        for (String term : terms) {
+            Map<Long, Integer> termScores = lot.scoreTerm(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+                    entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                }
+            }
+            if (scores.isEmpty()) {
+                return Page.empty(pageable);
+            }
+        }
+
+        List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Comparator.<Map.Entry<Long, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                .thenComparing(entry -> lot.entryTime(entry.getKey()), Comparator.reverseOrder())
+                .thenComparing(Map.Entry::getKey, Comparator.reverseOrder()));
+
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        List<Long> ids = ranked.subList(from, to).stream().map(Map.Entry::getKey).toList();
+        return new PageImpl<>(ids, pageable, ranked.size());
+    }
+
+    /**
+     * Normaliza um texto em termos pesquisáveis: minúsculas, sem diacríticos, separados por não alfanuméricos
+     */
+    static String[] tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(normalized))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private static void apply(Map<Long, LotIndex> lots, CarEvent event) {
+        switch (event.type()) {
+            case ENTRY, UPDATE, EXIT -> index(lots, event.after());
+            case DELETE -> remove(lots, event.before());
+        }
+    }
+
+    private static void index(Map<Long, LotIndex> lots, Car car) {
+        if (car == null || car.getId() == null || car.getLotId() == null) {
+            return;
+        }
+        lots.computeIfAbsent(car.getLotId(), id -> new LotIndex()).index(car);
+    }
+
+    private static void remove(Map<Long, LotIndex> lots, Car car) {
+        LotIndex lot = car.getLotId() != null ? lots.get(car.getLotId()) : null;
+        if (lot != null) {
+            lot.remove(car.getId());
+        }
+    }
+
+    private static final class LotIndex {
+
+        private final ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+        private final Map<Long, IndexedCar> documents = new ConcurrentHashMap<>();
+
+        Map<Long, Integer> scoreTerm(String term) {
+            Map<Long, Integer> termScores = new HashMap<>();
+            ConcurrentNavigableMap<String, Set<Long>> range =
+                    postings.subMap(term, true, term + Character.MAX_VALUE, false);
+            for (Map.Entry<String, Set<Long>> posting : range.entrySet()) {
+                int score = posting.getKey().equals(term) ? EXACT_SCORE : PREFIX_SCORE;
+                for (Long id : posting.getValue()) {
+                    termScores.merge(id, score, Math::max);
+                }
+            }
+            return termScores;
+        }
+
+        LocalDateTime entryTime(Long id) {
+            IndexedCar car = documents.get(id);
+            return car != null && car.dataEntrada() != null ? car.dataEntrada() : LocalDateTime.MIN;
+        }
+
+        /**
+         * Indexa o carro, a menos que a versão indexada seja mais nova (evento fora de ordem)
+         */
+        synchronized void index(Car car) {
+            IndexedCar previous = documents.get(car.getId());
+            if (previous != null && previous.versao() != null && car.getVersao() != null
+                    && car.getVersao() < previous.versao()) {
+                return;
+            }
+            String[] terms = tokenize(car.getNomeProprietario());
+            documents.put(car.getId(), new IndexedCar(terms, car.getDataEntrada(), car.getVersao()));
+            if (previous != null) {
+                // Só os termos que saíram do nome: uma busca concorrente nunca deixa de ver os que ficaram
+                Set<String> kept = Set.of(terms);
+                unlink(car.getId(), Arrays.stream(previous.terms()).filter(term -> !kept.contains(term))
+                        .toArray(String[]::new));
+            }
+            for (String term : terms) {
+                postings.compute(term, (key, ids) -> {
+                    Set<Long> linked = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                    linked.add(car.getId());
+                    return linked;
+                });
+            }
+        }
+
+        synchronized void remove(Long id) {
+            IndexedCar previous = documents.remove(id);
+            if (previous != null) {
+                unlink(id, previous.terms());
+            }
+        }
+
+        private void unlink(Long id, String[] terms) {
+            for (String term : terms) {
+                postings.computeIfPresent(term, (key, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+
+    private record IndexedCar(String[] terms, LocalDateTime dataEntrada, Long versao) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.parking.api.service;
+
+import com.parking.api.util.LongBloomFilter;
+import com.parking.api.util.LongHashSet;
+import com.parking.api.util.PlateCodec;
+
+/**
+ * Índice imutável das mensalidades válidas, consultado na cancela sem acessar o banco.
+ * <p>
+ * Cada mensalidade é uma chave {@code long}: o código da placa ({@link PlateCodec}, 34 bits) com
+ * o estacionamento nos bits acima dele, ou só o código para mensalidades válidas em todos. A
+ * consulta passa primeiro pelo {@link LongBloomFilter}, que descarta a maioria das placas sem
+ * mensalidade lendo poucas palavras de um vetor pequeno, e só as que passam pelo filtro são
+ * confirmadas no {@link LongHashSet} exato.
+ * <p>
+ * Alterações criam um novo índice ({@link #with}/{@link #without}) copiando as estruturas, para
+ * que a publicação seja uma troca atômica de referência. Chaves removidas continuam marcadas no
+ * filtro (o conjunto exato corrige a resposta); o filtro é refeito a partir do conjunto quando as
+ * remoções ou inserções acumuladas degradariam a taxa de falso positivo.
+ */
+public final class PassIndex {
+
+    public static final PassIndex EMPTY = build(new LongHashSet());
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+    private static final int LOT_SHIFT = 34;
+
+    private final LongBloomFilter filter;
+    private final LongHashSet exact;
+    private final int insertedSinceBuild;
+    private final int removedSinceBuild;
+
+    private PassIndex(LongBloomFilter filter, LongHashSet exact, int insertedSinceBuild, int removedSinceBuild) {
+        this.filter = filter;
+        this.exact = exact;
+        this.insertedSinceBuild = insertedSinceBuild;
+        this.removedSinceBuild = removedSinceBuild;
+    }
+
+    /**
+     * Índice com as chaves informadas; o conjunto passa a pertencer ao índice
+     */
+    public static PassIndex build(LongHashSet keys) {
+        // Folga para que inserções incrementais não exijam refazer o filtro logo em seguida
+        LongBloomFilter filter = new LongBloomFilter(Math.max(MIN_CAPACITY, keys.size() + keys.size() / 2),
+                FALSE_POSITIVE_RATE);
+        keys.forEach(filter::add);
+        return new PassIndex(filter, keys, keys.size(), 0);
+    }
+
+    /**
+     * Chave de uma placa codificada em um estacionamento ({@code lotId} nulo: todos)
+     */
+    public static long key(Long lotId, long plateCode) {
+        if (lotId == null) {
+            return plateCode;
+        }
+        if (lotId <= 0 || lotId >= 1L << (Long.SIZE - LOT_SHIFT - 1)) {
+            throw new IllegalArgumentException("Estacionamento fora da faixa do índice: " + lotId);
+        }
+        return plateCode | lotId << LOT_SHIFT;
+    }
+
+    /**
+     * Se a placa codificada tem mensalidade válida no estacionamento (própria dele ou de todos)
+     */
+    public boolean allows(Long lotId, long plateCode) {
+        return contains(plateCode) || (lotId != null && contains(key(lotId, plateCode)));
+    }
+
+    public boolean contains(long key) {
+        return filter.mightContain(key) && exact.contains(key);
+    }
+
+    public PassIndex with(long key) {
+        if (exact.contains(key)) {
+            return this;
+        }
+        LongHashSet keys = new LongHashSet(exact);
+        keys.add(key);
+        if (insertedSinceBuild + 1 > filter.expectedInsertions()) {
+            return build(keys);
+        }
+        LongBloomFilter copy = new LongBloomFilter(filter);
+        copy.add(key);
+        return new PassIndex(copy, keys, insertedSinceBuild + 1, removedSinceBuild);
+    }
+
+    public PassIndex without(long key) {
+        if (!exact.contains(key)) {
+            return this;
+        }
+        LongHashSet keys = new LongHashSet(exact);
+        keys.remove(key);
+        if (removedSinceBuild + 1 > keys.size() / 4 + MIN_CAPACITY / 4) {
+            return build(keys);
+        }
+        // O filtro é compartilhado: a chave removida só gera um falso positivo a mais
+        return new PassIndex(filter, keys, insertedSinceBuild, removedSinceBuild + 1);
+    }
+
+    public int size() {
+        return exact.size();
+    }
+}
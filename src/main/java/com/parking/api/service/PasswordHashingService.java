@@ -0,0 +1,149 @@
+package com.parking.api.service;
+
+import com.parking.api.exception.ServiceOverloadedException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Gera e confere hashes BCrypt de senhas fora das threads do Tomcat.
+ * <p>
+ * Cada verificação custa dezenas de milissegundos de CPU, então roda em um executor próprio com
+ * {@code parking.auth.hash-threads} threads (padrão: uma por processador) e fila de no máximo
+ * {@code parking.auth.hash-queue} pedidos. Com a fila cheia, como numa troca de turno em que todos
+ * entram ao mesmo tempo, o pedido é recusado na hora com {@link ServiceOverloadedException} (503)
+ * em vez de acumular requisições esperando. Senhas gravadas em texto puro (linhas anteriores ao
+ * BCrypt) ainda são aceitas e marcadas para troca pelo hash no login.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]\\$\\d\\d\\$[./A-Za-z0-9]{53}$");
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final String dummyHash;
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordHashingService(@Value("${parking.auth.bcrypt-strength:10}") int strength,
+                                  @Value("${parking.auth.hash-threads:0}") int threads,
+                                  @Value("${parking.auth.hash-queue:32}") int queueCapacity,
+                                  @Value("${parking.auth.hash-timeout-ms:5000}") long timeoutMillis) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+        // Hash de uma senha que ninguém conhece, para que usuários inexistentes custem o mesmo que os existentes
+        this.dummyHash = encoder.encode(UUID.randomUUID().toString());
+    }
+
+    /**
+     * Confere a senha com o valor gravado (hash BCrypt ou, em linhas antigas, texto puro)
+     */
+    public Verification verify(String raw, String stored) {
+        if (stored == null || raw == null) {
+            verifyUnknown(raw);
+            return new Verification(false, false);
+        }
+        if (!isHash(stored)) {
+            boolean matches = MessageDigest.isEqual(
+                    raw.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+            return new Verification(matches, matches);
+        }
+        boolean matches = run(() -> encoder.matches(raw, stored));
+        return new Verification(matches, matches && encoder.upgradeEncoding(stored));
+    }
+
+    /**
+     * Paga o custo de uma verificação para um usuário que não existe; sempre falha
+     */
+    public boolean verifyUnknown(String raw) {
+        String candidate = raw != null ? raw : "";
+        run(() -> encoder.matches(candidate, dummyHash));
+        return false;
+    }
+
+    public String hash(String raw) {
+        return run(() -> encoder.encode(raw));
+    }
+
+    /**
+     * Pedidos recusados por fila cheia ou tempo esgotado desde a inicialização
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    static boolean isHash(String stored) {
+        return BCRYPT.matcher(stored).matches();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException(
+                    "Muitas verificações de senha em andamento; tente novamente", RETRY_AFTER_SECONDS);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ServiceOverloadedException(
+                    "Verificação de senha demorou demais; tente novamente", RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Verificação de senha interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Resultado da verificação; {@code needsRehash} indica senha correta gravada em texto puro ou
+     * com custo menor que o configurado
+     */
+    public record Verification(boolean matches, boolean needsRehash) {
+    }
+}
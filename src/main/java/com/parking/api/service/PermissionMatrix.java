@@ -0,0 +1,50 @@
+package com.parking.api.service;
+
+import com.parking.api.model.Permission;
+import com.parking.api.model.Role;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Matriz imutável perfil × permissão: um {@code long} por perfil, indexado pelo
+ * {@link Role#ordinal()}, com um bit por {@link Permission}. Conferir uma permissão é uma leitura de
+ * array e um deslocamento, sem alocação.
+ */
+public final class PermissionMatrix {
+
+    private final long[] grants;
+
+    private PermissionMatrix(long[] grants) {
+        this.grants = grants;
+    }
+
+    public static PermissionMatrix compile(Map<Role, Set<Permission>> permissions) {
+        if (Permission.values().length > Long.SIZE) {
+            throw new IllegalStateException("Permissões demais para a matriz: " + Permission.values().length);
+        }
+        long[] grants = new long[Role.values().length];
+        permissions.forEach((role, granted) -> {
+            for (Permission permission : granted) {
+                grants[role.ordinal()] |= 1L << permission.ordinal();
+            }
+        });
+        return new PermissionMatrix(grants);
+    }
+
+    /**
+     * Matriz com as permissões padrão de cada perfil
+     */
+    public static PermissionMatrix defaults() {
+        Map<Role, Set<Permission>> permissions = new EnumMap<>(Role.class);
+        for (Role role : Role.values()) {
+            permissions.put(role, role.defaults());
+        }
+        return compile(permissions);
+    }
+
+    public boolean allows(Role role, Permission permission) {
+        return role != null && (grants[role.ordinal()] & (1L << permission.ordinal())) != 0;
+    }
+}
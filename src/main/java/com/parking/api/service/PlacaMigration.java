@@ -0,0 +1,155 @@
+package com.parking.api.service;
+
+import com.parking.api.event.CarEvent;
+import com.parking.api.model.Car;
+import com.parking.api.repository.CarRepository;
+import com.parking.api.util.PlateCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Normaliza na inicialização as placas gravadas em {@code cars} antes da validação da API.
+ * <p>
+ * Registros como "abc1234" ou "ABC 1234" não eram encontrados pelas buscas, que usam a forma
+ * canônica ({@link PlateCodec#normalize}). Roda antes dos carregamentos do
+ * {@code ApplicationReadyEvent}, em lotes de {@code parking.cars.placa-migration.batch-size}, e não
+ * altera nada quando todas as placas já estão normalizadas. Carros estacionados têm a troca
+ * publicada como {@link CarEvent} de alteração, para que as estruturas em memória passem a usar a
+ * placa nova; o histórico é corrigido sem eventos.
+ * <p>
+ * Placas em formato inválido ficam como estão. Quando dois carros estacionados no mesmo
+ * estacionamento resultam na mesma placa, só o de entrada mais recente é normalizado e os demais
+ * são registrados no log como colisões, para serem encerrados manualmente.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "parking.cars.placa-migration.enabled", havingValue = "true", matchIfMissing = true)
+public class PlacaMigration implements ApplicationRunner {
+
+    private final CarRepository carRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public PlacaMigration(CarRepository carRepository, TransactionTemplate transactionTemplate,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${parking.cars.placa-migration.batch-size:1000}") int batchSize) {
+        this.carRepository = carRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        migrate();
+    }
+
+    Result migrate() {
+        Set<Long> collisions = findActiveCollisions();
+        List<Long> invalid = new ArrayList<>();
+        int normalized = 0;
+        int pageNumber = 0;
+        boolean hasNext = true;
+        while (hasNext) {
+            PageRequest request = PageRequest.of(pageNumber++, batchSize, Sort.by("id"));
+            Batch batch = transactionTemplate.execute(status -> normalizeBatch(request, collisions));
+            normalized += batch.normalized();
+            invalid.addAll(batch.invalid());
+            hasNext = batch.hasNext();
+        }
+
+        if (!invalid.isEmpty()) {
+            log.warn("Carros com placa em formato inválido mantidos como estavam: {}", invalid);
+        }
+        if (normalized > 0) {
+            log.info("Placas normalizadas em cars: {} registros", normalized);
+        }
+        return new Result(normalized, List.copyOf(collisions), List.copyOf(invalid));
+    }
+
+    private Batch normalizeBatch(PageRequest request, Set<Long> collisions) {
+        Page<Car> page = carRepository.findAll(request);
+        List<Long> invalid = new ArrayList<>();
+        int normalized = 0;
+        for (Car car : page) {
+            if (!PlateCodec.isValid(car.getPlaca())) {
+                invalid.add(car.getId());
+                continue;
+            }
+            String canonical = PlateCodec.normalize(car.getPlaca());
+            if (canonical.equals(car.getPlaca()) || collisions.contains(car.getId())) {
+                continue;
+            }
+
+            Car before = Car.copyOf(car);
+            car.setPlaca(canonical);
+            Car saved = carRepository.save(car);
+            if (saved.getDataSaida() == null) {
+                eventPublisher.publishEvent(CarEvent.update(before, saved));
+            }
+            normalized++;
+        }
+        return new Batch(normalized, invalid, page.hasNext());
+    }
+
+    /**
+     * Carros estacionados que não serão normalizados porque outro carro estacionado no mesmo
+     * estacionamento, de entrada mais recente, tem a mesma placa canônica
+     */
+    private Set<Long> findActiveCollisions() {
+        Map<String, List<Car>> byPlaca = new HashMap<>();
+        for (Car car : carRepository.findByDataSaidaIsNull()) {
+            if (PlateCodec.isValid(car.getPlaca())) {
+                byPlaca.computeIfAbsent(car.getLotId() + ":" + PlateCodec.normalize(car.getPlaca()),
+                        key -> new ArrayList<>()).add(car);
+            }
+        }
+
+        Set<Long> collisions = new HashSet<>();
+        byPlaca.forEach((key, cars) -> {
+            if (cars.size() < 2) {
+                return;
+            }
+            cars.sort(Comparator.comparing(Car::getDataEntrada, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(Car::getId));
+            Car kept = cars.get(cars.size() - 1);
+            List<Long> others = cars.stream()
+                    .map(Car::getId)
+                    .filter(id -> !Objects.equals(id, kept.getId()))
+                    .toList();
+            collisions.addAll(others);
+            log.error("Placa {} estacionada mais de uma vez no estacionamento {}: carro {} normalizado, "
+                    + "carros {} mantidos com a placa original para encerramento manual",
+                    PlateCodec.normalize(kept.getPlaca()), kept.getLotId(), kept.getId(), others);
+        });
+        return collisions;
+    }
+
+    record Result(int normalized, List<Long> collisions, List<Long> invalid) {
+    }
+
+    private record Batch(int normalized, List<Long> invalid, boolean hasNext) {
+    }
+}
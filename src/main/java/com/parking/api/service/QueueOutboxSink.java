@@ -0,0 +1,50 @@
+package com.parking.api.service;
+
+import com.parking.api.model.OutboxMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fila local, para consumidores no mesmo processo; com a fila cheia, o lote é recusado e tentado
+ * de novo mais tarde
+ */
+@Component
+@ConditionalOnProperty(name = "parking.outbox.queue.enabled", havingValue = "true")
+public class QueueOutboxSink implements OutboxSink {
+
+    private final BlockingQueue<OutboxMessage> queue;
+
+    public QueueOutboxSink(@Value("${parking.outbox.queue.capacity:10000}") int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public String name() {
+        return "queue";
+    }
+
+    @Override
+    public synchronized void deliver(List<OutboxMessage> messages) {
+        if (queue.remainingCapacity() < messages.size()) {
+            throw new IllegalStateException("Fila local cheia: " + queue.size() + " mensagens");
+        }
+        queue.addAll(messages);
+    }
+
+    /**
+     * Próxima mensagem, esperando até {@code timeout}; nulo se nenhuma chegou
+     */
+    public OutboxMessage poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.poll(timeout, unit);
+    }
+
+    public int size() {
+        return queue.size();
+    }
+}
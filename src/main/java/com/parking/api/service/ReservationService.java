@@ -0,0 +1,332 @@
+package com.parking.api.service;
+
+import com.parking.api.dto.AvailabilityResponse;
+import com.parking.api.exception.LotFullException;
+import com.parking.api.exception.ReservationConflictException;
+import com.parking.api.exception.ResourceNotFoundException;
+import com.parking.api.model.Car;
+import com.parking.api.model.Reservation;
+import com.parking.api.repository.ReservationRepository;
+import com.parking.api.util.AfterCommit;
+import com.parking.api.util.IntervalTree;
+import com.parking.api.util.LoadTimeline;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reservas de vaga por período.
+ * <p>
+ * Cada estacionamento mantém em memória as reservas que ainda não terminaram: uma
+ * {@link IntervalTree} com as reservas ativas (ainda não utilizadas), usada para detectar
+ * sobreposição da mesma placa e para encontrar a reserva de um carro na entrada, e uma
+ * {@link LoadTimeline} com todas as reservas ativas ou utilizadas, que responde em O(log n) quantas
+ * vagas estão reservadas no pico de uma janela. Nenhuma verificação consulta o banco; as
+ * estruturas são carregadas na inicialização e as reservas encerradas são expiradas e removidas
+ * periodicamente ({@code parking.reservations.expire-interval-ms}).
+ * <p>
+ * As alterações na memória acontecem junto com a verificação, sob a trava do estacionamento, e são
+ * desfeitas se a transação for desfeita, como a alocação de vagas do {@link CapacityService}.
+ * <p>
+ * Uma reserva que já pode ser utilizada guarda a vaga: entradas de outras placas não ocupam as
+ * últimas {@link #heldSpots} vagas livres.
+ */
+@Slf4j
+@Service
+public class ReservationService {
+
+    private final ReservationRepository reservationRepository;
+    private final CapacityService capacityService;
+    private final Clock clock;
+
+    /** Quanto antes do início da reserva a entrada do carro ainda a utiliza */
+    @Value("${parking.reservations.early-arrival-minutes:30}")
+    private long earlyArrivalMinutes = 30;
+
+    private final Map<Long, LotReservations> lots = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReservationService(ReservationRepository reservationRepository, CapacityService capacityService) {
+        this(reservationRepository, capacityService, Clock.systemDefaultZone());
+    }
+
+    ReservationService(ReservationRepository reservationRepository, CapacityService capacityService, Clock clock) {
+        this.reservationRepository = reservationRepository;
+        this.capacityService = capacityService;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void load() {
+        lots.clear();
+        List<Reservation> open = reservationRepository.findByStatusInAndFimAfter(
+                EnumSet.of(Reservation.Status.ATIVA, Reservation.Status.UTILIZADA), LocalDateTime.now(clock));
+        for (Reservation reservation : open) {
+            LotReservations lot = lot(reservation.getLotId());
+            synchronized (lot) {
+                lot.add(Booking.of(reservation), reservation.getStatus() == Reservation.Status.ATIVA);
+            }
+        }
+        log.info("Reservas carregadas: {} em aberto", open.size());
+    }
+
+    public List<Reservation> getReservations(Reservation.Status status) {
+        Long lotId = capacityService.currentLot();
+        return status == null
+                ? reservationRepository.findByLotIdOrderByInicioAsc(lotId)
+                : reservationRepository.findByLotIdAndStatusOrderByInicioAsc(lotId, status);
+    }
+
+    public Reservation getReservation(Long id) {
+        return reservationRepository.findByIdAndLotId(id, capacityService.currentLot())
+                .orElseThrow(() -> new ResourceNotFoundException("Reserva não encontrada com ID: " + id));
+    }
+
+    /**
+     * Cria uma reserva no estacionamento da requisição
+     *
+     * @throws ReservationConflictException se a placa já tiver reserva ativa no período
+     * @throws LotFullException se o período não tiver vagas livres para reserva
+     */
+    @Transactional
+    public Reservation createReservation(Reservation reservation) {
+        Long lotId = capacityService.currentLot();
+        validatePeriod(reservation.getInicio(), reservation.getFim());
+        if (!reservation.getFim().isAfter(LocalDateTime.now(clock))) {
+            throw new IllegalArgumentException("A reserva deve terminar no futuro");
+        }
+        int capacidade = capacityService.getLot(lotId).getCapacidade();
+
+        // Campos controlados pelo servidor não são aceitos do cliente
+        reservation.setId(null);
+        reservation.setLotId(lotId);
+        reservation.setStatus(Reservation.Status.ATIVA);
+        reservation.setCarId(null);
+
+        LotReservations lot = lot(lotId);
+        synchronized (lot) {
+            long from = epochSecond(reservation.getInicio());
+            long to = epochSecond(reservation.getFim());
+            if (lot.pending.firstOverlapping(from, to, booking -> booking.placa().equals(reservation.getPlaca())) != null) {
+                throw new ReservationConflictException(
+                        "Já existe uma reserva ativa para a placa " + reservation.getPlaca() + " nesse período");
+            }
+            if (lot.load.maxLoad(from, to) >= capacidade) {
+                throw new LotFullException("Não há vagas para reserva entre " + reservation.getInicio()
+                        + " e " + reservation.getFim());
+            }
+
+            Reservation saved = reservationRepository.save(reservation);
+            Booking booking = Booking.of(saved);
+            lot.add(booking, true);
+            AfterCommit.onRollback(() -> {
+                synchronized (lot) {
+                    lot.discard(booking);
+                }
+            });
+            return saved;
+        }
+    }
+
+    /**
+     * Cancela uma reserva ativa, liberando o período
+     */
+    @Transactional
+    public Reservation cancelReservation(Long id) {
+        Reservation reservation = getReservation(id);
+        if (reservation.getStatus() != Reservation.Status.ATIVA) {
+            throw new ReservationConflictException("Reserva " + id + " não está ativa: " + reservation.getStatus());
+        }
+        reservation.setStatus(Reservation.Status.CANCELADA);
+        Reservation saved = reservationRepository.save(reservation);
+
+        LotReservations lot = lot(saved.getLotId());
+        AfterCommit.run(() -> {
+            synchronized (lot) {
+                lot.discard(lot.bookings.get(id));
+            }
+        });
+        return saved;
+    }
+
+    /**
+     * Associa a entrada do carro a uma reserva ativa da mesma placa no estacionamento, se houver
+     * (a entrada pode acontecer até {@code parking.reservations.early-arrival-minutes} antes do início)
+     *
+     * @return id da reserva utilizada
+     */
+    @Transactional
+    public Optional<Long> claim(Car car) {
+        LotReservations lot = lots.get(car.getLotId());
+        if (lot == null) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        long from = epochSecond(now);
+        long to = epochSecond(now.plusMinutes(earlyArrivalMinutes)) + 1;
+
+        Booking booking;
+        synchronized (lot) {
+            booking = lot.pending.firstOverlapping(from, to, candidate -> candidate.placa().equals(car.getPlaca()));
+            if (booking == null) {
+                return Optional.empty();
+            }
+            lot.pending.remove(booking.from(), booking.id());
+        }
+        AfterCommit.onRollback(() -> {
+            synchronized (lot) {
+                // A reserva pode ter sido descartada (cancelada ou desfeita) nesse meio tempo
+                if (lot.bookings.containsKey(booking.id())) {
+                    lot.pending.insert(booking.from(), booking.to(), booking.id(), booking);
+                }
+            }
+        });
+
+        Reservation reservation = reservationRepository.findById(booking.id())
+                .orElseThrow(() -> new ResourceNotFoundException("Reserva não encontrada com ID: " + booking.id()));
+        reservation.setStatus(Reservation.Status.UTILIZADA);
+        reservation.setCarId(car.getId());
+        reservationRepository.save(reservation);
+        log.debug("Entrada do carro {} ({}) utilizou a reserva {}", car.getId(), car.getPlaca(), booking.id());
+        return Optional.of(booking.id());
+    }
+
+    /**
+     * Vagas que a entrada da placa deve deixar livres: uma para cada reserva ativa de outra placa
+     * que já pode ser utilizada (a partir de {@code parking.reservations.early-arrival-minutes} antes
+     * do início) e ainda não foi
+     */
+    public int heldSpots(Long lotId, String placa) {
+        LotReservations lot = lots.get(lotId);
+        if (lot == null) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        long from = epochSecond(now);
+        long to = epochSecond(now.plusMinutes(earlyArrivalMinutes)) + 1;
+
+        int[] held = {0};
+        synchronized (lot) {
+            lot.pending.forEachOverlapping(from, to, booking -> {
+                if (!booking.placa().equals(placa)) {
+                    held[0]++;
+                }
+            });
+        }
+        return held[0];
+    }
+
+    /**
+     * Vagas reservadas no pico do período e quantas ainda podem ser reservadas
+     */
+    public AvailabilityResponse getAvailability(LocalDateTime inicio, LocalDateTime fim) {
+        validatePeriod(inicio, fim);
+        Long lotId = capacityService.currentLot();
+        int capacidade = capacityService.getLot(lotId).getCapacidade();
+        LotReservations lot = lots.get(lotId);
+        int reservadas = 0;
+        if (lot != null) {
+            synchronized (lot) {
+                reservadas = lot.load.maxLoad(epochSecond(inicio), epochSecond(fim));
+            }
+        }
+        return new AvailabilityResponse(lotId, inicio, fim, capacidade, reservadas);
+    }
+
+    /**
+     * Marca como expiradas as reservas ativas já encerradas e remove da memória as reservas passadas
+     */
+    @Scheduled(fixedDelayString = "${parking.reservations.expire-interval-ms:60000}",
+            initialDelayString = "${parking.reservations.expire-interval-ms:60000}")
+    @Transactional
+    public int expire() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Reservation> ended = reservationRepository.findByStatusAndFimLessThanEqual(Reservation.Status.ATIVA, now);
+        ended.forEach(reservation -> reservation.setStatus(Reservation.Status.EXPIRADA));
+        reservationRepository.saveAll(ended);
+
+        long cutoff = epochSecond(now);
+        AfterCommit.run(() -> lots.values().forEach(lot -> {
+            synchronized (lot) {
+                lot.prune(cutoff);
+            }
+        }));
+        if (!ended.isEmpty()) {
+            log.info("{} reservas expiradas sem utilização", ended.size());
+        }
+        return ended.size();
+    }
+
+    private static void validatePeriod(LocalDateTime inicio, LocalDateTime fim) {
+        if (inicio == null || fim == null || !fim.isAfter(inicio)) {
+            throw new IllegalArgumentException("Período inválido: o fim deve ser posterior ao início");
+        }
+    }
+
+    private LotReservations lot(Long lotId) {
+        return lots.computeIfAbsent(lotId, id -> new LotReservations());
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private record Booking(long id, String placa, long from, long to) {
+
+        static Booking of(Reservation reservation) {
+            return new Booking(reservation.getId(), reservation.getPlaca(),
+                    epochSecond(reservation.getInicio()), epochSecond(reservation.getFim()));
+        }
+    }
+
+    /**
+     * Reservas em aberto de um estacionamento; acessado sob a trava do próprio objeto
+     */
+    private static final class LotReservations {
+
+        private final Map<Long, Booking> bookings = new HashMap<>();
+        private final IntervalTree<Booking> pending = new IntervalTree<>();
+        private final LoadTimeline load = new LoadTimeline();
+
+        void add(Booking booking, boolean active) {
+            bookings.put(booking.id(), booking);
+            load.add(booking.from(), booking.to());
+            if (active) {
+                pending.insert(booking.from(), booking.to(), booking.id(), booking);
+            }
+        }
+
+        void discard(Booking booking) {
+            if (booking == null || bookings.remove(booking.id()) == null) {
+                return;
+            }
+            load.remove(booking.from(), booking.to());
+            pending.remove(booking.from(), booking.id());
+        }
+
+        void prune(long cutoff) {
+            bookings.values().removeIf(booking -> {
+                if (booking.to() > cutoff) {
+                    return false;
+                }
+                pending.remove(booking.from(), booking.id());
+                return true;
+            });
+            load.compact(cutoff);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.parking.api.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reprocessa todo o histórico nos agregados de ocupação ao iniciar com
+ * {@code --parking.rollup.backfill=true}
+ */
+@Component
+@ConditionalOnProperty(name = "parking.rollup.backfill", havingValue = "true")
+@RequiredArgsConstructor
+public class RollupBackfillRunner implements ApplicationRunner {
+
+    private final OccupancyRollupService occupancyRollupService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        occupancyRollupService.backfill();
+    }
+}
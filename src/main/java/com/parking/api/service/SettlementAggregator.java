@@ -0,0 +1,159 @@
+package com.parking.api.service;
+
+import com.parking.api.repository.CarRepository;
+import com.parking.api.util.LongObjectHashMap;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Agrega permanências encerradas em totais por estacionamento, tarifa, hora da saída e operador.
+ * <p>
+ * A thread que lê o cursor apenas copia as linhas para blocos colunares de tamanho fixo e entrega
+ * cada bloco cheio a uma tarefa do {@link Executor}. Cada tarefa soma em um {@link Accumulator}
+ * próprio, e os acumuladores são combinados pela thread do cursor quando as tarefas terminam,
+ * então nenhuma estrutura é compartilhada entre threads durante a agregação. O número de blocos em
+ * processamento é limitado para que a memória não cresça com o tamanho do dia.
+ */
+public final class SettlementAggregator {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    /** Chave usada para estacionamento ou tarifa ausentes */
+    public static final long NONE = -1L;
+
+    private SettlementAggregator() {
+    }
+
+    public static Accumulator aggregate(Iterator<? extends CarRepository.SettlementRow> rows, Executor executor,
+                                        int chunkSize, int maxInFlight) {
+        Accumulator result = new Accumulator();
+        Deque<CompletableFuture<Accumulator>> inFlight = new ArrayDeque<>();
+        Chunk chunk = new Chunk(chunkSize);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size == chunkSize) {
+                if (inFlight.size() >= maxInFlight) {
+                    result.merge(inFlight.poll().join());
+                }
+                inFlight.add(CompletableFuture.supplyAsync(chunk::accumulate, executor));
+                chunk = new Chunk(chunkSize);
+            }
+        }
+
+        result.merge(chunk.accumulate());
+        for (CompletableFuture<Accumulator> part : inFlight) {
+            result.merge(part.join());
+        }
+        return result;
+    }
+
+    /**
+     * Bloco colunar de linhas já convertidas para primitivos
+     */
+    private static final class Chunk {
+
+        private final long[] lots;
+        private final long[] tariffs;
+        private final byte[] hours;
+        private final long[] cents;
+        private final String[] operators;
+        private int size;
+
+        Chunk(int capacity) {
+            lots = new long[capacity];
+            tariffs = new long[capacity];
+            hours = new byte[capacity];
+            cents = new long[capacity];
+            operators = new String[capacity];
+        }
+
+        void add(CarRepository.SettlementRow row) {
+            lots[size] = row.getLotId() != null ? row.getLotId() : NONE;
+            tariffs[size] = row.getTarifaId() != null ? row.getTarifaId() : NONE;
+            hours[size] = (byte) row.getDataSaida().getHour();
+            cents[size] = row.getValorPago() != null ? row.getValorPago().movePointRight(2).longValue() : 0;
+            operators[size] = row.getOperadorSaida() != null ? row.getOperadorSaida() : "";
+            size++;
+        }
+
+        Accumulator accumulate() {
+            Accumulator accumulator = new Accumulator();
+            for (int i = 0; i < size; i++) {
+                accumulator.add(lots[i], tariffs[i], hours[i], operators[i], cents[i]);
+            }
+            return accumulator;
+        }
+    }
+
+    /**
+     * Totais parciais, combináveis com {@link #merge}. Cada total é {@code {sessões, centavos}}.
+     * Não é thread-safe: cada thread usa o seu.
+     */
+    public static final class Accumulator {
+
+        private final LongObjectHashMap<long[]> lots = new LongObjectHashMap<>();
+        private final LongObjectHashMap<long[]> tariffs = new LongObjectHashMap<>();
+        private final long[][] hours = new long[24][2];
+        private final Map<String, long[]> operators = new HashMap<>();
+        private long sessions;
+        private long cents;
+
+        public void add(long lotId, long tarifaId, int hour, String operador, long valueCents) {
+            add(lots.computeIfAbsent(lotId, key -> new long[2]), 1, valueCents);
+            add(tariffs.computeIfAbsent(tarifaId, key -> new long[2]), 1, valueCents);
+            add(hours[hour], 1, valueCents);
+            add(operators.computeIfAbsent(operador, key -> new long[2]), 1, valueCents);
+            sessions++;
+            cents += valueCents;
+        }
+
+        public Accumulator merge(Accumulator other) {
+            other.lots.forEach((key, total) -> add(lots.computeIfAbsent(key, k -> new long[2]), total[0], total[1]));
+            other.tariffs.forEach((key, total) -> add(tariffs.computeIfAbsent(key, k -> new long[2]), total[0], total[1]));
+            for (int hour = 0; hour < 24; hour++) {
+                add(hours[hour], other.hours[hour][0], other.hours[hour][1]);
+            }
+            other.operators.forEach((key, total) ->
+                    add(operators.computeIfAbsent(key, k -> new long[2]), total[0], total[1]));
+            sessions += other.sessions;
+            cents += other.cents;
+            return this;
+        }
+
+        public long sessions() {
+            return sessions;
+        }
+
+        public BigDecimal total() {
+            return BigDecimal.valueOf(cents, 2);
+        }
+
+        public void forEachLot(LongObjectHashMap.Entry<long[]> action) {
+            lots.forEach(action);
+        }
+
+        public void forEachTariff(LongObjectHashMap.Entry<long[]> action) {
+            tariffs.forEach(action);
+        }
+
+        public long[] hour(int hour) {
+            return hours[hour].clone();
+        }
+
+        public Map<String, long[]> operators() {
+            return Map.copyOf(operators);
+        }
+
+        private static void add(long[] total, long sessions, long cents) {
+            total[0] += sessions;
+            total[1] += cents;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.parking.api.service;
+
+import com.parking.api.dto.SettlementResponse;
+import com.parking.api.exception.AccessDeniedException;
+import com.parking.api.model.DailySettlement;
+import com.parking.api.model.ParkingLot;
+import com.parking.api.model.SettlementLine;
+import com.parking.api.model.SettlementLine.Dimensao;
+import com.parking.api.model.TariffPlan;
+import com.parking.api.repository.CarRepository;
+import com.parking.api.repository.DailySettlementRepository;
+import com.parking.api.repository.ParkingLotRepository;
+import com.parking.api.repository.TariffPlanRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Fechamento de caixa diário: soma o valor cobrado nas saídas do dia, em todos os estacionamentos,
+ * por estacionamento, tarifa, hora da saída e operador.
+ * <p>
+ * As permanências do dia são lidas por cursor e agregadas em paralelo pelo
+ * {@link SettlementAggregator}. Um job grava o fechamento do dia anterior logo após a meia-noite
+ * ({@code parking.settlement.cron}); dias sem fechamento gravado são calculados na consulta.
+ * <p>
+ * O fechamento gravado abrange todos os estacionamentos e só é visto e gravado por usuários globais.
+ * Quem está restrito a um estacionamento recebe o fechamento só dele, sempre calculado na consulta.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SettlementService {
+
+    private final CarRepository carRepository;
+    private final DailySettlementRepository dailySettlementRepository;
+    private final ParkingLotRepository parkingLotRepository;
+    private final TariffPlanRepository tariffPlanRepository;
+    private final CapacityService capacityService;
+
+    /**
+     * Fechamento gravado do dia ou, se não houver, calculado agora sem gravar; para quem está
+     * restrito a um estacionamento, o fechamento só dele, calculado agora
+     */
+    @Transactional(readOnly = true)
+    public SettlementResponse getSettlement(LocalDate dia) {
+        if (!capacityService.isGlobalCaller()) {
+            return toResponse(compute(dia, capacityService.currentLot()), false);
+        }
+        return dailySettlementRepository.findByDia(dia)
+                .map(settlement -> toResponse(settlement, true))
+                .orElseGet(() -> toResponse(compute(dia, null), false));
+    }
+
+    /**
+     * Calcula e grava (ou regrava) o fechamento do dia
+     *
+     * @throws AccessDeniedException se quem faz a requisição está restrito a um estacionamento
+     */
+    @Transactional
+    public SettlementResponse generate(LocalDate dia) {
+        if (!capacityService.isGlobalCaller()) {
+            throw new AccessDeniedException("Só usuários globais gravam o fechamento de todos os estacionamentos");
+        }
+        DailySettlement computed = compute(dia, null);
+        DailySettlement settlement = dailySettlementRepository.findByDia(dia).orElseGet(DailySettlement::new);
+        settlement.setDia(dia);
+        settlement.setGeradoEm(computed.getGeradoEm());
+        settlement.setSessoes(computed.getSessoes());
+        settlement.setTotal(computed.getTotal());
+        settlement.getLinhas().clear();
+        computed.getLinhas().forEach(line -> {
+            line.setSettlement(settlement);
+            settlement.getLinhas().add(line);
+        });
+        DailySettlement saved = dailySettlementRepository.save(settlement);
+        log.info("Fechamento de {} gravado: {} saídas, total {}", dia, saved.getSessoes(), saved.getTotal());
+        return toResponse(saved, true);
+    }
+
+    @Scheduled(cron = "${parking.settlement.cron:0 15 0 * * *}")
+    @Transactional
+    public void generatePreviousDay() {
+        generate(LocalDate.now().minusDays(1));
+    }
+
+    /**
+     * Fechamento do dia em um estacionamento, ou em todos com {@code lotId} nulo
+     */
+    private DailySettlement compute(LocalDate dia, Long lotId) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        SettlementAggregator.Accumulator totals;
+        LocalDateTime from = dia.atStartOfDay();
+        LocalDateTime to = dia.plusDays(1).atStartOfDay();
+        try (Stream<CarRepository.SettlementRow> rows = lotId != null
+                ? carRepository.streamSettlementRowsInLot(lotId, from, to)
+                : carRepository.streamSettlementRows(from, to)) {
+            totals = SettlementAggregator.aggregate(rows.iterator(), pool,
+                    SettlementAggregator.DEFAULT_CHUNK_SIZE, 2 * pool.getParallelism());
+        }
+
+        Map<Long, String> lotNames = parkingLotRepository.findAll().stream()
+                .collect(Collectors.toMap(ParkingLot::getId, ParkingLot::getNome));
+        Map<Long, String> tariffNames = tariffPlanRepository.findAll().stream()
+                .collect(Collectors.toMap(TariffPlan::getId, TariffPlan::getNome));
+
+        DailySettlement settlement = new DailySettlement();
+        settlement.setDia(dia);
+        settlement.setGeradoEm(LocalDateTime.now());
+        settlement.setSessoes(totals.sessions());
+        settlement.setTotal(totals.total());
+
+        List<SettlementLine> lines = settlement.getLinhas();
+        List<SettlementLine> lots = new ArrayList<>();
+        totals.forEachLot((lot, total) -> lots.add(line(Dimensao.LOT, lot, lotNames, total)));
+        lots.sort(Comparator.comparing(SettlementLine::getChave, Comparator.comparingLong(Long::parseLong)));
+        lines.addAll(lots);
+
+        List<SettlementLine> tariffs = new ArrayList<>();
+        totals.forEachTariff((tarifaId, total) -> tariffs.add(line(Dimensao.TARIFF, tarifaId, tariffNames, total)));
+        tariffs.sort(Comparator.comparing(SettlementLine::getChave, Comparator.comparingLong(Long::parseLong)));
+        lines.addAll(tariffs);
+
+        for (int hour = 0; hour < 24; hour++) {
+            long[] total = totals.hour(hour);
+            if (total[0] > 0) {
+                lines.add(new SettlementLine(null, settlement, Dimensao.HOUR, String.valueOf(hour),
+                        String.format("%02d:00", hour), total[0], BigDecimal.valueOf(total[1], 2)));
+            }
+        }
+
+        totals.operators().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> lines.add(new SettlementLine(null, settlement, Dimensao.OPERATOR, entry.getKey(),
+                        entry.getKey().isEmpty() ? "Não informado" : entry.getKey(),
+                        entry.getValue()[0], BigDecimal.valueOf(entry.getValue()[1], 2))));
+        return settlement;
+    }
+
+    private static SettlementLine line(Dimensao dimensao, long key, Map<Long, String> names, long[] total) {
+        String descricao = key == SettlementAggregator.NONE ? "Não informado" : names.get(key);
+        return new SettlementLine(null, null, dimensao, String.valueOf(key), descricao, total[0],
+                BigDecimal.valueOf(total[1], 2));
+    }
+
+    private static SettlementResponse toResponse(DailySettlement settlement, boolean persistido) {
+        Map<Dimensao, List<SettlementResponse.LineResponse>> byDimension = settlement.getLinhas().stream()
+                .collect(Collectors.groupingBy(SettlementLine::getDimensao,
+                        Collectors.mapping(line -> new SettlementResponse.LineResponse(
+                                line.getChave(), line.getDescricao(), line.getSessoes(), line.getTotal()),
+                                Collectors.toList())));
+        Function<Dimensao, List<SettlementResponse.LineResponse>> lines = dimensao -> byDimension.getOrDefault(dimensao, List.of());
+        return new SettlementResponse(settlement.getDia(), settlement.getGeradoEm(), persistido,
+                settlement.getSessoes(), settlement.getTotal(),
+                lines.apply(Dimensao.LOT), lines.apply(Dimensao.TARIFF), lines.apply(Dimensao.HOUR),
+                lines.apply(Dimensao.OPERATOR));
+    }
+}
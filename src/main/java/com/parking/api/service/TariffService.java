@@ -0,0 +1,132 @@
+package com.parking.api.service;
+
+import com.parking.api.dto.QuoteResponse;
+import com.parking.api.exception.ResourceNotFoundException;
+import com.parking.api.model.Car;
+import com.parking.api.model.TariffPlan;
+import com.parking.api.repository.ParkingLotRepository;
+import com.parking.api.repository.TariffPlanRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mantém os planos de tarifação compilados ({@link CompiledTariff}) e calcula o valor das permanências.
+ * <p>
+ * Cada estacionamento usa o plano mais recente cadastrado para ele ou, na falta, o plano padrão
+ * ({@code lotId} nulo) mais recente. Os planos são compilados na inicialização e a cada alteração,
+ * e o conjunto é trocado de uma vez, então o cálculo nunca espera nem vê um plano pela metade.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TariffService {
+
+    private final TariffPlanRepository tariffPlanRepository;
+    private final ParkingLotRepository parkingLotRepository;
+
+    private volatile Tariffs tariffs = new Tariffs(Map.of(), null);
+
+    @PostConstruct
+    public void load() {
+        List<TariffPlan> plans = tariffPlanRepository.findAllByOrderByIdAsc();
+        if (plans.isEmpty()) {
+            plans = List.of(tariffPlanRepository.save(defaultPlan()));
+            log.info("Nenhuma tarifa cadastrada; criada a tarifa padrão '{}'", plans.get(0).getNome());
+        }
+
+        Map<Long, CompiledTariff> byLot = new HashMap<>();
+        CompiledTariff fallback = null;
+        for (TariffPlan plan : plans) {
+            CompiledTariff compiled = CompiledTariff.compile(plan);
+            if (plan.getLotId() == null) {
+                fallback = compiled;
+            } else {
+                byLot.put(plan.getLotId(), compiled);
+            }
+        }
+        tariffs = new Tariffs(Map.copyOf(byLot), fallback);
+        log.debug("{} tarifas compiladas", plans.size());
+    }
+
+    public List<TariffPlan> getPlans() {
+        return tariffPlanRepository.findAllByOrderByIdAsc();
+    }
+
+    public TariffPlan createPlan(TariffPlan plan) {
+        plan.setId(null);
+        return save(plan);
+    }
+
+    public TariffPlan updatePlan(Long id, TariffPlan details) {
+        if (!tariffPlanRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Tarifa não encontrada com ID: " + id);
+        }
+        details.setId(id);
+        return save(details);
+    }
+
+    /**
+     * Tarifa aplicada ao estacionamento, ou nula se não houver nenhuma
+     */
+    public CompiledTariff forLot(Long lotId) {
+        Tariffs current = tariffs;
+        CompiledTariff tariff = lotId != null ? current.byLot().get(lotId) : null;
+        return tariff != null ? tariff : current.fallback();
+    }
+
+    /**
+     * Calcula o valor da permanência do carro até {@code saida}
+     */
+    public QuoteResponse quote(Car car, LocalDateTime saida) {
+        CompiledTariff tariff = forLot(car.getLotId());
+        long cents = tariff != null && car.getDataEntrada() != null ? tariff.feeCents(car.getDataEntrada(), saida) : 0;
+        long minutos = car.getDataEntrada() != null ? Math.max(0, Duration.between(car.getDataEntrada(), saida).toMinutes()) : 0;
+        return new QuoteResponse(
+                car.getId(),
+                car.getPlaca(),
+                tariff != null ? tariff.getPlanId() : null,
+                tariff != null ? tariff.getNome() : null,
+                car.getDataEntrada(),
+                saida,
+                minutos,
+                BigDecimal.valueOf(cents, 2));
+    }
+
+    private TariffPlan save(TariffPlan plan) {
+        if (plan.getLotId() != null && !parkingLotRepository.existsById(plan.getLotId())) {
+            throw new ResourceNotFoundException("Estacionamento não encontrado com ID: " + plan.getLotId());
+        }
+        // Compila antes de gravar para rejeitar planos inconsistentes
+        CompiledTariff.compile(plan);
+        TariffPlan saved = tariffPlanRepository.save(plan);
+        load();
+        return saved;
+    }
+
+    private static TariffPlan defaultPlan() {
+        TariffPlan plan = new TariffPlan();
+        plan.setNome("Padrão");
+        plan.setToleranciaMinutos(15);
+        plan.setValorPrimeiraHora(new BigDecimal("12.00"));
+        plan.setFracaoMinutos(15);
+        plan.setValorFracao(new BigDecimal("3.00"));
+        plan.setTetoDiario(new BigDecimal("60.00"));
+        plan.setInicioNoturno(LocalTime.of(20, 0));
+        plan.setFimNoturno(LocalTime.of(6, 0));
+        plan.setValorFracaoNoturna(new BigDecimal("2.00"));
+        return plan;
+    }
+
+    private record Tariffs(Map<Long, CompiledTariff> byLot, CompiledTariff fallback) {
+    }
+}
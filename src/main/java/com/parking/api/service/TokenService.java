@@ -0,0 +1,248 @@
+package com.parking.api.service;
+
+import com.parking.api.exception.InvalidTokenException;
+import com.parking.api.model.RefreshToken;
+import com.parking.api.model.RevokedToken;
+import com.parking.api.model.User;
+import com.parking.api.repository.RefreshTokenRepository;
+import com.parking.api.repository.RevokedTokenRepository;
+import com.parking.api.repository.UserRepository;
+import com.parking.api.util.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Emite e confere os tokens de sessão.
+ * <p>
+ * O token de acesso é curto ({@code parking.auth.access-ttl}, padrão 15 minutos), assinado pelo
+ * {@link TokenSigner} e conferido em memória, sem consulta ao banco. O token de renovação é
+ * opaco, guardado como hash em {@link RefreshToken} e trocado a cada uso; reapresentar um token já
+ * trocado revoga todos os tokens de renovação do usuário. Tokens de acesso revogados no logout
+ * ficam em {@link RevokedToken} e em um conjunto local, sincronizado com o banco a cada
+ * {@code parking.auth.revocation-sync-ms} para que as outras instâncias também os recusem.
+ * <p>
+ * As chaves vêm de {@code parking.auth.token-keys} ({@code kid:segredo-base64}, separadas por
+ * vírgula) e a que assina é {@code parking.auth.token-active-key}; para trocar a chave, inclua a nova,
+ * torne-a ativa e remova a antiga depois que os tokens assinados por ela expirarem. Sem chaves
+ * configuradas, uma chave aleatória é gerada na inicialização (só serve para uma instância).
+ */
+@Slf4j
+@Service
+public class TokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final TokenSigner signer;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+    private final UserRepository userRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final Clock clock;
+
+    /** jti revogado e expiração em segundos desde a época */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TokenService(@Value("${parking.auth.token-keys:}") String keys,
+                        @Value("${parking.auth.token-active-key:}") String activeKid,
+                        @Value("${parking.auth.access-ttl:PT15M}") Duration accessTtl,
+                        @Value("${parking.auth.refresh-ttl:P7D}") Duration refreshTtl,
+                        UserRepository userRepository, RefreshTokenRepository refreshTokenRepository,
+                        RevokedTokenRepository revokedTokenRepository) {
+        this(signer(keys, activeKid), accessTtl, refreshTtl, userRepository, refreshTokenRepository,
+                revokedTokenRepository, Clock.systemDefaultZone());
+    }
+
+    TokenService(TokenSigner signer, Duration accessTtl, Duration refreshTtl, UserRepository userRepository,
+                 RefreshTokenRepository refreshTokenRepository, RevokedTokenRepository revokedTokenRepository,
+                 Clock clock) {
+        this.signer = signer;
+        this.accessTtl = accessTtl;
+        this.refreshTtl = refreshTtl;
+        this.userRepository = userRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.clock = clock;
+    }
+
+    /**
+     * Emite um par de tokens (acesso e renovação) para o usuário autenticado
+     */
+    @Transactional
+    public IssuedTokens issue(User user) {
+        long expiresAt = clock.instant().plus(accessTtl).getEpochSecond();
+        String jti = HexFormat.of().formatHex(randomBytes(16));
+        String accessToken = signer.sign(new TokenSigner.AccessClaims(
+                user.getId(), user.getRole(), user.getLotId(), expiresAt, jti));
+
+        String refreshToken = ENCODER.encodeToString(randomBytes(32));
+        refreshTokenRepository.save(new RefreshToken(null, sha256(refreshToken), user.getId(),
+                LocalDateTime.now(clock).plus(refreshTtl), false, null));
+        return new IssuedTokens(user, accessToken, refreshToken, accessTtl.toSeconds());
+    }
+
+    /**
+     * Confere o token de acesso em memória: assinatura, expiração e lista de revogados
+     *
+     * @throws InvalidTokenException se o token não for aceito
+     */
+    public TokenSigner.AccessClaims verify(String accessToken) {
+        TokenSigner.AccessClaims claims = signer.verify(accessToken, clock.instant().getEpochSecond());
+        if (revoked.containsKey(claims.jti())) {
+            throw new InvalidTokenException("Token revogado");
+        }
+        return claims;
+    }
+
+    /**
+     * Troca um token de renovação válido por um novo par; o token usado deixa de valer
+     */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public IssuedTokens refresh(String refreshToken) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(sha256(refreshToken))
+                .orElseThrow(() -> new InvalidTokenException("Token de renovação inválido"));
+        if (stored.isRevogado()) {
+            throw reused(stored.getUserId());
+        }
+        if (!stored.getExpiraEm().isAfter(LocalDateTime.now(clock))) {
+            throw new InvalidTokenException("Token de renovação expirado");
+        }
+        // A troca é condicional: de duas renovações simultâneas com o mesmo token, só uma altera a linha
+        if (refreshTokenRepository.revoke(stored.getId()) == 0) {
+            throw reused(stored.getUserId());
+        }
+
+        User user = userRepository.findById(stored.getUserId())
+                .orElseThrow(() -> new InvalidTokenException("Token de renovação inválido"));
+        return issue(user);
+    }
+
+    /**
+     * Encerra a sessão: revoga o token de renovação (se informado) e o de acesso. O de acesso só
+     * precisa da assinatura válida: expirado ou já revogado, não há o que revogar, mas a renovação é
+     * revogada do mesmo jeito
+     *
+     * @throws InvalidTokenException se o token de acesso não foi assinado por uma chave conhecida
+     */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public void logout(String accessToken, String refreshToken) {
+        if (refreshToken != null) {
+            refreshTokenRepository.findByTokenHash(sha256(refreshToken))
+                    .ifPresent(stored -> stored.setRevogado(true));
+        }
+        if (accessToken == null) {
+            return;
+        }
+        TokenSigner.AccessClaims claims = signer.verifySignature(accessToken);
+        if (claims.expiresAt() <= clock.instant().getEpochSecond() || revoked.containsKey(claims.jti())) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(claims.jti(),
+                LocalDateTime.ofInstant(Instant.ofEpochSecond(claims.expiresAt()), clock.getZone())));
+        AfterCommit.run(() -> revoked.put(claims.jti(), claims.expiresAt()));
+    }
+
+    /**
+     * Revoga os tokens de renovação do usuário (troca de senha, remoção); os tokens de acesso já
+     * emitidos expiram sozinhos em até {@code parking.auth.access-ttl}
+     */
+    @Transactional
+    public void revokeUser(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+    }
+
+    /**
+     * Atualiza o conjunto local de revogados com o banco e apaga o que já expirou
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${parking.auth.revocation-sync-ms:30000}",
+            initialDelayString = "${parking.auth.revocation-sync-ms:30000}")
+    @Transactional
+    public void syncRevocations() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        revokedTokenRepository.deleteExpired(now);
+        refreshTokenRepository.deleteExpired(now);
+        revokedTokenRepository.findAll().forEach(token -> revoked.put(token.getJti(),
+                token.getExpiraEm().atZone(clock.getZone()).toEpochSecond()));
+        long nowEpoch = clock.instant().getEpochSecond();
+        revoked.values().removeIf(expiresAt -> expiresAt <= nowEpoch);
+    }
+
+    public int revokedCount() {
+        return revoked.size();
+    }
+
+    static TokenSigner signer(String keys, String activeKid) {
+        Map<String, byte[]> parsed = new LinkedHashMap<>();
+        for (String entry : keys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Chave de token inválida (esperado kid:segredo-base64)");
+            }
+            parsed.put(entry.substring(0, separator).trim(), Base64.getDecoder().decode(entry.substring(separator + 1).trim()));
+        }
+
+        if (parsed.isEmpty()) {
+            log.warn("parking.auth.token-keys não configurado: usando chave aleatória; "
+                    + "tokens não valem em outras instâncias nem após reiniciar");
+            parsed.put("local", randomBytes(32));
+            return new TokenSigner(parsed, "local");
+        }
+        return new TokenSigner(parsed, activeKid.isBlank() ? parsed.keySet().iterator().next() : activeKid);
+    }
+
+    /**
+     * Token já trocado reapresentado: pode ter sido copiado, então toda a sessão do usuário cai
+     */
+    private InvalidTokenException reused(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+        log.warn("Token de renovação reutilizado para o usuário {}; sessões revogadas", userId);
+        return new InvalidTokenException("Token de renovação inválido");
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        RANDOM.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Tokens emitidos; {@code expiresIn} é a validade do token de acesso em segundos
+     */
+    public record IssuedTokens(User user, String accessToken, String refreshToken, long expiresIn) {
+    }
+}
@@ -0,0 +1,152 @@
+package com.parking.api.service;
+
+import com.parking.api.exception.InvalidTokenException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Assina e confere tokens de acesso com HMAC-SHA256, sem consultar banco nem serviço externo.
+ * <p>
+ * Formato: {@code <kid>.<claims em base64url>.<assinatura em base64url>}, com as claims em texto
+ * {@code userId|role|lotId|exp|jti}. O {@code kid} identifica a chave: tokens são assinados com a
+ * chave ativa e conferidos com qualquer chave do conjunto, então uma chave nova pode entrar como
+ * ativa enquanto a anterior continua aceitando os tokens ainda válidos. Imutável e thread-safe.
+ */
+public final class TokenSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_KEY_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Map<String, SigningKey> keys;
+    private final String activeKid;
+
+    public TokenSigner(Map<String, byte[]> keys, String activeKid) {
+        if (!keys.containsKey(activeKid)) {
+            throw new IllegalArgumentException("Chave ativa de token não configurada: " + activeKid);
+        }
+        keys.forEach((kid, secret) -> {
+            if (kid.isBlank() || kid.contains(".")) {
+                throw new IllegalArgumentException("Identificador de chave de token inválido: " + kid);
+            }
+            if (secret.length < MIN_KEY_BYTES) {
+                throw new IllegalArgumentException(
+                        "Chave de token '" + kid + "' deve ter pelo menos " + MIN_KEY_BYTES + " bytes");
+            }
+        });
+        this.keys = keys.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> new SigningKey(entry.getValue())));
+        this.activeKid = activeKid;
+    }
+
+    public String sign(AccessClaims claims) {
+        if (claims.role() != null && claims.role().indexOf('|') >= 0) {
+            throw new IllegalArgumentException("Perfil inválido para token: " + claims.role());
+        }
+        String payload = claims.userId() + "|" + claims.role() + "|" + (claims.lotId() != null ? claims.lotId() : "")
+                + "|" + claims.expiresAt() + "|" + claims.jti();
+        String signed = activeKid + "." + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return signed + "." + ENCODER.encodeToString(keys.get(activeKid).mac(signed));
+    }
+
+    /**
+     * Confere assinatura e validade; {@code nowEpochSecond} é o instante atual em segundos
+     *
+     * @throws InvalidTokenException se o token estiver malformado, adulterado, assinado por chave
+     *                               desconhecida ou expirado
+     */
+    public AccessClaims verify(String token, long nowEpochSecond) {
+        AccessClaims claims = verifySignature(token);
+        if (claims.expiresAt() <= nowEpochSecond) {
+            throw new InvalidTokenException("Token expirado");
+        }
+        return claims;
+    }
+
+    /**
+     * Confere só a assinatura, aceitando tokens expirados (para o logout encerrar a sessão de um
+     * token que venceu)
+     *
+     * @throws InvalidTokenException se o token estiver malformado, adulterado ou assinado por chave
+     *                               desconhecida
+     */
+    public AccessClaims verifySignature(String token) {
+        int first = token.indexOf('.');
+        int last = token.lastIndexOf('.');
+        if (first <= 0 || last == first) {
+            throw new InvalidTokenException("Token malformado");
+        }
+        SigningKey key = keys.get(token.substring(0, first));
+        if (key == null) {
+            throw new InvalidTokenException("Token assinado por chave desconhecida");
+        }
+
+        byte[] expected = key.mac(token.substring(0, last));
+        byte[] actual;
+        String payload;
+        try {
+            actual = DECODER.decode(token.substring(last + 1));
+            payload = new String(DECODER.decode(token.substring(first + 1, last)), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTokenException("Token malformado");
+        }
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw new InvalidTokenException("Assinatura do token inválida");
+        }
+
+        return parse(payload);
+    }
+
+    private static AccessClaims parse(String payload) {
+        String[] parts = payload.split("\\|", -1);
+        if (parts.length != 5) {
+            throw new InvalidTokenException("Token malformado");
+        }
+        try {
+            return new AccessClaims(Long.valueOf(parts[0]), parts[1],
+                    parts[2].isEmpty() ? null : Long.valueOf(parts[2]), Long.parseLong(parts[3]), parts[4]);
+        } catch (NumberFormatException e) {
+            throw new InvalidTokenException("Token malformado");
+        }
+    }
+
+    /**
+     * Dados do token de acesso; {@code expiresAt} em segundos desde a época e {@code lotId} nulo
+     * para usuários de todos os estacionamentos
+     */
+    public record AccessClaims(Long userId, String role, Long lotId, long expiresAt, String jti) {
+    }
+
+    /**
+     * Chave com uma instância de {@link Mac} por thread, para não inicializar o algoritmo a cada token
+     */
+    private static final class SigningKey {
+
+        private final ThreadLocal<Mac> mac;
+
+        SigningKey(byte[] secret) {
+            SecretKeySpec spec = new SecretKeySpec(secret.clone(), ALGORITHM);
+            this.mac = ThreadLocal.withInitial(() -> {
+                try {
+                    Mac instance = Mac.getInstance(ALGORITHM);
+                    instance.init(spec);
+                    return instance;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("HMAC-SHA256 indisponível", e);
+                }
+            });
+        }
+
+        byte[] mac(String data) {
+            return mac.get().doFinal(data.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package com.parking.api.service;
 
 import com.parking.api.dto.*;
+import com.parking.api.exception.AccessDeniedException;
 import com.parking.api.exception.ResourceNotFoundException;
+import com.parking.api.exception.VersionConflictException;
+import com.parking.api.model.AuditEntry.Acao;
+import com.parking.api.model.Role;
 import com.parking.api.model.User;
 import com.parking.api.repository.UserRepository;
+import com.parking.api.util.OptimisticRetry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -16,82 +23,232 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CapacityService capacityService;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private AuthorizationService authorizationService;
+
+    @Autowired
+    private DatabaseGuard databaseGuard;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Value("${parking.concurrency.retry-attempts:3}")
+    private int retryAttempts = 3;
+
+    /**
+     * Confere usuário e senha. A verificação BCrypt roda no executor do {@link PasswordHashingService};
+     * usuários inexistentes pagam uma verificação equivalente, para que o tempo de resposta não revele
+     * quais nomes existem. Senhas antigas em texto puro são trocadas pelo hash no primeiro login correto.
+     */
     public LoginResponse authenticate(LoginRequest request) {
-        User user = userRepository.findByUsername(request.getUsername())
-            .orElseThrow(() -> new ResourceNotFoundException("Invalid username or password"));
+        User user = databaseGuard.read(() -> userRepository.findByUsername(request.getUsername())).orElse(null);
+        if (user == null) {
+            passwordHashingService.verifyUnknown(request.getPassword());
+            throw new ResourceNotFoundException("Invalid username or password");
+        }
 
-        if (!user.getPassword().equals(request.getPassword())) {
+        PasswordHashingService.Verification verification =
+            passwordHashingService.verify(request.getPassword(), user.getPassword());
+        if (!verification.matches()) {
             throw new ResourceNotFoundException("Invalid username or password");
         }
+        if (verification.needsRehash()) {
+            rehash(user, request.getPassword());
+        }
 
-        return new LoginResponse(
-            user.getId(),
-            user.getUsername(),
-            user.getRole(),
-            "Login successful"
-        );
+        return toLoginResponse(tokenService.issue(user), "Login successful");
+    }
+
+    /**
+     * Troca o token de renovação por um novo par de tokens
+     */
+    public LoginResponse refresh(RefreshTokenRequest request) {
+        return toLoginResponse(tokenService.refresh(request.getRefreshToken()), "Token refreshed");
+    }
+
+    public void logout(String accessToken, String refreshToken) {
+        tokenService.logout(accessToken, refreshToken);
     }
 
     public UserResponse createUser(UserRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
+        if (databaseGuard.read(() -> userRepository.existsByUsername(request.getUsername()))) {
             throw new IllegalArgumentException("Username already exists");
         }
+        requireKnownRole(request.getRole());
 
         User user = new User(
             request.getUsername(),
-            request.getPassword(),
+            passwordHashingService.hash(request.getPassword()),
             request.getRole()
         );
+        user.setLotId(targetLot(request, capacityService.currentLot()));
 
-        User savedUser = userRepository.save(user);
-        return UserResponse.fromUser(savedUser);
+        User savedUser = databaseGuard.write(() -> userRepository.save(user));
+        authorizationService.onRoleChanged(savedUser.getId(), savedUser.getRole());
+        UserResponse response = UserResponse.fromUser(savedUser);
+        auditLog.onUserChanged(Acao.CREATE, null, response);
+        return response;
     }
 
     public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream()
+        Long lotId = capacityService.currentLot();
+        return databaseGuard.read(() -> userRepository.findVisibleInLot(lotId)).stream()
             .map(UserResponse::fromUser)
             .collect(Collectors.toList());
     }
 
     public UserResponse getUserById(Long id) {
-        User user = userRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        User user = findVisibleUser(id);
         return UserResponse.fromUser(user);
     }
 
+    /**
+     * Atualiza o usuário; uma edição sobre uma versão antiga (informada no pedido ou alterada
+     * concorrentemente) é recusada com o estado atual, em vez de sobrescrever a outra alteração
+     */
     public UserResponse updateUser(Long id, UserRequest request) {
-        User user = userRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        User user = findModifiableUser(id);
+        if (request.getVersion() != null && !request.getVersion().equals(user.getVersion())) {
+            throw conflict(user);
+        }
+        UserResponse before = UserResponse.fromUser(user);
 
         // Check if username is being changed and if it already exists
         if (!user.getUsername().equals(request.getUsername()) &&
-            userRepository.existsByUsername(request.getUsername())) {
+            databaseGuard.read(() -> userRepository.existsByUsername(request.getUsername()))) {
             throw new IllegalArgumentException("Username already exists");
         }
+        requireKnownRole(request.getRole());
 
         user.setUsername(request.getUsername());
         user.setRole(request.getRole());
-
-        User updatedUser = userRepository.save(user);
-        return UserResponse.fromUser(updatedUser);
+        user.setLotId(targetLot(request, user.getLotId()));
+
+        try {
+            User updatedUser = databaseGuard.write(() -> userRepository.save(user));
+            authorizationService.onRoleChanged(updatedUser.getId(), updatedUser.getRole());
+            UserResponse response = UserResponse.fromUser(updatedUser);
+            auditLog.onUserChanged(Acao.UPDATE, before, response);
+            return response;
+        } catch (OptimisticLockingFailureException e) {
+            throw conflict(findVisibleUser(id));
+        }
     }
 
+    /**
+     * Troca a senha; em conflito com outra alteração do usuário, relê e tenta de novo (a senha
+     * antiga é conferida outra vez a cada tentativa)
+     */
     public void changePassword(Long id, ChangePasswordRequest request) {
-        User user = userRepository.findById(id)
+        try {
+            User changed = OptimisticRetry.run(retryAttempts, () -> {
+                User user = findVisibleUser(id);
+
+                if (!passwordHashingService.verify(request.getOldPassword(), user.getPassword()).matches()) {
+                    throw new IllegalArgumentException("Old password is incorrect");
+                }
+
+                user.setPassword(passwordHashingService.hash(request.getNewPassword()));
+                return databaseGuard.write(() -> userRepository.save(user));
+            });
+            tokenService.revokeUser(id);
+            auditLog.onPasswordChanged(id, changed.getLotId());
+        } catch (OptimisticLockingFailureException e) {
+            throw conflict(findVisibleUser(id));
+        }
+    }
+
+    public void deleteUser(Long id) {
+        User user = findModifiableUser(id);
+        databaseGuard.write(() -> userRepository.delete(user));
+        tokenService.revokeUser(id);
+        authorizationService.onUserDeleted(id);
+        auditLog.onUserChanged(Acao.DELETE, UserResponse.fromUser(user), null);
+    }
+
+    /**
+     * Busca um usuário do estacionamento corrente ou global; usuários de outros estacionamentos não são visíveis
+     */
+    private User findVisibleUser(Long id) {
+        Long lotId = capacityService.currentLot();
+        return databaseGuard.read(() -> userRepository.findById(id))
+            .filter(user -> user.getLotId() == null || user.getLotId().equals(lotId))
             .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+    }
+
+    /**
+     * Usuário visível que quem faz a requisição pode alterar: usuários globais só por usuários globais
+     */
+    private User findModifiableUser(Long id) {
+        User user = findVisibleUser(id);
+        if (user.getLotId() == null && !capacityService.isGlobalCaller()) {
+            throw new AccessDeniedException("Only global users can change global user: " + id);
+        }
+        return user;
+    }
 
-        if (!user.getPassword().equals(request.getOldPassword())) {
-            throw new IllegalArgumentException("Old password is incorrect");
+    /**
+     * Estacionamento do usuário criado ou alterado. {@code global} o torna global; um {@code lotId}
+     * informado precisa existir e, para quem está restrito a um estacionamento, ser o da requisição.
+     * Sem nenhum dos dois, fica {@code unchanged}
+     */
+    private Long targetLot(UserRequest request, Long unchanged) {
+        if (request.isGlobal()) {
+            if (!capacityService.isGlobalCaller()) {
+                throw new AccessDeniedException("Only global users can create or assign global users");
+            }
+            return null;
+        }
+        if (request.getLotId() == null) {
+            return unchanged;
         }
+        Long lotId = capacityService.getLot(request.getLotId()).getId();
+        if (!capacityService.isGlobalCaller() && !lotId.equals(capacityService.currentLot())) {
+            throw new AccessDeniedException("Cannot assign users to lot: " + lotId);
+        }
+        return lotId;
+    }
 
-        user.setPassword(request.getNewPassword());
-        userRepository.save(user);
+    private static void requireKnownRole(String role) {
+        if (Role.parse(role) == null) {
+            throw new IllegalArgumentException("Unknown role: " + role);
+        }
     }
 
-    public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found with id: " + id);
+    /**
+     * Grava o hash BCrypt no lugar da senha antiga; se o usuário foi alterado no meio tempo, a troca
+     * fica para o próximo login
+     */
+    private void rehash(User user, String rawPassword) {
+        user.setPassword(passwordHashingService.hash(rawPassword));
+        try {
+            databaseGuard.write(() -> userRepository.save(user));
+        } catch (OptimisticLockingFailureException e) {
+            // Outra alteração venceu; a senha continua válida e é migrada no próximo login
         }
-        userRepository.deleteById(id);
+    }
+
+    private static LoginResponse toLoginResponse(TokenService.IssuedTokens tokens, String message) {
+        User user = tokens.user();
+        LoginResponse response = new LoginResponse(user.getId(), user.getUsername(), user.getRole(), message);
+        response.setAccessToken(tokens.accessToken());
+        response.setRefreshToken(tokens.refreshToken());
+        response.setTokenType("Bearer");
+        response.setExpiresIn(tokens.expiresIn());
+        return response;
+    }
+
+    private static VersionConflictException conflict(User current) {
+        return new VersionConflictException(
+            "User was modified by another request: " + current.getId(), UserResponse.fromUser(current));
     }
 }
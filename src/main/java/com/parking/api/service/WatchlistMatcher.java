@@ -0,0 +1,166 @@
+package com.parking.api.service;
+
+import com.parking.api.model.WatchlistEntry;
+import com.parking.api.util.LongObjectHashMap;
+import com.parking.api.util.PlateCodec;
+
+import java.util.List;
+
+/**
+ * Verificador imutável das placas monitoradas.
+ * <p>
+ * Placas exatas ficam em um {@link LongObjectHashMap} indexado pelo código de {@link PlateCodec};
+ * padrões com curinga ficam em uma trie sobre os 7 caracteres da placa (sem hífen), com uma
+ * aresta extra para {@code ?} e uma marca de {@code *} em cada nó. Verificar uma placa custa uma
+ * consulta ao mapa e um percurso da trie limitado pelo tamanho da placa, independentemente de
+ * quantos padrões existem.
+ */
+public final class WatchlistMatcher {
+
+    public static final WatchlistMatcher EMPTY = compile(List.of());
+
+    private static final int ALPHABET = 36;
+
+    private final LongObjectHashMap<WatchlistEntry> exact;
+    private final Node root;
+
+    private WatchlistMatcher(LongObjectHashMap<WatchlistEntry> exact, Node root) {
+        this.exact = exact;
+        this.root = root;
+    }
+
+    /**
+     * @throws IllegalArgumentException se algum padrão for inválido
+     */
+    public static WatchlistMatcher compile(List<WatchlistEntry> entries) {
+        LongObjectHashMap<WatchlistEntry> exact = new LongObjectHashMap<>();
+        Node root = new Node();
+        for (WatchlistEntry entry : entries) {
+            String padrao = normalize(entry.getPadrao());
+            if (padrao.indexOf('?') < 0 && padrao.indexOf('*') < 0) {
+                long code = PlateCodec.encode(padrao);
+                if (!exact.containsKey(code)) {
+                    exact.put(code, entry);
+                }
+                continue;
+            }
+            Node node = root;
+            for (int i = 0; i < padrao.length(); i++) {
+                char c = padrao.charAt(i);
+                if (c == '*') {
+                    if (node.anySuffix == null) {
+                        node.anySuffix = entry;
+                    }
+                    node = null;
+                    break;
+                }
+                node = node.child(c);
+            }
+            if (node != null && node.match == null) {
+                node.match = entry;
+            }
+        }
+        return new WatchlistMatcher(exact, root);
+    }
+
+    /**
+     * Normaliza um padrão: maiúsculas, sem hífens ou espaços, curingas {@code ?} e {@code *} (só no fim)
+     *
+     * @throws IllegalArgumentException se o padrão for inválido
+     */
+    public static String normalize(String padrao) {
+        if (padrao == null) {
+            throw new IllegalArgumentException("Padrão da placa é obrigatório");
+        }
+        StringBuilder normalized = new StringBuilder(PlateCodec.LENGTH + 1);
+        for (int i = 0; i < padrao.length(); i++) {
+            char c = Character.toUpperCase(padrao.charAt(i));
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            boolean star = c == '*';
+            if (!(c >= 'A' && c <= 'Z') && !(c >= '0' && c <= '9') && c != '?' && !star) {
+                throw new IllegalArgumentException("Caractere inválido no padrão: " + padrao);
+            }
+            if (star && i != padrao.length() - 1) {
+                throw new IllegalArgumentException("'*' só é aceito no fim do padrão: " + padrao);
+            }
+            normalized.append(c);
+        }
+        String result = normalized.toString();
+        int length = result.endsWith("*") ? result.length() - 1 : result.length();
+        if (length == 0 || length > PlateCodec.LENGTH || (!result.endsWith("*") && length != PlateCodec.LENGTH)) {
+            throw new IllegalArgumentException("Padrão deve ter 7 caracteres ou terminar com '*': " + padrao);
+        }
+        if (result.indexOf('?') < 0 && !result.endsWith("*")) {
+            PlateCodec.encode(result);
+        }
+        return result;
+    }
+
+    /**
+     * Primeira entrada que corresponde à placa (exatas têm prioridade), ou null
+     */
+    public WatchlistEntry match(String placa) {
+        long code = PlateCodec.tryEncode(placa);
+        if (code == 0) {
+            return null;
+        }
+        WatchlistEntry found = exact.get(code);
+        if (found != null) {
+            return found;
+        }
+        String compact = PlateCodec.decode(code).replace("-", "");
+        return match(root, compact, 0);
+    }
+
+    public boolean isEmpty() {
+        return exact.isEmpty() && root.isEmpty();
+    }
+
+    private static WatchlistEntry match(Node node, String placa, int position) {
+        if (node == null) {
+            return null;
+        }
+        if (node.anySuffix != null) {
+            return node.anySuffix;
+        }
+        if (position == placa.length()) {
+            return node.match;
+        }
+        WatchlistEntry found = match(node.children[index(placa.charAt(position))], placa, position + 1);
+        return found != null ? found : match(node.any, placa, position + 1);
+    }
+
+    private static int index(char c) {
+        return c <= '9' ? c - '0' : 10 + c - 'A';
+    }
+
+    private static final class Node {
+
+        private final Node[] children = new Node[ALPHABET];
+        private Node any;
+        private WatchlistEntry match;
+        private WatchlistEntry anySuffix;
+
+        Node child(char c) {
+            if (c == '?') {
+                return any != null ? any : (any = new Node());
+            }
+            int index = index(c);
+            return children[index] != null ? children[index] : (children[index] = new Node());
+        }
+
+        boolean isEmpty() {
+            if (any != null || match != null || anySuffix != null) {
+                return false;
+            }
+            for (Node child : children) {
+                if (child != null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
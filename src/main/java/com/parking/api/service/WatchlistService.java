@@ -0,0 +1,233 @@
+package com.parking.api.service;
+
+import com.parking.api.dto.AlertResponse;
+import com.parking.api.event.CarEvent;
+import com.parking.api.exception.DatabaseUnavailableException;
+import com.parking.api.exception.ResourceNotFoundException;
+import com.parking.api.model.Car;
+import com.parking.api.model.WatchlistEntry;
+import com.parking.api.repository.CarRepository;
+import com.parking.api.repository.WatchlistRepository;
+import com.parking.api.util.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lista de monitoramento de placas (furtadas, bloqueadas etc.) e o pipeline que verifica as entradas.
+ * <p>
+ * O {@code createCar} não espera pela verificação: depois do commit, a entrada apenas entra em uma
+ * fila limitada ({@code parking.watchlist.queue-capacity}). Uma thread dedicada consome a fila,
+ * verifica a placa no {@link WatchlistMatcher} vigente, publica um alerta {@code WATCHLIST} no
+ * {@link AlertService} e registra a correspondência no carro. O alerta sai antes da escrita: com o
+ * banco indisponível, o registro passa pelo {@link DatabaseGuard} e volta para uma fila de novas
+ * tentativas, refeitas pelo consumidor até o banco voltar. Com a fila cheia a entrada não é
+ * bloqueada: a verificação é descartada e contada em {@link #dropped()}.
+ */
+@Slf4j
+@Service
+public class WatchlistService {
+
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+
+    private final WatchlistRepository watchlistRepository;
+    private final CarRepository carRepository;
+    private final AlertService alertService;
+    private final TransactionTemplate transactionTemplate;
+    private final DatabaseGuard databaseGuard;
+    private final BlockingQueue<MatchRequest> queue;
+    private final BlockingQueue<PendingMark> retries;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile WatchlistMatcher matcher = WatchlistMatcher.EMPTY;
+    private volatile boolean running;
+    private Thread consumer;
+
+    public WatchlistService(WatchlistRepository watchlistRepository, CarRepository carRepository,
+                            AlertService alertService, TransactionTemplate transactionTemplate,
+                            DatabaseGuard databaseGuard,
+                            @Value("${parking.watchlist.queue-capacity:10000}") int queueCapacity) {
+        this.watchlistRepository = watchlistRepository;
+        this.carRepository = carRepository;
+        this.alertService = alertService;
+        this.transactionTemplate = transactionTemplate;
+        this.databaseGuard = databaseGuard;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.retries = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        reload();
+        running = true;
+        consumer = new Thread(this::consume, "watchlist-matcher");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (consumer != null) {
+            consumer.interrupt();
+            consumer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public List<WatchlistEntry> getEntries() {
+        return watchlistRepository.findAllByOrderByIdAsc();
+    }
+
+    @Transactional
+    public WatchlistEntry createEntry(WatchlistEntry entry) {
+        entry.setId(null);
+        entry.setPadrao(WatchlistMatcher.normalize(entry.getPadrao()));
+        entry.setAtivo(true);
+        WatchlistEntry saved = watchlistRepository.save(entry);
+        AfterCommit.run(this::reload);
+        return saved;
+    }
+
+    /**
+     * Desativa a entrada (o histórico de correspondências é mantido)
+     */
+    @Transactional
+    public void deactivateEntry(Long id) {
+        WatchlistEntry entry = watchlistRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Entrada da lista de monitoramento não encontrada com ID: " + id));
+        entry.setAtivo(false);
+        watchlistRepository.save(entry);
+        AfterCommit.run(this::reload);
+    }
+
+    /**
+     * Enfileira a verificação de entradas e de trocas de placa; não bloqueia a requisição
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarEvent(CarEvent event) {
+        Car car = event.current();
+        boolean plateChanged = event.type() == CarEvent.Type.UPDATE && event.before() != null
+                && !event.before().getPlaca().equals(car.getPlaca());
+        if (event.type() != CarEvent.Type.ENTRY && !plateChanged) {
+            return;
+        }
+        if (!queue.offer(new MatchRequest(car.getId(), car.getLotId(), car.getPlaca()))) {
+            long total = dropped.incrementAndGet();
+            log.warn("Fila da lista de monitoramento cheia; verificação da placa {} descartada ({} no total)",
+                    car.getPlaca(), total);
+        }
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Correspondências já alertadas que aguardam o banco para serem registradas no carro
+     */
+    public int pendingMarks() {
+        return retries.size();
+    }
+
+    void reload() {
+        matcher = WatchlistMatcher.compile(watchlistRepository.findByAtivoTrue());
+    }
+
+    /**
+     * Verifica uma entrada; retorna a entrada da lista correspondente, ou null
+     */
+    WatchlistEntry process(MatchRequest request) {
+        WatchlistEntry entry = matcher.match(request.placa());
+        if (entry == null) {
+            return null;
+        }
+        alertService.publish(AlertResponse.Tipo.WATCHLIST, request.lotId(), request.carId(), request.placa(),
+                "Placa monitorada " + request.placa() + " entrou no estacionamento: " + entry.getMotivo());
+        PendingMark mark = new PendingMark(request.carId(), entry.getId(), entry.getMotivo());
+        if (!mark(mark)) {
+            enqueueRetry(mark);
+        }
+        return entry;
+    }
+
+    /**
+     * Refaz os registros pendentes na ordem em que falharam; para no primeiro que ainda falhar
+     */
+    void retryMarks() {
+        for (int i = retries.size(); i > 0; i--) {
+            PendingMark mark = retries.peek();
+            if (mark == null) {
+                return;
+            }
+            try {
+                if (!mark(mark)) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                log.error("Falha ao registrar correspondência do carro {}; descartada", mark.carId(), e);
+            }
+            retries.poll();
+        }
+    }
+
+    /**
+     * Registra a correspondência no carro; false se o banco estiver indisponível
+     */
+    private boolean mark(PendingMark mark) {
+        try {
+            databaseGuard.write(() -> transactionTemplate.executeWithoutResult(status ->
+                    carRepository.markWatchlistMatch(mark.carId(), mark.watchlistId(), mark.motivo())));
+            return true;
+        } catch (DatabaseUnavailableException e) {
+            return false;
+        }
+    }
+
+    private void enqueueRetry(PendingMark mark) {
+        if (!retries.offer(mark)) {
+            long total = dropped.incrementAndGet();
+            log.error("Fila de novas tentativas cheia; correspondência do carro {} não registrada ({} no total)",
+                    mark.carId(), total);
+            return;
+        }
+        log.warn("Banco indisponível; correspondência do carro {} será registrada depois", mark.carId());
+    }
+
+    private void consume() {
+        while (running) {
+            try {
+                retryMarks();
+                MatchRequest request = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (request != null) {
+                    process(request);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Falha ao verificar placa na lista de monitoramento", e);
+            }
+        }
+    }
+
+    record MatchRequest(Long carId, Long lotId, String placa) {
+    }
+
+    private record PendingMark(Long carId, Long watchlistId, String motivo) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.parking.api.service;
+
+import com.parking.api.model.OutboxMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Entrega cada lote em um único {@code POST} de um array JSON para {@code parking.outbox.webhook.url};
+ * qualquer resposta fora de 2xx (ou tempo esgotado) conta como falha
+ */
+@Component
+@ConditionalOnProperty("parking.outbox.webhook.url")
+public class WebhookOutboxSink implements OutboxSink {
+
+    private final RestClient restClient;
+    private final String url;
+
+    public WebhookOutboxSink(RestClient.Builder builder,
+                             @Value("${parking.outbox.webhook.url}") String url,
+                             @Value("${parking.outbox.webhook.timeout:PT5S}") Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) timeout.toMillis());
+        requestFactory.setReadTimeout((int) timeout.toMillis());
+        this.restClient = builder.requestFactory(requestFactory).build();
+        this.url = url;
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public void deliver(List<OutboxMessage> messages) {
+        restClient.post()
+                .uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(messages)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
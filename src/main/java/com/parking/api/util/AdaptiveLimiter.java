@@ -0,0 +1,142 @@
+package com.parking.api.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Limite de requisições simultâneas ajustado pela latência medida (AIMD).
+ * <p>
+ * A menor latência observada na janela {@code baselineNanos} é a referência de um servidor folgado.
+ * Enquanto as amostras ficam abaixo de {@code tolerance} vezes a referência e o limite está em uso,
+ * ele cresce um a cada "volta" (1/limite por amostra); quando uma amostra passa disso ou falha, o
+ * limite é multiplicado por {@code backoff}, no máximo uma vez por geração de requisições (só
+ * amostras iniciadas depois da última redução reduzem de novo). Assim a fila some do banco e dos
+ * threads do Tomcat assim que a latência sobe, em vez de crescer até todos expirarem juntos.
+ * <p>
+ * Cada {@link Priority} pode ocupar só uma fração do limite: quando ele encolhe, as classes baixas
+ * são recusadas primeiro e a folga que sobra fica para as críticas. Todas as operações são
+ * sincronizadas no próprio limitador.
+ */
+public class AdaptiveLimiter {
+
+    public enum Priority {
+        /** Entrada e saída na cancela */
+        CRITICAL(1.0),
+        NORMAL(0.8),
+        /** Listagens, relatórios e administração */
+        LOW(0.5);
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoff;
+    private final long baselineNanos;
+    private final LongSupplier nanoTime;
+
+    private double limit;
+    private int inFlight;
+    private long baseline = Long.MAX_VALUE;
+    private long windowMin = Long.MAX_VALUE;
+    private long windowStart;
+    private long lastDecrease;
+    private final long[] rejected = new long[Priority.values().length];
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoff,
+                           long baselineNanos) {
+        this(initialLimit, minLimit, maxLimit, tolerance, backoff, baselineNanos, System::nanoTime);
+    }
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoff,
+                           long baselineNanos, LongSupplier nanoTime) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limites inválidos: " + minLimit + " <= " + initialLimit
+                    + " <= " + maxLimit);
+        }
+        if (tolerance <= 1 || backoff <= 0 || backoff >= 1) {
+            throw new IllegalArgumentException("Tolerância deve ser > 1 e backoff entre 0 e 1");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoff = backoff;
+        this.baselineNanos = baselineNanos;
+        this.nanoTime = nanoTime;
+        this.windowStart = nanoTime.getAsLong();
+        this.lastDecrease = windowStart;
+    }
+
+    /**
+     * Reserva uma vaga; retorna o instante de início (para {@link #release}) ou -1 se a requisição
+     * deve ser recusada. Críticas podem ocupar o limite inteiro, mas todas as classes contam no mesmo
+     * limite: só a parte acima da fração de {@link Priority#NORMAL} fica livre para elas, e nem isso
+     * logo depois de uma redução, enquanto as requisições já em andamento não terminam.
+     */
+    public synchronized long tryAcquire(Priority priority) {
+        int allowed = priority == Priority.CRITICAL
+                ? (int) limit
+                : Math.max(1, (int) (limit * priority.share));
+        if (inFlight >= allowed) {
+            rejected[priority.ordinal()]++;
+            return -1;
+        }
+        inFlight++;
+        return nanoTime.getAsLong();
+    }
+
+    /**
+     * Libera a vaga; com {@code sample} a latência ajusta o limite, e {@code failed} conta como
+     * sobrecarga (por exemplo, um {@code 5xx} ou tempo esgotado)
+     */
+    public synchronized void release(long startNanos, boolean sample, boolean failed) {
+        inFlight--;
+        if (!sample) {
+            return;
+        }
+
+        long now = nanoTime.getAsLong();
+        long rtt = Math.max(1, now - startNanos);
+        if (now - windowStart >= baselineNanos && windowMin != Long.MAX_VALUE) {
+            // A referência acompanha o servidor: a menor latência da última janela substitui a anterior
+            baseline = windowMin;
+            windowMin = Long.MAX_VALUE;
+            windowStart = now;
+        }
+        windowMin = Math.min(windowMin, rtt);
+        baseline = Math.min(baseline, rtt);
+
+        if (failed || rtt > baseline * tolerance) {
+            if (startNanos - lastDecrease >= 0) {
+                limit = Math.max(minLimit, limit * backoff);
+                lastDecrease = now;
+            }
+        } else if (inFlight + 1 >= limit / 2) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Menor latência da janela de referência, em nanossegundos (0 antes da primeira amostra)
+     */
+    public synchronized long baselineNanos() {
+        return baseline == Long.MAX_VALUE ? 0 : baseline;
+    }
+
+    public synchronized long rejected(Priority priority) {
+        return rejected[priority.ordinal()];
+    }
+}
@@ -0,0 +1,46 @@
+package com.parking.api.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Adia uma ação em memória (publicar um índice, liberar uma vaga, trocar um cache) para depois do
+ * commit da transação corrente, para que um rollback não deixe a memória à frente do banco.
+ * <p>
+ * Sem transação sincronizada, a ação roda na hora. {@link #onRollback} é o inverso: desfaz em
+ * memória uma reserva feita antes do commit quando a transação não se confirma.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Roda a ação se a transação corrente terminar sem commit; sem transação sincronizada, nunca
+     */
+    public static void onRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+}
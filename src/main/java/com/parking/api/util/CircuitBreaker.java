@@ -0,0 +1,148 @@
+package com.parking.api.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Disjuntor com janela deslizante das últimas {@code windowSize} chamadas.
+ * <p>
+ * Fechado, deixa tudo passar e abre quando, com pelo menos {@code minimumCalls} chamadas na janela,
+ * a fração de falhas passa de {@code failureRate} ou a de chamadas lentas (acima de
+ * {@code slowCallNanos}) passa de {@code slowCallRate}. Aberto, recusa tudo por {@code openNanos};
+ * depois fica meio-aberto e deixa passar {@code probes} chamadas de teste: se todas forem bem e
+ * rápidas, fecha com a janela zerada; qualquer falha ou lentidão abre de novo.
+ * <p>
+ * O chamador pede passagem com {@link #tryAcquire()} e informa o resultado com {@link #record}.
+ * Todas as operações são sincronizadas no próprio disjuntor.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int minimumCalls;
+    private final double failureRate;
+    private final long slowCallNanos;
+    private final double slowCallRate;
+    private final long openNanos;
+    private final int probes;
+    private final LongSupplier nanoTime;
+
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int calls;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRate, long slowCallNanos,
+                          double slowCallRate, long openNanos, int probes, LongSupplier nanoTime) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || probes < 1) {
+            throw new IllegalArgumentException("Janela do disjuntor inválida: " + minimumCalls + "/" + windowSize);
+        }
+        this.minimumCalls = minimumCalls;
+        this.failureRate = failureRate;
+        this.slowCallNanos = slowCallNanos;
+        this.slowCallRate = slowCallRate;
+        this.openNanos = openNanos;
+        this.probes = probes;
+        this.nanoTime = nanoTime;
+        this.failed = new boolean[windowSize];
+        this.slow = new boolean[windowSize];
+    }
+
+    /**
+     * Se a chamada pode seguir; quando o disjuntor está aberto há mais de {@code openNanos}, passa a
+     * meio-aberto e libera as chamadas de teste
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (probesStarted >= probes) {
+                    yield false;
+                }
+                probesStarted++;
+                yield true;
+            }
+        };
+    }
+
+    /**
+     * Registra o resultado de uma chamada liberada; retorna o estado resultante
+     */
+    public synchronized State record(boolean failure, long durationNanos) {
+        boolean tooSlow = durationNanos > slowCallNanos;
+        switch (state) {
+            case HALF_OPEN -> {
+                if (failure || tooSlow) {
+                    open();
+                } else if (++probesSucceeded >= probes) {
+                    close();
+                }
+            }
+            case CLOSED -> {
+                add(failure, tooSlow);
+                if (calls >= minimumCalls
+                        && (failures >= failureRate * calls || slowCalls >= slowCallRate * calls)) {
+                    open();
+                }
+            }
+            case OPEN -> {
+                // Chamada que começou antes de abrir: o resultado não muda nada
+            }
+        }
+        return state;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Tempo restante, em nanossegundos, até o disjuntor aberto liberar chamadas de teste
+     */
+    public synchronized long remainingOpenNanos() {
+        return state == State.OPEN ? Math.max(0, openNanos - (nanoTime.getAsLong() - openedAt)) : 0;
+    }
+
+    private void add(boolean failure, boolean tooSlow) {
+        if (calls == failed.length) {
+            failures -= failed[next] ? 1 : 0;
+            slowCalls -= slow[next] ? 1 : 0;
+        } else {
+            calls++;
+        }
+        failed[next] = failure;
+        slow[next] = tooSlow;
+        failures += failure ? 1 : 0;
+        slowCalls += tooSlow ? 1 : 0;
+        next = (next + 1) % failed.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoTime.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        calls = 0;
+        failures = 0;
+        slowCalls = 0;
+        next = 0;
+    }
+}
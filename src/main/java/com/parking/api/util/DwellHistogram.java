@@ -0,0 +1,91 @@
+package com.parking.api.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de tempos de permanência (em segundos) com buckets log-lineares, no estilo HdrHistogram.
+ * <p>
+ * Valores até 127 têm bucket próprio; acima disso cada potência de 2 é dividida em 64 sub-buckets,
+ * o que garante erro relativo abaixo de 1,6%. O número de buckets é fixo (valores acima de
+ * {@link #MAX_VALUE} são truncados), então registrar é O(1) e um percentil custa a mesma varredura
+ * de {@value #BUCKETS} contadores não importa quantas amostras existam. Aceita remoção de amostras,
+ * o que permite desfazer a contribuição de um registro apagado.
+ */
+public class DwellHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_HALF = 1 << (SUB_BUCKET_BITS - 1);
+    private static final int MAGNITUDES = 18;
+
+    /** Maior valor distinguível: pouco mais de 194 dias em segundos */
+    public static final long MAX_VALUE = (1L << (MAGNITUDES + SUB_BUCKET_BITS - 1)) - 1;
+    static final int BUCKETS = (MAGNITUDES + 1) * SUB_BUCKET_HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    public void record(long value) {
+        add(value, 1);
+    }
+
+    public void remove(long value) {
+        add(value, -1);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        sum.reset();
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    public double mean() {
+        long count = total.sum();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * Menor valor tal que ao menos {@code percentile}% das amostras são menores ou equivalentes a ele
+     * (0 sem amostras)
+     */
+    public long percentile(double percentile) {
+        long count = total.sum();
+        if (count <= 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return highestEquivalent(i);
+            }
+        }
+        return highestEquivalent(BUCKETS - 1);
+    }
+
+    private void add(long value, int delta) {
+        long clamped = Math.min(Math.max(value, 0), MAX_VALUE);
+        counts.addAndGet(index(clamped), delta);
+        total.add(delta);
+        sum.add(delta * clamped);
+    }
+
+    static int index(long value) {
+        int magnitude = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1));
+        return (magnitude << (SUB_BUCKET_BITS - 1)) + (int) (value >>> magnitude);
+    }
+
+    static long highestEquivalent(int index) {
+        int magnitude = Math.max(0, (index >>> (SUB_BUCKET_BITS - 1)) - 1);
+        long subBucket = index - ((long) magnitude << (SUB_BUCKET_BITS - 1));
+        return ((subBucket + 1) << magnitude) - 1;
+    }
+}
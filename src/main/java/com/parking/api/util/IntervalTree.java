@@ -0,0 +1,202 @@
+package com.parking.api.util;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Árvore de intervalos semiabertos {@code [início, fim)}: árvore AVL ordenada por
+ * {@code (início, id)} em que cada nó guarda o maior fim da sua subárvore.
+ * <p>
+ * Inserir e remover custam O(log n); listar os intervalos que se sobrepõem a uma janela custa
+ * O(log n + k), pois subárvores cujo maior fim não alcança a janela, ou cujos inícios estão todos
+ * depois dela, são descartadas sem ser visitadas.
+ * Não é thread-safe; o chamador deve sincronizar o acesso.
+ */
+public class IntervalTree<T> {
+
+    private Node<T> root;
+    private int size;
+
+    public void insert(long start, long end, long id, T value) {
+        if (end <= start) {
+            throw new IllegalArgumentException("Intervalo vazio: [" + start + ", " + end + ")");
+        }
+        root = insert(root, new Node<>(start, end, id, value));
+    }
+
+    /**
+     * Remove o intervalo identificado por {@code (start, id)}; retorna false se ele não existir
+     */
+    public boolean remove(long start, long id) {
+        int before = size;
+        root = remove(root, start, id);
+        return size < before;
+    }
+
+    /**
+     * Visita, em ordem de início, os intervalos que se sobrepõem a {@code [from, to)}
+     */
+    public void forEachOverlapping(long from, long to, Consumer<T> action) {
+        firstOverlapping(root, from, to, value -> {
+            action.accept(value);
+            return false;
+        });
+    }
+
+    /**
+     * Primeiro intervalo (em ordem de início) que se sobrepõe a {@code [from, to)} e satisfaz o
+     * filtro, ou null
+     */
+    public T firstOverlapping(long from, long to, Predicate<T> filter) {
+        Node<T> node = firstOverlapping(root, from, to, filter);
+        return node != null ? node.value : null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private Node<T> firstOverlapping(Node<T> node, long from, long to, Predicate<T> filter) {
+        if (node == null || node.maxEnd <= from) {
+            return null;
+        }
+        Node<T> found = firstOverlapping(node.left, from, to, filter);
+        if (found != null) {
+            return found;
+        }
+        if (node.start >= to) {
+            // Todos os nós à direita começam depois da janela
+            return null;
+        }
+        if (node.end > from && filter.test(node.value)) {
+            return node;
+        }
+        return firstOverlapping(node.right, from, to, filter);
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> created) {
+        if (node == null) {
+            size++;
+            return created;
+        }
+        int cmp = compare(created.start, created.id, node);
+        if (cmp < 0) {
+            node.left = insert(node.left, created);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, created);
+        } else {
+            throw new IllegalArgumentException("Intervalo já cadastrado: " + created.id);
+        }
+        return rebalance(node);
+    }
+
+    private Node<T> remove(Node<T> node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            if (node.left == null || node.right == null) {
+                return node.left != null ? node.left : node.right;
+            }
+            Node<T> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return rebalance(node);
+    }
+
+    private Node<T> removeMin(Node<T> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private static int compare(long start, long id, Node<?> node) {
+        int cmp = Long.compare(start, node.start);
+        return cmp != 0 ? cmp : Long.compare(id, node.id);
+    }
+
+    private Node<T> rebalance(Node<T> node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node<?> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node<T> {
+
+        private final long start;
+        private final long end;
+        private final long id;
+        private final T value;
+        private long maxEnd;
+        private int height = 1;
+        private Node<T> left;
+        private Node<T> right;
+
+        Node(long start, long end, long id, T value) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.value = value;
+            this.maxEnd = end;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.parking.api.util;
+
+/**
+ * Quantidade de intervalos simultâneos ao longo do tempo, com consulta do pico em uma janela em
+ * O(log n).
+ * <p>
+ * Cada intervalo {@code [início, fim)} vira {@code +1} no início e {@code -1} no fim, guardados em
+ * uma árvore AVL ordenada pelo instante. Cada nó guarda a soma da sua subárvore e o maior prefixo
+ * (em ordem) dessa soma; a ocupação em um instante é a soma de tudo até ele, e o pico em uma
+ * janela é a ocupação no início mais o maior prefixo dos eventos dentro da janela.
+ * <p>
+ * {@link #compact} funde os eventos passados em um único nó, para que a árvore só cresça com os
+ * intervalos futuros. Não é thread-safe; o chamador deve sincronizar o acesso.
+ */
+public class LoadTimeline {
+
+    private Node root;
+    private long floor = Long.MIN_VALUE;
+
+    public void add(long start, long end) {
+        if (end <= start) {
+            throw new IllegalArgumentException("Intervalo vazio: [" + start + ", " + end + ")");
+        }
+        change(start, 1);
+        change(end, -1);
+    }
+
+    public void remove(long start, long end) {
+        change(start, -1);
+        change(end, 1);
+    }
+
+    /**
+     * Quantidade de intervalos que contêm o instante
+     */
+    public int loadAt(long time) {
+        long sum = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.time <= time) {
+                sum += sum(node.left) + node.delta;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return (int) sum;
+    }
+
+    /**
+     * Maior quantidade de intervalos simultâneos em algum instante de {@code [from, to)}
+     */
+    public int maxLoad(long from, long to) {
+        if (to <= from) {
+            return 0;
+        }
+        long[] accumulator = new long[2];
+        collect(root, from, to, Long.MIN_VALUE, Long.MAX_VALUE, accumulator);
+        return (int) (loadAt(from) + accumulator[1]);
+    }
+
+    /**
+     * Funde os eventos até {@code cutoff} em um único evento no próprio {@code cutoff}; eventos
+     * posteriores que caiam antes dele passam a ser registrados nele
+     */
+    public void compact(long cutoff) {
+        if (cutoff <= floor) {
+            return;
+        }
+        int load = loadAt(cutoff);
+        Node node;
+        while ((node = first()) != null && node.time <= cutoff) {
+            root = delete(root, node.time);
+        }
+        floor = cutoff;
+        if (load != 0) {
+            change(cutoff, load);
+        }
+    }
+
+    private void change(long time, int delta) {
+        root = change(root, Math.max(time, floor), delta);
+    }
+
+    /**
+     * Acumula {@code {soma, maior prefixo}} dos eventos em {@code (from, to)}, em ordem; a
+     * subárvore de {@code node} tem instantes em {@code (low, high)}
+     */
+    private static void collect(Node node, long from, long to, long low, long high, long[] accumulator) {
+        if (node == null) {
+            return;
+        }
+        if (from <= low && high <= to) {
+            append(accumulator, node.sum, node.maxPrefix);
+            return;
+        }
+        if (node.time > from) {
+            collect(node.left, from, to, low, node.time, accumulator);
+        }
+        if (node.time > from && node.time < to) {
+            append(accumulator, node.delta, Math.max(0, node.delta));
+        }
+        if (node.time < to) {
+            collect(node.right, from, to, node.time, high, accumulator);
+        }
+    }
+
+    private static void append(long[] accumulator, long sum, long maxPrefix) {
+        accumulator[1] = Math.max(accumulator[1], accumulator[0] + maxPrefix);
+        accumulator[0] += sum;
+    }
+
+    private Node first() {
+        Node node = root;
+        while (node != null && node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private static Node change(Node node, long time, int delta) {
+        if (node == null) {
+            return new Node(time, delta);
+        }
+        if (time < node.time) {
+            node.left = change(node.left, time, delta);
+        } else if (time > node.time) {
+            node.right = change(node.right, time, delta);
+        } else {
+            node.delta += delta;
+            if (node.delta == 0) {
+                return delete(node, time);
+            }
+        }
+        return rebalance(node);
+    }
+
+    private static Node delete(Node node, long time) {
+        if (node == null) {
+            return null;
+        }
+        if (time < node.time) {
+            node.left = delete(node.left, time);
+        } else if (time > node.time) {
+            node.right = delete(node.right, time);
+        } else {
+            if (node.left == null || node.right == null) {
+                return node.left != null ? node.left : node.right;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return rebalance(node);
+    }
+
+    private static Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long leftSum = sum(node.left);
+        long rightPrefix = node.right != null ? node.right.maxPrefix : 0;
+        node.sum = leftSum + node.delta + sum(node.right);
+        long leftPrefix = node.left != null ? node.left.maxPrefix : 0;
+        node.maxPrefix = Math.max(leftPrefix, Math.max(leftSum + node.delta, leftSum + node.delta + rightPrefix));
+    }
+
+    private static long sum(Node node) {
+        return node == null ? 0 : node.sum;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node {
+
+        private final long time;
+        private int delta;
+        private long sum;
+        private long maxPrefix;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        Node(long time, int delta) {
+            this.time = time;
+            this.delta = delta;
+            this.sum = delta;
+            this.maxPrefix = Math.max(0, delta);
+        }
+    }
+}
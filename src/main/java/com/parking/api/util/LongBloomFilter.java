@@ -0,0 +1,76 @@
+package com.parking.api.util;
+
+/**
+ * Filtro de Bloom para chaves {@code long} (por exemplo, códigos de {@link PlateCodec}).
+ * <p>
+ * {@link #mightContain} nunca responde false para uma chave adicionada; para as demais responde
+ * true com a probabilidade de falso positivo informada na criação (enquanto o número de chaves
+ * não passar do esperado). As posições são obtidas por hashing duplo a partir de um único hash de
+ * 64 bits, com um misturador diferente do usado por {@link LongHashSet}, para que os falsos
+ * positivos do filtro não se concentrem nas mesmas chaves que colidem no conjunto.
+ * Não é thread-safe para escrita; estruturas compartilhadas devem publicar cópias.
+ */
+public final class LongBloomFilter {
+
+    private final long[] bits;
+    private final long mask;
+    private final int hashes;
+    private final int expectedInsertions;
+
+    public LongBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Taxa de falso positivo inválida: " + falsePositiveRate);
+        }
+        this.expectedInsertions = Math.max(expectedInsertions, 1);
+        double optimal = -this.expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long bitCount = Math.max(64, Long.highestOneBit((long) Math.ceil(optimal) - 1) << 1);
+        this.bits = new long[(int) (bitCount >>> 6)];
+        this.mask = bitCount - 1;
+        this.hashes = (int) Math.max(1, Math.min(16, Math.round((double) bitCount / this.expectedInsertions * Math.log(2))));
+    }
+
+    public LongBloomFilter(LongBloomFilter other) {
+        this.bits = other.bits.clone();
+        this.mask = other.mask;
+        this.hashes = other.hashes;
+        this.expectedInsertions = other.expectedInsertions;
+    }
+
+    public void add(long key) {
+        long hash = mix(key);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & mask;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(long key) {
+        long hash = mix(key);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & mask;
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int expectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public long bitSize() {
+        return mask + 1;
+    }
+
+    private static long mix(long key) {
+        // Finalizador do SplitMix64
+        key = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        key = (key ^ (key >>> 27)) * 0x94d049bb133111ebL;
+        return key ^ (key >>> 31);
+    }
+}
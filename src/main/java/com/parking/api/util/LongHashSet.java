@@ -0,0 +1,132 @@
+package com.parking.api.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Conjunto de {@code long} com endereçamento aberto, usado para conjuntos de placas codificadas.
+ * Mesmas regras de {@link LongObjectHashMap}: a chave 0 é reservada e a classe não é thread-safe.
+ */
+public class LongHashSet {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expectedSize) {
+        allocate(LongObjectHashMap.tableSizeFor(expectedSize));
+    }
+
+    public LongHashSet(LongHashSet other) {
+        this.keys = other.keys.clone();
+        this.mask = other.mask;
+        this.size = other.size;
+        this.resizeThreshold = other.resizeThreshold;
+    }
+
+    public boolean contains(long key) {
+        if (key == 0) {
+            return false;
+        }
+        int slot = LongObjectHashMap.hash(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public boolean add(long key) {
+        LongObjectHashMap.checkKey(key);
+        int slot = LongObjectHashMap.hash(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    public boolean remove(long key) {
+        if (key == 0) {
+            return false;
+        }
+        int slot = LongObjectHashMap.hash(key) & mask;
+        while (keys[slot] != key) {
+            if (keys[slot] == 0) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        size--;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != 0) {
+            int home = LongObjectHashMap.hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = 0;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+
+    public void forEach(LongConsumer action) {
+        for (long key : keys) {
+            if (key != 0) {
+                action.accept(key);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        allocate(capacity);
+        for (long key : oldKeys) {
+            if (key != 0) {
+                int slot = LongObjectHashMap.hash(key) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+}
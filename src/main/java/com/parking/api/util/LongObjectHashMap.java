@@ -0,0 +1,192 @@
+package com.parking.api.util;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ * Mapa de chaves {@code long} com endereçamento aberto e sondagem linear.
+ * <p>
+ * Evita o boxing das chaves e os nós de {@link java.util.HashMap}: cada entrada custa um slot em
+ * um {@code long[]} e uma referência em um {@code Object[]}. A chave 0 é usada como marcador de
+ * slot vazio e por isso não é aceita (códigos de {@link PlateCodec} nunca são zero).
+ * Não é thread-safe; estruturas compartilhadas devem publicar cópias imutáveis ou sincronizar o acesso.
+ */
+public class LongObjectHashMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    public LongObjectHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongObjectHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public LongObjectHashMap(LongObjectHashMap<V> other) {
+        this.keys = other.keys.clone();
+        this.values = other.values.clone();
+        this.mask = other.mask;
+        this.size = other.size;
+        this.resizeThreshold = other.resizeThreshold;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = find(key);
+        return slot >= 0 ? (V) values[slot] : null;
+    }
+
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        checkKey(key);
+        int slot = hash(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    public V computeIfAbsent(long key, LongFunction<V> mapping) {
+        V value = get(key);
+        if (value == null) {
+            value = mapping.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+
+        V previous = (V) values[slot];
+        size--;
+        // Remoção com deslocamento para trás: mantém as cadeias de sondagem sem lápides
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != 0) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(Entry<V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Entry<V> {
+        void accept(long key, V value);
+    }
+
+    static int hash(long key) {
+        // Finalizador do MurmurHash3: espalha os bits baixos e altos do código
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    static int tableSizeFor(int expectedSize) {
+        int minimum = (int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR);
+        return Math.max(DEFAULT_CAPACITY, Integer.highestOneBit(minimum - 1) << 1);
+    }
+
+    static void checkKey(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("A chave 0 é reservada");
+        }
+    }
+
+    private int find(long key) {
+        if (key == 0) {
+            return -1;
+        }
+        int slot = hash(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.parking.api.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Diário somente-acréscimo em um arquivo mapeado em memória, com confirmação em grupo.
+ * <p>
+ * O arquivo tem um cabeçalho ({@code magic}, época e posição de reprocessamento) seguido dos
+ * registros {@code [tamanho][época][CRC32C][dados]}; o CRC cobre a época e os dados. Na abertura, os
+ * registros são percorridos a partir do início até o primeiro com tamanho zero, época diferente ou
+ * CRC inválido (um registro cortado por uma queda), e a escrita continua dali. A época, trocada a
+ * cada {@link #reset()}, impede que registros antigos que sobraram no arquivo sejam lidos de novo.
+ * <p>
+ * {@link #append} grava o registro no mapeamento e espera ele chegar ao disco: a primeira thread que
+ * encontra registros pendentes faz um único {@code force} por todas as que escreveram até ali
+ * (confirmação em grupo), e as outras só esperam. {@link #commit} avança a posição de
+ * reprocessamento, também gravada no disco, para que depois de uma queda só os registros não
+ * aplicados sejam lidos de novo.
+ */
+public class MappedJournal implements Closeable {
+
+    private static final int MAGIC = 0x4A524E4C;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_HEADER = 12;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final boolean fsync;
+    private final Object forceLock = new Object();
+
+    private int epoch;
+    private volatile int writeOffset;
+    private int replayOffset;
+    private volatile int durableOffset;
+
+    public MappedJournal(Path path, int capacity, boolean fsync) {
+        if (capacity <= HEADER_SIZE + RECORD_HEADER) {
+            throw new IllegalArgumentException("Capacidade do diário muito pequena: " + capacity);
+        }
+        this.capacity = capacity;
+        this.fsync = fsync;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o diário " + path, e);
+        }
+        recover();
+    }
+
+    /**
+     * Acrescenta um registro e retorna depois de ele estar no disco; falso se não há espaço
+     */
+    public boolean append(byte[] data) {
+        int end;
+        synchronized (this) {
+            int length = RECORD_HEADER + data.length;
+            if (writeOffset + length > capacity) {
+                return false;
+            }
+            buffer.putInt(writeOffset + 4, epoch);
+            buffer.putInt(writeOffset + 8, crc(epoch, data));
+            buffer.put(writeOffset + RECORD_HEADER, data);
+            // O tamanho por último: um registro só é visível na recuperação depois de completo
+            buffer.putInt(writeOffset, data.length);
+            writeOffset += length;
+            end = writeOffset;
+        }
+        awaitDurable(end);
+        return true;
+    }
+
+    /**
+     * Registros ainda não reprocessados, em ordem, até {@code max}
+     */
+    public synchronized List<Entry> pending(int max) {
+        List<Entry> entries = new ArrayList<>();
+        int offset = replayOffset;
+        while (offset < writeOffset && entries.size() < max) {
+            int length = buffer.getInt(offset);
+            byte[] data = new byte[length];
+            buffer.get(offset + RECORD_HEADER, data);
+            int next = offset + RECORD_HEADER + length;
+            entries.add(new Entry(next, data));
+            offset = next;
+        }
+        return entries;
+    }
+
+    /**
+     * Marca como reprocessados os registros até {@code entry}, inclusive
+     */
+    public synchronized void commit(Entry entry) {
+        if (entry.next() <= replayOffset || entry.next() > writeOffset) {
+            return;
+        }
+        replayOffset = entry.next();
+        buffer.putInt(8, replayOffset);
+        force(8, 4);
+    }
+
+    /**
+     * Recomeça o arquivo quando todos os registros já foram reprocessados; retorna se recomeçou
+     */
+    public synchronized boolean reset() {
+        if (replayOffset != writeOffset || writeOffset == HEADER_SIZE) {
+            return false;
+        }
+        synchronized (forceLock) {
+            epoch++;
+            writeOffset = HEADER_SIZE;
+            replayOffset = HEADER_SIZE;
+            durableOffset = HEADER_SIZE;
+            buffer.putInt(4, epoch);
+            buffer.putInt(8, replayOffset);
+            force(0, HEADER_SIZE);
+        }
+        return true;
+    }
+
+    public synchronized boolean hasPending() {
+        return replayOffset < writeOffset;
+    }
+
+    public synchronized int pendingBytes() {
+        return writeOffset - replayOffset;
+    }
+
+    public synchronized int usedBytes() {
+        return writeOffset;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            force(0, writeOffset);
+        }
+        channel.close();
+    }
+
+    private void awaitDurable(int end) {
+        if (durableOffset >= end) {
+            return;
+        }
+        synchronized (forceLock) {
+            if (durableOffset >= end) {
+                return;
+            }
+            int from = durableOffset;
+            int to = writeOffset;
+            // Um force cobre todos os registros escritos até aqui, inclusive os de outras threads
+            force(from, to - from);
+            durableOffset = to;
+        }
+    }
+
+    private void recover() {
+        if (buffer.getInt(0) != MAGIC) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, 0);
+            buffer.putInt(8, HEADER_SIZE);
+            force(0, HEADER_SIZE);
+        }
+        epoch = buffer.getInt(4);
+        int offset = HEADER_SIZE;
+        while (offset + RECORD_HEADER <= capacity) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + RECORD_HEADER + length > capacity
+                    || buffer.getInt(offset + 4) != epoch) {
+                break;
+            }
+            byte[] data = new byte[length];
+            buffer.get(offset + RECORD_HEADER, data);
+            if (buffer.getInt(offset + 8) != crc(epoch, data)) {
+                break;
+            }
+            offset += RECORD_HEADER + length;
+        }
+        writeOffset = offset;
+        durableOffset = offset;
+        replayOffset = Math.min(Math.max(buffer.getInt(8), HEADER_SIZE), writeOffset);
+    }
+
+    private void force(int from, int length) {
+        if (fsync && length > 0) {
+            buffer.force(from, length);
+        }
+    }
+
+    private static int crc(int epoch, byte[] data) {
+        CRC32C crc = new CRC32C();
+        crc.update(epoch >>> 24);
+        crc.update(epoch >>> 16);
+        crc.update(epoch >>> 8);
+        crc.update(epoch);
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Registro lido do diário; {@code next} é a posição logo depois dele
+     */
+    public record Entry(int next, byte[] data) {
+    }
+}
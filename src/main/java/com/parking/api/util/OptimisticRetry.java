@@ -0,0 +1,33 @@
+package com.parking.api.util;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Repete uma operação que falhou por conflito de versão ({@code @Version}), até um número de tentativas.
+ * <p>
+ * Só deve envolver operações idempotentes que abrem a própria transação e releem o registro a
+ * cada tentativa. Dentro de uma transação já aberta não há nova tentativa: a transação externa
+ * já está marcada para rollback e o conflito é repassado.
+ */
+public final class OptimisticRetry {
+
+    private OptimisticRetry() {
+    }
+
+    public static <T> T run(int maxAttempts, Supplier<T> operation) {
+        int attempts = TransactionSynchronizationManager.isActualTransactionActive() ? 1 : Math.max(1, maxAttempts);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return operation.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= attempts) {
+                    throw e;
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.parking.api.util;
+
+import com.parking.api.exception.InvalidPlacaException;
+
+/**
+ * Normaliza e codifica placas brasileiras em um {@code long}.
+ * <p>
+ * Aceita o padrão antigo (AAA9999) e o Mercosul (AAA9A99), ignorando caixa, hífens e espaços:
+ * "abc-1234", "ABC1234" e "ABC 1234" resultam no mesmo código. O código ocupa 34 bits:
+ * <pre>
+ *  bit 33    marcador (o código nunca é zero)
+ *  bit 32    formato (0 = antigo, 1 = Mercosul)
+ *  31..17    três letras, 5 bits cada
+ *  16..13    primeiro dígito
+ *  12..8     quinto caractere: dígito (antigo) ou letra (Mercosul)
+ *   7..0     dois últimos dígitos, 4 bits cada
+ * </pre>
+ * Os códigos podem ser usados diretamente como chave em {@link LongObjectHashMap} e {@link LongHashSet}.
+ */
+public final class PlateCodec {
+
+    public static final int LENGTH = 7;
+
+    private static final long MARKER = 1L << 33;
+    private static final long MERCOSUL = 1L << 32;
+    private static final int[] SHIFTS = {27, 22, 17, 13, 8, 4, 0};
+
+    private PlateCodec() {
+    }
+
+    /**
+     * Codifica a placa; lança {@link InvalidPlacaException} se não estiver em nenhum dos formatos aceitos
+     */
+    public static long encode(CharSequence placa) {
+        long code = tryEncode(placa);
+        if (code == 0) {
+            throw new InvalidPlacaException("Placa inválida: " + placa
+                    + " (formatos aceitos: AAA-9999 ou AAA9A99)");
+        }
+        return code;
+    }
+
+    /**
+     * Codifica a placa sem alocar; retorna 0 quando a placa é inválida
+     */
+    public static long tryEncode(CharSequence placa) {
+        if (placa == null) {
+            return 0;
+        }
+
+        long code = MARKER;
+        int position = 0;
+        for (int i = 0, length = placa.length(); i < length; i++) {
+            char c = placa.charAt(i);
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            if (position == LENGTH) {
+                return 0;
+            }
+
+            if (c >= '0' && c <= '9') {
+                if (position < 3) {
+                    return 0;
+                }
+                code |= (long) (c - '0') << SHIFTS[position];
+            } else {
+                int upper = c & ~0x20;
+                if (upper < 'A' || upper > 'Z' || (position > 2 && position != 4)) {
+                    return 0;
+                }
+                code |= (long) (upper - 'A') << SHIFTS[position];
+                if (position == 4) {
+                    code |= MERCOSUL;
+                }
+            }
+            position++;
+        }
+        return position == LENGTH ? code : 0;
+    }
+
+    /**
+     * Reconstrói a placa no formato canônico: "ABC-1234" (antigo) ou "ABC1D23" (Mercosul)
+     */
+    public static String decode(long code) {
+        if ((code & MARKER) == 0) {
+            throw new IllegalArgumentException("Código de placa inválido: " + code);
+        }
+
+        boolean mercosul = (code & MERCOSUL) != 0;
+        StringBuilder placa = new StringBuilder(mercosul ? LENGTH : LENGTH + 1);
+        for (int i = 0; i < 3; i++) {
+            placa.append((char) ('A' + ((code >>> (27 - 5 * i)) & 0x1F)));
+        }
+        if (!mercosul) {
+            placa.append('-');
+        }
+        placa.append((char) ('0' + ((code >>> 13) & 0xF)));
+        int fifth = (int) ((code >>> 8) & 0x1F);
+        placa.append((char) (mercosul ? 'A' + fifth : '0' + fifth));
+        placa.append((char) ('0' + ((code >>> 4) & 0xF)));
+        placa.append((char) ('0' + (code & 0xF)));
+        return placa.toString();
+    }
+
+    /**
+     * Normaliza a placa para o formato canônico; lança {@link InvalidPlacaException} se inválida
+     */
+    public static String normalize(String placa) {
+        return decode(encode(placa));
+    }
+
+    public static boolean isValid(CharSequence placa) {
+        return tryEncode(placa) != 0;
+    }
+
+    public static boolean isMercosul(long code) {
+        return (code & MERCOSUL) != 0;
+    }
+}
@@ -0,0 +1,99 @@
+package com.parking.api.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Fila circular limitada, sem travas, para vários produtores e um consumidor.
+ * <p>
+ * Cada posição tem um número de sequência que diz de quem é a vez: igual à posição lógica, a
+ * posição está livre para o produtor que reservar essa posição (com um CAS no contador de
+ * escrita); uma a mais, o valor está publicado para o consumidor; depois de consumido, a sequência
+ * avança uma volta. {@link #offer} nunca espera: com a fila cheia retorna falso. {@link #drain} deve
+ * ser chamado por um consumidor de cada vez.
+ */
+public final class RingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * @param capacity arredondada para a próxima potência de 2
+     */
+    public RingBuffer(int capacity) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacidade inválida: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Acrescenta o valor; falso se a fila está cheia
+     */
+    public boolean offer(T value) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, value);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // A posição ainda guarda um valor de uma volta atrás
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Entrega ao {@code consumer} até {@code max} valores, na ordem em que foram publicados; retorna
+     * quantos foram entregues
+     */
+    public int drain(Consumer<? super T> consumer, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            T value = slots.get(index);
+            slots.set(index, null);
+            sequences.set(index, position + mask + 1);
+            position++;
+            drained++;
+            consumer.accept(value);
+        }
+        head = position;
+        return drained;
+    }
+
+    /**
+     * Quantidade aproximada de valores na fila (inclui os reservados e ainda não publicados)
+     */
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
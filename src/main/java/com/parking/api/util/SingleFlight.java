@@ -0,0 +1,88 @@
+package com.parking.api.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Agrupa chamadas simultâneas com a mesma chave em uma única execução.
+ * <p>
+ * A primeira chamada para uma chave executa o {@link Supplier}; as que chegam enquanto ela está em
+ * andamento aguardam o mesmo {@link CompletableFuture} e recebem o mesmo resultado ou a mesma
+ * exceção. A chave sai do mapa antes de o resultado ser publicado, então uma chamada posterior ao
+ * término sempre executa de novo: nada é guardado em cache. Quando o resultado é mutável, um
+ * {@code share} pode entregar a cada chamador agrupado a sua própria cópia.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final UnaryOperator<V> share;
+
+    public SingleFlight() {
+        this(UnaryOperator.identity());
+    }
+
+    public SingleFlight(UnaryOperator<V> share) {
+        this.share = share;
+    }
+
+    public V execute(K key, Supplier<V> supplier) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            collapsed.increment();
+            return share.apply(await(existing));
+        }
+
+        executions.increment();
+        try {
+            V value = supplier.get();
+            inFlight.remove(key, created);
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Chamadas que executaram o {@link Supplier}
+     */
+    public long executions() {
+        return executions.sum();
+    }
+
+    /**
+     * Chamadas atendidas pelo resultado de outra, sem executar
+     */
+    public long collapsed() {
+        return collapsed.sum();
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Repassa a exceção original, para que todos os chamadores vejam o mesmo erro da execução
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
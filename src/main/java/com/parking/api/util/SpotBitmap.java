@@ -0,0 +1,129 @@
+package com.parking.api.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mapa de bits de vagas livres/ocupadas com alocação sem travas.
+ * <p>
+ * Cada bit representa uma vaga (1 = ocupada) e é alterado com compare-and-set na palavra de 64 bits
+ * que o contém. A busca começa em uma palavra aleatória, então threads concorrentes raramente
+ * disputam a mesma palavra; enquanto houver vagas livres espalhadas, a alocação examina poucas
+ * palavras. Os bits além da capacidade na última palavra já nascem ocupados.
+ */
+public class SpotBitmap {
+
+    private static final long FULL = -1L;
+
+    private final int capacity;
+    private final AtomicLongArray words;
+    private final LongAdder occupied = new LongAdder();
+
+    public SpotBitmap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacidade inválida: " + capacity);
+        }
+        this.capacity = capacity;
+        this.words = new AtomicLongArray(Math.max(1, (capacity + 63) >>> 6));
+        int tail = capacity & 63;
+        if (tail != 0 || capacity == 0) {
+            words.set(words.length() - 1, capacity == 0 ? FULL : FULL << tail);
+        }
+    }
+
+    /**
+     * Ocupa uma vaga livre qualquer e retorna seu índice, ou -1 se não houver vagas
+     */
+    public int allocate() {
+        int count = words.length();
+        int start = count == 1 ? 0 : ThreadLocalRandom.current().nextInt(count);
+        for (int i = 0; i < count; i++) {
+            int index = start + i < count ? start + i : start + i - count;
+            long word = words.get(index);
+            while (word != FULL) {
+                long bit = Long.lowestOneBit(~word);
+                if (words.compareAndSet(index, word, word | bit)) {
+                    occupied.increment();
+                    return (index << 6) + Long.numberOfTrailingZeros(bit);
+                }
+                word = words.get(index);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Marca uma vaga específica como ocupada; retorna false se ela já estava ocupada
+     */
+    public boolean occupy(int spot) {
+        checkSpot(spot);
+        int index = spot >>> 6;
+        long bit = 1L << spot;
+        long word;
+        do {
+            word = words.get(index);
+            if ((word & bit) != 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(index, word, word | bit));
+        occupied.increment();
+        return true;
+    }
+
+    /**
+     * Libera a vaga; retorna false se ela já estava livre
+     */
+    public boolean release(int spot) {
+        checkSpot(spot);
+        int index = spot >>> 6;
+        long bit = 1L << spot;
+        long word;
+        do {
+            word = words.get(index);
+            if ((word & bit) == 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(index, word, word & ~bit));
+        occupied.decrement();
+        return true;
+    }
+
+    public boolean isOccupied(int spot) {
+        checkSpot(spot);
+        return (words.get(spot >>> 6) & (1L << spot)) != 0;
+    }
+
+    /**
+     * Conta as vagas ocupadas no intervalo [from, to)
+     */
+    public int countOccupied(int from, int to) {
+        int count = 0;
+        for (int spot = from; spot < to; ) {
+            int index = spot >>> 6;
+            int end = Math.min(to, (index + 1) << 6);
+            long mask = (end - spot == 64 ? FULL : ((1L << (end - spot)) - 1)) << spot;
+            count += Long.bitCount(words.get(index) & mask);
+            spot = end;
+        }
+        return count;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int occupied() {
+        return occupied.intValue();
+    }
+
+    public int free() {
+        return capacity - occupied();
+    }
+
+    private void checkSpot(int spot) {
+        if (spot < 0 || spot >= capacity) {
+            throw new IndexOutOfBoundsException("Vaga inexistente: " + spot);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.parking.api.util;
+
+import java.util.function.Consumer;
+
+/**
+ * Roda de temporizadores hierárquica (no estilo dos timers do kernel Linux).
+ * <p>
+ * São {@value #LEVELS} níveis de {@value #WHEEL_SIZE} posições; cada posição do nível {@code n}
+ * cobre {@code 64^n} ticks. Um temporizador entra no nível mais baixo que alcança seu prazo e, quando
+ * a roda de baixo completa uma volta, a posição corrente do nível de cima é redistribuída para
+ * baixo. Agendar e cancelar são O(1) (listas duplamente ligadas) e cada tick custa O(1) mais os
+ * temporizadores vencidos, não importa quantos estejam pendentes. Prazos além do alcance do último
+ * nível ficam no último nível e são reavaliados a cada volta dele.
+ * <p>
+ * Todas as operações são sincronizadas na própria roda.
+ */
+public class TimerWheel<T> {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final Timeout<T>[][] buckets;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick inválido: " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.buckets = new Timeout[LEVELS][WHEEL_SIZE];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int index = 0; index < WHEEL_SIZE; index++) {
+                Timeout<T> head = new Timeout<>(0, null);
+                head.prev = head;
+                head.next = head;
+                buckets[level][index] = head;
+            }
+        }
+    }
+
+    /**
+     * Agenda {@code payload} para {@code deadlineMillis}; prazos já vencidos disparam no próximo avanço
+     */
+    public synchronized Timeout<T> schedule(long deadlineMillis, T payload) {
+        Timeout<T> timeout = new Timeout<>(Math.floorDiv(deadlineMillis, tickMillis), payload);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancela o temporizador; retorna false se ele já disparou ou foi cancelado
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout == null || timeout.next == null) {
+            return false;
+        }
+        unlink(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Avança a roda até {@code nowMillis}, entregando os temporizadores vencidos em ordem de prazo
+     * (na granularidade do tick)
+     */
+    public synchronized void advance(long nowMillis, Consumer<T> expired) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick <= nowTick) {
+            if ((currentTick & WHEEL_MASK) == 0) {
+                cascade(1);
+            }
+            Timeout<T> head = buckets[0][(int) (currentTick & WHEEL_MASK)];
+            while (head.next != head) {
+                Timeout<T> timeout = head.next;
+                unlink(timeout);
+                size--;
+                expired.accept(timeout.payload);
+            }
+            currentTick++;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void cascade(int level) {
+        if (level >= LEVELS) {
+            return;
+        }
+        int index = (int) ((currentTick >>> (level * WHEEL_BITS)) & WHEEL_MASK);
+        if (index == 0) {
+            cascade(level + 1);
+        }
+
+        Timeout<T> head = buckets[level][index];
+        Timeout<T> pending = head.next;
+        head.next = head;
+        head.prev = head;
+        while (pending != head) {
+            Timeout<T> next = pending.next;
+            pending.next = null;
+            pending.prev = null;
+            place(pending);
+            pending = next;
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long deadline = Math.max(timeout.deadlineTick, currentTick);
+        long delta = deadline - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << ((level + 1) * WHEEL_BITS)) {
+            level++;
+        }
+        if (level == LEVELS - 1 && delta >= 1L << (LEVELS * WHEEL_BITS)) {
+            // Fora do alcance: fica na última posição antes da atual e volta a ser avaliado a cada volta
+            deadline = currentTick + (1L << (LEVELS * WHEEL_BITS)) - (1L << ((LEVELS - 1) * WHEEL_BITS));
+        }
+        int index = (int) ((deadline >>> (level * WHEEL_BITS)) & WHEEL_MASK);
+
+        Timeout<T> head = buckets[level][index];
+        timeout.prev = head.prev;
+        timeout.next = head;
+        head.prev.next = timeout;
+        head.prev = timeout;
+    }
+
+    private static <T> void unlink(Timeout<T> timeout) {
+        timeout.prev.next = timeout.next;
+        timeout.next.prev = timeout.prev;
+        timeout.next = null;
+        timeout.prev = null;
+    }
+
+    public static final class Timeout<T> {
+
+        private final long deadlineTick;
+        private final T payload;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(long deadlineTick, T payload) {
+            this.deadlineTick = deadlineTick;
+            this.payload = payload;
+        }
+
+        public T payload() {
+            return payload;
+        }
+    }
+}
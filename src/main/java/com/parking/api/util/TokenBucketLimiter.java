@@ -0,0 +1,102 @@
+package com.parking.api.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Baldes de fichas por cliente, sem trava.
+ * <p>
+ * Cada balde é um único {@link AtomicLong} com o instante teórico em que ele volta a ficar cheio
+ * (GCRA, equivalente a um balde de {@code burst} fichas reposto a {@code perSecond} por segundo):
+ * consumir uma ficha é adiantar esse instante em um intervalo com um compare-and-set, e a requisição
+ * passa se o balde não ficar devendo mais de {@code burst} fichas. Os baldes ficam em um
+ * {@link ConcurrentHashMap} (travado por partes só na criação), então clientes diferentes não
+ * disputam nada no caminho comum.
+ * <p>
+ * Um balde cheio não guarda informação e pode ser descartado: {@link #evictIdle()}, chamado
+ * periodicamente por quem usa o limitador e nunca no caminho da requisição, remove os que já se
+ * encheram de novo. Ao atingir {@code maxClients}, os clientes novos dividem um único balde até a
+ * próxima limpeza: a memória não cresce e eles continuam limitados, juntos.
+ */
+public class TokenBucketLimiter {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final int burst;
+    private final int maxClients;
+    private final LongSupplier nanoTime;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong shared;
+
+    public TokenBucketLimiter(double perSecond, int burst, int maxClients) {
+        this(perSecond, burst, maxClients, System::nanoTime);
+    }
+
+    public TokenBucketLimiter(double perSecond, int burst, int maxClients, LongSupplier nanoTime) {
+        if (perSecond <= 0 || burst < 1 || maxClients < 1) {
+            throw new IllegalArgumentException("Limite inválido: " + perSecond + "/s, rajada " + burst);
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / perSecond));
+        this.capacityNanos = intervalNanos * burst;
+        this.burst = burst;
+        this.maxClients = maxClients;
+        this.nanoTime = nanoTime;
+        this.shared = new AtomicLong(nanoTime.getAsLong());
+    }
+
+    /**
+     * Consome uma ficha do balde do cliente
+     */
+    public Decision tryAcquire(String client) {
+        long now = nanoTime.getAsLong();
+        AtomicLong bucket = buckets.get(client);
+        if (bucket == null) {
+            bucket = buckets.size() >= maxClients
+                    ? shared
+                    : buckets.computeIfAbsent(client, key -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full, now) + intervalNanos;
+            long debt = next - now;
+            if (debt > capacityNanos) {
+                return new Decision(false, 0, full - now - capacityNanos + intervalNanos);
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return new Decision(true, (capacityNanos - debt) / intervalNanos, debt);
+            }
+        }
+    }
+
+    /**
+     * Remove os baldes que já se encheram de novo; retorna quantos foram removidos
+     */
+    public int evictIdle() {
+        long now = nanoTime.getAsLong();
+        int[] removed = {0};
+        buckets.forEach((client, bucket) -> {
+            long full = bucket.get();
+            if (full - now <= 0 && buckets.remove(client, bucket)) {
+                removed[0]++;
+            }
+        });
+        return removed[0];
+    }
+
+    public int clients() {
+        return buckets.size();
+    }
+
+    public int burst() {
+        return burst;
+    }
+
+    /**
+     * Resultado de uma requisição: fichas restantes e, em nanossegundos, o tempo até o balde
+     * encher de novo (se passou) ou até a próxima ficha (se foi recusada)
+     */
+    public record Decision(boolean allowed, long remaining, long waitNanos) {
+    }
+}
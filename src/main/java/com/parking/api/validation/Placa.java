@@ -0,0 +1,23 @@
+package com.parking.api.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.*;
+
+/**
+ * Valida uma placa no padrão antigo (AAA-9999) ou Mercosul (AAA9A99).
+ * Valores nulos ou em branco são aceitos; use {@code @NotBlank} para torná-la obrigatória.
+ */
+@Documented
+@Constraint(validatedBy = PlacaValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Placa {
+
+    String message() default "Placa inválida: use o formato AAA-9999 ou AAA9A99";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
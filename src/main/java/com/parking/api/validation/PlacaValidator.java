@@ -0,0 +1,13 @@
+package com.parking.api.validation;
+
+import com.parking.api.util.PlateCodec;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class PlacaValidator implements ConstraintValidator<Placa, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return value == null || value.isBlank() || PlateCodec.isValid(value);
+    }
+}
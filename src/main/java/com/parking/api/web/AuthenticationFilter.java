@@ -0,0 +1,124 @@
+package com.parking.api.web;
+
+import com.parking.api.exception.InvalidTokenException;
+import com.parking.api.service.LotContext;
+import com.parking.api.service.TokenService;
+import com.parking.api.service.TokenSigner;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Exige um token de acesso ({@code Authorization: Bearer ...}) em {@link #PROTECTED_PATHS}. Em
+ * {@code /api/lots/**} e {@code /api/tariffs/**} as consultas são públicas: o token é opcional, mas
+ * conferido quando enviado, e as alterações recusam a requisição sem token pelo
+ * {@link AuthorizationInterceptor}. O token é conferido em memória pelo {@link TokenService}, sem
+ * consulta ao banco, e as claims ficam no atributo {@link #CLAIMS_ATTRIBUTE} da requisição. Um token de um estacionamento só vale para ele: sem
+ * {@code X-Lot-Id}, a requisição usa o estacionamento do token; com outro estacionamento, é recusada
+ * com {@code 403}.
+ * <p>
+ * Ativado por {@code parking.auth.enabled=true}; desligado por padrão enquanto os clientes
+ * (frontend, cancelas) não enviam o token.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 15)
+@ConditionalOnProperty(name = "parking.auth.enabled", havingValue = "true")
+public class AuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String CLAIMS_ATTRIBUTE = AuthenticationFilter.class.getName() + ".claims";
+    private static final String BEARER = "Bearer ";
+    private static final List<String> PROTECTED_PATHS = List.of("/api/cars", "/api/users", "/api/journal",
+            "/api/audit", "/api/watchlist", "/api/passes", "/api/reservations", "/api/reports", "/api/alerts",
+            "/api/stats");
+    private static final List<String> OPTIONAL_PATHS = List.of("/api/lots", "/api/tariffs");
+
+    private final TokenService tokenService;
+
+    public AuthenticationFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    /**
+     * Token de um cabeçalho {@code Authorization: Bearer ...}, ou nulo
+     */
+    public static String bearerToken(String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return null;
+        }
+        String token = authorization.substring(BEARER.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if ("OPTIONS".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        return !matches(PROTECTED_PATHS, path) && !matches(OPTIONAL_PATHS, path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String token = bearerToken(request.getHeader(HttpHeaders.AUTHORIZATION));
+        if (token == null) {
+            if (matches(OPTIONAL_PATHS, request.getRequestURI())) {
+                filterChain.doFilter(request, response);
+            } else {
+                unauthorized(response, "Token de acesso ausente");
+            }
+            return;
+        }
+
+        TokenSigner.AccessClaims claims;
+        try {
+            claims = tokenService.verify(token);
+        } catch (InvalidTokenException ex) {
+            unauthorized(response, ex.getMessage());
+            return;
+        }
+        if (claims.lotId() != null) {
+            Long requested = LotContext.current();
+            if (requested == null) {
+                LotContext.set(claims.lotId());
+            } else if (!requested.equals(claims.lotId())) {
+                error(response, HttpStatus.FORBIDDEN, "Token não vale para o estacionamento " + requested);
+                return;
+            }
+            LotContext.restrictTo(claims.lotId());
+        }
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+        filterChain.doFilter(request, response);
+    }
+
+    private static boolean matches(List<String> prefixes, String path) {
+        return prefixes.stream().anyMatch(prefix -> path.equals(prefix) || path.startsWith(prefix + "/"));
+    }
+
+    private static void unauthorized(HttpServletResponse response, String message) throws IOException {
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        error(response, HttpStatus.UNAUTHORIZED, message);
+    }
+
+    private static void error(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"status\":" + status.value() + ",\"message\":\"" + message
+                + "\",\"timestamp\":\"" + LocalDateTime.now() + "\"}");
+    }
+}
@@ -0,0 +1,71 @@
+package com.parking.api.web;
+
+import com.parking.api.exception.AccessDeniedException;
+import com.parking.api.exception.InvalidTokenException;
+import com.parking.api.service.AuthorizationService;
+import com.parking.api.service.TokenSigner;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Map;
+
+/**
+ * Confere a {@link RequiresPermission} do endpoint contra o perfil atual do usuário do token
+ * (colocado na requisição pelo {@link AuthenticationFilter}). O perfil vem do
+ * {@link AuthorizationService}, não do token, então promoções e rebaixamentos valem na requisição
+ * seguinte. Endpoints sem a anotação não são conferidos.
+ */
+@Component
+@ConditionalOnProperty(name = "parking.auth.enabled", havingValue = "true")
+public class AuthorizationInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    private final AuthorizationService authorizationService;
+
+    public AuthorizationInterceptor(AuthorizationService authorizationService) {
+        this.authorizationService = authorizationService;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/api/**");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        RequiresPermission required = method.getMethodAnnotation(RequiresPermission.class);
+        if (required == null) {
+            required = method.getBeanType().getAnnotation(RequiresPermission.class);
+        }
+        if (required == null) {
+            return true;
+        }
+
+        TokenSigner.AccessClaims claims =
+                (TokenSigner.AccessClaims) request.getAttribute(AuthenticationFilter.CLAIMS_ATTRIBUTE);
+        if (claims == null) {
+            throw new InvalidTokenException("Token de acesso ausente");
+        }
+        if (authorizationService.isAllowed(claims.userId(), required.value())
+                || required.allowSelf() && isSelf(request, claims.userId())) {
+            return true;
+        }
+        throw new AccessDeniedException("Permissão " + required.value() + " necessária");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean isSelf(HttpServletRequest request, Long userId) {
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables != null && userId != null && userId.toString().equals(variables.get("id"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.parking.api.web;
+
+import com.parking.api.util.AdaptiveLimiter;
+import com.parking.api.util.AdaptiveLimiter.Priority;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Limita as requisições simultâneas em {@code /api/**} com um {@link AdaptiveLimiter}, antes de
+ * qualquer outro filtro. Quando o banco fica lento, o limite cai e as requisições acima dele são
+ * recusadas na hora com {@code 503} e {@code Retry-After}, em vez de ocuparem threads até expirar.
+ * <p>
+ * Entrada ({@code POST /api/cars}) e saída ({@code PATCH /api/cars/{id}/exit}) são críticas e usam
+ * o limite inteiro; listagens, relatórios, estatísticas, alertas, auditoria e {@code /api/users}
+ * são as primeiras recusadas. Só as classes crítica e normal ajustam o limite, porque relatórios são
+ * lentos por natureza e não indicam sobrecarga; pelo mesmo motivo {@code /api/auth/**} (login e
+ * renovação, que gastam de propósito dezenas de milissegundos no BCrypt) é limitado mas não ajusta
+ * o limite: uma leva de logins na troca de turno não pode derrubar o limite e recusar a cancela.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveLimiter limiter;
+
+    @Value("${parking.limiter.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${parking.limiter.retry-after-seconds:1}")
+    private long retryAfterSeconds = 1;
+
+    @Autowired
+    public ConcurrencyLimitFilter(@Value("${parking.limiter.initial-limit:50}") int initialLimit,
+                                  @Value("${parking.limiter.min-limit:5}") int minLimit,
+                                  @Value("${parking.limiter.max-limit:200}") int maxLimit,
+                                  @Value("${parking.limiter.tolerance:2.0}") double tolerance,
+                                  @Value("${parking.limiter.backoff:0.9}") double backoff,
+                                  @Value("${parking.limiter.baseline-window:PT30S}") Duration baselineWindow) {
+        this(new AdaptiveLimiter(initialLimit, minLimit, maxLimit, tolerance, backoff, baselineWindow.toNanos()));
+    }
+
+    ConcurrencyLimitFilter(AdaptiveLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    public AdaptiveLimiter limiter() {
+        return limiter;
+    }
+
+    static Priority classify(String method, String path) {
+        if ("POST".equals(method) && path.equals("/api/cars")
+                || "PATCH".equals(method) && path.startsWith("/api/cars/") && path.endsWith("/exit")) {
+            return Priority.CRITICAL;
+        }
+        if (path.startsWith("/api/users") || path.startsWith("/api/reports") || path.startsWith("/api/stats")
+                || path.startsWith("/api/alerts") || path.startsWith("/api/audit")
+                || "GET".equals(method) && (path.equals("/api/cars") || path.equals("/api/cars/search"))) {
+            return Priority.LOW;
+        }
+        return Priority.NORMAL;
+    }
+
+    /**
+     * Se a latência da requisição ajusta o limite: não para as de baixa prioridade nem para a
+     * autenticação, lentas por natureza
+     */
+    static boolean isSampled(Priority priority, String path) {
+        return priority != Priority.LOW && !path.startsWith("/api/auth/");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || "OPTIONS".equals(request.getMethod()) || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Priority priority = classify(request.getMethod(), request.getRequestURI());
+        long start = limiter.tryAcquire(priority);
+        if (start < 0) {
+            log.debug("Requisição {} recusada por sobrecarga: {} {} (limite {})",
+                    priority, request.getMethod(), request.getRequestURI(), limiter.limit());
+            reject(response);
+            return;
+        }
+
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limiter.release(start, isSampled(priority, request.getRequestURI()) && !request.isAsyncStarted(), failed);
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"status\":503,\"message\":\"Servidor sobrecarregado, tente novamente\""
+                + ",\"timestamp\":\"" + LocalDateTime.now() + "\"}");
+    }
+}
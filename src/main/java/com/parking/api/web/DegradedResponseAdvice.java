@@ -0,0 +1,57 @@
+package com.parking.api.web;
+
+import com.parking.api.service.DatabaseGuard;
+import com.parking.api.service.GateJournal;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marca as respostas dadas com o banco indisponível:
+ * <ul>
+ *     <li>montadas com a cópia em memória do {@link DatabaseGuard}: {@code X-Data-Stale: true} e o
+ *     instante da cópia em {@code X-Data-As-Of};</li>
+ *     <li>entradas e saídas gravadas no {@link GateJournal} em vez do banco: status 202 e o ID do
+ *     evento em {@code X-Journal-Event}.</li>
+ * </ul>
+ */
+@RestControllerAdvice
+public class DegradedResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STALE_HEADER = "X-Data-Stale";
+    public static final String AS_OF_HEADER = "X-Data-As-Of";
+    public static final String JOURNAL_EVENT_HEADER = "X-Journal-Event";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        HttpServletRequest servlet = servletRequest.getServletRequest();
+        if (servlet.getAttribute(DatabaseGuard.STALE_ATTRIBUTE) instanceof LocalDateTime asOf) {
+            response.getHeaders().set(STALE_HEADER, "true");
+            response.getHeaders().set(AS_OF_HEADER, asOf.toString());
+        }
+        if (servlet.getAttribute(GateJournal.JOURNALED_ATTRIBUTE) instanceof String eventId) {
+            response.setStatusCode(HttpStatus.ACCEPTED);
+            response.getHeaders().set(JOURNAL_EVENT_HEADER, eventId);
+        }
+        return body;
+    }
+}
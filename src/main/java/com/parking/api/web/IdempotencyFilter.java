@@ -0,0 +1,217 @@
+package com.parking.api.web;
+
+import com.parking.api.service.LotContext;
+import com.parking.api.service.TokenSigner;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Torna {@code POST} e {@code PATCH} em {@code /api/**} idempotentes quando a requisição traz o
+ * cabeçalho {@code Idempotency-Key}.
+ * <p>
+ * A primeira requisição com a chave é executada e a resposta (status, tipo e corpo) é gravada no
+ * {@link IdempotencyStore}; repetições recebem a mesma resposta, com o cabeçalho
+ * {@code Idempotent-Replayed: true}, sem executar de novo. Uma repetição que chega enquanto a
+ * primeira ainda executa aguarda o resultado dela (até {@code parking.idempotency.wait-timeout-ms}).
+ * A chave vale para o método, o caminho, o estacionamento e o cliente da requisição (o usuário do
+ * token ou, sem autenticação, o endereço de origem): clientes diferentes nunca recebem a resposta
+ * um do outro. Reutilizá-la com outro corpo retorna {@code 422}. Respostas {@code 5xx} não são gravadas, para que a repetição tente de novo.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+
+    @Value("${parking.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMillis = 10_000;
+
+    public IdempotencyFilter(@Value("${parking.idempotency.ttl:PT1H}") Duration ttl,
+                             @Value("${parking.idempotency.max-entries:10000}") int maxEntries) {
+        this.store = new IdempotencyStore(ttl, maxEntries);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return request.getHeader(HEADER) == null
+                || !("POST".equals(method) || "PATCH".equals(method))
+                || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Cabeçalho " + HEADER + " inválido");
+            return;
+        }
+
+        CachedBodyRequest cached = new CachedBodyRequest(request);
+        String scope = request.getMethod() + " " + request.getRequestURI() + " lot="
+                + request.getHeader(LotContext.HEADER) + " " + client(request) + " key=" + key;
+        String fingerprint = DigestUtils.md5DigestAsHex(cached.body);
+
+        while (true) {
+            IdempotencyStore.Claim claim = store.begin(scope, fingerprint);
+            IdempotencyStore.Entry entry = claim.entry();
+            if (!entry.fingerprint().equals(fingerprint)) {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "A chave " + HEADER + " já foi usada com outro conteúdo");
+                return;
+            }
+            if (claim.owner()) {
+                execute(cached, response, filterChain, entry);
+                return;
+            }
+
+            IdempotencyStore.StoredResponse stored;
+            try {
+                stored = entry.response().get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                writeError(response, HttpStatus.CONFLICT,
+                        "Uma requisição com a mesma " + HEADER + " ainda está em andamento");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException(e);
+            } catch (ExecutionException e) {
+                throw new ServletException(e.getCause());
+            }
+            if (stored != null) {
+                replay(response, stored);
+                return;
+            }
+            // A execução original falhou sem resposta gravável: tenta como dona
+        }
+    }
+
+    /**
+     * Dono da chave: o usuário do token, ou o endereço do cliente sem autenticação
+     */
+    private static String client(HttpServletRequest request) {
+        if (request.getAttribute(AuthenticationFilter.CLAIMS_ATTRIBUTE) instanceof TokenSigner.AccessClaims claims) {
+            return "user=" + claims.userId();
+        }
+        return "ip=" + request.getRemoteAddr();
+    }
+
+    private void execute(CachedBodyRequest request, HttpServletResponse response, FilterChain filterChain,
+                         IdempotencyStore.Entry entry) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean recorded = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (wrapper.getStatus() < 500) {
+                store.complete(entry, new IdempotencyStore.StoredResponse(
+                        wrapper.getStatus(), wrapper.getContentType(), wrapper.getContentAsByteArray()));
+                recorded = true;
+            }
+        } finally {
+            if (!recorded) {
+                store.abandon(entry);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(HttpServletResponse response, IdempotencyStore.StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"status\":" + status.value() + ",\"message\":\"" + message
+                + "\",\"timestamp\":\"" + LocalDateTime.now() + "\"}");
+    }
+
+    /**
+     * Requisição com o corpo já lido, para calcular a impressão digital e ainda repassá-lo ao controller
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
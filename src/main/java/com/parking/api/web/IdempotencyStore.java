@@ -0,0 +1,139 @@
+package com.parking.api.web;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Respostas já produzidas para cada {@code Idempotency-Key}, em memória.
+ * <p>
+ * A primeira requisição com uma chave se torna dona da execução ({@link #begin} retorna uma
+ * entrada sem resposta); as repetições recebem a mesma entrada e aguardam o {@link CompletableFuture}
+ * dela, então duplicatas simultâneas nunca executam em paralelo. Entradas concluídas expiram depois
+ * de {@code parking.idempotency.ttl} e o total é limitado a {@code parking.idempotency.max-entries}:
+ * ao passar do limite, as entradas concluídas mais antigas são descartadas primeiro.
+ */
+public class IdempotencyStore {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final Clock clock;
+    private final Duration ttl;
+    private final int maxEntries;
+
+    public IdempotencyStore(Duration ttl, int maxEntries) {
+        this(ttl, maxEntries, Clock.systemUTC());
+    }
+
+    IdempotencyStore(Duration ttl, int maxEntries, Clock clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Limite de chaves de idempotência inválido: " + maxEntries);
+        }
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * Entrada da chave: nova ({@link Claim#owner()}; o chamador deve chamar {@link #complete} ou
+     * {@link #abandon}) ou existente, em andamento ou concluída
+     */
+    public Claim begin(String key, String fingerprint) {
+        long now = clock.millis();
+        while (true) {
+            Entry created = new Entry(key, fingerprint);
+            Entry existing = entries.putIfAbsent(key, created);
+            if (existing == null) {
+                insertionOrder.add(created);
+                evict(now);
+                return new Claim(created, true);
+            }
+            if (!existing.isExpired(now)) {
+                return new Claim(existing, false);
+            }
+            entries.remove(key, existing);
+        }
+    }
+
+    public void complete(Entry entry, StoredResponse response) {
+        entry.expiresAt = clock.millis() + ttl.toMillis();
+        entry.response.complete(response);
+    }
+
+    /**
+     * Descarta a entrada sem resposta (falha inesperada); quem estava aguardando executa de novo
+     */
+    public void abandon(Entry entry) {
+        entries.remove(entry.key, entry);
+        entry.response.complete(null);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Descarta as entradas concluídas mais antigas. Entradas em andamento nunca são descartadas (a
+     * repetição executaria de novo em paralelo): são puladas, e o total pode passar do limite
+     * enquanto elas não terminam
+     */
+    private void evict(long now) {
+        Iterator<Entry> iterator = insertionOrder.iterator();
+        while (iterator.hasNext()) {
+            Entry oldest = iterator.next();
+            boolean removed = entries.get(oldest.key) != oldest;
+            if (!removed && oldest.isInFlight()) {
+                continue;
+            }
+            if (!removed && (oldest.isExpired(now) || entries.size() > maxEntries)) {
+                removed = entries.remove(oldest.key, oldest);
+            }
+            if (!removed) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    public record Claim(Entry entry, boolean owner) {
+    }
+
+    /**
+     * Resposta gravada: status, tipo de conteúdo e corpo
+     */
+    public record StoredResponse(int status, String contentType, byte[] body) {
+    }
+
+    public static final class Entry {
+
+        private final String key;
+        private final String fingerprint;
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private Entry(String key, String fingerprint) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+        }
+
+        public String fingerprint() {
+            return fingerprint;
+        }
+
+        public CompletableFuture<StoredResponse> response() {
+            return response;
+        }
+
+        private boolean isInFlight() {
+            return expiresAt == Long.MAX_VALUE;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.parking.api.web;
+
+import com.parking.api.service.LotContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Lê o cabeçalho {@code X-Lot-Id} e define o {@link LotContext} durante a requisição
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class LotContextFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader(LotContext.HEADER);
+        Long lotId = null;
+        if (header != null && !header.isBlank()) {
+            try {
+                lotId = Long.valueOf(header.trim());
+            } catch (NumberFormatException ex) {
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.setCharacterEncoding("UTF-8");
+                response.getWriter().write("{\"status\":400,\"message\":\"Cabeçalho " + LotContext.HEADER
+                        + " inválido\",\"timestamp\":\"" + LocalDateTime.now() + "\"}");
+                return;
+            }
+        }
+
+        LotContext.set(lotId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            LotContext.clear();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.parking.api.web;
+
+import com.parking.api.service.TokenSigner;
+import com.parking.api.util.TokenBucketLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Limita a taxa de requisições de cada cliente em {@code /api/**}, com um
+ * {@link TokenBucketLimiter} por grupo de endpoints. O cliente é o usuário do token, quando há um
+ * ({@link AuthenticationFilter}), ou o IP de origem.
+ * <p>
+ * Cada grupo tem taxa e rajada próprias em {@code parking.ratelimit.<grupo>.per-second} e
+ * {@code parking.ratelimit.<grupo>.burst}. As respostas trazem {@code X-RateLimit-Limit},
+ * {@code X-RateLimit-Remaining} e {@code X-RateLimit-Reset} (segundos até o balde encher); acima do
+ * limite a resposta é {@code 429} com {@code Retry-After}.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 17)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String RESET_HEADER = "X-RateLimit-Reset";
+
+    /**
+     * Grupos de endpoints, com taxa por segundo e rajada padrão
+     */
+    public enum Group {
+        /** Login, renovação e logout */
+        AUTH(2, 10),
+        /** Entrada e saída na cancela */
+        GATE(20, 50),
+        READ(20, 40),
+        WRITE(10, 20);
+
+        private final double perSecond;
+        private final int burst;
+
+        Group(double perSecond, int burst) {
+            this.perSecond = perSecond;
+            this.burst = burst;
+        }
+    }
+
+    private final Map<Group, TokenBucketLimiter> limiters = new EnumMap<>(Group.class);
+
+    @Value("${parking.ratelimit.enabled:true}")
+    private boolean enabled = true;
+
+    public RateLimitFilter(Environment environment,
+                           @Value("${parking.ratelimit.max-clients:100000}") int maxClients) {
+        for (Group group : Group.values()) {
+            String prefix = "parking.ratelimit." + group.name().toLowerCase(Locale.ROOT);
+            limiters.put(group, new TokenBucketLimiter(
+                    environment.getProperty(prefix + ".per-second", Double.class, group.perSecond),
+                    environment.getProperty(prefix + ".burst", Integer.class, group.burst),
+                    maxClients));
+        }
+    }
+
+    static Group group(String method, String path) {
+        if (path.startsWith("/api/auth/")) {
+            return Group.AUTH;
+        }
+        if ("POST".equals(method) && path.equals("/api/cars")
+                || "PATCH".equals(method) && path.startsWith("/api/cars/") && path.endsWith("/exit")) {
+            return Group.GATE;
+        }
+        return "GET".equals(method) || "HEAD".equals(method) ? Group.READ : Group.WRITE;
+    }
+
+    static String client(HttpServletRequest request) {
+        Object claims = request.getAttribute(AuthenticationFilter.CLAIMS_ATTRIBUTE);
+        if (claims instanceof TokenSigner.AccessClaims accessClaims) {
+            return "user:" + accessClaims.userId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * Descarta os baldes de clientes que não fazem requisições há tempo suficiente para enchê-los
+     */
+    @Scheduled(fixedDelayString = "${parking.ratelimit.evict-interval-ms:60000}",
+            initialDelayString = "${parking.ratelimit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        int removed = limiters.values().stream().mapToInt(TokenBucketLimiter::evictIdle).sum();
+        if (removed > 0) {
+            log.debug("Rate limit: {} baldes ociosos descartados", removed);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || "OPTIONS".equals(request.getMethod()) || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        TokenBucketLimiter limiter = limiters.get(group(request.getMethod(), request.getRequestURI()));
+        TokenBucketLimiter.Decision decision = limiter.tryAcquire(client(request));
+        response.setHeader(LIMIT_HEADER, Integer.toString(limiter.burst()));
+        response.setHeader(REMAINING_HEADER, Long.toString(decision.remaining()));
+        response.setHeader(RESET_HEADER, Long.toString(seconds(decision.waitNanos())));
+        if (decision.allowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, seconds(decision.waitNanos()))));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"status\":429,\"message\":\"Limite de requisições excedido\""
+                + ",\"timestamp\":\"" + LocalDateTime.now() + "\"}");
+    }
+
+    private static long seconds(long nanos) {
+        return (nanos + 999_999_999L) / 1_000_000_000L;
+    }
+}
@@ -0,0 +1,26 @@
+package com.parking.api.web;
+
+import com.parking.api.model.Permission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Permissão exigida pelo endpoint, conferida pelo {@link AuthorizationInterceptor}
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiresPermission {
+
+    Permission value();
+
+    /**
+     * Permite a operação sem a permissão quando a variável {@code {id}} do caminho é o próprio
+     * usuário do token (por exemplo, trocar a própria senha)
+     */
+    boolean allowSelf() default false;
+}
@@ -0,0 +1,94 @@
+package com.parking.api.benchmark;
+
+import com.parking.api.service.PassIndex;
+import com.parking.api.util.LongHashSet;
+import com.parking.api.util.PlateCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decisão da cancela com {@link PassIndex} (filtro de Bloom seguido do conjunto exato) para placas
+ * com e sem mensalidade, comparada com a consulta só ao conjunto exato. As placas chegam como
+ * texto, então o custo de codificar a placa está incluído.
+ * <p>
+ * Execução: {@code java -cp <classpath de teste> org.openjdk.jmh.Main PassAuthorizationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PassAuthorizationBenchmark {
+
+    private static final int QUERIES = 4096;
+    private static final Long LOT_ID = 3L;
+
+    @Param({"500000"})
+    public int passes;
+
+    private PassIndex index;
+    private LongHashSet exact;
+    private String[] members;
+    private String[] strangers;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(23);
+        LongHashSet keys = new LongHashSet(passes);
+        exact = new LongHashSet(passes);
+        String[] all = new String[passes];
+        int count = 0;
+        while (count < passes) {
+            String placa = placa(random);
+            long key = PassIndex.key(LOT_ID, PlateCodec.encode(placa));
+            if (keys.add(key)) {
+                exact.add(key);
+                all[count++] = placa;
+            }
+        }
+        index = PassIndex.build(keys);
+
+        members = new String[QUERIES];
+        strangers = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            members[i] = all[random.nextInt(passes)];
+            String placa;
+            do {
+                placa = placa(random);
+            } while (exact.contains(PassIndex.key(LOT_ID, PlateCodec.encode(placa))));
+            strangers[i] = placa;
+        }
+    }
+
+    @Benchmark
+    public boolean authorizeMember() {
+        return index.allows(LOT_ID, PlateCodec.tryEncode(members[next++ & (QUERIES - 1)]));
+    }
+
+    @Benchmark
+    public boolean rejectStranger() {
+        return index.allows(LOT_ID, PlateCodec.tryEncode(strangers[next++ & (QUERIES - 1)]));
+    }
+
+    @Benchmark
+    public boolean rejectStrangerExactSetOnly() {
+        long code = PlateCodec.tryEncode(strangers[next++ & (QUERIES - 1)]);
+        return exact.contains(code) || exact.contains(PassIndex.key(LOT_ID, code));
+    }
+
+    private static String placa(Random random) {
+        char[] placa = new char[7];
+        for (int i = 0; i < 3; i++) {
+            placa[i] = (char) ('A' + random.nextInt(26));
+        }
+        placa[3] = (char) ('0' + random.nextInt(10));
+        placa[4] = random.nextBoolean() ? (char) ('A' + random.nextInt(26)) : (char) ('0' + random.nextInt(10));
+        placa[5] = (char) ('0' + random.nextInt(10));
+        placa[6] = (char) ('0' + random.nextInt(10));
+        return new String(placa);
+    }
+}
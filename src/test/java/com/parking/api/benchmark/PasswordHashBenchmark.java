@@ -0,0 +1,58 @@
+package com.parking.api.benchmark;
+
+import com.parking.api.service.PasswordHashingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins por segundo em uma thread (um núcleo): verificação BCrypt direta, a mesma verificação pelo
+ * executor do {@link PasswordHashingService} (inclui a passagem entre threads) e a comparação das
+ * senhas antigas em texto puro. Com {@code -t N} mede a vazão com N threads disputando o executor.
+ * <p>
+ * Execução: {@code java -cp <classpath de teste> org.openjdk.jmh.Main PasswordHashBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(1)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    @Param({"10"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private PasswordHashingService service;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        service = new PasswordHashingService(strength, 0, 1024, 60_000);
+        hash = encoder.encode("s3nha-do-operador");
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public boolean bcryptDirect() {
+        return encoder.matches("s3nha-do-operador", hash);
+    }
+
+    @Benchmark
+    public boolean bcryptOnExecutor() {
+        return service.verify("s3nha-do-operador", hash).matches();
+    }
+
+    @Benchmark
+    public boolean legacyPlaintext() {
+        return service.verify("s3nha-do-operador", "s3nha-do-operador").matches();
+    }
+}
@@ -0,0 +1,143 @@
+package com.parking.api.benchmark;
+
+import com.parking.api.model.Car;
+import com.parking.api.util.LongObjectHashMap;
+import com.parking.api.util.PlateCodec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a busca por placa em {@code HashMap<String, Car>} com {@link LongObjectHashMap} indexado
+ * pelo código de {@link PlateCodec}. As consultas chegam como texto (como na API), então o
+ * benchmark primitivo inclui o custo de codificar a placa.
+ * <p>
+ * Execução: {@code java -cp <classpath de teste> org.openjdk.jmh.Main PlateLookupBenchmark}.
+ * O {@link #main} estima o consumo de memória por entrada de cada estrutura
+ * (rodar com {@code -XX:+UseSerialGC} para uma medição estável do heap).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlateLookupBenchmark {
+
+    private static final int QUERIES = 4096;
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private Map<String, Car> stringMap;
+    private LongObjectHashMap<Car> longMap;
+    private String[] queries;
+    private long[] encodedQueries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        String[] placas = placas(size, 7);
+        stringMap = new HashMap<>();
+        longMap = new LongObjectHashMap<>(size);
+        for (String placa : placas) {
+            Car car = new Car();
+            car.setPlaca(placa);
+            stringMap.put(placa, car);
+            longMap.put(PlateCodec.encode(placa), car);
+        }
+
+        Random random = new Random(13);
+        queries = new String[QUERIES];
+        encodedQueries = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = placas[random.nextInt(placas.length)];
+            encodedQueries[i] = PlateCodec.encode(queries[i]);
+        }
+    }
+
+    /**
+     * Placa recebida como texto a cada consulta: a String é nova e o hash precisa ser recalculado
+     */
+    @Benchmark
+    public void stringHashMapFreshKey(Blackhole blackhole) {
+        char[] placa = queries[next++ & (QUERIES - 1)].toCharArray();
+        blackhole.consume(stringMap.get(new String(placa)));
+    }
+
+    @Benchmark
+    public void primitiveHashMapFreshKey(Blackhole blackhole) {
+        char[] placa = queries[next++ & (QUERIES - 1)].toCharArray();
+        blackhole.consume(longMap.get(PlateCodec.encode(new String(placa))));
+    }
+
+    /**
+     * Chave já em memória: a String reaproveita o hash em cache e o código já foi calculado na borda
+     */
+    @Benchmark
+    public void stringHashMapCachedKey(Blackhole blackhole) {
+        blackhole.consume(stringMap.get(queries[next++ & (QUERIES - 1)]));
+    }
+
+    @Benchmark
+    public void primitiveHashMapEncodedKey(Blackhole blackhole) {
+        blackhole.consume(longMap.get(encodedQueries[next++ & (QUERIES - 1)]));
+    }
+
+    public static void main(String[] args) {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String[] placas = placas(entries, 7);
+        Car shared = new Car();
+
+        long baseline = usedMemory();
+        Map<String, Car> stringMap = new HashMap<>();
+        for (String placa : placas) {
+            stringMap.put(new String(placa.toCharArray()), shared);
+        }
+        long stringBytes = usedMemory() - baseline;
+
+        baseline = usedMemory();
+        LongObjectHashMap<Car> longMap = new LongObjectHashMap<>();
+        for (String placa : placas) {
+            longMap.put(PlateCodec.encode(placa), shared);
+        }
+        long longBytes = usedMemory() - baseline;
+
+        System.out.printf("HashMap<String, Car>:    %.1f bytes/entrada%n", (double) stringBytes / stringMap.size());
+        System.out.printf("LongObjectHashMap<Car>:  %.1f bytes/entrada%n", (double) longBytes / longMap.size());
+        Reference.reachabilityFence(stringMap);
+        Reference.reachabilityFence(longMap);
+        Reference.reachabilityFence(placas);
+    }
+
+    private static String[] placas(int count, long seed) {
+        Random random = new Random(seed);
+        Map<Long, String> unique = new HashMap<>();
+        while (unique.size() < count) {
+            char[] placa = new char[7];
+            for (int i = 0; i < 3; i++) {
+                placa[i] = (char) ('A' + random.nextInt(26));
+            }
+            placa[3] = (char) ('0' + random.nextInt(10));
+            placa[4] = random.nextBoolean() ? (char) ('A' + random.nextInt(26)) : (char) ('0' + random.nextInt(10));
+            placa[5] = (char) ('0' + random.nextInt(10));
+            placa[6] = (char) ('0' + random.nextInt(10));
+            String normalized = PlateCodec.normalize(new String(placa));
+            unique.putIfAbsent(PlateCodec.encode(normalized), normalized);
+        }
+        return unique.values().toArray(String[]::new);
+    }
+
+    private static long usedMemory() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,44 @@
+package com.parking.api.benchmark;
+
+import com.parking.api.util.TokenBucketLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de uma requisição permitida no {@link TokenBucketLimiter}, com vários threads consultando
+ * baldes de clientes diferentes ao mesmo tempo (o caso de todos os clientes dentro da cota).
+ * <p>
+ * Execução: {@code java -cp <classpath de teste> org.openjdk.jmh.Main RateLimitBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RateLimitBenchmark {
+
+    @Param({"10000"})
+    public int clients;
+
+    private TokenBucketLimiter limiter;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        // Taxa alta o bastante para que nenhuma requisição seja recusada
+        limiter = new TokenBucketLimiter(1_000_000_000, 1_000, clients * 2);
+        keys = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            keys[i] = "ip:10.0." + (i >> 8) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public TokenBucketLimiter.Decision tryAcquire() {
+        return limiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(keys.length)]);
+    }
+}
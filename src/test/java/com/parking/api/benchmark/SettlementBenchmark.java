@@ -0,0 +1,105 @@
+package com.parking.api.benchmark;
+
+import com.parking.api.repository.CarRepository;
+import com.parking.api.service.SettlementAggregator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a agregação do fechamento diário sobre 1 milhão de saídas em memória, em uma thread e em
+ * paralelo no {@link ForkJoinPool#commonPool()}. Não inclui a leitura do banco: no serviço, a
+ * agregação paralela corre enquanto o cursor continua lendo.
+ * <p>
+ * Execução: {@code java -cp <classpath de teste> org.openjdk.jmh.Main SettlementBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SettlementBenchmark {
+
+    @Param({"1000000"})
+    public int sessions;
+
+    private Row[] rows;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(11);
+        LocalDateTime day = LocalDateTime.of(2024, 5, 10, 0, 0);
+        rows = new Row[sessions];
+        for (int i = 0; i < sessions; i++) {
+            rows[i] = new Row(1L + random.nextInt(20), 1L + random.nextInt(8), day.plusSeconds(random.nextInt(86_400)),
+                    BigDecimal.valueOf(random.nextInt(10_000), 2), "operador" + random.nextInt(60));
+        }
+    }
+
+    @Benchmark
+    public SettlementAggregator.Accumulator sequential() {
+        return SettlementAggregator.aggregate(new ArrayIterator(rows), Runnable::run,
+                SettlementAggregator.DEFAULT_CHUNK_SIZE, 1);
+    }
+
+    @Benchmark
+    public SettlementAggregator.Accumulator parallel() {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        return SettlementAggregator.aggregate(new ArrayIterator(rows), pool,
+                SettlementAggregator.DEFAULT_CHUNK_SIZE, 2 * pool.getParallelism());
+    }
+
+    private record Row(Long lotId, Long tarifaId, LocalDateTime dataSaida, BigDecimal valorPago, String operadorSaida)
+            implements CarRepository.SettlementRow {
+
+        @Override
+        public Long getLotId() {
+            return lotId;
+        }
+
+        @Override
+        public Long getTarifaId() {
+            return tarifaId;
+        }
+
+        @Override
+        public LocalDateTime getDataSaida() {
+            return dataSaida;
+        }
+
+        @Override
+        public BigDecimal getValorPago() {
+            return valorPago;
+        }
+
+        @Override
+        public String getOperadorSaida() {
+            return operadorSaida;
+        }
+    }
+
+    private static final class ArrayIterator implements java.util.Iterator<Row> {
+
+        private final Row[] rows;
+        private int next;
+
+        ArrayIterator(Row[] rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < rows.length;
+        }
+
+        @Override
+        public Row next() {
+            return rows[next++];
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.parking.api.benchmark;
+
+import com.parking.api.model.TariffPlan;
+import com.parking.api.service.CompiledTariff;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o cálculo de tarifas com {@link CompiledTariff} sobre permanências aleatórias de até 3 dias.
+ * <p>
+ * Execução: {@code java -cp <classpath de teste> org.openjdk.jmh.Main TariffBenchmark -prof gc};
+ * o perfil {@code gc} deve mostrar zero bytes alocados por operação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TariffBenchmark {
+
+    private static final int SESSIONS = 4096;
+
+    private CompiledTariff tariff;
+    private long[] entradas;
+    private long[] saidas;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        TariffPlan plan = new TariffPlan();
+        plan.setNome("Padrão");
+        plan.setToleranciaMinutos(15);
+        plan.setValorPrimeiraHora(new BigDecimal("12.00"));
+        plan.setFracaoMinutos(15);
+        plan.setValorFracao(new BigDecimal("3.00"));
+        plan.setTetoDiario(new BigDecimal("60.00"));
+        plan.setInicioNoturno(LocalTime.of(20, 0));
+        plan.setFimNoturno(LocalTime.of(6, 0));
+        plan.setValorFracaoNoturna(new BigDecimal("2.00"));
+        tariff = CompiledTariff.compile(plan);
+
+        Random random = new Random(7);
+        long base = LocalDateTime.of(2024, 5, 10, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        entradas = new long[SESSIONS];
+        saidas = new long[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            entradas[i] = base + random.nextInt(30 * 86_400);
+            saidas[i] = entradas[i] + random.nextInt(3 * 86_400);
+        }
+    }
+
+    @Benchmark
+    public long compiledQuote() {
+        int i = next++ & (SESSIONS - 1);
+        return tariff.feeCents(entradas[i], saidas[i]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long compiledQuoteConcurrent(ThreadIndex index) {
+        int i = index.next++ & (SESSIONS - 1);
+        return tariff.feeCents(entradas[i], saidas[i]);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadIndex {
+        int next;
+    }
+}
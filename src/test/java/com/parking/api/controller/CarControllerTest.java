@@ -3,6 +3,7 @@ package com.parking.api.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.parking.api.exception.DuplicatePlacaException;
 import com.parking.api.exception.ResourceNotFoundException;
+import com.parking.api.dto.QuoteResponse;
 import com.parking.api.model.Car;
 import com.parking.api.service.CarService;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,13 +11,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -91,6 +96,79 @@ class CarControllerTest {
         verify(carService, times(1)).getAllCars();
     }
 
+    @Test
+    void quote_ShouldReturnCurrentFee() throws Exception {
+        // Arrange
+        LocalDateTime agora = LocalDateTime.of(2025, 10, 20, 12, 30);
+        when(carService.quote(1L)).thenReturn(new QuoteResponse(
+                1L, "ABC-1234", 1L, "Padrão", testCar.getDataEntrada(), agora, 150, new BigDecimal("21.00")));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/cars/1/quote"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.carId").value(1))
+                .andExpect(jsonPath("$.tarifa").value("Padrão"))
+                .andExpect(jsonPath("$.minutos").value(150))
+                .andExpect(jsonPath("$.valor").value(21.00));
+
+        verify(carService, times(1)).quote(1L);
+    }
+
+    @Test
+    void searchByOwner_ShouldReturnPageOfCars() throws Exception {
+        // Arrange
+        PageRequest pageable = PageRequest.of(0, 20);
+        when(carService.searchByOwner("joao", pageable))
+                .thenReturn(new PageImpl<>(List.of(testCar), pageable, 1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/cars/search").param("nome", "joao"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].nomeProprietario").value("João Silva"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+
+        verify(carService, times(1)).searchByOwner("joao", pageable);
+    }
+
+    @Test
+    void getCarByPlaca_ShouldNormalizePlaca() throws Exception {
+        // Arrange
+        when(carService.getCarByPlaca("ABC-1234")).thenReturn(testCar);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/cars/placa/abc1234"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.placa").value("ABC-1234"));
+
+        verify(carService, times(1)).getCarByPlaca("ABC-1234");
+    }
+
+    @Test
+    void getCarByPlaca_ShouldReturn400_WhenPlacaIsInvalid() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/cars/placa/AB-12"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Placa inválida")));
+
+        verify(carService, never()).getCarByPlaca(anyString());
+    }
+
+    @Test
+    void createCar_ShouldReturn400_WhenPlacaIsInvalid() throws Exception {
+        // Arrange
+        testCar.setPlaca("1234-ABC");
+
+        // Act & Assert
+        mockMvc.perform(post("/api/cars")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testCar)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.placa").exists());
+
+        verify(carService, never()).createCar(any(Car.class));
+    }
+
     @Test
     void getCarById_ShouldReturnCar_WhenCarExists() throws Exception {
         // Arrange
@@ -286,7 +364,7 @@ class CarControllerTest {
     void registerExit_ShouldReturnCarWithExitDate() throws Exception {
         // Arrange
         testCar.setDataSaida(LocalDateTime.of(2025, 10, 20, 15, 45));
-        when(carService.registerExit(1L)).thenReturn(testCar);
+        when(carService.registerExit(1L, null)).thenReturn(testCar);
 
         // Act & Assert
         mockMvc.perform(patch("/api/cars/1/exit"))
@@ -295,20 +373,20 @@ class CarControllerTest {
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.dataSaida").isNotEmpty());
 
-        verify(carService, times(1)).registerExit(1L);
+        verify(carService, times(1)).registerExit(1L, null);
     }
 
     @Test
     void registerExit_ShouldReturn404_WhenCarNotFound() throws Exception {
         // Arrange
-        when(carService.registerExit(anyLong()))
+        when(carService.registerExit(anyLong(), isNull()))
                 .thenThrow(new ResourceNotFoundException("Carro não encontrado com ID: 999"));
 
         // Act & Assert
         mockMvc.perform(patch("/api/cars/999/exit"))
                 .andExpect(status().isNotFound());
 
-        verify(carService, times(1)).registerExit(999L);
+        verify(carService, times(1)).registerExit(999L, null);
     }
 
     @Test
@@ -0,0 +1,377 @@
+package com.parking.api.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.api.model.User;
+import com.parking.api.repository.AuditEntryRepository;
+import com.parking.api.repository.RefreshTokenRepository;
+import com.parking.api.repository.RevokedTokenRepository;
+import com.parking.api.repository.UserRepository;
+import com.parking.api.service.AuditLog;
+import com.parking.api.service.AuthorizationService;
+import com.parking.api.service.CapacityService;
+import com.parking.api.service.PasswordHashingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Sem {@code @Transactional}: o logout só entra na lista de revogados depois do commit
+ */
+@SpringBootTest(properties = {
+        "parking.auth.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:authdb"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private AuthorizationService authorizationService;
+
+    @Autowired
+    private CapacityService capacityService;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private AuditEntryRepository auditEntryRepository;
+
+    private User operador;
+    private User gerente;
+
+    @BeforeEach
+    void setUp() {
+        operador = userRepository.save(new User("operador", passwordHashingService.hash("turno-da-manha"), "USER"));
+        gerente = userRepository.save(new User("gerente", passwordHashingService.hash("fechamento"), "ADMIN"));
+        authorizationService.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        revokedTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        auditLog.flush();
+        auditEntryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void shouldRequireTokenForCarsAndUsers() throws Exception {
+        mockMvc.perform(get("/api/cars"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("WWW-Authenticate", "Bearer"));
+        mockMvc.perform(get("/api/users").header("Authorization", "Bearer k.invalido.token"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/lots"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldAuthorizeWithAccessTokenIssuedOnLogin() throws Exception {
+        // Arrange
+        JsonNode login = login();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/cars").header("Authorization", "Bearer " + login.get("accessToken").asText()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldRotateRefreshTokenAndRejectReuse() throws Exception {
+        // Arrange
+        String refreshToken = login().get("refreshToken").asText();
+
+        // Act
+        String refreshed = mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String newRefreshToken = objectMapper.readTree(refreshed).get("refreshToken").asText();
+
+        // Assert - o token usado não vale mais e reapresentá-lo derruba a sessão inteira
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + newRefreshToken + "\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void shouldRevokeAccessTokenOnLogout() throws Exception {
+        // Arrange
+        String accessToken = login().get("accessToken").asText();
+
+        // Act
+        mockMvc.perform(post("/api/auth/logout").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isNoContent());
+
+        // Assert
+        mockMvc.perform(get("/api/cars").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Token revogado"));
+    }
+
+    @Test
+    void shouldApplyRoleChangeToExistingTokenWithoutNewLogin() throws Exception {
+        // Arrange
+        String operadorToken = "Bearer " + login().get("accessToken").asText();
+        String gerenteToken = "Bearer " + login("gerente", "fechamento").get("accessToken").asText();
+
+        // Act & Assert - operador não gerencia usuários, mas pode trocar a própria senha
+        mockMvc.perform(get("/api/users").header("Authorization", operadorToken))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.message").value("Permissão USERS_READ necessária"));
+        mockMvc.perform(delete("/api/cars/999").header("Authorization", operadorToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(patch("/api/users/" + operador.getId() + "/password")
+                        .header("Authorization", operadorToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"oldPassword\":\"turno-da-manha\",\"newPassword\":\"turno-da-tarde\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/users/" + gerente.getId() + "/password")
+                        .header("Authorization", operadorToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"oldPassword\":\"fechamento\",\"newPassword\":\"invadido\"}"))
+                .andExpect(status().isForbidden());
+
+        // Act - gerente promove o operador
+        operadorToken = "Bearer " + login("operador", "turno-da-tarde").get("accessToken").asText();
+        mockMvc.perform(put("/api/users/" + operador.getId())
+                        .header("Authorization", gerenteToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"operador\",\"password\":\"-\",\"role\":\"ADMIN\"}"))
+                .andExpect(status().isOk());
+
+        // Assert - o mesmo token já tem as permissões novas
+        mockMvc.perform(get("/api/users").header("Authorization", operadorToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldRejectLotScopedTokenForAnotherLot() throws Exception {
+        // Arrange
+        Long lotId = capacityService.defaultLotId();
+        User caixa = new User("caixa", passwordHashingService.hash("portaria"), "USER");
+        caixa.setLotId(lotId);
+        userRepository.save(caixa);
+        authorizationService.load();
+        String token = "Bearer " + login("caixa", "portaria").get("accessToken").asText();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/cars").header("Authorization", token))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/cars").header("Authorization", token).header("X-Lot-Id", lotId))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/cars").header("Authorization", token).header("X-Lot-Id", lotId + 1))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.message").value("Token não vale para o estacionamento " + (lotId + 1)));
+    }
+
+    @Test
+    void shouldKeepLotScopedAdminInsideItsLot() throws Exception {
+        // Arrange
+        Long lotId = capacityService.defaultLotId();
+        User supervisor = new User("supervisor", passwordHashingService.hash("noturno"), "ADMIN");
+        supervisor.setLotId(lotId);
+        userRepository.save(supervisor);
+        authorizationService.load();
+        String supervisorToken = "Bearer " + login("supervisor", "noturno").get("accessToken").asText();
+        String gerenteToken = "Bearer " + login("gerente", "fechamento").get("accessToken").asText();
+
+        // Act & Assert - o supervisor só cadastra usuários no próprio estacionamento
+        String created = mockMvc.perform(post("/api/users").header("Authorization", supervisorToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"manobrista\",\"password\":\"vaga-42\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.lotId").value(lotId))
+                .andReturn().getResponse().getContentAsString();
+        long manobristaId = objectMapper.readTree(created).get("id").asLong();
+        mockMvc.perform(post("/api/users").header("Authorization", supervisorToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"intruso\",\"password\":\"vaga-43\",\"global\":true}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/users").header("Authorization", supervisorToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"intruso\",\"password\":\"vaga-43\",\"lotId\":" + (lotId + 100) + "}"))
+                .andExpect(status().isNotFound());
+
+        // Act & Assert - usuários globais só são alterados por usuários globais
+        mockMvc.perform(put("/api/users/" + gerente.getId()).header("Authorization", supervisorToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"gerente\",\"password\":\"x\",\"role\":\"USER\"}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/users/" + gerente.getId()).header("Authorization", supervisorToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/users/" + manobristaId).header("Authorization", gerenteToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"manobrista\",\"password\":\"x\",\"global\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lotId").doesNotExist());
+    }
+
+    @Test
+    void shouldLimitSettlementToTokenLot() throws Exception {
+        // Arrange
+        User supervisor = new User("supervisor", passwordHashingService.hash("noturno"), "ADMIN");
+        supervisor.setLotId(capacityService.defaultLotId());
+        userRepository.save(supervisor);
+        authorizationService.load();
+        String supervisorToken = "Bearer " + login("supervisor", "noturno").get("accessToken").asText();
+        String gerenteToken = "Bearer " + login("gerente", "fechamento").get("accessToken").asText();
+
+        // Act & Assert - o fechamento gravado, de todos os estacionamentos, é só de usuários globais
+        mockMvc.perform(post("/api/reports/settlement").param("date", "2024-05-10")
+                        .header("Authorization", supervisorToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/reports/settlement").param("date", "2024-05-10")
+                        .header("Authorization", gerenteToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/reports/settlement").param("date", "2024-05-10")
+                        .header("Authorization", supervisorToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.persistido").value(false));
+        mockMvc.perform(get("/api/reports/settlement").param("date", "2024-05-10")
+                        .header("Authorization", gerenteToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.persistido").value(true));
+    }
+
+    @Test
+    void shouldAuthorizeJournalWithAccessToken() throws Exception {
+        // Arrange
+        String operadorToken = "Bearer " + login().get("accessToken").asText();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/journal/conflicts"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/journal").header("Authorization", operadorToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/journal/conflicts").header("Authorization", operadorToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/journal/conflicts/999/resolve").header("Authorization", operadorToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldRequirePermissionOnOperationalEndpoints() throws Exception {
+        // Arrange
+        String operadorToken = "Bearer " + login().get("accessToken").asText();
+        String gerenteToken = "Bearer " + login("gerente", "fechamento").get("accessToken").asText();
+
+        // Act & Assert - consultas de estacionamentos e tarifas seguem públicas, alterações não
+        mockMvc.perform(get("/api/tariffs"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/lots").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/lots").header("Authorization", operadorToken)
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.message").value("Permissão LOTS_WRITE necessária"));
+
+        // Act & Assert - operador consulta mensalistas e alertas, mas não estatísticas nem fechamento
+        mockMvc.perform(get("/api/stats/audit"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/passes").header("Authorization", operadorToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/alerts").header("Authorization", operadorToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/stats/audit").header("Authorization", operadorToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/reports/settlement").header("Authorization", operadorToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/watchlist/999").header("Authorization", operadorToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/stats/audit").header("Authorization", gerenteToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldAuditUserChangesWithActingUser() throws Exception {
+        // Arrange
+        String operadorToken = "Bearer " + login().get("accessToken").asText();
+        String gerenteToken = "Bearer " + login("gerente", "fechamento").get("accessToken").asText();
+
+        // Act
+        mockMvc.perform(patch("/api/users/" + operador.getId() + "/password")
+                        .header("Authorization", operadorToken)
+                        .header("X-Operador", "Joana")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"oldPassword\":\"turno-da-manha\",\"newPassword\":\"turno-da-tarde\"}"))
+                .andExpect(status().isOk());
+        operadorToken = "Bearer " + login("operador", "turno-da-tarde").get("accessToken").asText();
+        mockMvc.perform(get("/api/audit").header("Authorization", operadorToken))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.message").value("Permissão AUDIT_READ necessária"));
+        mockMvc.perform(put("/api/users/" + operador.getId())
+                        .header("Authorization", gerenteToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"operador\",\"password\":\"-\",\"role\":\"ADMIN\"}"))
+                .andExpect(status().isOk());
+        auditLog.flush();
+
+        // Assert - mais recente primeiro; a senha nunca aparece nas alterações
+        mockMvc.perform(get("/api/audit")
+                        .header("Authorization", gerenteToken)
+                        .param("entidade", "USER")
+                        .param("entidadeId", operador.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].acao").value("UPDATE"))
+                .andExpect(jsonPath("$.content[0].usuarioId").value(gerente.getId()))
+                .andExpect(jsonPath("$.content[0].alteracoes.role.de").value("USER"))
+                .andExpect(jsonPath("$.content[0].alteracoes.role.para").value("ADMIN"))
+                .andExpect(jsonPath("$.content[1].acao").value("PASSWORD_CHANGE"))
+                .andExpect(jsonPath("$.content[1].usuarioId").value(operador.getId()))
+                .andExpect(jsonPath("$.content[1].operador").value("Joana"))
+                .andExpect(jsonPath("$.content[1].alteracoes").isEmpty());
+    }
+
+    private JsonNode login() throws Exception {
+        return login("operador", "turno-da-manha");
+    }
+
+    private JsonNode login(String username, String password) throws Exception {
+        String response = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tokenType").value("Bearer"))
+                .andExpect(jsonPath("$.expiresIn").value(900))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+}
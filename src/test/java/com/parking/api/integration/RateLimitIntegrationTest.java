@@ -0,0 +1,53 @@
+package com.parking.api.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "parking.ratelimit.enabled=true",
+        "parking.ratelimit.read.per-second=0.01",
+        "parking.ratelimit.read.burst=2",
+        "spring.datasource.url=jdbc:h2:mem:ratelimitdb"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldRejectClientOverQuotaAndExposeRemainingQuota() throws Exception {
+        mockMvc.perform(get("/api/cars").with(remoteAddr("10.0.0.7")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-RateLimit-Limit", "2"))
+                .andExpect(header().string("X-RateLimit-Remaining", "1"));
+        mockMvc.perform(get("/api/cars").with(remoteAddr("10.0.0.7")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-RateLimit-Remaining", "0"));
+
+        mockMvc.perform(get("/api/cars").with(remoteAddr("10.0.0.7")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.status").value(429));
+
+        // Outro cliente tem o próprio balde
+        mockMvc.perform(get("/api/cars").with(remoteAddr("10.0.0.8")))
+                .andExpect(status().isOk());
+    }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
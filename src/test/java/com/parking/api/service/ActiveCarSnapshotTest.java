@@ -0,0 +1,61 @@
+package com.parking.api.service;
+
+import com.parking.api.event.CarEvent;
+import com.parking.api.model.Car;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ActiveCarSnapshotTest {
+
+    private static final Long LOT_ID = 1L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 10, 12, 0);
+
+    @Mock
+    private CarEventStore carEventStore;
+
+    private final DatabaseGuard databaseGuard = new DatabaseGuard(20, 10, 0.5, Duration.ofSeconds(2), 0.8,
+            Duration.ofSeconds(10), 3);
+
+    @Test
+    void refresh_ShouldKeepEventsReceivedWhileProjecting() {
+        // Arrange - a projeção é lida antes da entrada de DEF-5678 e da saída de ABC-1234
+        ActiveCarSnapshot snapshot = new ActiveCarSnapshot(carEventStore, databaseGuard);
+        Car parked = car(1L, "ABC-1234", null);
+        Car exited = car(1L, "ABC-1234", NOW);
+        Car entered = car(2L, "DEF-5678", null);
+        when(carEventStore.project()).thenAnswer(invocation -> {
+            CarEventStore.Projection read = new CarEventStore.Projection(List.of(parked), 10L, 0, 10L);
+            snapshot.onCarEvent(CarEvent.entry(entered));
+            snapshot.onCarEvent(CarEvent.exit(parked, exited));
+            return read;
+        });
+
+        // Act
+        snapshot.refresh();
+
+        // Assert
+        assertThat(snapshot.isParked(LOT_ID, "DEF-5678")).isTrue();
+        assertThat(snapshot.isParked(LOT_ID, "ABC-1234")).isFalse();
+        assertThat(snapshot.activeCars(LOT_ID)).extracting(Car::getId).containsExactly(2L);
+    }
+
+    private static Car car(Long id, String placa, LocalDateTime dataSaida) {
+        Car car = new Car();
+        car.setId(id);
+        car.setLotId(LOT_ID);
+        car.setPlaca(placa);
+        car.setDataEntrada(NOW.minusHours(1));
+        car.setDataSaida(dataSaida);
+        return car;
+    }
+}
@@ -0,0 +1,80 @@
+package com.parking.api.service;
+
+import com.parking.api.dto.AlertResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlertServiceTest {
+
+    private static final Long LOT_ID = 1L;
+
+    @Test
+    void publish_ShouldNotWaitForSlowSubscriber() throws Exception {
+        // Arrange
+        AlertService alertService = new AlertService(10);
+        BlockingEmitter slow = new BlockingEmitter();
+        BlockingEmitter fast = new BlockingEmitter();
+        fast.release.countDown();
+        alertService.subscribe(LOT_ID, slow);
+        alertService.subscribe(LOT_ID, fast);
+
+        // Act
+        long start = System.nanoTime();
+        alertService.publish(AlertResponse.Tipo.OVERSTAY, LOT_ID, 10L, "ABC-1234", "Permanência excedida");
+        alertService.publish(AlertResponse.Tipo.OVERSTAY, LOT_ID, 11L, "XYZ-9876", "Permanência excedida");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertThat(elapsedMillis).isLessThan(1000);
+        assertThat(fast.sent.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(slow.sent.getCount()).isEqualTo(2);
+        slow.release.countDown();
+        assertThat(slow.sent.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void publish_ShouldDisconnectSubscriber_WhenItsQueueIsFull() throws Exception {
+        // Arrange - um alerta preso no envio e um na fila de capacidade 1
+        AlertService alertService = new AlertService(1);
+        BlockingEmitter slow = new BlockingEmitter();
+        alertService.subscribe(LOT_ID, slow);
+        alertService.publish(AlertResponse.Tipo.OVERSTAY, LOT_ID, 10L, "ABC-1234", "Permanência excedida");
+        assertThat(slow.started.await(2, TimeUnit.SECONDS)).isTrue();
+        alertService.publish(AlertResponse.Tipo.OVERSTAY, LOT_ID, 11L, "XYZ-9876", "Permanência excedida");
+
+        // Act
+        alertService.publish(AlertResponse.Tipo.OVERSTAY, LOT_ID, 12L, "DEF-5678", "Permanência excedida");
+
+        // Assert
+        assertThat(alertService.subscribers()).isZero();
+        assertThat(alertService.recent(LOT_ID, 10)).hasSize(3);
+    }
+
+    /**
+     * Emissor que segura cada envio até ser liberado
+     */
+    private static final class BlockingEmitter extends SseEmitter {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch sent = new CountDownLatch(2);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Envio interrompido", e);
+            }
+            sent.countDown();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.parking.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.api.dto.UserResponse;
+import com.parking.api.event.CarEvent;
+import com.parking.api.model.AuditEntry;
+import com.parking.api.model.AuditEntry.Acao;
+import com.parking.api.model.Car;
+import com.parking.api.repository.AuditEntryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 10, 15, 30);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AuditEntryRepository auditRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final DatabaseGuard databaseGuard = new DatabaseGuard(20, 10, 0.5, Duration.ofSeconds(2), 0.8,
+            Duration.ofSeconds(10), 3);
+
+    @Test
+    void flush_ShouldInsertQueuedEntriesInBatches() {
+        // Arrange
+        AuditLog auditLog = auditLog(16, AuditLog.Overflow.DROP, 3);
+        List<List<AuditEntry>> batches = captureBatches();
+        for (long id = 1; id <= 5; id++) {
+            auditLog.onCarEvent(CarEvent.entry(car(id)));
+        }
+
+        // Act
+        int written = auditLog.flush();
+
+        // Assert
+        assertThat(written).isEqualTo(5);
+        assertThat(batches).extracting(List::size).containsExactly(3, 2);
+        assertThat(batches.get(0).get(0).getEntidadeId()).isEqualTo(1L);
+        assertThat(batches.get(0).get(0).getAcao()).isEqualTo(Acao.ENTRY);
+        assertThat(batches.get(0).get(0).getOcorridoEm()).isEqualTo(NOW);
+        assertThat(auditLog.written()).isEqualTo(5);
+        assertThat(auditLog.pending()).isZero();
+    }
+
+    @Test
+    void onCarEvent_ShouldRecordOnlyChangedFields() throws Exception {
+        // Arrange
+        AuditLog auditLog = auditLog(16, AuditLog.Overflow.DROP, 10);
+        List<List<AuditEntry>> batches = captureBatches();
+        Car before = car(7L);
+        Car after = Car.copyOf(before);
+        after.setCor("Azul");
+        after.setVersao(before.getVersao() + 1);
+
+        // Act
+        auditLog.onCarEvent(CarEvent.update(before, after));
+        auditLog.flush();
+
+        // Assert
+        AuditEntry entry = batches.get(0).get(0);
+        JsonNode changes = objectMapper.readTree(entry.getAlteracoes());
+        assertThat(entry.getEntidade()).isEqualTo(AuditEntry.Entidade.CAR);
+        assertThat(entry.getLotId()).isEqualTo(1L);
+        assertThat(changes.size()).isEqualTo(1);
+        assertThat(changes.get("cor").get("de").asText()).isEqualTo("Preto");
+        assertThat(changes.get("cor").get("para").asText()).isEqualTo("Azul");
+    }
+
+    @Test
+    void onUserChanged_ShouldRecordAllFieldsOnDelete() throws Exception {
+        // Arrange
+        AuditLog auditLog = auditLog(16, AuditLog.Overflow.DROP, 10);
+        List<List<AuditEntry>> batches = captureBatches();
+        UserResponse user = new UserResponse(3L, "operador", "USER", NOW);
+
+        // Act
+        auditLog.onUserChanged(Acao.DELETE, user, null);
+        auditLog.flush();
+
+        // Assert
+        AuditEntry entry = batches.get(0).get(0);
+        JsonNode changes = objectMapper.readTree(entry.getAlteracoes());
+        assertThat(entry.getEntidade()).isEqualTo(AuditEntry.Entidade.USER);
+        assertThat(entry.getEntidadeId()).isEqualTo(3L);
+        assertThat(entry.getUsuarioId()).isNull();
+        assertThat(changes.get("username").get("de").asText()).isEqualTo("operador");
+        assertThat(changes.get("username").get("para").isNull()).isTrue();
+    }
+
+    @Test
+    void record_ShouldDropAndCount_WhenBufferIsFullWithDropPolicy() {
+        // Arrange
+        AuditLog auditLog = auditLog(2, AuditLog.Overflow.DROP, 10);
+
+        // Act
+        for (long id = 1; id <= 5; id++) {
+            auditLog.onCarEvent(CarEvent.entry(car(id)));
+        }
+
+        // Assert
+        assertThat(auditLog.pending()).isEqualTo(2);
+        assertThat(auditLog.dropped()).isEqualTo(3);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void record_ShouldWaitThenDrop_WhenBufferStaysFullWithBlockPolicy() {
+        // Arrange
+        AuditLog auditLog = new AuditLog(jdbcTemplate, auditRepository, databaseGuard, objectMapper, 2,
+                AuditLog.Overflow.BLOCK, Duration.ofMillis(50), 10, 200, 5000, clock());
+        auditLog.onCarEvent(CarEvent.entry(car(1L)));
+        auditLog.onCarEvent(CarEvent.entry(car(2L)));
+
+        // Act
+        long start = System.nanoTime();
+        auditLog.onCarEvent(CarEvent.entry(car(3L)));
+        long waited = System.nanoTime() - start;
+
+        // Assert - sem a thread de gravação ninguém libera espaço
+        assertThat(Duration.ofNanos(waited)).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+        assertThat(auditLog.dropped()).isEqualTo(1);
+        assertThat(auditLog.pending()).isEqualTo(2);
+    }
+
+    @Test
+    void flush_ShouldKeepBatch_WhenDatabaseFails() {
+        // Arrange
+        AuditLog auditLog = auditLog(16, AuditLog.Overflow.DROP, 10);
+        when(jdbcTemplate.batchUpdate(eq(AuditLog.INSERT_SQL), anyCollection(), anyInt(),
+                anySetter()))
+                .thenThrow(new DataAccessResourceFailureException("conexão recusada"))
+                .thenReturn(new int[][]{{1, 1}});
+        auditLog.onCarEvent(CarEvent.entry(car(1L)));
+        auditLog.onCarEvent(CarEvent.entry(car(2L)));
+
+        // Act
+        int failed = auditLog.flush();
+        int pendingAfterFailure = auditLog.pending();
+        int retried = auditLog.flush();
+
+        // Assert
+        assertThat(failed).isZero();
+        assertThat(pendingAfterFailure).isEqualTo(2);
+        assertThat(retried).isEqualTo(2);
+        assertThat(auditLog.written()).isEqualTo(2);
+        assertThat(auditLog.pending()).isZero();
+    }
+
+    @Test
+    void flush_ShouldDropOnlyRejectedEntries_WhenFailureIsNotFromDatabase() {
+        // Arrange
+        AuditLog auditLog = auditLog(16, AuditLog.Overflow.DROP, 10);
+        when(jdbcTemplate.batchUpdate(eq(AuditLog.INSERT_SQL), anyCollection(), anyInt(),
+                anySetter()))
+                .thenThrow(new DataIntegrityViolationException("valor longo demais"))
+                .thenReturn(new int[][]{{1}})
+                .thenThrow(new DataIntegrityViolationException("valor longo demais"));
+        auditLog.onCarEvent(CarEvent.entry(car(1L)));
+        auditLog.onCarEvent(CarEvent.entry(car(2L)));
+
+        // Act
+        int flushed = auditLog.flush();
+
+        // Assert
+        assertThat(flushed).isEqualTo(2);
+        assertThat(auditLog.written()).isEqualTo(1);
+        assertThat(auditLog.dropped()).isEqualTo(1);
+        assertThat(auditLog.pending()).isZero();
+        verify(jdbcTemplate, times(3)).batchUpdate(eq(AuditLog.INSERT_SQL), anyCollection(), anyInt(),
+                anySetter());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<AuditEntry>> captureBatches() {
+        List<List<AuditEntry>> batches = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(eq(AuditLog.INSERT_SQL), anyCollection(), anyInt(),
+                anySetter()))
+                .thenAnswer(invocation -> {
+                    batches.add(new ArrayList<>(invocation.<Collection<AuditEntry>>getArgument(1)));
+                    return new int[0][];
+                });
+        return batches;
+    }
+
+    private AuditLog auditLog(int capacity, AuditLog.Overflow overflow, int batchSize) {
+        return new AuditLog(jdbcTemplate, auditRepository, databaseGuard, objectMapper, capacity, overflow,
+                Duration.ofSeconds(1), batchSize, 200, 5000, clock());
+    }
+
+    private static Clock clock() {
+        return Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneId.of("UTC"));
+    }
+
+    private static Car car(Long id) {
+        Car car = new Car();
+        car.setId(id);
+        car.setLotId(1L);
+        car.setPlaca("ABC-1234");
+        car.setModelo("Gol");
+        car.setCor("Preto");
+        car.setDataEntrada(NOW);
+        car.setVersao(0L);
+        return car;
+    }
+
+    private static ParameterizedPreparedStatementSetter<AuditEntry> anySetter() {
+        return any();
+    }
+}
@@ -0,0 +1,129 @@
+package com.parking.api.service;
+
+import com.parking.api.model.Permission;
+import com.parking.api.model.Role;
+import com.parking.api.model.User;
+import com.parking.api.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthorizationServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @Test
+    void isAllowed_ShouldFollowDefaultMatrix() {
+        // Arrange
+        AuthorizationService service = new AuthorizationService(userRepository, PermissionMatrix.defaults());
+        when(userRepository.findAll()).thenReturn(List.of(user(1L, "USER"), user(2L, "admin")));
+        service.load();
+
+        // Act & Assert
+        assertThat(service.isAllowed(1L, Permission.CARS_WRITE)).isTrue();
+        assertThat(service.isAllowed(1L, Permission.CARS_DELETE)).isFalse();
+        assertThat(service.isAllowed(1L, Permission.USERS_READ)).isFalse();
+        assertThat(service.isAllowed(2L, Permission.USERS_DELETE)).isTrue();
+        assertThat(service.isAllowed(3L, Permission.CARS_READ)).isFalse();
+        assertThat(service.isAllowed(null, Permission.CARS_READ)).isFalse();
+    }
+
+    @Test
+    void load_ShouldKeepRoleChangesMadeWhileReloading() {
+        // Arrange - o gerente é rebaixado depois de a recarga ler o cadastro
+        AuthorizationService service = new AuthorizationService(userRepository, PermissionMatrix.defaults());
+        when(userRepository.findAll()).thenReturn(List.of(user(1L, "ADMIN"), user(2L, "ADMIN")));
+        service.load();
+        when(userRepository.findAll()).thenAnswer(invocation -> {
+            List<User> read = List.of(user(1L, "ADMIN"), user(2L, "ADMIN"));
+            service.onRoleChanged(1L, "USER");
+            service.onUserDeleted(2L);
+            return read;
+        });
+
+        // Act
+        service.load();
+
+        // Assert
+        assertThat(service.isAllowed(1L, Permission.USERS_DELETE)).isFalse();
+        assertThat(service.isAllowed(1L, Permission.CARS_READ)).isTrue();
+        assertThat(service.isAllowed(2L, Permission.CARS_READ)).isFalse();
+    }
+
+    @Test
+    void onRoleChanged_ShouldApplyNewRoleWithoutReload() {
+        // Arrange
+        AuthorizationService service = new AuthorizationService(userRepository, PermissionMatrix.defaults());
+        when(userRepository.findAll()).thenReturn(List.of(user(1L, "USER")));
+        service.load();
+
+        // Act
+        service.onRoleChanged(1L, "ADMIN");
+
+        // Assert
+        assertThat(service.isAllowed(1L, Permission.USERS_DELETE)).isTrue();
+
+        // Act - rebaixado e depois removido
+        service.onRoleChanged(1L, "USER");
+        boolean afterDemotion = service.isAllowed(1L, Permission.USERS_DELETE);
+        service.onUserDeleted(1L);
+
+        // Assert
+        assertThat(afterDemotion).isFalse();
+        assertThat(service.isAllowed(1L, Permission.CARS_READ)).isFalse();
+    }
+
+    @Test
+    void compile_ShouldReadRolePermissionsFromProperties() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("parking.authz.roles.USER", "CARS_READ, USERS_READ")
+                .withProperty("parking.authz.roles.ADMIN", "*");
+
+        // Act
+        PermissionMatrix matrix = AuthorizationService.compile(environment);
+
+        // Assert
+        assertThat(matrix.allows(Role.USER, Permission.CARS_READ)).isTrue();
+        assertThat(matrix.allows(Role.USER, Permission.USERS_READ)).isTrue();
+        assertThat(matrix.allows(Role.USER, Permission.CARS_WRITE)).isFalse();
+        for (Permission permission : Permission.values()) {
+            assertThat(matrix.allows(Role.ADMIN, permission)).isTrue();
+        }
+    }
+
+    @Test
+    void compile_ShouldRejectUnknownPermission() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment().withProperty("parking.authz.roles.USER", "CARS_FLY");
+
+        // Act & Assert
+        assertThatThrownBy(() -> AuthorizationService.compile(environment))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void permissionMatrix_ShouldKeepRolesIndependent() {
+        // Arrange
+        PermissionMatrix matrix = PermissionMatrix.compile(Map.of(Role.USER, EnumSet.of(Permission.USERS_DELETE)));
+
+        // Act & Assert
+        assertThat(matrix.allows(Role.USER, Permission.USERS_DELETE)).isTrue();
+        assertThat(matrix.allows(Role.ADMIN, Permission.USERS_DELETE)).isFalse();
+        assertThat(matrix.allows(null, Permission.USERS_DELETE)).isFalse();
+    }
+
+    private static User user(Long id, String role) {
+        User user = new User("user" + id, "x", role);
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,215 @@
+package com.parking.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.api.event.CarEvent;
+import com.parking.api.model.Car;
+import com.parking.api.model.CarEventRecord;
+import com.parking.api.model.OccupancySnapshot;
+import com.parking.api.repository.CarEventRecordRepository;
+import com.parking.api.repository.CarRepository;
+import com.parking.api.repository.OccupancySnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CarEventStoreTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 10, 15, 30);
+
+    @Mock
+    private CarEventRecordRepository eventRepository;
+
+    @Mock
+    private OccupancySnapshotRepository snapshotRepository;
+
+    @Mock
+    private CarRepository carRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private CarEventStore store;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneId.of("UTC"));
+        store = new CarEventStore(eventRepository, snapshotRepository, carRepository, objectMapper,
+                transactionTemplate, clock);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(snapshotRepository.save(any(OccupancySnapshot.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void apply_ShouldTrackParkedCarsById() {
+        // Arrange
+        Map<Long, Car> parked = new HashMap<>();
+        Car renamed = car(1L, "XYZ-5678", null);
+
+        // Act
+        CarEventStore.apply(parked, CarEvent.Type.ENTRY, car(1L, "ABC-1234", null));
+        CarEventStore.apply(parked, CarEvent.Type.ENTRY, car(2L, "DEF-1111", null));
+        CarEventStore.apply(parked, CarEvent.Type.UPDATE, renamed);
+        CarEventStore.apply(parked, CarEvent.Type.EXIT, car(2L, "DEF-1111", NOW));
+        CarEventStore.apply(parked, CarEvent.Type.UPDATE, car(2L, "DEF-2222", NOW));
+
+        // Assert - uma alteração cadastral de um carro que já saiu não o traz de volta
+        assertThat(parked).containsOnlyKeys(1L);
+        assertThat(parked.get(1L).getPlaca()).isEqualTo("XYZ-5678");
+    }
+
+    @Test
+    void append_ShouldRecordCurrentStateOfCar() {
+        // Arrange
+        Car before = car(1L, "ABC-1234", null);
+        Car after = car(1L, "ABC-1234", NOW);
+
+        // Act
+        store.append(CarEvent.exit(before, after));
+
+        // Assert
+        ArgumentCaptor<CarEventRecord> record = ArgumentCaptor.forClass(CarEventRecord.class);
+        verify(eventRepository).save(record.capture());
+        assertThat(record.getValue().getTipo()).isEqualTo(CarEvent.Type.EXIT);
+        assertThat(record.getValue().getCarId()).isEqualTo(1L);
+        assertThat(record.getValue().getRegistradoEm()).isEqualTo(NOW);
+        assertThat(record.getValue().getEstado()).contains("\"dataSaida\"");
+    }
+
+    @Test
+    void project_ShouldApplyTailOnTopOfLatestSnapshot() throws Exception {
+        // Arrange
+        when(snapshotRepository.findFirstByOrderByUltimoEventoDesc())
+                .thenReturn(Optional.of(snapshot(10L, car(1L, "ABC-1234", null), car(2L, "DEF-1111", null))));
+        when(eventRepository.streamByIdGreaterThanOrderByIdAsc(10L)).thenReturn(Stream.of(
+                record(11L, CarEvent.Type.EXIT, car(1L, "ABC-1234", NOW)),
+                record(12L, CarEvent.Type.ENTRY, car(3L, "GHI-3333", null))));
+
+        // Act
+        CarEventStore.Projection projection = store.project();
+
+        // Assert
+        assertThat(projection.parked()).extracting(Car::getId).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(projection.snapshotEvent()).isEqualTo(10L);
+        assertThat(projection.tailEvents()).isEqualTo(2);
+        assertThat(projection.lastEvent()).isEqualTo(12L);
+    }
+
+    @Test
+    void project_ShouldSeedFirstSnapshotFromCarsTable() {
+        // Arrange
+        when(snapshotRepository.findFirstByOrderByUltimoEventoDesc()).thenReturn(Optional.empty());
+        when(eventRepository.findLastIdBefore(NOW.minusSeconds(60))).thenReturn(5L);
+        when(carRepository.findByDataSaidaIsNull()).thenReturn(List.of(car(1L, "ABC-1234", null)));
+        when(eventRepository.streamByIdGreaterThanOrderByIdAsc(5L)).thenReturn(Stream.empty());
+
+        // Act
+        CarEventStore.Projection projection = store.project();
+
+        // Assert
+        assertThat(projection.parked()).extracting(Car::getPlaca).containsExactly("ABC-1234");
+        verify(snapshotRepository).save(argThat(snapshot -> snapshot.getUltimoEvento() == 5L
+                && snapshot.getCarros() == 1));
+    }
+
+    @Test
+    void project_ShouldReapplyRecentEventsOverSeededCarsTable() throws Exception {
+        // Arrange - a saída do carro 1 (evento 6) ainda não estava confirmada ao ler a tabela, e a
+        // entrada do carro 2 (evento 7) já estava
+        when(snapshotRepository.findFirstByOrderByUltimoEventoDesc()).thenReturn(Optional.empty());
+        when(eventRepository.findLastIdBefore(NOW.minusSeconds(60))).thenReturn(5L);
+        when(carRepository.findByDataSaidaIsNull())
+                .thenReturn(List.of(car(1L, "ABC-1234", null), car(2L, "DEF-1111", null)));
+        when(eventRepository.streamByIdGreaterThanOrderByIdAsc(5L)).thenReturn(Stream.of(
+                record(6L, CarEvent.Type.EXIT, car(1L, "ABC-1234", NOW)),
+                record(7L, CarEvent.Type.ENTRY, car(2L, "DEF-1111", null))));
+
+        // Act
+        CarEventStore.Projection projection = store.project();
+
+        // Assert
+        assertThat(projection.parked()).extracting(Car::getId).containsExactly(2L);
+        assertThat(projection.snapshotEvent()).isEqualTo(5L);
+        assertThat(projection.lastEvent()).isEqualTo(7L);
+    }
+
+    @Test
+    void compact_ShouldFoldConfirmedEventsIntoNewSnapshot() throws Exception {
+        // Arrange - eventos dos últimos 60 segundos ficam para o próximo snapshot
+        OccupancySnapshot previous = snapshot(10L, car(1L, "ABC-1234", null));
+        when(snapshotRepository.findFirstByOrderByUltimoEventoDesc()).thenReturn(Optional.of(previous));
+        when(eventRepository.findLastIdBefore(NOW.minusSeconds(60))).thenReturn(12L);
+        when(eventRepository.streamByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(10L, 12L)).thenReturn(Stream.of(
+                record(11L, CarEvent.Type.ENTRY, car(2L, "DEF-1111", null)),
+                record(12L, CarEvent.Type.DELETE, car(1L, "ABC-1234", null))));
+
+        // Act
+        OccupancySnapshot snapshot = store.compact();
+
+        // Assert
+        assertThat(snapshot.getUltimoEvento()).isEqualTo(12L);
+        assertThat(snapshot.getCarros()).isEqualTo(1);
+        assertThat(store.decode(snapshot.getDados())).containsOnlyKeys(2L);
+        verify(snapshotRepository).deleteOlderThan(10L);
+    }
+
+    @Test
+    void compact_ShouldKeepSnapshotWhenNoNewConfirmedEvents() throws Exception {
+        // Arrange
+        OccupancySnapshot previous = snapshot(10L);
+        when(snapshotRepository.findFirstByOrderByUltimoEventoDesc()).thenReturn(Optional.of(previous));
+        when(eventRepository.findLastIdBefore(any())).thenReturn(10L);
+
+        // Act
+        OccupancySnapshot snapshot = store.compact();
+
+        // Assert
+        assertThat(snapshot).isSameAs(previous);
+        verify(snapshotRepository, never()).save(any());
+    }
+
+    private OccupancySnapshot snapshot(long ultimoEvento, Car... cars) {
+        return new OccupancySnapshot(1L, ultimoEvento, cars.length, store.encode(List.of(cars)), NOW.minusHours(1));
+    }
+
+    private CarEventRecord record(long id, CarEvent.Type tipo, Car car) throws Exception {
+        return new CarEventRecord(id, tipo, car.getId(), car.getLotId(), car.getPlaca(),
+                objectMapper.writeValueAsString(car), NOW.minusMinutes(5));
+    }
+
+    private static Car car(Long id, String placa, LocalDateTime dataSaida) {
+        Car car = new Car();
+        car.setId(id);
+        car.setLotId(1L);
+        car.setPlaca(placa);
+        car.setModelo("Civic");
+        car.setCor("Preto");
+        car.setNomeProprietario("Ana");
+        car.setDataEntrada(NOW.minusHours(2));
+        car.setDataSaida(dataSaida);
+        return car;
+    }
+}
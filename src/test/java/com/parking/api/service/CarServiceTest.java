@@ -1,7 +1,12 @@
 package com.parking.api.service;
 
+import com.parking.api.dto.QuoteResponse;
+import com.parking.api.event.CarEvent;
 import com.parking.api.exception.DuplicatePlacaException;
+import com.parking.api.exception.LotFullException;
 import com.parking.api.exception.ResourceNotFoundException;
+import com.parking.api.exception.UnauthorizedPlateException;
+import com.parking.api.exception.VersionConflictException;
 import com.parking.api.model.Car;
 import com.parking.api.repository.CarRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,8 +14,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -19,6 +35,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -29,14 +46,57 @@ class CarServiceTest {
     @Mock
     private CarRepository carRepository;
 
+    @Mock
+    private OwnerNameIndex ownerNameIndex;
+
+    @Mock
+    private CapacityService capacityService;
+
+    @Mock
+    private TariffService tariffService;
+
+    @Mock
+    private ReservationService reservationService;
+
+    @Mock
+    private MonthlyPassService monthlyPassService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ActiveCarSnapshot activeCarSnapshot;
+
+    @Mock
+    private GateJournal gateJournal;
+
+    @Mock
+    private CarEventStore carEventStore;
+
+    @Spy
+    private DatabaseGuard databaseGuard = new DatabaseGuard(20, 10, 0.5, Duration.ofSeconds(2), 0.8,
+            Duration.ofSeconds(10), 3);
+
     @InjectMocks
     private CarService carService;
 
+    private static final Long LOT_ID = 1L;
+
     private Car testCar;
 
     @BeforeEach
     void setUp() {
+        lenient().when(capacityService.currentLot()).thenReturn(LOT_ID);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(tariffService.quote(any(Car.class), any(LocalDateTime.class))).thenAnswer(invocation ->
+                new QuoteResponse(1L, "ABC-1234", 7L, "Padrão", null, invocation.getArgument(1), 90, new BigDecimal("18.00")));
+
         testCar = new Car();
+        testCar.setLotId(LOT_ID);
         testCar.setId(1L);
         testCar.setModelo("Honda Civic");
         testCar.setCor("Preto");
@@ -56,7 +116,7 @@ class CarServiceTest {
         car2.setNomeProprietario("Maria Santos");
 
         List<Car> cars = Arrays.asList(testCar, car2);
-        when(carRepository.findAll()).thenReturn(cars);
+        when(carRepository.findByLotId(LOT_ID)).thenReturn(cars);
 
         // Act
         List<Car> result = carService.getAllCars();
@@ -64,26 +124,26 @@ class CarServiceTest {
         // Assert
         assertThat(result).hasSize(2);
         assertThat(result).containsExactly(testCar, car2);
-        verify(carRepository, times(1)).findAll();
+        verify(carRepository, times(1)).findByLotId(LOT_ID);
     }
 
     @Test
     void getAllCars_ShouldReturnEmptyList_WhenNoCarsExist() {
         // Arrange
-        when(carRepository.findAll()).thenReturn(Arrays.asList());
+        when(carRepository.findByLotId(LOT_ID)).thenReturn(Arrays.asList());
 
         // Act
         List<Car> result = carService.getAllCars();
 
         // Assert
         assertThat(result).isEmpty();
-        verify(carRepository, times(1)).findAll();
+        verify(carRepository, times(1)).findByLotId(LOT_ID);
     }
 
     @Test
     void getCarById_ShouldReturnCar_WhenCarExists() {
         // Arrange
-        when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
+        when(carRepository.findByIdAndLotId(1L, LOT_ID)).thenReturn(Optional.of(testCar));
 
         // Act
         Car result = carService.getCarById(1L);
@@ -92,25 +152,25 @@ class CarServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getPlaca()).isEqualTo("ABC-1234");
-        verify(carRepository, times(1)).findById(1L);
+        verify(carRepository, times(1)).findByIdAndLotId(1L, LOT_ID);
     }
 
     @Test
     void getCarById_ShouldThrowException_WhenCarNotFound() {
         // Arrange
-        when(carRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(carRepository.findByIdAndLotId(anyLong(), anyLong())).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> carService.getCarById(999L))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Carro não encontrado com ID: 999");
-        verify(carRepository, times(1)).findById(999L);
+        verify(carRepository, times(1)).findByIdAndLotId(999L, LOT_ID);
     }
 
     @Test
     void getCarByPlaca_ShouldReturnCar_WhenCarExists() {
         // Arrange
-        when(carRepository.findByPlaca("ABC-1234")).thenReturn(Optional.of(testCar));
+        when(carRepository.findFirstByLotIdAndPlacaOrderByDataEntradaDesc(LOT_ID, "ABC-1234")).thenReturn(Optional.of(testCar));
 
         // Act
         Car result = carService.getCarByPlaca("ABC-1234");
@@ -118,25 +178,25 @@ class CarServiceTest {
         // Assert
         assertThat(result).isNotNull();
         assertThat(result.getPlaca()).isEqualTo("ABC-1234");
-        verify(carRepository, times(1)).findByPlaca("ABC-1234");
+        verify(carRepository, times(1)).findFirstByLotIdAndPlacaOrderByDataEntradaDesc(LOT_ID, "ABC-1234");
     }
 
     @Test
     void getCarByPlaca_ShouldThrowException_WhenCarNotFound() {
         // Arrange
-        when(carRepository.findByPlaca(anyString())).thenReturn(Optional.empty());
+        when(carRepository.findFirstByLotIdAndPlacaOrderByDataEntradaDesc(anyLong(), anyString())).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> carService.getCarByPlaca("XYZ-9999"))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Carro não encontrado com placa: XYZ-9999");
-        verify(carRepository, times(1)).findByPlaca("XYZ-9999");
+        verify(carRepository, times(1)).findFirstByLotIdAndPlacaOrderByDataEntradaDesc(LOT_ID, "XYZ-9999");
     }
 
     @Test
     void createCar_ShouldSaveCar_WhenPlacaDoesNotExist() {
         // Arrange
-        when(carRepository.existsByPlaca("ABC-1234")).thenReturn(false);
+        when(carRepository.existsByLotIdAndPlacaAndDataSaidaIsNull(LOT_ID, "ABC-1234")).thenReturn(false);
         when(carRepository.save(any(Car.class))).thenReturn(testCar);
 
         // Act
@@ -145,20 +205,168 @@ class CarServiceTest {
         // Assert
         assertThat(result).isNotNull();
         assertThat(result.getPlaca()).isEqualTo("ABC-1234");
-        verify(carRepository, times(1)).existsByPlaca("ABC-1234");
+        verify(carRepository, times(1)).existsByLotIdAndPlacaAndDataSaidaIsNull(LOT_ID, "ABC-1234");
         verify(carRepository, times(1)).save(testCar);
     }
 
+    @Test
+    void createCar_ShouldAllocateSpot() {
+        // Arrange
+        when(carRepository.existsByLotIdAndPlacaAndDataSaidaIsNull(LOT_ID, "ABC-1234")).thenReturn(false);
+        when(capacityService.allocate(LOT_ID, 0)).thenReturn(7);
+        when(carRepository.save(any(Car.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Car result = carService.createCar(testCar);
+
+        // Assert
+        assertThat(result.getVaga()).isEqualTo(7);
+        verify(capacityService, times(1)).allocate(LOT_ID, 0);
+    }
+
+    @Test
+    void createCar_ShouldKeepSpotsHeldForOtherReservations() {
+        // Arrange
+        when(carRepository.existsByLotIdAndPlacaAndDataSaidaIsNull(LOT_ID, "ABC-1234")).thenReturn(false);
+        when(reservationService.heldSpots(LOT_ID, "ABC-1234")).thenReturn(3);
+        when(capacityService.allocate(LOT_ID, 3)).thenThrow(new LotFullException("Estacionamento lotado"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> carService.createCar(testCar))
+                .isInstanceOf(LotFullException.class);
+        verify(carRepository, never()).save(any(Car.class));
+    }
+
+    @Test
+    void createCar_ShouldLinkMatchingReservation() {
+        // Arrange
+        when(carRepository.existsByLotIdAndPlacaAndDataSaidaIsNull(LOT_ID, "ABC-1234")).thenReturn(false);
+        when(carRepository.save(any(Car.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(reservationService.claim(any(Car.class))).thenReturn(Optional.of(42L));
+
+        // Act
+        Car result = carService.createCar(testCar);
+
+        // Assert
+        assertThat(result.getReservaId()).isEqualTo(42L);
+        verify(reservationService, times(1)).claim(testCar);
+    }
+
+    @Test
+    void createCar_ShouldRejectPlateWithoutPass_WhenLotIsSubscribersOnly() {
+        // Arrange
+        when(capacityService.isSubscribersOnly(LOT_ID)).thenReturn(true);
+        when(monthlyPassService.hasValidPass(LOT_ID, "ABC-1234")).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> carService.createCar(testCar))
+                .isInstanceOf(UnauthorizedPlateException.class);
+        verify(capacityService, never()).allocate(anyLong(), anyInt());
+        verify(carRepository, never()).save(any(Car.class));
+    }
+
+    @Test
+    void createCar_ShouldThrowException_WhenLotIsFull() {
+        // Arrange
+        when(carRepository.existsByLotIdAndPlacaAndDataSaidaIsNull(LOT_ID, "ABC-1234")).thenReturn(false);
+        when(capacityService.allocate(LOT_ID, 0)).thenThrow(new LotFullException("Estacionamento lotado"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> carService.createCar(testCar))
+                .isInstanceOf(LotFullException.class);
+        verify(carRepository, never()).save(any(Car.class));
+    }
+
+    @Test
+    void createCar_ShouldPublishEntryEvent() {
+        // Arrange
+        when(carRepository.existsByLotIdAndPlacaAndDataSaidaIsNull(LOT_ID, "ABC-1234")).thenReturn(false);
+        when(carRepository.save(any(Car.class))).thenReturn(testCar);
+
+        // Act
+        carService.createCar(testCar);
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) ->
+                event instanceof CarEvent carEvent
+                        && carEvent.type() == CarEvent.Type.ENTRY
+                        && carEvent.after().getPlaca().equals("ABC-1234")));
+    }
+
+    @Test
+    void createCar_ShouldJournalEntry_WhenDatabaseIsUnavailable() {
+        // Arrange
+        when(carRepository.existsByLotIdAndPlacaAndDataSaidaIsNull(LOT_ID, "ABC-1234"))
+                .thenThrow(new DataAccessResourceFailureException("conexão recusada"));
+        when(gateJournal.isEnabled()).thenReturn(true);
+        when(gateJournal.accept(any(GateEvent.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Car result = carService.createCar(testCar);
+
+        // Assert
+        assertThat(result.getId()).isNull();
+        assertThat(result.getPlaca()).isEqualTo("ABC-1234");
+        verify(gateJournal, times(1)).accept(argThat(event ->
+                event.type() == GateEvent.Type.ENTRY && event.lotId().equals(LOT_ID)));
+        verify(carRepository, never()).save(any(Car.class));
+    }
+
+    @Test
+    void createCar_ShouldJournalEntry_WhileJournalHasPendingEvents() {
+        // Arrange - aplicar direto passaria na frente de eventos mais antigos
+        when(gateJournal.hasPending()).thenReturn(true);
+        when(gateJournal.accept(any(GateEvent.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        carService.createCar(testCar);
+
+        // Assert
+        verify(gateJournal, times(1)).accept(any(GateEvent.class));
+        verifyNoInteractions(carRepository);
+    }
+
+    @Test
+    void createCar_ShouldRejectJournaledEntry_WhenPlateIsAlreadyParked() {
+        // Arrange
+        when(gateJournal.hasPending()).thenReturn(true);
+        when(activeCarSnapshot.isParked(LOT_ID, "ABC-1234")).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> carService.createCar(testCar))
+                .isInstanceOf(DuplicatePlacaException.class);
+        verify(gateJournal, never()).accept(any(GateEvent.class));
+    }
+
+    @Test
+    void searchByOwner_ShouldReturnCarsInIndexOrder() {
+        // Arrange
+        Car car2 = new Car();
+        car2.setId(2L);
+        car2.setNomeProprietario("João Souza");
+        PageRequest pageable = PageRequest.of(0, 10);
+
+        when(ownerNameIndex.search(LOT_ID, "joao", pageable)).thenReturn(new PageImpl<>(List.of(2L, 1L), pageable, 2));
+        when(carRepository.findByIdInAndLotId(List.of(2L, 1L), LOT_ID)).thenReturn(Arrays.asList(testCar, car2));
+
+        // Act
+        Page<Car> result = carService.searchByOwner("joao", pageable);
+
+        // Assert
+        assertThat(result.getContent()).containsExactly(car2, testCar);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+    }
+
     @Test
     void createCar_ShouldThrowException_WhenPlacaAlreadyExists() {
         // Arrange
-        when(carRepository.existsByPlaca("ABC-1234")).thenReturn(true);
+        when(carRepository.existsByLotIdAndPlacaAndDataSaidaIsNull(LOT_ID, "ABC-1234")).thenReturn(true);
 
         // Act & Assert
         assertThatThrownBy(() -> carService.createCar(testCar))
                 .isInstanceOf(DuplicatePlacaException.class)
                 .hasMessageContaining("Já existe um carro registrado com a placa: ABC-1234");
-        verify(carRepository, times(1)).existsByPlaca("ABC-1234");
+        verify(carRepository, times(1)).existsByLotIdAndPlacaAndDataSaidaIsNull(LOT_ID, "ABC-1234");
         verify(carRepository, never()).save(any(Car.class));
     }
 
@@ -171,7 +379,7 @@ class CarServiceTest {
         updatedDetails.setPlaca("ABC-1234"); // mesma placa
         updatedDetails.setNomeProprietario("João Silva");
 
-        when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
+        when(carRepository.findByIdAndLotId(1L, LOT_ID)).thenReturn(Optional.of(testCar));
         when(carRepository.save(any(Car.class))).thenReturn(testCar);
 
         // Act
@@ -181,7 +389,7 @@ class CarServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getModelo()).isEqualTo("Honda Civic EX");
         assertThat(result.getCor()).isEqualTo("Azul");
-        verify(carRepository, times(1)).findById(1L);
+        verify(carRepository, times(1)).findByIdAndLotId(1L, LOT_ID);
         verify(carRepository, times(1)).save(testCar);
     }
 
@@ -194,8 +402,8 @@ class CarServiceTest {
         updatedDetails.setPlaca("DEF-5678"); // nova placa
         updatedDetails.setNomeProprietario("João Silva");
 
-        when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
-        when(carRepository.existsByPlaca("DEF-5678")).thenReturn(false);
+        when(carRepository.findByIdAndLotId(1L, LOT_ID)).thenReturn(Optional.of(testCar));
+        when(carRepository.existsByLotIdAndPlacaAndDataSaidaIsNull(LOT_ID, "DEF-5678")).thenReturn(false);
         when(carRepository.save(any(Car.class))).thenReturn(testCar);
 
         // Act
@@ -203,8 +411,8 @@ class CarServiceTest {
 
         // Assert
         assertThat(result).isNotNull();
-        verify(carRepository, times(1)).findById(1L);
-        verify(carRepository, times(1)).existsByPlaca("DEF-5678");
+        verify(carRepository, times(1)).findByIdAndLotId(1L, LOT_ID);
+        verify(carRepository, times(1)).existsByLotIdAndPlacaAndDataSaidaIsNull(LOT_ID, "DEF-5678");
         verify(carRepository, times(1)).save(testCar);
     }
 
@@ -217,15 +425,15 @@ class CarServiceTest {
         updatedDetails.setPlaca("XYZ-9999"); // nova placa que já existe
         updatedDetails.setNomeProprietario("João Silva");
 
-        when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
-        when(carRepository.existsByPlaca("XYZ-9999")).thenReturn(true);
+        when(carRepository.findByIdAndLotId(1L, LOT_ID)).thenReturn(Optional.of(testCar));
+        when(carRepository.existsByLotIdAndPlacaAndDataSaidaIsNull(LOT_ID, "XYZ-9999")).thenReturn(true);
 
         // Act & Assert
         assertThatThrownBy(() -> carService.updateCar(1L, updatedDetails))
                 .isInstanceOf(DuplicatePlacaException.class)
                 .hasMessageContaining("Já existe um carro registrado com a placa: XYZ-9999");
-        verify(carRepository, times(1)).findById(1L);
-        verify(carRepository, times(1)).existsByPlaca("XYZ-9999");
+        verify(carRepository, times(1)).findByIdAndLotId(1L, LOT_ID);
+        verify(carRepository, times(1)).existsByLotIdAndPlacaAndDataSaidaIsNull(LOT_ID, "XYZ-9999");
         verify(carRepository, never()).save(any(Car.class));
     }
 
@@ -233,20 +441,70 @@ class CarServiceTest {
     void updateCar_ShouldThrowException_WhenCarNotFound() {
         // Arrange
         Car updatedDetails = new Car();
-        when(carRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(carRepository.findByIdAndLotId(anyLong(), anyLong())).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> carService.updateCar(999L, updatedDetails))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Carro não encontrado com ID: 999");
-        verify(carRepository, times(1)).findById(999L);
+        verify(carRepository, times(1)).findByIdAndLotId(999L, LOT_ID);
+        verify(carRepository, never()).save(any(Car.class));
+    }
+
+    @Test
+    void updateCar_ShouldRejectEditOverStaleVersion() {
+        // Arrange
+        testCar.setVersao(3L);
+        Car updatedDetails = new Car();
+        updatedDetails.setModelo("Honda Civic EX");
+        updatedDetails.setCor("Azul");
+        updatedDetails.setPlaca("ABC-1234");
+        updatedDetails.setNomeProprietario("João Silva");
+        updatedDetails.setVersao(2L);
+
+        when(carRepository.findByIdAndLotId(1L, LOT_ID)).thenReturn(Optional.of(testCar));
+
+        // Act & Assert
+        assertThatThrownBy(() -> carService.updateCar(1L, updatedDetails))
+                .isInstanceOf(VersionConflictException.class)
+                .satisfies(ex -> assertThat(((Car) ((VersionConflictException) ex).getAtual()).getVersao()).isEqualTo(3L));
         verify(carRepository, never()).save(any(Car.class));
     }
 
+    @Test
+    void registerExit_ShouldRetryOnConcurrentModification() {
+        // Arrange - cada tentativa relê o registro do banco
+        when(carRepository.findByIdAndLotId(1L, LOT_ID)).thenAnswer(invocation -> Optional.of(Car.copyOf(testCar)));
+        when(carRepository.save(any(Car.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Car.class, 1L))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Car result = carService.registerExit(1L);
+
+        // Assert
+        assertThat(result.getDataSaida()).isNotNull();
+        verify(carRepository, times(2)).findByIdAndLotId(1L, LOT_ID);
+        verify(carRepository, times(2)).save(any(Car.class));
+    }
+
+    @Test
+    void registerExit_ShouldReturnConflict_WhenRetriesExhausted() {
+        // Arrange
+        when(carRepository.findByIdAndLotId(1L, LOT_ID)).thenAnswer(invocation -> Optional.of(Car.copyOf(testCar)));
+        when(carRepository.save(any(Car.class))).thenThrow(new ObjectOptimisticLockingFailureException(Car.class, 1L));
+
+        // Act & Assert
+        assertThatThrownBy(() -> carService.registerExit(1L))
+                .isInstanceOf(VersionConflictException.class)
+                .hasMessageContaining("Carro alterado por outra requisição: 1");
+        verify(carRepository, times(3)).save(any(Car.class));
+    }
+
     @Test
     void registerExit_ShouldSetExitDate() {
         // Arrange
-        when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
+        when(carRepository.findByIdAndLotId(1L, LOT_ID)).thenReturn(Optional.of(testCar));
         when(carRepository.save(any(Car.class))).thenReturn(testCar);
 
         // Act
@@ -255,47 +513,111 @@ class CarServiceTest {
         // Assert
         assertThat(result).isNotNull();
         assertThat(result.getDataSaida()).isNotNull();
-        verify(carRepository, times(1)).findById(1L);
+        verify(carRepository, times(1)).findByIdAndLotId(1L, LOT_ID);
         verify(carRepository, times(1)).save(testCar);
     }
 
+    @Test
+    void registerExit_ShouldReleaseSpotOnlyOnFirstExit() {
+        // Arrange
+        testCar.setVaga(3);
+        when(carRepository.findByIdAndLotId(1L, LOT_ID)).thenReturn(Optional.of(testCar));
+        when(carRepository.save(any(Car.class))).thenReturn(testCar);
+
+        // Act
+        carService.registerExit(1L);
+        carService.registerExit(1L);
+
+        // Assert
+        verify(capacityService, times(1)).release(LOT_ID, 3);
+    }
+
+    @Test
+    void registerExit_ShouldChargeFeeOnlyOnFirstExit() {
+        // Arrange
+        when(carRepository.findByIdAndLotId(1L, LOT_ID)).thenReturn(Optional.of(testCar));
+        when(carRepository.save(any(Car.class))).thenReturn(testCar);
+
+        // Act
+        Car result = carService.registerExit(1L);
+        carService.registerExit(1L);
+
+        // Assert
+        assertThat(result.getValorPago()).isEqualByComparingTo("18.00");
+        assertThat(result.getTarifaId()).isEqualTo(7L);
+        verify(tariffService, times(1)).quote(any(Car.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void registerExit_ShouldKeepFirstExitTime_WhenExitIsRepeated() {
+        // Arrange
+        LocalDateTime firstExit = LocalDateTime.now().minusMinutes(10);
+        testCar.setDataSaida(firstExit);
+        testCar.setValorPago(new BigDecimal("18.00"));
+        when(carRepository.findByIdAndLotId(1L, LOT_ID)).thenReturn(Optional.of(testCar));
+
+        // Act
+        Car result = carService.registerExit(1L);
+
+        // Assert
+        assertThat(result.getDataSaida()).isEqualTo(firstExit);
+        assertThat(result.getValorPago()).isEqualByComparingTo("18.00");
+        verify(carRepository, never()).save(any(Car.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void quote_ShouldReturnChargedValue_WhenCarHasExited() {
+        // Arrange
+        testCar.setDataSaida(LocalDateTime.now());
+        testCar.setValorPago(new BigDecimal("25.50"));
+        when(carRepository.findByIdAndLotId(1L, LOT_ID)).thenReturn(Optional.of(testCar));
+
+        // Act
+        QuoteResponse quote = carService.quote(1L);
+
+        // Assert
+        assertThat(quote.getValor()).isEqualByComparingTo("25.50");
+        assertThat(quote.getCalculadoAte()).isEqualTo(testCar.getDataSaida());
+    }
+
     @Test
     void registerExit_ShouldThrowException_WhenCarNotFound() {
         // Arrange
-        when(carRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(carRepository.findByIdAndLotId(anyLong(), anyLong())).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> carService.registerExit(999L))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Carro não encontrado com ID: 999");
-        verify(carRepository, times(1)).findById(999L);
+        verify(carRepository, times(1)).findByIdAndLotId(999L, LOT_ID);
         verify(carRepository, never()).save(any(Car.class));
     }
 
     @Test
     void deleteCar_ShouldDeleteCar_WhenCarExists() {
         // Arrange
-        when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
+        when(carRepository.findByIdAndLotId(1L, LOT_ID)).thenReturn(Optional.of(testCar));
         doNothing().when(carRepository).delete(testCar);
 
         // Act
         carService.deleteCar(1L);
 
         // Assert
-        verify(carRepository, times(1)).findById(1L);
+        verify(carRepository, times(1)).findByIdAndLotId(1L, LOT_ID);
         verify(carRepository, times(1)).delete(testCar);
     }
 
     @Test
     void deleteCar_ShouldThrowException_WhenCarNotFound() {
         // Arrange
-        when(carRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(carRepository.findByIdAndLotId(anyLong(), anyLong())).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> carService.deleteCar(999L))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Carro não encontrado com ID: 999");
-        verify(carRepository, times(1)).findById(999L);
+        verify(carRepository, times(1)).findByIdAndLotId(999L, LOT_ID);
         verify(carRepository, never()).delete(any(Car.class));
     }
 }
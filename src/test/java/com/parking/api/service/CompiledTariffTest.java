@@ -0,0 +1,132 @@
+package com.parking.api.service;
+
+import com.parking.api.model.TariffPlan;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledTariffTest {
+
+    private static final LocalDateTime MORNING = LocalDateTime.of(2024, 5, 10, 9, 0);
+
+    @Test
+    void feeCents_ShouldBeFreeWithinGracePeriod() {
+        // Arrange
+        CompiledTariff tariff = CompiledTariff.compile(plan());
+
+        // Act & Assert
+        assertThat(tariff.feeCents(MORNING, MORNING.plusMinutes(15))).isZero();
+        assertThat(tariff.feeCents(MORNING, MORNING.plusMinutes(15).plusSeconds(1))).isEqualTo(1200);
+        assertThat(tariff.feeCents(MORNING, MORNING.minusMinutes(5))).isZero();
+    }
+
+    @Test
+    void feeCents_ShouldChargeFirstHourAndEachStartedFraction() {
+        // Arrange
+        CompiledTariff tariff = CompiledTariff.compile(plan());
+
+        // Act & Assert
+        assertThat(tariff.feeCents(MORNING, MORNING.plusMinutes(60))).isEqualTo(1200);
+        assertThat(tariff.feeCents(MORNING, MORNING.plusMinutes(61))).isEqualTo(1500);
+        assertThat(tariff.feeCents(MORNING, MORNING.plusMinutes(90))).isEqualTo(1800);
+    }
+
+    @Test
+    void feeCents_ShouldUseNightRateForFractionsStartingAtNight() {
+        // Arrange
+        CompiledTariff tariff = CompiledTariff.compile(plan());
+        LocalDateTime entrada = LocalDateTime.of(2024, 5, 10, 19, 0);
+
+        // Act - primeira hora até 20h, depois duas frações noturnas
+        long fee = tariff.feeCents(entrada, entrada.plusMinutes(90));
+
+        // Assert
+        assertThat(fee).isEqualTo(1200 + 200 + 200);
+    }
+
+    @Test
+    void feeCents_ShouldCapEachDayAndChargeFullDays() {
+        // Arrange
+        CompiledTariff tariff = CompiledTariff.compile(plan());
+
+        // Act & Assert
+        assertThat(tariff.feeCents(MORNING, MORNING.plusHours(23))).isEqualTo(6000);
+        assertThat(tariff.feeCents(MORNING, MORNING.plusHours(24))).isEqualTo(6000);
+        assertThat(tariff.feeCents(MORNING, MORNING.plusHours(25))).isEqualTo(7200);
+        assertThat(tariff.feeCents(MORNING, MORNING.plusDays(3).plusHours(20))).isEqualTo(4 * 6000);
+    }
+
+    @Test
+    void feeCents_ShouldMatchFractionByFractionCalculation() {
+        // Arrange
+        TariffPlan plan = plan();
+        plan.setTetoDiario(null);
+        plan.setFracaoMinutos(20);
+        CompiledTariff tariff = CompiledTariff.compile(plan);
+        Random random = new Random(42);
+
+        // Act & Assert
+        for (int i = 0; i < 5_000; i++) {
+            LocalDateTime entrada = MORNING.plusMinutes(random.nextInt(1440)).plusSeconds(random.nextInt(60));
+            LocalDateTime saida = entrada.plusMinutes(random.nextInt(4 * 1440)).plusSeconds(random.nextInt(60));
+            assertThat(tariff.feeCents(entrada, saida)).as("%s -> %s", entrada, saida)
+                    .isEqualTo(reference(plan, entrada, saida));
+        }
+    }
+
+    @Test
+    void compile_ShouldRejectIncompleteNightPeriod() {
+        // Arrange
+        TariffPlan plan = plan();
+        plan.setValorFracaoNoturna(null);
+
+        // Act & Assert
+        assertThatThrownBy(() -> CompiledTariff.compile(plan))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Período noturno");
+    }
+
+    /**
+     * Cálculo direto, fração por fração, usado como referência para a tabela compilada (sem teto)
+     */
+    private static long reference(TariffPlan plan, LocalDateTime entrada, LocalDateTime saida) {
+        long seconds = java.time.Duration.between(entrada, saida).toSeconds();
+        long minutes = (seconds + 59) / 60;
+        if (seconds <= 0 || minutes <= plan.getToleranciaMinutos()) {
+            return 0;
+        }
+        LocalDateTime inicio = entrada.withSecond(0);
+        long fee = 0;
+        for (long day = 0; day * 1440 < minutes; day++) {
+            long blockMinutes = Math.min(1440, minutes - day * 1440);
+            fee += 1200;
+            for (long offset = 60; offset < blockMinutes; offset += plan.getFracaoMinutos()) {
+                LocalTime start = inicio.plusMinutes(day * 1440 + offset).toLocalTime();
+                boolean night = !start.isBefore(LocalTime.of(20, 0)) || start.isBefore(LocalTime.of(6, 0));
+                fee += night ? 200 : 300;
+            }
+        }
+        return fee;
+    }
+
+    private static TariffPlan plan() {
+        TariffPlan plan = new TariffPlan();
+        plan.setId(1L);
+        plan.setNome("Padrão");
+        plan.setToleranciaMinutos(15);
+        plan.setValorPrimeiraHora(new BigDecimal("12.00"));
+        plan.setFracaoMinutos(15);
+        plan.setValorFracao(new BigDecimal("3.00"));
+        plan.setTetoDiario(new BigDecimal("60.00"));
+        plan.setInicioNoturno(LocalTime.of(20, 0));
+        plan.setFimNoturno(LocalTime.of(6, 0));
+        plan.setValorFracaoNoturna(new BigDecimal("2.00"));
+        return plan;
+    }
+}
@@ -0,0 +1,86 @@
+package com.parking.api.service;
+
+import com.parking.api.exception.DatabaseUnavailableException;
+import com.parking.api.exception.ResourceNotFoundException;
+import com.parking.api.util.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DatabaseGuardTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final DatabaseGuard guard = new DatabaseGuard(
+            new CircuitBreaker(10, 2, 0.5, Long.MAX_VALUE, 1.0, 5_000_000_000L, 1, now::get));
+
+    @Test
+    void read_ShouldServeStaleCopyWhenDatabaseFails() {
+        // Act
+        String result = guard.read(() -> {
+            throw new CannotCreateTransactionException("Connection is not available");
+        }, () -> "cópia");
+
+        // Assert
+        assertThat(result).isEqualTo("cópia");
+    }
+
+    @Test
+    void write_ShouldFailFastWithoutTouchingDatabaseWhenOpen() {
+        // Arrange
+        trip();
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act & Assert
+        assertThatThrownBy(() -> guard.write(calls::incrementAndGet))
+                .isInstanceOf(DatabaseUnavailableException.class)
+                .extracting("retryAfterSeconds").isEqualTo(5L);
+        assertThat(calls).hasValue(0);
+        assertThat(guard.read(() -> "banco", () -> "cópia")).isEqualTo("cópia");
+    }
+
+    @Test
+    void read_ShouldNotCountBusinessErrorsAsDatabaseFailures() {
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> guard.read(() -> {
+                throw new ResourceNotFoundException("Carro não encontrado");
+            })).isInstanceOf(ResourceNotFoundException.class);
+            assertThatThrownBy(() -> guard.write(() -> {
+                throw new ObjectOptimisticLockingFailureException("Car", 1L);
+            })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        }
+
+        // Assert
+        assertThat(guard.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void read_ShouldRecoverAfterSuccessfulProbe() {
+        // Arrange
+        trip();
+        now.addAndGet(5_000_000_000L);
+
+        // Act
+        String result = guard.read(() -> "banco", () -> "cópia");
+
+        // Assert
+        assertThat(result).isEqualTo("banco");
+        assertThat(guard.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private void trip() {
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> guard.write(() -> {
+                throw new DataAccessResourceFailureException("Connection refused");
+            })).isInstanceOf(DatabaseUnavailableException.class);
+        }
+        assertThat(guard.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
@@ -0,0 +1,165 @@
+package com.parking.api.service;
+
+import com.parking.api.exception.DuplicatePlacaException;
+import com.parking.api.model.AppliedJournalEvent;
+import com.parking.api.model.JournalConflict;
+import com.parking.api.repository.AppliedJournalEventRepository;
+import com.parking.api.repository.JournalConflictRepository;
+import com.parking.api.util.MappedJournal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JournalReplayerTest {
+
+    private static final Long LOT_ID = 1L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 10, 15, 30);
+
+    @Mock
+    private GateJournal gateJournal;
+
+    @Mock
+    private CarService carService;
+
+    @Mock
+    private AppliedJournalEventRepository appliedRepository;
+
+    @Mock
+    private JournalConflictRepository conflictRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private JournalReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneId.of("UTC"));
+        DatabaseGuard guard = new DatabaseGuard(20, 10, 0.5, Duration.ofSeconds(2), 0.8, Duration.ofSeconds(10), 3);
+        replayer = new JournalReplayer(gateJournal, carService, guard, appliedRepository, conflictRepository,
+                transactionTemplate, clock);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(new SimpleTransactionStatus()));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(new SimpleTransactionStatus());
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void replay_ShouldApplyEventsInOrderAndRestartJournal() {
+        // Arrange
+        GateJournal.Pending entry = pending(entryEvent("ABC-1234"), 1);
+        GateJournal.Pending exit = pending(exitEvent(7L), 2);
+        when(gateJournal.pending(anyInt())).thenReturn(List.of(entry, exit)).thenReturn(List.of());
+        when(gateJournal.reset()).thenReturn(true);
+
+        // Act
+        int processed = replayer.replay();
+
+        // Assert
+        assertThat(processed).isEqualTo(2);
+        InOrder order = inOrder(carService, gateJournal);
+        order.verify(carService).applyJournaledEntry(entry.event());
+        order.verify(gateJournal).commit(entry);
+        order.verify(carService).applyJournaledExit(exit.event());
+        order.verify(gateJournal).commit(exit);
+        verify(appliedRepository, times(2)).save(any(AppliedJournalEvent.class));
+        verify(appliedRepository).deleteAllInBatch();
+        verifyNoInteractions(conflictRepository);
+    }
+
+    @Test
+    void replay_ShouldSkipEventsAlreadyApplied() {
+        // Arrange - a queda aconteceu depois da transação e antes de a posição do diário avançar
+        GateJournal.Pending entry = pending(entryEvent("ABC-1234"), 1);
+        when(gateJournal.pending(anyInt())).thenReturn(List.of(entry)).thenReturn(List.of());
+        when(appliedRepository.existsById(entry.event().id())).thenReturn(true);
+
+        // Act
+        replayer.replay();
+
+        // Assert
+        verify(carService, never()).applyJournaledEntry(any());
+        verify(gateJournal).commit(entry);
+    }
+
+    @Test
+    void replay_ShouldSendRejectedEventToOperatorAndContinue() {
+        // Arrange
+        GateJournal.Pending duplicate = pending(entryEvent("ABC-1234"), 1);
+        GateJournal.Pending next = pending(entryEvent("XYZ-9876"), 2);
+        when(gateJournal.pending(anyInt())).thenReturn(List.of(duplicate, next)).thenReturn(List.of());
+        when(gateJournal.toJson(duplicate.event())).thenReturn("{}");
+        doThrow(new DuplicatePlacaException("ABC-1234 já estacionado"))
+                .when(carService).applyJournaledEntry(duplicate.event());
+
+        // Act
+        int processed = replayer.replay();
+
+        // Assert
+        assertThat(processed).isEqualTo(2);
+        ArgumentCaptor<JournalConflict> conflict = ArgumentCaptor.forClass(JournalConflict.class);
+        verify(conflictRepository).save(conflict.capture());
+        assertThat(conflict.getValue().getEventId()).isEqualTo(duplicate.event().id());
+        assertThat(conflict.getValue().getPlaca()).isEqualTo("ABC-1234");
+        assertThat(conflict.getValue().getMotivo()).contains("já estacionado");
+        assertThat(conflict.getValue().isResolvido()).isFalse();
+        verify(carService).applyJournaledEntry(next.event());
+        verify(gateJournal).commit(next);
+    }
+
+    @Test
+    void replay_ShouldStopWhileDatabaseIsDown() {
+        // Arrange
+        GateJournal.Pending entry = pending(entryEvent("ABC-1234"), 1);
+        when(gateJournal.pending(anyInt())).thenReturn(List.of(entry));
+        doThrow(new DataAccessResourceFailureException("conexão recusada"))
+                .when(carService).applyJournaledEntry(entry.event());
+
+        // Act
+        int processed = replayer.replay();
+
+        // Assert
+        assertThat(processed).isZero();
+        verify(gateJournal, never()).commit(any());
+        verify(gateJournal, never()).reset();
+        verifyNoInteractions(conflictRepository);
+    }
+
+    private static GateJournal.Pending pending(GateEvent event, int next) {
+        return new GateJournal.Pending(event, new MappedJournal.Entry(next, new byte[0]));
+    }
+
+    private static GateEvent entryEvent(String placa) {
+        return new GateEvent(placa + "-id", GateEvent.Type.ENTRY, LOT_ID, null, placa, "Civic", "Preto", "Ana",
+                null, NOW.minusMinutes(5));
+    }
+
+    private static GateEvent exitEvent(Long carId) {
+        return new GateEvent("saida-" + carId, GateEvent.Type.EXIT, LOT_ID, carId, null, null, null, null,
+                "operador", NOW.minusMinutes(1));
+    }
+}
@@ -0,0 +1,215 @@
+package com.parking.api.service;
+
+import com.parking.api.dto.GateDecisionResponse;
+import com.parking.api.exception.AccessDeniedException;
+import com.parking.api.model.MonthlyPass;
+import com.parking.api.repository.MonthlyPassRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MonthlyPassServiceTest {
+
+    private static final Long LOT_ID = 1L;
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 10);
+
+    @Mock
+    private MonthlyPassRepository passRepository;
+
+    @Mock
+    private CapacityService capacityService;
+
+    private MonthlyPassService passService;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(TODAY.atTime(9, 0).toInstant(ZoneOffset.UTC), ZoneId.of("UTC"));
+        passService = new MonthlyPassService(passRepository, capacityService, clock);
+        lenient().when(capacityService.currentLot()).thenReturn(LOT_ID);
+        lenient().when(capacityService.isSubscribersOnly(LOT_ID)).thenReturn(true);
+        lenient().when(capacityService.isGlobalCaller()).thenReturn(true);
+        lenient().when(passRepository.save(any(MonthlyPass.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void rebuild_ShouldAuthorizeOnlyPlatesWithValidPass() {
+        // Arrange
+        when(passRepository.streamValidOn(TODAY)).thenReturn(Stream.of(passKey("ABC-1234", LOT_ID)));
+
+        // Act
+        passService.rebuild();
+
+        // Assert
+        GateDecisionResponse member = passService.authorize("ABC-1234");
+        GateDecisionResponse stranger = passService.authorize("XYZ-9876");
+        assertThat(member.isAutorizado()).isTrue();
+        assertThat(member.isMensalista()).isTrue();
+        assertThat(stranger.isAutorizado()).isFalse();
+        assertThat(passService.hasValidPass(2L, "ABC-1234")).isFalse();
+    }
+
+    @Test
+    void createAndDeactivatePass_ShouldUpdateIndexIncrementally() {
+        // Arrange
+        MonthlyPass pass = pass("ABC-1234", TODAY.minusDays(3), TODAY.plusDays(27));
+        when(passRepository.findByPlaca("ABC-1234")).thenReturn(List.of(pass));
+
+        // Act
+        passService.createPass(pass, false);
+        boolean afterCreate = passService.hasValidPass(LOT_ID, "ABC-1234");
+        pass.setId(5L);
+        when(passRepository.findVisibleInLot(5L, LOT_ID)).thenReturn(Optional.of(pass));
+        passService.deactivatePass(5L);
+
+        // Assert
+        assertThat(afterCreate).isTrue();
+        assertThat(passService.hasValidPass(LOT_ID, "ABC-1234")).isFalse();
+    }
+
+    @Test
+    void refresh_ShouldPublishCommittedState_WhenCallbacksRunOutOfOrder() {
+        // Arrange
+        MonthlyPass pass = pass("ABC-1234", TODAY.minusDays(3), TODAY.plusDays(27));
+        pass.setId(5L);
+        when(passRepository.findVisibleInLot(5L, LOT_ID)).thenReturn(Optional.of(pass));
+        when(passRepository.findByPlaca("ABC-1234")).thenReturn(List.of(pass));
+        List<TransactionSynchronization> create = inTransaction(() -> passService.createPass(pass, false));
+        List<TransactionSynchronization> deactivate = inTransaction(() -> passService.deactivatePass(5L));
+
+        // Act - o commit da desativação publica antes do commit do cadastro
+        deactivate.forEach(TransactionSynchronization::afterCommit);
+        create.forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        assertThat(passService.hasValidPass(LOT_ID, "ABC-1234")).isFalse();
+    }
+
+    @Test
+    void rebuild_ShouldKeepPassCreatedWhileIndexIsRebuilt() {
+        // Arrange - a mensalidade é gravada depois da consulta da reconstrução
+        MonthlyPass pass = pass("ABC-1234", TODAY.minusDays(3), TODAY.plusDays(27));
+        when(passRepository.findByPlaca("ABC-1234")).thenReturn(List.of(pass));
+        when(passRepository.streamValidOn(TODAY)).thenAnswer(invocation -> {
+            passService.createPass(pass, false);
+            return Stream.empty();
+        });
+
+        // Act
+        passService.rebuild();
+
+        // Assert
+        assertThat(passService.hasValidPass(LOT_ID, "ABC-1234")).isTrue();
+    }
+
+    @Test
+    void updatePass_ShouldRevokeOldPlate_WhenPlateChanges() {
+        // Arrange
+        MonthlyPass pass = pass("ABC-1234", TODAY.minusDays(3), TODAY.plusDays(27));
+        when(passRepository.findByPlaca("ABC-1234")).thenReturn(List.of(pass));
+        passService.createPass(pass, false);
+        pass.setId(5L);
+        when(passRepository.findVisibleInLot(5L, LOT_ID)).thenReturn(Optional.of(pass));
+        when(passRepository.findByPlaca("ABC-1234")).thenReturn(List.of());
+        when(passRepository.findByPlaca("XYZ-9876")).thenReturn(List.of(pass));
+
+        // Act
+        passService.updatePass(5L, pass("XYZ-9876", TODAY.minusDays(3), TODAY.plusDays(27)));
+
+        // Assert
+        assertThat(passService.hasValidPass(LOT_ID, "ABC-1234")).isFalse();
+        assertThat(passService.hasValidPass(LOT_ID, "XYZ-9876")).isTrue();
+    }
+
+    @Test
+    void createPass_ShouldRejectPassForAllLots_WhenCallerIsLotScoped() {
+        // Arrange
+        when(capacityService.isGlobalCaller()).thenReturn(false);
+        MonthlyPass pass = pass("ABC-1234", TODAY, null);
+
+        // Act & Assert
+        assertThatThrownBy(() -> passService.createPass(pass, true))
+                .isInstanceOf(AccessDeniedException.class);
+        verify(passRepository, never()).save(any(MonthlyPass.class));
+    }
+
+    @Test
+    void createPass_ShouldNotAuthorizePassStartingInTheFuture() {
+        // Arrange
+        MonthlyPass pass = pass("ABC-1234", TODAY.plusDays(1), null);
+        when(passRepository.findByPlaca("ABC-1234")).thenReturn(List.of(pass));
+
+        // Act
+        passService.createPass(pass, true);
+
+        // Assert
+        assertThat(pass.getLotId()).isNull();
+        assertThat(passService.hasValidPass(LOT_ID, "ABC-1234")).isFalse();
+    }
+
+    @Test
+    void authorize_ShouldOpenGateForAnyPlate_WhenLotIsNotSubscribersOnly() {
+        // Arrange
+        when(capacityService.isSubscribersOnly(LOT_ID)).thenReturn(false);
+
+        // Act
+        GateDecisionResponse decision = passService.authorize("XYZ-9876");
+
+        // Assert
+        assertThat(decision.isAutorizado()).isTrue();
+        assertThat(decision.isMensalista()).isFalse();
+    }
+
+    private static List<TransactionSynchronization> inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static MonthlyPass pass(String placa, LocalDate validoDe, LocalDate validoAte) {
+        MonthlyPass pass = new MonthlyPass();
+        pass.setPlaca(placa);
+        pass.setTitular("Maria Souza");
+        pass.setValidoDe(validoDe);
+        pass.setValidoAte(validoAte);
+        return pass;
+    }
+
+    private static MonthlyPassRepository.PassKey passKey(String placa, Long lotId) {
+        return new MonthlyPassRepository.PassKey() {
+            @Override
+            public String getPlaca() {
+                return placa;
+            }
+
+            @Override
+            public Long getLotId() {
+                return lotId;
+            }
+        };
+    }
+}
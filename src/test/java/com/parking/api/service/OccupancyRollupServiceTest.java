@@ -0,0 +1,229 @@
+package com.parking.api.service;
+
+import com.parking.api.dto.OccupancyReportResponse;
+import com.parking.api.model.OccupancyRollup;
+import com.parking.api.model.OccupancyRollup.Granularidade;
+import com.parking.api.model.RollupWatermark;
+import com.parking.api.repository.CarRepository;
+import com.parking.api.repository.OccupancyRollupRepository;
+import com.parking.api.repository.RollupWatermarkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OccupancyRollupServiceTest {
+
+    private static final Long LOT_ID = 1L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 10, 15, 30);
+
+    @Mock
+    private CarRepository carRepository;
+
+    @Mock
+    private OccupancyRollupRepository rollupRepository;
+
+    @Mock
+    private RollupWatermarkRepository watermarkRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OccupancyRollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneId.of("UTC"));
+        rollupService = new OccupancyRollupService(carRepository, rollupRepository, watermarkRepository,
+                transactionTemplate, clock);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void accumulate_ShouldSplitParkedTimeAcrossHoursAndDays() {
+        // Arrange
+        Map<OccupancyRollupService.BucketKey, long[]> deltas = new HashMap<>();
+
+        // Act
+        OccupancyRollupService.accumulate(deltas,
+                session(1L, LocalDateTime.of(2024, 5, 9, 23, 30), LocalDateTime.of(2024, 5, 10, 1, 15)));
+
+        // Assert
+        assertThat(delta(deltas, Granularidade.HOUR, LocalDateTime.of(2024, 5, 9, 23, 0))).containsExactly(1, 0, 1800);
+        assertThat(delta(deltas, Granularidade.HOUR, LocalDateTime.of(2024, 5, 10, 0, 0))).containsExactly(0, 0, 3600);
+        assertThat(delta(deltas, Granularidade.HOUR, LocalDateTime.of(2024, 5, 10, 1, 0))).containsExactly(0, 1, 900);
+        assertThat(delta(deltas, Granularidade.DAY, LocalDateTime.of(2024, 5, 9, 0, 0))).containsExactly(1, 0, 1800);
+        assertThat(delta(deltas, Granularidade.DAY, LocalDateTime.of(2024, 5, 10, 0, 0))).containsExactly(0, 1, 4500);
+    }
+
+    @Test
+    void runIncremental_ShouldAddToExistingRollupsAndAdvanceWatermark() {
+        // Arrange
+        RollupWatermark watermark = new RollupWatermark("occupancy", LocalDateTime.of(2024, 5, 10, 8, 0), 5L, null);
+        when(watermarkRepository.findForUpdate("occupancy")).thenReturn(Optional.of(watermark));
+        when(carRepository.findClosedAfter(eq(watermark.getSaidaRegistradaEm()), eq(5L), eq(NOW.minusSeconds(60)), any()))
+                .thenReturn(List.of(session(7L, LocalDateTime.of(2024, 5, 10, 9, 0), LocalDateTime.of(2024, 5, 10, 9, 30))));
+        OccupancyRollup existing = new OccupancyRollup(10L, LOT_ID, Granularidade.HOUR,
+                LocalDateTime.of(2024, 5, 10, 9, 0), 2, 1, 600);
+        when(rollupRepository.findByGranularidadeAndInicioBetween(eq(Granularidade.HOUR), any(), any()))
+                .thenReturn(List.of(existing));
+        when(rollupRepository.findByGranularidadeAndInicioBetween(eq(Granularidade.DAY), any(), any()))
+                .thenReturn(List.of());
+
+        // Act
+        long processed = rollupService.runIncremental();
+
+        // Assert
+        assertThat(processed).isEqualTo(1);
+        assertThat(existing.getEntradas()).isEqualTo(3);
+        assertThat(existing.getSaidas()).isEqualTo(2);
+        assertThat(existing.getSegundosOcupados()).isEqualTo(2400);
+        assertThat(watermark.getSaidaRegistradaEm()).isEqualTo(LocalDateTime.of(2024, 5, 10, 9, 30));
+        assertThat(watermark.getCarId()).isEqualTo(7L);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OccupancyRollup>> saved = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).hasSize(2);
+        verify(watermarkRepository).save(watermark);
+    }
+
+    @Test
+    void runIncremental_ShouldAggregateLateExitIntoItsOwnHour_WhenWrittenAfterWatermark() {
+        // Arrange - saída da cancela às 9h, aplicada do diário às 12h05, depois da marca das 12h
+        RollupWatermark watermark = new RollupWatermark("occupancy", LocalDateTime.of(2024, 5, 10, 12, 0), 9L, null);
+        when(watermarkRepository.findForUpdate("occupancy")).thenReturn(Optional.of(watermark));
+        when(carRepository.findClosedAfter(eq(watermark.getSaidaRegistradaEm()), eq(9L), any(), any()))
+                .thenReturn(List.of(session(4L, LocalDateTime.of(2024, 5, 10, 8, 0),
+                        LocalDateTime.of(2024, 5, 10, 9, 0), LocalDateTime.of(2024, 5, 10, 12, 5))));
+        when(rollupRepository.findByGranularidadeAndInicioBetween(any(), any(), any())).thenReturn(List.of());
+
+        // Act
+        long processed = rollupService.runIncremental();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OccupancyRollup>> saved = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).saveAll(saved.capture());
+        assertThat(processed).isEqualTo(1);
+        assertThat(saved.getValue())
+                .filteredOn(row -> row.getGranularidade() == Granularidade.HOUR)
+                .extracting(OccupancyRollup::getInicio, OccupancyRollup::getSaidas)
+                .containsExactlyInAnyOrder(
+                        tuple(LocalDateTime.of(2024, 5, 10, 8, 0), 0L),
+                        tuple(LocalDateTime.of(2024, 5, 10, 9, 0), 1L));
+        assertThat(watermark.getSaidaRegistradaEm()).isEqualTo(LocalDateTime.of(2024, 5, 10, 12, 5));
+        assertThat(watermark.getCarId()).isEqualTo(4L);
+    }
+
+    @Test
+    void runIncremental_ShouldDoNothing_WhenNoSessionClosedSinceWatermark() {
+        // Arrange
+        when(watermarkRepository.findForUpdate("occupancy"))
+                .thenReturn(Optional.of(new RollupWatermark("occupancy", NOW.minusHours(1), 1L, null)));
+        when(carRepository.findClosedAfter(any(), any(), any(), any())).thenReturn(List.of());
+
+        // Act
+        long processed = rollupService.runIncremental();
+
+        // Assert
+        assertThat(processed).isZero();
+        verify(rollupRepository, never()).saveAll(anyList());
+        verify(watermarkRepository, never()).save(any());
+    }
+
+    @Test
+    void getOccupancyReport_ShouldFillMissingBucketsWithZeros() {
+        // Arrange
+        LocalDate day = LocalDate.of(2024, 5, 10);
+        when(rollupRepository.findByLotIdAndGranularidadeAndInicioBetweenOrderByInicioAsc(
+                LOT_ID, Granularidade.HOUR, day.atStartOfDay(), day.atTime(23, 0)))
+                .thenReturn(List.of(new OccupancyRollup(1L, LOT_ID, Granularidade.HOUR, day.atTime(9, 0), 4, 2, 5400)));
+        when(watermarkRepository.findById("occupancy")).thenReturn(Optional.empty());
+
+        // Act
+        OccupancyReportResponse report = rollupService.getOccupancyReport(LOT_ID, day, day, Granularidade.HOUR);
+
+        // Assert
+        assertThat(report.getPontos()).hasSize(24);
+        assertThat(report.getPontos().get(8).getEntradas()).isZero();
+        assertThat(report.getPontos().get(9).getEntradas()).isEqualTo(4);
+        assertThat(report.getPontos().get(9).getOcupacaoMedia()).isEqualTo(1.5);
+        assertThat(report.getAtualizadoAte()).isNull();
+    }
+
+    @Test
+    void getOccupancyReport_ShouldRejectInvalidPeriods() {
+        // Act & Assert
+        assertThatThrownBy(() -> rollupService.getOccupancyReport(
+                LOT_ID, LocalDate.of(2024, 5, 10), LocalDate.of(2024, 5, 9), Granularidade.DAY))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> rollupService.getOccupancyReport(
+                LOT_ID, LocalDate.of(2020, 1, 1), LocalDate.of(2024, 1, 1), Granularidade.HOUR))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Período longo demais");
+    }
+
+    private static long[] delta(Map<OccupancyRollupService.BucketKey, long[]> deltas, Granularidade granularidade,
+                                LocalDateTime inicio) {
+        return deltas.get(new OccupancyRollupService.BucketKey(LOT_ID, granularidade, inicio));
+    }
+
+    private static CarRepository.ClosedSession session(Long id, LocalDateTime entrada, LocalDateTime saida) {
+        return session(id, entrada, saida, saida);
+    }
+
+    private static CarRepository.ClosedSession session(Long id, LocalDateTime entrada, LocalDateTime saida,
+                                                       LocalDateTime registradaEm) {
+        return new CarRepository.ClosedSession() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getLotId() {
+                return LOT_ID;
+            }
+
+            @Override
+            public LocalDateTime getDataEntrada() {
+                return entrada;
+            }
+
+            @Override
+            public LocalDateTime getDataSaida() {
+                return saida;
+            }
+
+            @Override
+            public LocalDateTime getSaidaRegistradaEm() {
+                return registradaEm;
+            }
+        };
+    }
+}
@@ -0,0 +1,178 @@
+package com.parking.api.service;
+
+import com.parking.api.dto.OccupancyStatsResponse;
+import com.parking.api.event.CarEvent;
+import com.parking.api.model.Car;
+import com.parking.api.repository.CarRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OccupancyStatsServiceTest {
+
+    private static final Long LOT_ID = 1L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 10, 15, 30);
+
+    @Mock
+    private CarRepository carRepository;
+
+    private OccupancyStatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneId.of("UTC"));
+        statsService = new OccupancyStatsService(carRepository, clock);
+    }
+
+    @Test
+    void onCarEvent_ShouldTrackEntriesExitsAndDwellTime() {
+        // Arrange
+        Car first = car(1L, NOW.minusHours(3), null);
+        Car second = car(2L, NOW.minusHours(1), null);
+
+        // Act
+        statsService.onCarEvent(CarEvent.entry(first));
+        statsService.onCarEvent(CarEvent.entry(second));
+        statsService.onCarEvent(CarEvent.exit(Car.copyOf(first), car(1L, NOW.minusHours(3), NOW)));
+
+        // Assert
+        OccupancyStatsResponse stats = statsService.getStats(LOT_ID);
+        assertThat(stats.getOcupadas()).isEqualTo(1);
+        assertThat(stats.getEntradasHoje()).isEqualTo(2);
+        assertThat(stats.getSaidasHoje()).isEqualTo(1);
+        assertThat(stats.getEntradasPorHora()).hasSize(24);
+        assertThat(stats.getEntradasPorHora().get(12)).isEqualTo(1);
+        assertThat(stats.getEntradasPorHora().get(14)).isEqualTo(1);
+        assertThat(stats.getSaidasPorHora().get(15)).isEqualTo(1);
+        assertThat(stats.getPermanencia().getAmostras()).isEqualTo(1);
+        assertThat(stats.getPermanencia().getP50Minutos()).isBetween(180.0, 183.0);
+    }
+
+    @Test
+    void onCarEvent_ShouldNotCountRepeatedExitOrUpdates() {
+        // Arrange
+        Car exited = car(1L, NOW.minusHours(2), NOW.minusHours(1));
+        statsService.onCarEvent(CarEvent.entry(car(1L, NOW.minusHours(2), null)));
+        statsService.onCarEvent(CarEvent.exit(car(1L, NOW.minusHours(2), null), exited));
+
+        // Act
+        statsService.onCarEvent(CarEvent.exit(Car.copyOf(exited), car(1L, NOW.minusHours(2), NOW)));
+        statsService.onCarEvent(CarEvent.update(Car.copyOf(exited), exited));
+
+        // Assert
+        OccupancyStatsResponse stats = statsService.getStats(LOT_ID);
+        assertThat(stats.getOcupadas()).isZero();
+        assertThat(stats.getSaidasHoje()).isEqualTo(1);
+        assertThat(stats.getPermanencia().getAmostras()).isEqualTo(1);
+    }
+
+    @Test
+    void onCarEvent_ShouldUndoContributionOfDeletedCar() {
+        // Arrange
+        Car active = car(1L, NOW.minusHours(1), null);
+        Car closed = car(2L, NOW.minusHours(2), NOW.minusMinutes(30));
+        statsService.onCarEvent(CarEvent.entry(active));
+        statsService.onCarEvent(CarEvent.entry(car(2L, NOW.minusHours(2), null)));
+        statsService.onCarEvent(CarEvent.exit(car(2L, NOW.minusHours(2), null), closed));
+
+        // Act
+        statsService.onCarEvent(CarEvent.delete(active));
+        statsService.onCarEvent(CarEvent.delete(closed));
+
+        // Assert
+        OccupancyStatsResponse stats = statsService.getStats(LOT_ID);
+        assertThat(stats.getOcupadas()).isZero();
+        assertThat(stats.getEntradasHoje()).isZero();
+        assertThat(stats.getSaidasHoje()).isZero();
+        assertThat(stats.getPermanencia().getAmostras()).isZero();
+    }
+
+    @Test
+    void reconcile_ShouldReplaceCountersWithDatabaseValues() {
+        // Arrange
+        statsService.onCarEvent(CarEvent.entry(car(1L, NOW.minusHours(1), null)));
+        statsService.onCarEvent(CarEvent.entry(car(2L, NOW.minusHours(1), null)));
+        when(carRepository.countActiveByLot()).thenReturn(List.of(lotCount(5)));
+        when(carRepository.streamTimesSince(any())).thenAnswer(invocation -> Stream.of(
+                times(NOW.minusHours(1), null),
+                times(NOW.minusDays(1), NOW.minusMinutes(10))));
+
+        // Act
+        statsService.reconcile();
+
+        // Assert
+        OccupancyStatsResponse stats = statsService.getStats(LOT_ID);
+        assertThat(stats.getOcupadas()).isEqualTo(5);
+        assertThat(stats.getEntradasHoje()).isEqualTo(1);
+        assertThat(stats.getSaidasHoje()).isEqualTo(1);
+    }
+
+    @Test
+    void getStats_ShouldReturnZerosForLotWithoutActivity() {
+        // Act
+        OccupancyStatsResponse stats = statsService.getStats(99L);
+
+        // Assert
+        assertThat(stats.getLotId()).isEqualTo(99L);
+        assertThat(stats.getOcupadas()).isZero();
+        assertThat(stats.getEntradasPorHora()).hasSize(24).containsOnly(0L);
+        assertThat(stats.getPermanencia().getMediaMinutos()).isZero();
+    }
+
+    private static Car car(Long id, LocalDateTime entrada, LocalDateTime saida) {
+        Car car = new Car();
+        car.setId(id);
+        car.setLotId(LOT_ID);
+        car.setPlaca("ABC-123" + id);
+        car.setDataEntrada(entrada);
+        car.setDataSaida(saida);
+        return car;
+    }
+
+    private static CarRepository.LotCount lotCount(long total) {
+        return new CarRepository.LotCount() {
+            @Override
+            public Long getLotId() {
+                return LOT_ID;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+        };
+    }
+
+    private static CarRepository.CarTimes times(LocalDateTime entrada, LocalDateTime saida) {
+        return new CarRepository.CarTimes() {
+            @Override
+            public Long getLotId() {
+                return LOT_ID;
+            }
+
+            @Override
+            public LocalDateTime getDataEntrada() {
+                return entrada;
+            }
+
+            @Override
+            public LocalDateTime getDataSaida() {
+                return saida;
+            }
+        };
+    }
+}
@@ -0,0 +1,195 @@
+package com.parking.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.api.event.CarEvent;
+import com.parking.api.model.Car;
+import com.parking.api.model.OutboxMessage;
+import com.parking.api.repository.OutboxMessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxPublisherTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 10, 15, 30);
+
+    @Mock
+    private OutboxMessageRepository outboxRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private OutboxSink billing;
+
+    @Mock
+    private OutboxSink cameras;
+
+    private final DatabaseGuard databaseGuard = new DatabaseGuard(20, 10, 0.5, Duration.ofSeconds(2), 0.8,
+            Duration.ofSeconds(10), 3);
+
+    private OutboxPublisher publisher;
+
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        publisher = publisher(List.of(billing, cameras));
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            inTransaction.set(true);
+            try {
+                return invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(new SimpleTransactionStatus());
+            } finally {
+                inTransaction.set(false);
+            }
+        });
+        lenient().doAnswer(invocation -> {
+            inTransaction.set(true);
+            try {
+                invocation.<Consumer<TransactionStatus>>getArgument(0).accept(new SimpleTransactionStatus());
+            } finally {
+                inTransaction.set(false);
+            }
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(cameras.name()).thenReturn("cameras");
+    }
+
+    @Test
+    void enqueue_ShouldStoreMessageDueNow() {
+        // Arrange
+        Car car = car(1L);
+
+        // Act
+        publisher.enqueue(CarEvent.entry(car));
+
+        // Assert
+        ArgumentCaptor<OutboxMessage> message = ArgumentCaptor.forClass(OutboxMessage.class);
+        verify(outboxRepository).save(message.capture());
+        assertThat(message.getValue().getTipo()).isEqualTo(CarEvent.Type.ENTRY);
+        assertThat(message.getValue().getCarId()).isEqualTo(1L);
+        assertThat(message.getValue().getProximaTentativa()).isEqualTo(NOW);
+        assertThat(message.getValue().getCarro()).contains("\"placa\":\"ABC-1234\"");
+    }
+
+    @Test
+    void enqueue_ShouldSkipWhenNoSinkIsConfigured() {
+        // Arrange
+        OutboxPublisher withoutSinks = publisher(List.of());
+
+        // Act
+        withoutSinks.enqueue(CarEvent.entry(car(1L)));
+
+        // Assert
+        verifyNoInteractions(outboxRepository);
+    }
+
+    @Test
+    void publish_ShouldDeliverToEverySinkAndDeleteBatch() throws Exception {
+        // Arrange
+        List<OutboxMessage> batch = List.of(message(1L), message(2L));
+        when(outboxRepository.lockDue(eq(NOW), any())).thenReturn(batch);
+
+        // Act
+        int delivered = publisher.publish();
+
+        // Assert
+        assertThat(delivered).isEqualTo(2);
+        verify(billing).deliver(batch);
+        verify(cameras).deliver(batch);
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void publish_ShouldClaimBatchAndDeliverOutsideTransaction() throws Exception {
+        // Arrange
+        List<OutboxMessage> batch = List.of(message(1L), message(2L));
+        when(outboxRepository.lockDue(eq(NOW), any())).thenReturn(batch);
+        doAnswer(invocation -> {
+            assertThat(inTransaction).as("entrega dentro da transação").isFalse();
+            return null;
+        }).when(billing).deliver(batch);
+
+        // Act
+        publisher.publish();
+
+        // Assert - reservado antes da entrega, apagado depois
+        InOrder order = inOrder(outboxRepository, billing);
+        order.verify(outboxRepository).claim(List.of(1L, 2L), NOW.plusMinutes(1));
+        order.verify(billing).deliver(batch);
+        order.verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void publish_ShouldRescheduleBatchWithBackoff_WhenSinkFails() throws Exception {
+        // Arrange
+        OutboxMessage retried = message(1L);
+        retried.setTentativas(2);
+        List<OutboxMessage> batch = List.of(retried, message(2L));
+        when(outboxRepository.lockDue(eq(NOW), any())).thenReturn(batch);
+        doThrow(new IOException("Connection refused")).when(cameras).deliver(batch);
+
+        // Act
+        int delivered = publisher.publish();
+
+        // Assert
+        assertThat(delivered).isZero();
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+        verify(outboxRepository).saveAll(batch);
+        assertThat(retried.getTentativas()).isEqualTo(3);
+        assertThat(retried.getProximaTentativa()).isEqualTo(NOW.plusSeconds(4));
+        assertThat(batch.get(1).getProximaTentativa()).isEqualTo(NOW.plusSeconds(1));
+        assertThat(retried.getUltimoErro()).isEqualTo("cameras: Connection refused");
+    }
+
+    @Test
+    void backoff_ShouldDoubleUpToMaximum() {
+        // Act & Assert
+        assertThat(publisher.backoff(1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(publisher.backoff(2)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(publisher.backoff(5)).isEqualTo(Duration.ofSeconds(16));
+        assertThat(publisher.backoff(40)).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    private OutboxPublisher publisher(List<OutboxSink> sinks) {
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneId.of("UTC"));
+        return new OutboxPublisher(outboxRepository, sinks, new ObjectMapper().findAndRegisterModules(),
+                transactionTemplate, databaseGuard, clock);
+    }
+
+    private static OutboxMessage message(Long id) {
+        return new OutboxMessage(id, CarEvent.Type.ENTRY, id, 1L, "{}", NOW, 0, NOW, null);
+    }
+
+    private static Car car(Long id) {
+        Car car = new Car();
+        car.setId(id);
+        car.setLotId(1L);
+        car.setPlaca("ABC-1234");
+        car.setDataEntrada(NOW);
+        return car;
+    }
+}
@@ -0,0 +1,157 @@
+package com.parking.api.service;
+
+import com.parking.api.dto.AlertResponse;
+import com.parking.api.event.CarEvent;
+import com.parking.api.model.Car;
+import com.parking.api.repository.CarRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OverstayMonitorTest {
+
+    private static final Long LOT_ID = 1L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 10, 8, 0);
+
+    @Mock
+    private CarRepository carRepository;
+
+    @Mock
+    private AlertService alertService;
+
+    private MutableClock clock;
+    private OverstayMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW.toInstant(ZoneOffset.UTC));
+        monitor = new OverstayMonitor(carRepository, alertService, Duration.ofHours(12), 1000, clock);
+    }
+
+    @Test
+    void tick_ShouldAlertWhenLimitIsReached() {
+        // Arrange
+        monitor.onCarEvent(CarEvent.entry(car(1L, "ABC-1234", NOW)));
+
+        // Act
+        clock.advance(Duration.ofHours(12).minusSeconds(1));
+        monitor.tick();
+        verify(alertService, never()).publish(any(), any(), any(), any(), any());
+        clock.advance(Duration.ofSeconds(1));
+        monitor.tick();
+
+        // Assert
+        verify(alertService).publish(eq(AlertResponse.Tipo.OVERSTAY), eq(LOT_ID), eq(1L), eq("ABC-1234"), anyString());
+        assertThat(monitor.pending()).isZero();
+    }
+
+    @Test
+    void onCarEvent_ShouldCancelTimer_WhenCarExitsOrIsDeleted() {
+        // Arrange
+        Car first = car(1L, "ABC-1234", NOW);
+        Car second = car(2L, "XYZ-9876", NOW);
+        monitor.onCarEvent(CarEvent.entry(first));
+        monitor.onCarEvent(CarEvent.entry(second));
+        Car exited = car(1L, "ABC-1234", NOW);
+        exited.setDataSaida(NOW.plusHours(2));
+
+        // Act
+        monitor.onCarEvent(CarEvent.exit(first, exited));
+        monitor.onCarEvent(CarEvent.delete(second));
+        clock.advance(Duration.ofHours(13));
+        monitor.tick();
+
+        // Assert
+        verify(alertService, never()).publish(any(), any(), any(), any(), any());
+        assertThat(monitor.pending()).isZero();
+    }
+
+    @Test
+    void onCarEvent_ShouldUseNewPlate_WhenCarIsUpdated() {
+        // Arrange
+        Car before = car(1L, "ABC-1234", NOW);
+        monitor.onCarEvent(CarEvent.entry(before));
+
+        // Act
+        monitor.onCarEvent(CarEvent.update(before, car(1L, "ABC1D23", NOW)));
+        clock.advance(Duration.ofHours(12));
+        monitor.tick();
+
+        // Assert
+        verify(alertService).publish(eq(AlertResponse.Tipo.OVERSTAY), eq(LOT_ID), eq(1L), eq("ABC1D23"), anyString());
+        assertThat(monitor.pending()).isZero();
+    }
+
+    @Test
+    void load_ShouldSeedActiveCarsAndAlertOverdueOnesOnFirstTick() {
+        // Arrange
+        when(carRepository.findByDataSaidaIsNull()).thenReturn(List.of(
+                car(1L, "ABC-1234", NOW.minusHours(20)),
+                car(2L, "XYZ-9876", NOW.minusHours(1))));
+
+        // Act
+        monitor.load();
+        monitor.tick();
+
+        // Assert
+        verify(alertService).publish(eq(AlertResponse.Tipo.OVERSTAY), eq(LOT_ID), eq(1L), eq("ABC-1234"), anyString());
+        verify(alertService, never()).publish(any(), any(), eq(2L), any(), any());
+        assertThat(monitor.pending()).isEqualTo(1);
+    }
+
+    private static Car car(Long id, String placa, LocalDateTime dataEntrada) {
+        Car car = new Car();
+        car.setId(id);
+        car.setLotId(LOT_ID);
+        car.setPlaca(placa);
+        car.setDataEntrada(dataEntrada);
+        return car;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.parking.api.service;
+
+import com.parking.api.event.CarEvent;
+import com.parking.api.model.Car;
+import com.parking.api.repository.CarRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OwnerNameIndexTest {
+
+    @Mock
+    private CarRepository carRepository;
+
+    private static final Long LOT_ID = 1L;
+
+    private OwnerNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new OwnerNameIndex(carRepository);
+        index.onCarEvent(CarEvent.entry(car(1L, "João Silva", 10)));
+        index.onCarEvent(CarEvent.entry(car(2L, "Joana Souza", 11)));
+        index.onCarEvent(CarEvent.entry(car(3L, "Maria Conceição Silva", 12)));
+    }
+
+    @Test
+    void search_ShouldIgnoreAccentsAndCase() {
+        // Act
+        Page<Long> result = index.search(LOT_ID, "JOAO", PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(result.getContent()).containsExactly(1L);
+    }
+
+    @Test
+    void search_ShouldRankExactMatchesBeforePrefixMatches() {
+        // Act
+        Page<Long> result = index.search(LOT_ID, "jo", PageRequest.of(0, 10));
+        Page<Long> exact = index.search(LOT_ID, "joana", PageRequest.of(0, 10));
+
+        // Assert - ambos são prefixo, o mais recente vem primeiro
+        assertThat(result.getContent()).containsExactly(2L, 1L);
+        assertThat(exact.getContent()).containsExactly(2L);
+    }
+
+    @Test
+    void search_ShouldRequireAllTerms() {
+        // Act
+        Page<Long> result = index.search(LOT_ID, "silva conc", PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(result.getContent()).containsExactly(3L);
+    }
+
+    @Test
+    void search_ShouldPaginateResults() {
+        // Act
+        Page<Long> firstPage = index.search(LOT_ID, "silva", PageRequest.of(0, 1));
+        Page<Long> secondPage = index.search(LOT_ID, "silva", PageRequest.of(1, 1));
+
+        // Assert
+        assertThat(firstPage.getTotalElements()).isEqualTo(2);
+        assertThat(firstPage.getContent()).containsExactly(3L);
+        assertThat(secondPage.getContent()).containsExactly(1L);
+    }
+
+    @Test
+    void search_ShouldNotReturnCarsFromOtherLots() {
+        // Arrange
+        Car otherLot = car(4L, "João Pereira", 13);
+        otherLot.setLotId(2L);
+        index.onCarEvent(CarEvent.entry(otherLot));
+
+        // Act & Assert
+        assertThat(index.search(LOT_ID, "joao", PageRequest.of(0, 10)).getContent()).containsExactly(1L);
+        assertThat(index.search(2L, "joao", PageRequest.of(0, 10)).getContent()).containsExactly(4L);
+    }
+
+    @Test
+    void onCarEvent_ShouldReindexUpdatedAndRemoveDeletedCars() {
+        // Arrange
+        Car before = car(1L, "João Silva", 10);
+        Car after = car(1L, "Pedro Álvares", 10);
+
+        // Act
+        index.onCarEvent(CarEvent.update(before, after));
+        index.onCarEvent(CarEvent.delete(car(3L, "Maria Conceição Silva", 12)));
+
+        // Assert
+        assertThat(index.search(LOT_ID, "joao", PageRequest.of(0, 10))).isEmpty();
+        assertThat(index.search(LOT_ID, "silva", PageRequest.of(0, 10))).isEmpty();
+        assertThat(index.search(LOT_ID, "alvares", PageRequest.of(0, 10)).getContent()).containsExactly(1L);
+    }
+
+    @Test
+    void rebuild_ShouldKeepServingAndReplayEventsReceivedDuringRebuild() {
+        // Arrange - a página lida na reconstrução é anterior a uma alteração recebida no meio tempo
+        Car stale = car(2L, "Joana Souza", 11);
+        stale.setVersao(1L);
+        Car renamed = car(2L, "Joana Lima", 11);
+        renamed.setVersao(2L);
+        List<Long> servedDuringRebuild = new ArrayList<>();
+        when(carRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            servedDuringRebuild.addAll(index.search(LOT_ID, "silva", PageRequest.of(0, 10)).getContent());
+            index.onCarEvent(CarEvent.update(stale, renamed));
+            return new PageImpl<>(List.of(car(1L, "João Silva", 10), stale));
+        });
+
+        // Act
+        index.rebuild();
+
+        // Assert
+        assertThat(servedDuringRebuild).containsExactly(3L, 1L);
+        assertThat(index.search(LOT_ID, "lima", PageRequest.of(0, 10)).getContent()).containsExactly(2L);
+        assertThat(index.search(LOT_ID, "souza", PageRequest.of(0, 10))).isEmpty();
+        assertThat(index.search(LOT_ID, "maria", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    void onCarEvent_ShouldNotLosePostings_WhenSharedTermIsEmptiedConcurrently() throws Exception {
+        // Arrange - um carro entra e sai sem parar enquanto outros com o mesmo termo entram
+        Car churn = car(100L, "Carlos Pereira", 9);
+        int entries = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            Future<?> remover = executor.submit(() -> {
+                for (int i = 0; i < entries * 5; i++) {
+                    index.onCarEvent(CarEvent.entry(churn));
+                    index.onCarEvent(CarEvent.delete(churn));
+                }
+            });
+            Future<?> adder = executor.submit(() -> {
+                for (long id = 1_000; id < 1_000 + entries; id++) {
+                    index.onCarEvent(CarEvent.entry(car(id, "Paulo Pereira", 9)));
+                }
+            });
+            remover.get(30, TimeUnit.SECONDS);
+            adder.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertThat(index.search(LOT_ID, "pereira", PageRequest.of(0, entries + 1)).getTotalElements())
+                .isEqualTo(entries);
+    }
+
+    private Car car(Long id, String nome, int hour) {
+        Car car = new Car();
+        car.setId(id);
+        car.setLotId(LOT_ID);
+        car.setModelo("Honda Civic");
+        car.setCor("Preto");
+        car.setPlaca("ABC-123" + id);
+        car.setNomeProprietario(nome);
+        car.setDataEntrada(LocalDateTime.of(2025, 10, 20, hour, 0));
+        return car;
+    }
+}
@@ -0,0 +1,71 @@
+package com.parking.api.service;
+
+import com.parking.api.util.LongHashSet;
+import com.parking.api.util.PlateCodec;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PassIndexTest {
+
+    private static final long ABC = PlateCodec.encode("ABC-1234");
+    private static final long XYZ = PlateCodec.encode("XYZ9A87");
+
+    @Test
+    void allows_ShouldScopePassesByLotAndAcceptGlobalPasses() {
+        // Arrange
+        LongHashSet keys = new LongHashSet();
+        keys.add(PassIndex.key(1L, ABC));
+        keys.add(PassIndex.key(null, XYZ));
+
+        // Act
+        PassIndex index = PassIndex.build(keys);
+
+        // Assert
+        assertThat(index.allows(1L, ABC)).isTrue();
+        assertThat(index.allows(2L, ABC)).isFalse();
+        assertThat(index.allows(1L, XYZ)).isTrue();
+        assertThat(index.allows(2L, XYZ)).isTrue();
+        assertThatThrownBy(() -> PassIndex.key(1L << 40, ABC)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void withAndWithout_ShouldReturnNewIndexWithoutChangingOriginal() {
+        // Arrange
+        PassIndex original = PassIndex.EMPTY.with(PassIndex.key(1L, ABC));
+
+        // Act
+        PassIndex added = original.with(PassIndex.key(1L, XYZ));
+        PassIndex removed = added.without(PassIndex.key(1L, ABC));
+
+        // Assert
+        assertThat(original.allows(1L, XYZ)).isFalse();
+        assertThat(added.allows(1L, ABC)).isTrue();
+        assertThat(added.allows(1L, XYZ)).isTrue();
+        assertThat(removed.allows(1L, ABC)).isFalse();
+        assertThat(removed.allows(1L, XYZ)).isTrue();
+        assertThat(removed.size()).isEqualTo(1);
+        assertThat(removed.with(PassIndex.key(1L, XYZ))).isSameAs(removed);
+    }
+
+    @Test
+    void with_ShouldKeepAnsweringCorrectly_WhenGrowingPastFilterCapacity() {
+        // Arrange
+        PassIndex index = PassIndex.EMPTY;
+
+        // Act
+        for (long lot = 1; lot <= 5_000; lot++) {
+            index = index.with(PassIndex.key(lot, ABC));
+        }
+        for (long lot = 1; lot <= 5_000; lot += 2) {
+            index = index.without(PassIndex.key(lot, ABC));
+        }
+
+        // Assert
+        assertThat(index.size()).isEqualTo(2_500);
+        for (long lot = 1; lot <= 5_000; lot++) {
+            assertThat(index.allows(lot, ABC)).isEqualTo(lot % 2 == 0);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.parking.api.service;
+
+import com.parking.api.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHashingServiceTest {
+
+    /** Hash de 'admin' gravado pelo script de inicialização do PostgreSQL */
+    private static final String SEEDED_ADMIN_HASH = "$2a$10$Iembr17oNh2rSnP4Oqxm/.hpcGXVjUTX3JhwOOIa8tz9Q2M.1LZz.";
+
+    private final List<PasswordHashingService> services = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        services.forEach(PasswordHashingService::shutdown);
+    }
+
+    @Test
+    void verify_ShouldAcceptBcryptHashAndRejectWrongPassword() {
+        // Arrange
+        PasswordHashingService service = service(4, 2, 8);
+        String hash = service.hash("s3nha-forte");
+
+        // Act
+        PasswordHashingService.Verification correct = service.verify("s3nha-forte", hash);
+        PasswordHashingService.Verification wrong = service.verify("outra", hash);
+
+        // Assert
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(correct.matches()).isTrue();
+        assertThat(correct.needsRehash()).isFalse();
+        assertThat(wrong.matches()).isFalse();
+    }
+
+    @Test
+    void verify_ShouldAcceptSeededAdminHash() {
+        // Arrange
+        PasswordHashingService service = service(4, 1, 8);
+
+        // Act
+        PasswordHashingService.Verification verification = service.verify("admin", SEEDED_ADMIN_HASH);
+
+        // Assert
+        assertThat(verification.matches()).isTrue();
+        assertThat(verification.needsRehash()).isFalse();
+    }
+
+    @Test
+    void verify_ShouldAcceptLegacyPlaintextAndAskForRehash() {
+        // Arrange
+        PasswordHashingService service = service(4, 1, 8);
+
+        // Act
+        PasswordHashingService.Verification legacy = service.verify("admin123", "admin123");
+        PasswordHashingService.Verification wrong = service.verify("admin", "admin123");
+
+        // Assert
+        assertThat(legacy.matches()).isTrue();
+        assertThat(legacy.needsRehash()).isTrue();
+        assertThat(wrong.matches()).isFalse();
+        assertThat(wrong.needsRehash()).isFalse();
+    }
+
+    @Test
+    void verify_ShouldAskForRehashWhenStoredCostIsLower() {
+        // Arrange
+        PasswordHashingService service = service(5, 1, 8);
+        String weak = new BCryptPasswordEncoder(4).encode("s3nha");
+
+        // Act
+        PasswordHashingService.Verification verification = service.verify("s3nha", weak);
+
+        // Assert
+        assertThat(verification.matches()).isTrue();
+        assertThat(verification.needsRehash()).isTrue();
+    }
+
+    @Test
+    void verifyUnknown_ShouldAlwaysFail() {
+        // Arrange
+        PasswordHashingService service = service(4, 1, 8);
+
+        // Act & Assert
+        assertThat(service.verifyUnknown("admin")).isFalse();
+        assertThat(service.verifyUnknown(null)).isFalse();
+    }
+
+    @Test
+    void hash_ShouldShedLoadWhenQueueIsFull() {
+        // Arrange - uma thread, fila de um pedido e custo alto para que os pedidos se acumulem
+        PasswordHashingService service = service(12, 1, 1);
+        List<CompletableFuture<String>> requests = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 6; i++) {
+            requests.add(CompletableFuture.supplyAsync(() -> service.hash("senha")));
+        }
+        long shed = requests.stream().filter(request -> {
+            try {
+                request.join();
+                return false;
+            } catch (CompletionException e) {
+                return e.getCause() instanceof ServiceOverloadedException;
+            }
+        }).count();
+
+        // Assert
+        assertThat(shed).isPositive();
+        assertThat(service.rejected()).isEqualTo(shed);
+    }
+
+    private PasswordHashingService service(int strength, int threads, int queue) {
+        PasswordHashingService service = new PasswordHashingService(strength, threads, queue, 60_000);
+        services.add(service);
+        return service;
+    }
+}
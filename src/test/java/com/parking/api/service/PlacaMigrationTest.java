@@ -0,0 +1,115 @@
+package com.parking.api.service;
+
+import com.parking.api.event.CarEvent;
+import com.parking.api.model.Car;
+import com.parking.api.repository.CarRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PlacaMigrationTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 10, 12, 0);
+
+    @Mock
+    private CarRepository carRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private PlacaMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(carRepository.save(any(Car.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        migration = new PlacaMigration(carRepository, transactionTemplate, eventPublisher, 2);
+    }
+
+    @Test
+    void migrate_ShouldNormalizeStoredPlatesInBatches() {
+        // Arrange
+        Car parked = car(1L, "abc1234", NOW, null);
+        Car left = car(2L, "bra 2e19", NOW.minusDays(1), NOW.minusHours(20));
+        Car canonical = car(3L, "XYZ-9876", NOW, null);
+        Car invalid = car(4L, "12345", NOW, null);
+        when(carRepository.findByDataSaidaIsNull()).thenReturn(List.of(parked, canonical, invalid));
+        when(carRepository.findAll(page(0))).thenReturn(new PageImpl<>(List.of(parked, left), page(0), 4));
+        when(carRepository.findAll(page(1))).thenReturn(new PageImpl<>(List.of(canonical, invalid), page(1), 4));
+
+        // Act
+        PlacaMigration.Result result = migration.migrate();
+
+        // Assert
+        assertThat(result.normalized()).isEqualTo(2);
+        assertThat(result.invalid()).containsExactly(4L);
+        assertThat(result.collisions()).isEmpty();
+        assertThat(parked.getPlaca()).isEqualTo("ABC-1234");
+        assertThat(left.getPlaca()).isEqualTo("BRA2E19");
+        assertThat(invalid.getPlaca()).isEqualTo("12345");
+        verify(carRepository, never()).save(canonical);
+
+        ArgumentCaptor<CarEvent> event = ArgumentCaptor.forClass(CarEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().type()).isEqualTo(CarEvent.Type.UPDATE);
+        assertThat(event.getValue().before().getPlaca()).isEqualTo("abc1234");
+        assertThat(event.getValue().after().getPlaca()).isEqualTo("ABC-1234");
+    }
+
+    @Test
+    void migrate_ShouldKeepOnlyLatestParkedCar_WhenPlatesCollide() {
+        // Arrange - "abc1234" e "ABC 1234" estacionados ao mesmo tempo no mesmo estacionamento
+        Car older = car(1L, "abc1234", NOW.minusHours(3), null);
+        Car newer = car(2L, "ABC 1234", NOW, null);
+        when(carRepository.findByDataSaidaIsNull()).thenReturn(List.of(older, newer));
+        when(carRepository.findAll(page(0))).thenReturn(new PageImpl<>(List.of(older, newer), page(0), 2));
+
+        // Act
+        PlacaMigration.Result result = migration.migrate();
+
+        // Assert
+        assertThat(result.collisions()).containsExactly(1L);
+        assertThat(result.normalized()).isEqualTo(1);
+        assertThat(older.getPlaca()).isEqualTo("abc1234");
+        assertThat(newer.getPlaca()).isEqualTo("ABC-1234");
+    }
+
+    private static Pageable page(int number) {
+        return PageRequest.of(number, 2, Sort.by("id"));
+    }
+
+    private static Car car(Long id, String placa, LocalDateTime dataEntrada, LocalDateTime dataSaida) {
+        Car car = new Car();
+        car.setId(id);
+        car.setLotId(1L);
+        car.setPlaca(placa);
+        car.setDataEntrada(dataEntrada);
+        car.setDataSaida(dataSaida);
+        return car;
+    }
+}
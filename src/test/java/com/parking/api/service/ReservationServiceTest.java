@@ -0,0 +1,180 @@
+package com.parking.api.service;
+
+import com.parking.api.dto.AvailabilityResponse;
+import com.parking.api.dto.LotResponse;
+import com.parking.api.exception.LotFullException;
+import com.parking.api.exception.ReservationConflictException;
+import com.parking.api.model.Car;
+import com.parking.api.model.Reservation;
+import com.parking.api.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceTest {
+
+    private static final Long LOT_ID = 1L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 10, 8, 0);
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private CapacityService capacityService;
+
+    private ReservationService reservationService;
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneId.of("UTC"));
+        reservationService = new ReservationService(reservationRepository, capacityService, clock);
+        lenient().when(capacityService.currentLot()).thenReturn(LOT_ID);
+        lenient().when(capacityService.getLot(LOT_ID)).thenReturn(new LotResponse(LOT_ID, "Centro", 2, 0, List.of()));
+        lenient().when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            if (reservation.getId() == null) {
+                reservation.setId(ids.incrementAndGet());
+            }
+            return reservation;
+        });
+    }
+
+    @Test
+    void createReservation_ShouldRejectOverlapForSamePlate() {
+        // Arrange
+        reservationService.createReservation(reservation("ABC-1234", NOW.plusHours(1), NOW.plusHours(3)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> reservationService.createReservation(
+                reservation("ABC-1234", NOW.plusHours(2), NOW.plusHours(4))))
+                .isInstanceOf(ReservationConflictException.class);
+        assertThat(reservationService.createReservation(
+                reservation("ABC-1234", NOW.plusHours(3), NOW.plusHours(4))).getStatus())
+                .isEqualTo(Reservation.Status.ATIVA);
+    }
+
+    @Test
+    void createReservation_ShouldRejectWhenPeakReachesCapacity() {
+        // Arrange
+        reservationService.createReservation(reservation("ABC-1234", NOW.plusHours(1), NOW.plusHours(3)));
+        reservationService.createReservation(reservation("XYZ-9876", NOW.plusHours(2), NOW.plusHours(5)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> reservationService.createReservation(
+                reservation("DEF-5678", NOW.plusHours(2).plusMinutes(30), NOW.plusHours(6))))
+                .isInstanceOf(LotFullException.class);
+        reservationService.createReservation(reservation("DEF-5678", NOW.plusHours(3), NOW.plusHours(6)));
+
+        AvailabilityResponse availability = reservationService.getAvailability(NOW, NOW.plusHours(12));
+        assertThat(availability.getReservadas()).isEqualTo(2);
+        assertThat(availability.getDisponiveis()).isZero();
+        assertThat(reservationService.getAvailability(NOW.plusHours(5), NOW.plusHours(12)).getReservadas()).isEqualTo(1);
+    }
+
+    @Test
+    void cancelReservation_ShouldFreePeriod() {
+        // Arrange
+        Reservation first = reservationService.createReservation(reservation("ABC-1234", NOW.plusHours(1), NOW.plusHours(3)));
+        reservationService.createReservation(reservation("XYZ-9876", NOW.plusHours(1), NOW.plusHours(3)));
+        when(reservationRepository.findByIdAndLotId(first.getId(), LOT_ID)).thenReturn(Optional.of(first));
+
+        // Act
+        Reservation cancelled = reservationService.cancelReservation(first.getId());
+
+        // Assert
+        assertThat(cancelled.getStatus()).isEqualTo(Reservation.Status.CANCELADA);
+        assertThat(reservationService.getAvailability(NOW, NOW.plusHours(4)).getReservadas()).isEqualTo(1);
+        assertThatThrownBy(() -> reservationService.cancelReservation(first.getId()))
+                .isInstanceOf(ReservationConflictException.class);
+    }
+
+    @Test
+    void claim_ShouldUseReservationOfSamePlate_WhenCarArrivesWithinTolerance() {
+        // Arrange
+        Reservation booked = reservationService.createReservation(
+                reservation("ABC-1234", NOW.plusMinutes(20), NOW.plusHours(2)));
+        reservationService.createReservation(reservation("XYZ-9876", NOW.plusHours(5), NOW.plusHours(6)));
+        when(reservationRepository.findById(anyLong())).thenReturn(Optional.of(booked));
+
+        // Act
+        Optional<Long> claimed = reservationService.claim(car("ABC-1234"));
+        Optional<Long> again = reservationService.claim(car("ABC-1234"));
+        Optional<Long> tooEarly = reservationService.claim(car("XYZ-9876"));
+
+        // Assert
+        assertThat(claimed).contains(booked.getId());
+        assertThat(booked.getStatus()).isEqualTo(Reservation.Status.UTILIZADA);
+        assertThat(booked.getCarId()).isEqualTo(10L);
+        assertThat(again).isEmpty();
+        assertThat(tooEarly).isEmpty();
+        // A reserva utilizada continua ocupando a vaga no período
+        assertThat(reservationService.getAvailability(NOW, NOW.plusHours(1)).getReservadas()).isEqualTo(1);
+    }
+
+    @Test
+    void heldSpots_ShouldCountClaimableReservationsOfOtherPlates() {
+        // Arrange
+        Reservation booked = reservationService.createReservation(
+                reservation("ABC-1234", NOW.plusMinutes(20), NOW.plusHours(2)));
+        reservationService.createReservation(reservation("XYZ-9876", NOW.minusMinutes(10), NOW.plusHours(1)));
+        reservationService.createReservation(reservation("DEF-5678", NOW.plusHours(5), NOW.plusHours(6)));
+        when(reservationRepository.findById(booked.getId())).thenReturn(Optional.of(booked));
+
+        // Act
+        int forWalkIn = reservationService.heldSpots(LOT_ID, "GHI-0000");
+        int forReservedPlate = reservationService.heldSpots(LOT_ID, "ABC-1234");
+        reservationService.claim(car("ABC-1234"));
+        int afterClaim = reservationService.heldSpots(LOT_ID, "GHI-0000");
+
+        // Assert - a reserva das 13h ainda não guarda vaga
+        assertThat(forWalkIn).isEqualTo(2);
+        assertThat(forReservedPlate).isEqualTo(1);
+        assertThat(afterClaim).isEqualTo(1);
+    }
+
+    @Test
+    void createReservation_ShouldRejectInvalidPeriod() {
+        // Act & Assert
+        assertThatThrownBy(() -> reservationService.createReservation(
+                reservation("ABC-1234", NOW.plusHours(2), NOW.plusHours(1))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> reservationService.createReservation(
+                reservation("ABC-1234", NOW.minusHours(2), NOW.minusHours(1))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Reservation reservation(String placa, LocalDateTime inicio, LocalDateTime fim) {
+        Reservation reservation = new Reservation();
+        reservation.setPlaca(placa);
+        reservation.setInicio(inicio);
+        reservation.setFim(fim);
+        return reservation;
+    }
+
+    private static Car car(String placa) {
+        Car car = new Car();
+        car.setId(10L);
+        car.setLotId(LOT_ID);
+        car.setPlaca(placa);
+        return car;
+    }
+}
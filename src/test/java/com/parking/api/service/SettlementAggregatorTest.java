@@ -0,0 +1,108 @@
+package com.parking.api.service;
+
+import com.parking.api.repository.CarRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SettlementAggregatorTest {
+
+    @Test
+    void aggregate_ShouldSumPerDimension() {
+        // Arrange
+        List<CarRepository.SettlementRow> rows = List.of(
+                row(1L, 10L, 8, "12.00", "ana"),
+                row(1L, 10L, 8, "15.50", "bruno"),
+                row(2L, null, 23, "60.00", null));
+
+        // Act
+        SettlementAggregator.Accumulator totals = SettlementAggregator.aggregate(rows.iterator(), Runnable::run, 2, 1);
+
+        // Assert
+        assertThat(totals.sessions()).isEqualTo(3);
+        assertThat(totals.total()).isEqualByComparingTo("87.50");
+        Map<Long, long[]> lots = new HashMap<>();
+        totals.forEachLot(lots::put);
+        assertThat(lots.get(1L)).containsExactly(2, 2750);
+        assertThat(lots.get(2L)).containsExactly(1, 6000);
+        Map<Long, long[]> tariffs = new HashMap<>();
+        totals.forEachTariff(tariffs::put);
+        assertThat(tariffs.get(SettlementAggregator.NONE)).containsExactly(1, 6000);
+        assertThat(totals.hour(8)).containsExactly(2, 2750);
+        assertThat(totals.operators().get("")).containsExactly(1, 6000);
+        assertThat(totals.operators().get("ana")).containsExactly(1, 1200);
+    }
+
+    @Test
+    void aggregate_ShouldMatchSequentialResult_WhenRunInParallel() {
+        // Arrange
+        Random random = new Random(5);
+        List<CarRepository.SettlementRow> rows = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            rows.add(row(1L + random.nextInt(5), 1L + random.nextInt(3), random.nextInt(24),
+                    BigDecimal.valueOf(random.nextInt(10_000), 2).toPlainString(), "op" + random.nextInt(7)));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // Act
+        SettlementAggregator.Accumulator sequential =
+                SettlementAggregator.aggregate(rows.iterator(), Runnable::run, SettlementAggregator.DEFAULT_CHUNK_SIZE, 1);
+        SettlementAggregator.Accumulator parallel;
+        try {
+            parallel = SettlementAggregator.aggregate(rows.iterator(), executor, 1000, 8);
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        assertThat(parallel.sessions()).isEqualTo(sequential.sessions());
+        assertThat(parallel.total()).isEqualByComparingTo(sequential.total());
+        for (int hour = 0; hour < 24; hour++) {
+            assertThat(parallel.hour(hour)).containsExactly(sequential.hour(hour));
+        }
+        assertThat(parallel.operators()).hasSameSizeAs(sequential.operators());
+        sequential.operators().forEach((operador, total) ->
+                assertThat(parallel.operators().get(operador)).containsExactly(total));
+    }
+
+    static CarRepository.SettlementRow row(Long lotId, Long tarifaId, int hour, String valor, String operador) {
+        LocalDateTime saida = LocalDateTime.of(2024, 5, 10, hour, 30);
+        BigDecimal valorPago = new BigDecimal(valor);
+        return new CarRepository.SettlementRow() {
+            @Override
+            public Long getLotId() {
+                return lotId;
+            }
+
+            @Override
+            public Long getTarifaId() {
+                return tarifaId;
+            }
+
+            @Override
+            public LocalDateTime getDataSaida() {
+                return saida;
+            }
+
+            @Override
+            public BigDecimal getValorPago() {
+                return valorPago;
+            }
+
+            @Override
+            public String getOperadorSaida() {
+                return operador;
+            }
+        };
+    }
+}
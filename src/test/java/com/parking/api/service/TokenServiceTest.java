@@ -0,0 +1,147 @@
+package com.parking.api.service;
+
+import com.parking.api.exception.InvalidTokenException;
+import com.parking.api.model.RefreshToken;
+import com.parking.api.model.User;
+import com.parking.api.repository.RefreshTokenRepository;
+import com.parking.api.repository.RevokedTokenRepository;
+import com.parking.api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 10, 15, 30);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenService tokenService;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneId.of("UTC"));
+        tokenService = new TokenService(TokenService.signer("", ""), Duration.ofMinutes(15), Duration.ofDays(7),
+                userRepository, refreshTokenRepository, revokedTokenRepository, clock);
+    }
+
+    @Test
+    void refresh_ShouldIssueNewPair_WhenTokenIsClaimed() {
+        // Arrange
+        User user = new User("operador", "hash", "USER");
+        user.setId(3L);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored(false)));
+        when(refreshTokenRepository.revoke(10L)).thenReturn(1);
+        when(userRepository.findById(3L)).thenReturn(Optional.of(user));
+
+        // Act
+        TokenService.IssuedTokens tokens = tokenService.refresh("token-antigo");
+
+        // Assert
+        assertThat(tokens.refreshToken()).isNotEqualTo("token-antigo");
+        verify(refreshTokenRepository, never()).revokeAllByUserId(any());
+    }
+
+    @Test
+    void refresh_ShouldRevokeSession_WhenConcurrentRefreshClaimedTokenFirst() {
+        // Arrange - a linha foi lida como não usada, mas outra transação a trocou antes
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored(false)));
+        when(refreshTokenRepository.revoke(10L)).thenReturn(0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> tokenService.refresh("token-copiado"))
+                .isInstanceOf(InvalidTokenException.class);
+        verify(refreshTokenRepository).revokeAllByUserId(3L);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void refresh_ShouldRevokeSession_WhenTokenWasAlreadyUsed() {
+        // Arrange
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored(true)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> tokenService.refresh("token-copiado"))
+                .isInstanceOf(InvalidTokenException.class);
+        verify(refreshTokenRepository).revokeAllByUserId(3L);
+        verify(refreshTokenRepository, never()).revoke(any());
+    }
+
+    @Test
+    void logout_ShouldRevokeRefreshToken_WhenAccessTokenExpired() {
+        // Arrange - token de acesso emitido há 20 minutos, com validade de 15
+        User user = new User("operador", "hash", "USER");
+        user.setId(3L);
+        Clock earlier = Clock.fixed(NOW.minusMinutes(20).toInstant(ZoneOffset.UTC), ZoneId.of("UTC"));
+        TokenSigner signer = TokenService.signer("", "");
+        String expired = new TokenService(signer, Duration.ofMinutes(15), Duration.ofDays(7), userRepository,
+                refreshTokenRepository, revokedTokenRepository, earlier).issue(user).accessToken();
+        tokenService = new TokenService(signer, Duration.ofMinutes(15), Duration.ofDays(7), userRepository,
+                refreshTokenRepository, revokedTokenRepository, Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneId.of("UTC")));
+        RefreshToken stored = stored(false);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+
+        // Act
+        tokenService.logout(expired, "token-da-sessao");
+
+        // Assert
+        assertThat(stored.isRevogado()).isTrue();
+        verify(revokedTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void logout_ShouldRevokeRefreshTokenBeforeRejectingForgedAccessToken() {
+        // Arrange
+        RefreshToken stored = stored(false);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+
+        // Act & Assert
+        assertThatThrownBy(() -> tokenService.logout("k1.forjado.assinatura", "token-da-sessao"))
+                .isInstanceOf(InvalidTokenException.class);
+        assertThat(stored.isRevogado()).isTrue();
+    }
+
+    @Test
+    void logout_ShouldRevokeValidAccessToken() {
+        // Arrange
+        User user = new User("operador", "hash", "USER");
+        user.setId(3L);
+        String accessToken = tokenService.issue(user).accessToken();
+
+        // Act
+        tokenService.logout(accessToken, null);
+
+        // Assert
+        verify(revokedTokenRepository).save(any());
+        assertThatThrownBy(() -> tokenService.verify(accessToken))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Token revogado");
+    }
+
+    private static RefreshToken stored(boolean revogado) {
+        return new RefreshToken(10L, "hash", 3L, NOW.plusDays(1), revogado, null);
+    }
+}
@@ -0,0 +1,114 @@
+package com.parking.api.service;
+
+import com.parking.api.exception.InvalidTokenException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenSignerTest {
+
+    private static final long NOW = 1_700_000_000L;
+    private static final byte[] KEY_2023 = key(1);
+    private static final byte[] KEY_2024 = key(2);
+
+    private final TokenSigner signer = new TokenSigner(Map.of("k2023", KEY_2023), "k2023");
+
+    @Test
+    void verify_ShouldReturnClaimsOfSignedToken() {
+        // Arrange
+        String token = signer.sign(new TokenSigner.AccessClaims(7L, "ADMIN", 3L, NOW + 900, "abc123"));
+
+        // Act
+        TokenSigner.AccessClaims claims = signer.verify(token, NOW);
+
+        // Assert
+        assertThat(token).startsWith("k2023.");
+        assertThat(claims).isEqualTo(new TokenSigner.AccessClaims(7L, "ADMIN", 3L, NOW + 900, "abc123"));
+    }
+
+    @Test
+    void verify_ShouldKeepNullLot() {
+        // Arrange
+        String token = signer.sign(new TokenSigner.AccessClaims(7L, "USER", null, NOW + 900, "abc123"));
+
+        // Act & Assert
+        assertThat(signer.verify(token, NOW).lotId()).isNull();
+    }
+
+    @Test
+    void verify_ShouldRejectTamperedClaims() {
+        // Arrange
+        String token = signer.sign(new TokenSigner.AccessClaims(7L, "USER", 3L, NOW + 900, "abc123"));
+        String forged = new TokenSigner(Map.of("k2023", key(9)), "k2023")
+                .sign(new TokenSigner.AccessClaims(7L, "ADMIN", 3L, NOW + 900, "abc123"));
+        String tampered = forged.substring(0, forged.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+
+        // Act & Assert
+        assertThatThrownBy(() -> signer.verify(tampered, NOW))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Assinatura do token inválida");
+        assertThatThrownBy(() -> signer.verify(forged, NOW))
+                .isInstanceOf(InvalidTokenException.class);
+    }
+
+    @Test
+    void verify_ShouldRejectExpiredAndMalformedTokens() {
+        // Arrange
+        String token = signer.sign(new TokenSigner.AccessClaims(7L, "USER", 3L, NOW + 900, "abc123"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> signer.verify(token, NOW + 900))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Token expirado");
+        assertThatThrownBy(() -> signer.verify("k2023.nada", NOW)).isInstanceOf(InvalidTokenException.class);
+        assertThatThrownBy(() -> signer.verify("k2023.%%%.%%%", NOW)).isInstanceOf(InvalidTokenException.class);
+        assertThatThrownBy(() -> signer.verify("outra." + token.substring(6), NOW))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Token assinado por chave desconhecida");
+    }
+
+    @Test
+    void verifySignature_ShouldAcceptExpiredButNotTamperedTokens() {
+        // Arrange
+        String token = signer.sign(new TokenSigner.AccessClaims(7L, "USER", 3L, NOW - 60, "abc123"));
+        String tampered = token.substring(0, token.lastIndexOf('.') + 1) + "AAAA";
+
+        // Act & Assert
+        assertThat(signer.verifySignature(token).jti()).isEqualTo("abc123");
+        assertThatThrownBy(() -> signer.verifySignature(tampered))
+                .isInstanceOf(InvalidTokenException.class);
+    }
+
+    @Test
+    void verify_ShouldAcceptTokensOfPreviousKeyDuringRotation() {
+        // Arrange
+        String oldToken = signer.sign(new TokenSigner.AccessClaims(7L, "USER", 3L, NOW + 900, "old"));
+        TokenSigner rotated = new TokenSigner(Map.of("k2023", KEY_2023, "k2024", KEY_2024), "k2024");
+        TokenSigner retired = new TokenSigner(Map.of("k2024", KEY_2024), "k2024");
+
+        // Act
+        String newToken = rotated.sign(new TokenSigner.AccessClaims(7L, "USER", 3L, NOW + 900, "new"));
+
+        // Assert
+        assertThat(newToken).startsWith("k2024.");
+        assertThat(rotated.verify(oldToken, NOW).jti()).isEqualTo("old");
+        assertThat(rotated.verify(newToken, NOW).jti()).isEqualTo("new");
+        assertThatThrownBy(() -> retired.verify(oldToken, NOW)).isInstanceOf(InvalidTokenException.class);
+    }
+
+    @Test
+    void constructor_ShouldRejectShortKeys() {
+        assertThatThrownBy(() -> new TokenSigner(Map.of("k", new byte[16]), "k"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static byte[] key(int seed) {
+        byte[] key = new byte[32];
+        Arrays.fill(key, (byte) seed);
+        return key;
+    }
+}
@@ -0,0 +1,66 @@
+package com.parking.api.service;
+
+import com.parking.api.model.WatchlistEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WatchlistMatcherTest {
+
+    @Test
+    void match_ShouldFindExactAndWildcardPatterns() {
+        // Arrange
+        WatchlistEntry exact = entry(1L, "abc-1234");
+        WatchlistEntry prefix = entry(2L, "XYZ*");
+        WatchlistEntry single = entry(3L, "BRA2?19");
+        WatchlistMatcher matcher = WatchlistMatcher.compile(List.of(exact, prefix, single));
+
+        // Act & Assert
+        assertThat(matcher.match("ABC-1234")).isSameAs(exact);
+        assertThat(matcher.match("abc1234")).isSameAs(exact);
+        assertThat(matcher.match("XYZ-9876")).isSameAs(prefix);
+        assertThat(matcher.match("XYZ1A23")).isSameAs(prefix);
+        assertThat(matcher.match("BRA2E19")).isSameAs(single);
+        assertThat(matcher.match("BRA2E18")).isNull();
+        assertThat(matcher.match("ABC-1235")).isNull();
+        assertThat(matcher.match("placa inválida")).isNull();
+    }
+
+    @Test
+    void match_ShouldPreferExactEntry_WhenBothMatch() {
+        // Arrange
+        WatchlistEntry prefix = entry(1L, "ABC*");
+        WatchlistEntry exact = entry(2L, "ABC-1234");
+
+        // Act
+        WatchlistMatcher matcher = WatchlistMatcher.compile(List.of(prefix, exact));
+
+        // Assert
+        assertThat(matcher.match("ABC-1234")).isSameAs(exact);
+        assertThat(matcher.match("ABC-9999")).isSameAs(prefix);
+        assertThat(WatchlistMatcher.EMPTY.isEmpty()).isTrue();
+        assertThat(matcher.isEmpty()).isFalse();
+    }
+
+    @Test
+    void normalize_ShouldRejectInvalidPatterns() {
+        // Act & Assert
+        assertThat(WatchlistMatcher.normalize("abc-12*")).isEqualTo("ABC12*");
+        assertThatThrownBy(() -> WatchlistMatcher.normalize("*")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> WatchlistMatcher.normalize("A*C")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> WatchlistMatcher.normalize("ABC12")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> WatchlistMatcher.normalize("ABC#123")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> WatchlistMatcher.normalize("1234ABC")).isInstanceOf(RuntimeException.class);
+    }
+
+    private static WatchlistEntry entry(Long id, String padrao) {
+        WatchlistEntry entry = new WatchlistEntry();
+        entry.setId(id);
+        entry.setPadrao(padrao);
+        entry.setMotivo("Furto");
+        return entry;
+    }
+}
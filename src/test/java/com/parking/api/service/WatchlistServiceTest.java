@@ -0,0 +1,158 @@
+package com.parking.api.service;
+
+import com.parking.api.dto.AlertResponse;
+import com.parking.api.event.CarEvent;
+import com.parking.api.model.Car;
+import com.parking.api.model.WatchlistEntry;
+import com.parking.api.repository.CarRepository;
+import com.parking.api.repository.WatchlistRepository;
+import com.parking.api.util.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WatchlistServiceTest {
+
+    private static final Long LOT_ID = 1L;
+
+    @Mock
+    private WatchlistRepository watchlistRepository;
+
+    @Mock
+    private CarRepository carRepository;
+
+    @Mock
+    private AlertService alertService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicLong now = new AtomicLong();
+    private final DatabaseGuard databaseGuard = new DatabaseGuard(
+            new CircuitBreaker(10, 1, 0.5, Long.MAX_VALUE, 1.0, 5_000_000_000L, 1, now::get));
+
+    private WatchlistService watchlistService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            Consumer<Object> callback = invocation.getArgument(0);
+            callback.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        WatchlistEntry stolen = new WatchlistEntry(7L, "ABC*", "Furto", true, null);
+        lenient().when(watchlistRepository.findByAtivoTrue()).thenReturn(List.of(stolen));
+        watchlistService = new WatchlistService(watchlistRepository, carRepository, alertService, transactionTemplate,
+                databaseGuard, 2);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        watchlistService.stop();
+    }
+
+    @Test
+    void onCarEvent_ShouldRecordMatchAndAlertOffTheRequestThread() {
+        // Arrange
+        watchlistService.start();
+
+        // Act
+        watchlistService.onCarEvent(CarEvent.entry(car(10L, "ABC-1234")));
+        watchlistService.onCarEvent(CarEvent.entry(car(11L, "XYZ-9876")));
+
+        // Assert
+        verify(carRepository, timeout(2000)).markWatchlistMatch(10L, 7L, "Furto");
+        verify(alertService, timeout(2000)).publish(eq(AlertResponse.Tipo.WATCHLIST), eq(LOT_ID), eq(10L),
+                eq("ABC-1234"), anyString());
+        verify(carRepository, never()).markWatchlistMatch(eq(11L), any(), any());
+    }
+
+    @Test
+    void onCarEvent_ShouldDropInsteadOfBlocking_WhenQueueIsFull() {
+        // Arrange - sem consumidor, a fila de capacidade 2 enche
+        watchlistService.reload();
+
+        // Act
+        for (long id = 1; id <= 5; id++) {
+            watchlistService.onCarEvent(CarEvent.entry(car(id, "ABC-1234")));
+        }
+
+        // Assert
+        assertThat(watchlistService.pending()).isEqualTo(2);
+        assertThat(watchlistService.dropped()).isEqualTo(3);
+    }
+
+    @Test
+    void onCarEvent_ShouldRecheckOnlyWhenPlateChanges() {
+        // Arrange
+        Car before = car(10L, "XYZ-9876");
+
+        // Act
+        watchlistService.onCarEvent(CarEvent.update(before, car(10L, "XYZ-9876")));
+        watchlistService.onCarEvent(CarEvent.exit(before, car(10L, "XYZ-9876")));
+        watchlistService.onCarEvent(CarEvent.update(before, car(10L, "ABC-1234")));
+
+        // Assert
+        assertThat(watchlistService.pending()).isEqualTo(1);
+        assertThat(watchlistService.process(new WatchlistService.MatchRequest(10L, LOT_ID, "ABC-1234"))).isNull();
+        watchlistService.reload();
+        assertThat(watchlistService.process(new WatchlistService.MatchRequest(10L, LOT_ID, "ABC-1234")).getId())
+                .isEqualTo(7L);
+    }
+
+    @Test
+    void process_ShouldAlertFirstAndRetryMark_WhenDatabaseIsDown() {
+        // Arrange
+        watchlistService.reload();
+        doThrow(new CannotCreateTransactionException("Connection is not available"))
+                .doReturn(1)
+                .when(carRepository).markWatchlistMatch(10L, 7L, "Furto");
+
+        // Act
+        watchlistService.process(new WatchlistService.MatchRequest(10L, LOT_ID, "ABC-1234"));
+        int pendingWhileDown = watchlistService.pendingMarks();
+        watchlistService.retryMarks();
+        int pendingWhileOpen = watchlistService.pendingMarks();
+        now.addAndGet(5_000_000_000L);
+        watchlistService.retryMarks();
+
+        // Assert
+        verify(alertService).publish(eq(AlertResponse.Tipo.WATCHLIST), eq(LOT_ID), eq(10L),
+                eq("ABC-1234"), anyString());
+        assertThat(pendingWhileDown).isEqualTo(1);
+        assertThat(pendingWhileOpen).isEqualTo(1);
+        assertThat(watchlistService.pendingMarks()).isZero();
+        verify(carRepository, times(2)).markWatchlistMatch(10L, 7L, "Furto");
+    }
+
+    private static Car car(Long id, String placa) {
+        Car car = new Car();
+        car.setId(id);
+        car.setLotId(LOT_ID);
+        car.setPlaca(placa);
+        return car;
+    }
+}
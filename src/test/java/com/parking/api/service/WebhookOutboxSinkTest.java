@@ -0,0 +1,84 @@
+package com.parking.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.api.event.CarEvent;
+import com.parking.api.model.OutboxMessage;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WebhookOutboxSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AtomicReference<byte[]> received = new AtomicReference<>();
+    private final AtomicInteger status = new AtomicInteger(204);
+
+    private HttpServer server;
+    private WebhookOutboxSink sink;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Servidor HTTP local no lugar do sistema de faturamento
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/eventos", exchange -> {
+            received.set(exchange.getRequestBody().readAllBytes());
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+        RestClient.Builder builder = RestClient.builder()
+                .messageConverters(converters -> converters.add(0, new MappingJackson2HttpMessageConverter(objectMapper)));
+        sink = new WebhookOutboxSink(builder, "http://127.0.0.1:" + server.getAddress().getPort() + "/eventos",
+                Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void deliver_ShouldPostBatchAsJsonArray() throws Exception {
+        // Act
+        sink.deliver(List.of(message(1L, "{\"placa\":\"ABC-1234\"}"), message(2L, "{\"placa\":\"XYZ-5678\"}")));
+
+        // Assert
+        JsonNode body = objectMapper.readTree(received.get());
+        assertThat(body).hasSize(2);
+        assertThat(body.get(0).get("id").asLong()).isEqualTo(1L);
+        assertThat(body.get(0).get("tipo").asText()).isEqualTo("ENTRY");
+        assertThat(body.get(1).get("carro").get("placa").asText()).isEqualTo("XYZ-5678");
+        assertThat(body.get(0).has("tentativas")).isFalse();
+    }
+
+    @Test
+    void deliver_ShouldFail_WhenReceiverDoesNotAccept() {
+        // Arrange
+        status.set(503);
+
+        // Act & Assert
+        assertThatThrownBy(() -> sink.deliver(List.of(message(1L, "{}"))))
+                .isInstanceOf(RestClientException.class);
+    }
+
+    private static OutboxMessage message(Long id, String carro) {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 10, 15, 30);
+        return new OutboxMessage(id, CarEvent.Type.ENTRY, id, 1L, carro, now, 0, now, null);
+    }
+}
@@ -0,0 +1,124 @@
+package com.parking.api.util;
+
+import com.parking.api.util.AdaptiveLimiter.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveLimiterTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final AtomicLong now = new AtomicLong(1_000 * MS);
+
+    @Test
+    void tryAcquire_ShouldShedLowPriorityBeforeCritical() {
+        // Arrange
+        AdaptiveLimiter limiter = new AdaptiveLimiter(10, 2, 100, 2.0, 0.5, 30_000 * MS, now::get);
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(Priority.LOW)).isNotNegative();
+        }
+
+        // Act & Assert - baixa prioridade usa só metade do limite
+        assertThat(limiter.tryAcquire(Priority.LOW)).isNegative();
+        assertThat(limiter.tryAcquire(Priority.NORMAL)).isNotNegative();
+        assertThat(limiter.tryAcquire(Priority.NORMAL)).isNotNegative();
+        assertThat(limiter.tryAcquire(Priority.NORMAL)).isNotNegative();
+        assertThat(limiter.tryAcquire(Priority.NORMAL)).isNegative();
+        assertThat(limiter.tryAcquire(Priority.CRITICAL)).isNotNegative();
+        assertThat(limiter.tryAcquire(Priority.CRITICAL)).isNotNegative();
+        assertThat(limiter.tryAcquire(Priority.CRITICAL)).isNegative();
+        assertThat(limiter.inFlight()).isEqualTo(10);
+        assertThat(limiter.rejected(Priority.LOW)).isEqualTo(1);
+        assertThat(limiter.rejected(Priority.CRITICAL)).isEqualTo(1);
+    }
+
+    @Test
+    void release_ShouldBackOffOncePerGenerationWhenLatencyRises() {
+        // Arrange
+        AdaptiveLimiter limiter = new AdaptiveLimiter(40, 2, 100, 2.0, 0.5, 30_000 * MS, now::get);
+        sample(limiter, 10 * MS);
+
+        // Act - três requisições lentas iniciadas juntas
+        long first = limiter.tryAcquire(Priority.CRITICAL);
+        long second = limiter.tryAcquire(Priority.CRITICAL);
+        now.addAndGet(50 * MS);
+        limiter.release(first, true, false);
+        limiter.release(second, true, false);
+
+        // Assert - reduzido uma vez só
+        assertThat(limiter.limit()).isEqualTo(20);
+
+        // Act - uma requisição iniciada depois da redução, também lenta
+        sample(limiter, 50 * MS);
+
+        // Assert
+        assertThat(limiter.limit()).isEqualTo(10);
+        assertThat(limiter.baselineNanos()).isEqualTo(10 * MS);
+    }
+
+    @Test
+    void release_ShouldNotGoBelowMinimumAndShouldTreatFailuresAsOverload() {
+        // Arrange
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 3, 100, 2.0, 0.5, 30_000 * MS, now::get);
+
+        // Act
+        long start = limiter.tryAcquire(Priority.NORMAL);
+        now.addAndGet(MS);
+        limiter.release(start, true, true);
+
+        // Assert
+        assertThat(limiter.limit()).isEqualTo(3);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void release_ShouldGrowLimitWhileLatencyStaysLowAndLimitIsInUse() {
+        // Arrange
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 2, 5, 2.0, 0.5, 30_000 * MS, now::get);
+        long[] held = {limiter.tryAcquire(Priority.CRITICAL), limiter.tryAcquire(Priority.CRITICAL)};
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            sample(limiter, 10 * MS);
+        }
+
+        // Assert - cresce até o máximo e não além
+        assertThat(limiter.limit()).isEqualTo(5);
+        limiter.release(held[0], false, false);
+        limiter.release(held[1], false, false);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void release_ShouldIgnoreLatencyOfUnsampledRequests() {
+        // Arrange
+        AdaptiveLimiter limiter = new AdaptiveLimiter(10, 2, 100, 2.0, 0.5, 30_000 * MS, now::get);
+        sample(limiter, 10 * MS);
+
+        // Act - relatório demorado
+        long start = limiter.tryAcquire(Priority.LOW);
+        now.addAndGet(5_000 * MS);
+        limiter.release(start, false, false);
+
+        // Assert
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void constructor_ShouldRejectInconsistentLimits() {
+        assertThatThrownBy(() -> new AdaptiveLimiter(1, 2, 100, 2.0, 0.5, MS))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveLimiter(10, 2, 100, 1.0, 0.5, MS))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void sample(AdaptiveLimiter limiter, long latency) {
+        long start = limiter.tryAcquire(Priority.CRITICAL);
+        now.addAndGet(latency);
+        limiter.release(start, true, false);
+    }
+}
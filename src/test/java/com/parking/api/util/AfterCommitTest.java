@@ -0,0 +1,65 @@
+package com.parking.api.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AfterCommitTest {
+
+    @Test
+    void run_ShouldRunImmediately_WithoutTransaction() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        AfterCommit.run(calls::incrementAndGet);
+
+        // Assert
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void run_ShouldWaitForCommit_InsideTransaction() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            AfterCommit.run(calls::incrementAndGet);
+            int beforeCommit = calls.get();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Assert
+            assertThat(beforeCommit).isZero();
+            assertThat(calls).hasValue(1);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void onRollback_ShouldRunOnlyWhenTransactionDoesNotCommit() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        AfterCommit.onRollback(calls::incrementAndGet);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            AfterCommit.onRollback(calls::incrementAndGet);
+            AfterCommit.onRollback(calls::incrementAndGet);
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            // Assert
+            assertThat(calls).hasValue(1);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
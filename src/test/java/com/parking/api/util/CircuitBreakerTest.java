@@ -0,0 +1,117 @@
+package com.parking.api.util;
+
+import com.parking.api.util.CircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, 100 * MS, 0.8, 1_000 * MS, 2, now::get);
+
+    @Test
+    void record_ShouldOpenWhenFailureRateReachesThreshold() {
+        // Arrange
+        call(false, MS);
+        call(false, MS);
+        call(true, MS);
+
+        // Act
+        State state = call(true, MS);
+
+        // Assert
+        assertThat(state).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.remainingOpenNanos()).isEqualTo(1_000 * MS);
+    }
+
+    @Test
+    void record_ShouldWaitForMinimumCallsBeforeOpening() {
+        // Act
+        call(true, MS);
+        call(true, MS);
+        State state = call(true, MS);
+
+        // Assert
+        assertThat(state).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void record_ShouldOpenWhenMostCallsAreSlow() {
+        // Act
+        call(false, 500 * MS);
+        call(false, 500 * MS);
+        call(false, 500 * MS);
+        State state = call(false, 500 * MS);
+
+        // Assert
+        assertThat(state).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void record_ShouldForgetCallsThatLeftTheWindow() {
+        // Arrange - uma falha antiga, que sai da janela depois de 10 chamadas
+        call(true, MS);
+        call(false, MS);
+        for (int i = 0; i < 9; i++) {
+            call(false, MS);
+        }
+
+        // Act - com a falha antiga ainda na janela, seriam 5 de 10
+        call(true, MS);
+        call(true, MS);
+        call(true, MS);
+        State state = call(true, MS);
+
+        // Assert
+        assertThat(state).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void tryAcquire_ShouldProbeAfterOpenDurationAndCloseOnSuccess() {
+        // Arrange
+        open();
+        now.addAndGet(1_000 * MS);
+
+        // Act & Assert - só duas chamadas de teste
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.record(false, MS)).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.record(false, MS)).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void record_ShouldReopenWhenProbeFails() {
+        // Arrange
+        open();
+        now.addAndGet(1_000 * MS);
+        breaker.tryAcquire();
+
+        // Act
+        State state = breaker.record(true, MS);
+
+        // Assert
+        assertThat(state).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            call(true, MS);
+        }
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    private State call(boolean failure, long duration) {
+        assertThat(breaker.tryAcquire()).isTrue();
+        return breaker.record(failure, duration);
+    }
+}
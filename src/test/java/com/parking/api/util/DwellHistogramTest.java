@@ -0,0 +1,70 @@
+package com.parking.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DwellHistogramTest {
+
+    @Test
+    void percentile_ShouldStayWithinRelativeErrorOfExactValue() {
+        // Arrange
+        DwellHistogram histogram = new DwellHistogram();
+
+        // Act
+        for (long seconds = 1; seconds <= 100_000; seconds++) {
+            histogram.record(seconds);
+        }
+
+        // Assert
+        assertThat(histogram.count()).isEqualTo(100_000);
+        assertThat(histogram.mean()).isCloseTo(50_000.5, within(0.01));
+        assertThat((double) histogram.percentile(50)).isCloseTo(50_000, within(50_000 * 0.016));
+        assertThat((double) histogram.percentile(95)).isCloseTo(95_000, within(95_000 * 0.016));
+        assertThat(histogram.percentile(100)).isGreaterThanOrEqualTo(100_000);
+    }
+
+    @Test
+    void percentile_ShouldBeExactForSmallValues() {
+        // Arrange
+        DwellHistogram histogram = new DwellHistogram();
+        histogram.record(10);
+        histogram.record(20);
+        histogram.record(30);
+
+        // Act & Assert
+        assertThat(histogram.percentile(50)).isEqualTo(20);
+        assertThat(histogram.percentile(95)).isEqualTo(30);
+        assertThat(new DwellHistogram().percentile(50)).isZero();
+    }
+
+    @Test
+    void remove_ShouldUndoRecordedSample() {
+        // Arrange
+        DwellHistogram histogram = new DwellHistogram();
+        histogram.record(60);
+        histogram.record(7_200);
+
+        // Act
+        histogram.remove(7_200);
+
+        // Assert
+        assertThat(histogram.count()).isEqualTo(1);
+        assertThat(histogram.mean()).isEqualTo(60.0);
+        assertThat(histogram.percentile(99)).isEqualTo(60);
+    }
+
+    @Test
+    void index_ShouldCoverWholeRangeWithoutOverflow() {
+        // Act & Assert
+        assertThat(DwellHistogram.index(0)).isZero();
+        assertThat(DwellHistogram.index(DwellHistogram.MAX_VALUE)).isEqualTo(DwellHistogram.BUCKETS - 1);
+        assertThat(DwellHistogram.highestEquivalent(DwellHistogram.BUCKETS - 1)).isEqualTo(DwellHistogram.MAX_VALUE);
+        for (long value : new long[]{127, 128, 129, 1_000, 65_535, 1_000_000}) {
+            long highest = DwellHistogram.highestEquivalent(DwellHistogram.index(value));
+            assertThat(highest).isGreaterThanOrEqualTo(value);
+            assertThat(DwellHistogram.index(highest)).isEqualTo(DwellHistogram.index(value));
+        }
+    }
+}
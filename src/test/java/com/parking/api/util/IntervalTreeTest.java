@@ -0,0 +1,67 @@
+package com.parking.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IntervalTreeTest {
+
+    @Test
+    void forEachOverlapping_ShouldTreatIntervalsAsHalfOpen() {
+        // Arrange
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.insert(10, 20, 1, "a");
+        tree.insert(20, 30, 2, "b");
+        tree.insert(5, 40, 3, "c");
+        List<String> found = new ArrayList<>();
+
+        // Act
+        tree.forEachOverlapping(20, 25, found::add);
+
+        // Assert
+        assertThat(found).containsExactly("c", "b");
+        assertThat(tree.firstOverlapping(0, 10, value -> true)).isEqualTo("c");
+        assertThat(tree.firstOverlapping(40, 50, value -> true)).isNull();
+        assertThatThrownBy(() -> tree.insert(5, 5, 4, "vazio")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldMatchBruteForce_WhenInsertingAndRemovingRandomIntervals() {
+        // Arrange
+        IntervalTree<Long> tree = new IntervalTree<>();
+        List<long[]> reference = new ArrayList<>();
+        Random random = new Random(11);
+
+        // Act
+        for (long id = 1; id <= 3_000; id++) {
+            long start = random.nextInt(10_000);
+            long end = start + 1 + random.nextInt(300);
+            tree.insert(start, end, id, id);
+            reference.add(new long[]{start, end, id});
+            if (random.nextInt(3) == 0) {
+                long[] removed = reference.remove(random.nextInt(reference.size()));
+                assertThat(tree.remove(removed[0], removed[2])).isTrue();
+                assertThat(tree.remove(removed[0], removed[2])).isFalse();
+            }
+        }
+
+        // Assert
+        assertThat(tree.size()).isEqualTo(reference.size());
+        for (int i = 0; i < 200; i++) {
+            long from = random.nextInt(10_300);
+            long to = from + 1 + random.nextInt(500);
+            List<Long> found = new ArrayList<>();
+            tree.forEachOverlapping(from, to, found::add);
+            List<Long> expected = reference.stream()
+                    .filter(interval -> interval[0] < to && interval[1] > from)
+                    .map(interval -> interval[2])
+                    .toList();
+            assertThat(found).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.parking.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadTimelineTest {
+
+    @Test
+    void maxLoad_ShouldReturnPeakInsideWindow() {
+        // Arrange
+        LoadTimeline timeline = new LoadTimeline();
+        timeline.add(10, 20);
+        timeline.add(15, 30);
+        timeline.add(25, 40);
+
+        // Act & Assert
+        assertThat(timeline.maxLoad(0, 10)).isZero();
+        assertThat(timeline.maxLoad(0, 11)).isEqualTo(1);
+        assertThat(timeline.maxLoad(16, 19)).isEqualTo(2);
+        assertThat(timeline.maxLoad(20, 25)).isEqualTo(1);
+        assertThat(timeline.maxLoad(0, 100)).isEqualTo(2);
+        assertThat(timeline.loadAt(26)).isEqualTo(2);
+        assertThat(timeline.loadAt(40)).isZero();
+    }
+
+    @Test
+    void shouldMatchBruteForce_WithRemovalsAndCompaction() {
+        // Arrange
+        LoadTimeline timeline = new LoadTimeline();
+        List<long[]> reference = new ArrayList<>();
+        Random random = new Random(5);
+
+        // Act
+        for (int i = 0; i < 2_000; i++) {
+            long start = random.nextInt(5_000);
+            long end = start + 1 + random.nextInt(400);
+            timeline.add(start, end);
+            reference.add(new long[]{start, end});
+            if (random.nextInt(4) == 0) {
+                long[] removed = reference.remove(random.nextInt(reference.size()));
+                timeline.remove(removed[0], removed[1]);
+            }
+        }
+        timeline.compact(1_000);
+        long[] compactedAway = reference.stream().filter(interval -> interval[0] < 1_000).findFirst().orElseThrow();
+        reference.remove(compactedAway);
+        timeline.remove(compactedAway[0], compactedAway[1]);
+
+        // Assert
+        for (int i = 0; i < 100; i++) {
+            long from = 1_000 + random.nextInt(4_500);
+            long to = from + 1 + random.nextInt(200);
+            assertThat(timeline.maxLoad(from, to)).as("[%d, %d)", from, to).isEqualTo(bruteForce(reference, from, to));
+        }
+    }
+
+    private static int bruteForce(List<long[]> intervals, long from, long to) {
+        int max = 0;
+        for (long t = from; t < to; t++) {
+            long time = t;
+            max = Math.max(max, (int) intervals.stream()
+                    .filter(interval -> interval[0] <= time && time < interval[1])
+                    .count());
+        }
+        return max;
+    }
+}
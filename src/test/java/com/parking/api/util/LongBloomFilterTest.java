@@ -0,0 +1,60 @@
+package com.parking.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongBloomFilterTest {
+
+    @Test
+    void mightContain_ShouldNeverMissAddedKeysAndKeepFalsePositivesNearTarget() {
+        // Arrange
+        LongBloomFilter filter = new LongBloomFilter(100_000, 0.01);
+        Random random = new Random(17);
+        long[] added = new long[100_000];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = PlateCodec.encode(placa(random));
+            filter.add(added[i]);
+        }
+
+        // Act
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            // Códigos com bit 40 ligado nunca foram adicionados
+            if (filter.mightContain(PlateCodec.encode(placa(random)) | (1L << 40))) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        for (long key : added) {
+            assertThat(filter.mightContain(key)).isTrue();
+        }
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+    }
+
+    @Test
+    void copy_ShouldNotShareBits() {
+        // Arrange
+        LongBloomFilter original = new LongBloomFilter(100, 0.01);
+        original.add(1L);
+
+        // Act
+        LongBloomFilter copy = new LongBloomFilter(original);
+        copy.add(2L);
+
+        // Assert
+        assertThat(copy.mightContain(1L)).isTrue();
+        assertThat(copy.mightContain(2L)).isTrue();
+        assertThat(original.mightContain(2L)).isFalse();
+    }
+
+    private static String placa(Random random) {
+        return "" + (char) ('A' + random.nextInt(26)) + (char) ('A' + random.nextInt(26))
+                + (char) ('A' + random.nextInt(26)) + random.nextInt(10) + (char) ('A' + random.nextInt(10))
+                + random.nextInt(10) + random.nextInt(10);
+    }
+}
@@ -0,0 +1,54 @@
+package com.parking.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongObjectHashMapTest {
+
+    @Test
+    void shouldBehaveLikeHashMapUnderRandomOperations() {
+        // Arrange
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        LongHashSet set = new LongHashSet();
+        Map<Long, String> reference = new HashMap<>();
+        Random random = new Random(42);
+
+        // Act
+        for (int i = 0; i < 50_000; i++) {
+            long key = 1 + random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(reference.remove(key));
+                set.remove(key);
+            } else {
+                assertThat(map.put(key, "v" + i)).isEqualTo(reference.put(key, "v" + i));
+                set.add(key);
+            }
+        }
+
+        // Assert
+        assertThat(map.size()).isEqualTo(reference.size());
+        assertThat(set.size()).isEqualTo(reference.size());
+        reference.forEach((key, value) -> {
+            assertThat(map.get(key)).isEqualTo(value);
+            assertThat(set.contains(key)).isTrue();
+        });
+        map.forEach((key, value) -> assertThat(reference).containsEntry(key, value));
+    }
+
+    @Test
+    void shouldRejectReservedZeroKey() {
+        // Arrange
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+        // Act & Assert
+        assertThat(map.get(0)).isNull();
+        assertThatThrownBy(() -> map.put(0, "x")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LongHashSet().add(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,172 @@
+package com.parking.api.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedJournalTest {
+
+    private static final int CAPACITY = 4096;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void pending_ShouldReturnRecordsInAppendOrder() throws Exception {
+        // Arrange
+        try (MappedJournal journal = open()) {
+            journal.append(bytes("a"));
+            journal.append(bytes("b"));
+            journal.append(bytes("c"));
+
+            // Act
+            List<MappedJournal.Entry> pending = journal.pending(2);
+
+            // Assert
+            assertThat(pending).extracting(entry -> text(entry.data())).containsExactly("a", "b");
+            assertThat(journal.hasPending()).isTrue();
+        }
+    }
+
+    @Test
+    void open_ShouldRecoverRecordsAndReplayOffsetAfterRestart() throws Exception {
+        // Arrange
+        try (MappedJournal journal = open()) {
+            journal.append(bytes("a"));
+            journal.append(bytes("b"));
+            journal.commit(journal.pending(1).get(0));
+        }
+
+        // Act
+        try (MappedJournal reopened = open()) {
+            // Assert
+            assertThat(reopened.pending(10)).extracting(entry -> text(entry.data())).containsExactly("b");
+        }
+    }
+
+    @Test
+    void open_ShouldDropTornRecordAtTheEnd() throws Exception {
+        // Arrange
+        int tornAt;
+        try (MappedJournal journal = open()) {
+            journal.append(bytes("a"));
+            tornAt = journal.usedBytes();
+            journal.append(bytes("bbbb"));
+        }
+        corrupt(tornAt + 12);
+
+        // Act
+        try (MappedJournal reopened = open()) {
+            // Assert
+            assertThat(reopened.pending(10)).extracting(entry -> text(entry.data())).containsExactly("a");
+            assertThat(reopened.usedBytes()).isEqualTo(tornAt);
+
+            reopened.append(bytes("c"));
+            assertThat(reopened.pending(10)).extracting(entry -> text(entry.data())).containsExactly("a", "c");
+        }
+    }
+
+    @Test
+    void append_ShouldRefuseWhenFull() throws Exception {
+        // Arrange
+        try (MappedJournal journal = open()) {
+            // Act
+            boolean fits = journal.append(new byte[CAPACITY - 16 - 12]);
+            boolean overflows = journal.append(bytes("x"));
+
+            // Assert
+            assertThat(fits).isTrue();
+            assertThat(overflows).isFalse();
+        }
+    }
+
+    @Test
+    void reset_ShouldOnlyRestartWhenEverythingWasCommitted() throws Exception {
+        // Arrange
+        try (MappedJournal journal = open()) {
+            journal.append(bytes("a"));
+            journal.append(bytes("b"));
+            journal.commit(journal.pending(1).get(0));
+            assertThat(journal.reset()).isFalse();
+
+            // Act
+            journal.commit(journal.pending(1).get(0));
+            boolean reset = journal.reset();
+
+            // Assert
+            assertThat(reset).isTrue();
+            assertThat(journal.hasPending()).isFalse();
+            assertThat(journal.usedBytes()).isEqualTo(16);
+        }
+    }
+
+    @Test
+    void open_ShouldNotReadRecordsLeftFromBeforeReset() throws Exception {
+        // Arrange - depois do reset, "b" continua no arquivo com a época anterior
+        try (MappedJournal journal = open()) {
+            journal.append(bytes("a"));
+            journal.append(bytes("b"));
+            journal.commit(journal.pending(2).get(1));
+            journal.reset();
+            journal.append(bytes("c"));
+        }
+
+        // Act
+        try (MappedJournal reopened = open()) {
+            // Assert
+            assertThat(reopened.pending(10)).extracting(entry -> text(entry.data())).containsExactly("c");
+        }
+    }
+
+    @Test
+    void append_ShouldBeDurableForConcurrentWriters() throws Exception {
+        // Arrange
+        try (MappedJournal journal = new MappedJournal(dir.resolve("journal.dat"), 64 * 1024, true)) {
+            Thread[] writers = new Thread[4];
+            for (int t = 0; t < writers.length; t++) {
+                int id = t;
+                writers[t] = new Thread(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        journal.append(bytes(id + ":" + i));
+                    }
+                });
+            }
+
+            // Act
+            for (Thread writer : writers) {
+                writer.start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+
+            // Assert
+            assertThat(journal.pending(1000)).hasSize(200);
+        }
+    }
+
+    private MappedJournal open() {
+        return new MappedJournal(dir.resolve("journal.dat"), CAPACITY, true);
+    }
+
+    private void corrupt(long position) throws Exception {
+        try (RandomAccessFile file = new RandomAccessFile(dir.resolve("journal.dat").toFile(), "rw")) {
+            file.seek(position);
+            file.write('X');
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] data) {
+        return new String(data, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,62 @@
+package com.parking.api.util;
+
+import com.parking.api.exception.InvalidPlacaException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PlateCodecTest {
+
+    @Test
+    void encode_ShouldIgnoreCaseHyphensAndSpaces() {
+        // Act
+        long code = PlateCodec.encode("ABC-1234");
+
+        // Assert
+        assertThat(PlateCodec.encode("abc-1234")).isEqualTo(code);
+        assertThat(PlateCodec.encode("ABC1234")).isEqualTo(code);
+        assertThat(PlateCodec.encode("ABC 1234")).isEqualTo(code);
+    }
+
+    @Test
+    void decode_ShouldReturnCanonicalFormat() {
+        // Act & Assert
+        assertThat(PlateCodec.normalize("abc1234")).isEqualTo("ABC-1234");
+        assertThat(PlateCodec.normalize("bra-2e19")).isEqualTo("BRA2E19");
+        assertThat(PlateCodec.normalize("ZZZ9Z99")).isEqualTo("ZZZ9Z99");
+    }
+
+    @Test
+    void encode_ShouldDistinguishLegacyAndMercosulPlates() {
+        // Act
+        long legacy = PlateCodec.encode("ABC-1234");
+        long mercosul = PlateCodec.encode("ABC1C34");
+
+        // Assert
+        assertThat(legacy).isNotEqualTo(mercosul);
+        assertThat(PlateCodec.isMercosul(legacy)).isFalse();
+        assertThat(PlateCodec.isMercosul(mercosul)).isTrue();
+    }
+
+    @Test
+    void encode_ShouldNeverReturnZeroForValidPlates() {
+        // Act & Assert
+        assertThat(PlateCodec.encode("AAA-0000")).isNotZero();
+        assertThat(PlateCodec.encode("AAA0A00")).isNotZero();
+    }
+
+    @Test
+    void encode_ShouldRejectInvalidPlates() {
+        // Act & Assert
+        assertThat(PlateCodec.isValid("AB-1234")).isFalse();
+        assertThat(PlateCodec.isValid("ABC-12345")).isFalse();
+        assertThat(PlateCodec.isValid("1BC-1234")).isFalse();
+        assertThat(PlateCodec.isValid("ABC-12A4")).isFalse();
+        assertThat(PlateCodec.isValid("ÁBC-1234")).isFalse();
+        assertThat(PlateCodec.isValid(null)).isFalse();
+        assertThatThrownBy(() -> PlateCodec.encode("ABC-12"))
+                .isInstanceOf(InvalidPlacaException.class)
+                .hasMessageContaining("Placa inválida: ABC-12");
+    }
+}
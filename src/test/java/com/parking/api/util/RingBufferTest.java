@@ -0,0 +1,106 @@
+package com.parking.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RingBufferTest {
+
+    @Test
+    void drain_ShouldReturnValuesInOfferOrderAcrossWraparound() {
+        // Arrange
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+            if (i % 3 == 2) {
+                buffer.drain(drained::add, 3);
+            }
+        }
+        buffer.drain(drained::add, Integer.MAX_VALUE);
+
+        // Assert
+        assertThat(drained).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void offer_ShouldRejectWhenFull_AndAcceptAgainAfterDrain() {
+        // Arrange
+        RingBuffer<String> buffer = new RingBuffer<>(3);
+        for (int i = 0; i < buffer.capacity(); i++) {
+            buffer.offer("v" + i);
+        }
+
+        // Act
+        boolean full = buffer.offer("excedente");
+        int drained = buffer.drain(value -> { }, 1);
+        boolean afterDrain = buffer.offer("depois");
+
+        // Assert
+        assertThat(buffer.capacity()).isEqualTo(4);
+        assertThat(full).isFalse();
+        assertThat(drained).isEqualTo(1);
+        assertThat(afterDrain).isTrue();
+        assertThat(buffer.size()).isEqualTo(4);
+    }
+
+    @Test
+    void offer_ShouldNotLoseOrDuplicateValues_WithConcurrentProducers() throws Exception {
+        // Arrange
+        int producers = 4;
+        int perProducer = 50_000;
+        RingBuffer<Long> buffer = new RingBuffer<>(1024);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p * perProducer;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (long i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            }));
+        }
+        Set<Long> received = new HashSet<>();
+        long[] lastByProducer = new long[producers];
+        Arrays.fill(lastByProducer, -1);
+        boolean[] ordered = {true};
+
+        // Act
+        start.countDown();
+        while (received.size() < producers * perProducer) {
+            buffer.drain(value -> {
+                received.add(value);
+                int producer = (int) (value / perProducer);
+                ordered[0] &= value > lastByProducer[producer];
+                lastByProducer[producer] = value;
+            }, 256);
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert - cada produtor aparece na ordem em que publicou
+        assertThat(received).hasSize(producers * perProducer);
+        assertThat(ordered[0]).isTrue();
+        assertThat(buffer.size()).isZero();
+    }
+}
@@ -0,0 +1,119 @@
+package com.parking.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    @Test
+    void execute_ShouldShareOneExecutionAmongConcurrentCallers() throws Exception {
+        // Arrange
+        SingleFlight<String, String> flight = new SingleFlight<>(value -> value + "-copia");
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // Act
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> flight.execute("ABC1D23", () -> {
+                calls.incrementAndGet();
+                await(release);
+                return "carro";
+            })));
+            while (flight.inFlight() == 0) {
+                Thread.onSpinWait();
+            }
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> flight.execute("ABC1D23", () -> {
+                    calls.incrementAndGet();
+                    return "outro";
+                })));
+            }
+            while (flight.collapsed() < 3) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Assert
+            assertThat(results.get(0).get(5, TimeUnit.SECONDS)).isEqualTo("carro");
+            for (Future<String> follower : results.subList(1, results.size())) {
+                assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("carro-copia");
+            }
+            assertThat(calls).hasValue(1);
+            assertThat(flight.executions()).isEqualTo(1);
+            assertThat(flight.collapsed()).isEqualTo(3);
+            assertThat(flight.inFlight()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_ShouldPropagateFailureToCollapsedCallers() throws Exception {
+        // Arrange
+        SingleFlight<Long, String> flight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            Future<String> leader = executor.submit(() -> flight.execute(1L, () -> {
+                await(release);
+                throw new IllegalStateException("banco indisponível");
+            }));
+            while (flight.inFlight() == 0) {
+                Thread.onSpinWait();
+            }
+            Future<String> follower = executor.submit(() -> flight.execute(1L, () -> "nunca"));
+            while (flight.collapsed() == 0) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Assert
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasRootCauseMessage("banco indisponível");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_ShouldRunAgainAfterPreviousCallFinished() {
+        // Arrange
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        flight.execute("k", calls::incrementAndGet);
+        int second = flight.execute("k", calls::incrementAndGet);
+
+        // Assert
+        assertThat(second).isEqualTo(2);
+        assertThat(flight.collapsed()).isZero();
+        assertThat(flight.inFlight()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
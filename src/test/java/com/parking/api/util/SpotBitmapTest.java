@@ -0,0 +1,90 @@
+package com.parking.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpotBitmapTest {
+
+    @Test
+    void allocate_ShouldReturnMinusOne_WhenFull() {
+        // Arrange
+        SpotBitmap bitmap = new SpotBitmap(70);
+
+        // Act
+        for (int i = 0; i < 70; i++) {
+            assertThat(bitmap.allocate()).isBetween(0, 69);
+        }
+
+        // Assert
+        assertThat(bitmap.allocate()).isEqualTo(-1);
+        assertThat(bitmap.free()).isZero();
+        assertThat(new SpotBitmap(0).allocate()).isEqualTo(-1);
+    }
+
+    @Test
+    void release_ShouldMakeSpotAvailableAgain() {
+        // Arrange
+        SpotBitmap bitmap = new SpotBitmap(2);
+        bitmap.allocate();
+        bitmap.allocate();
+
+        // Act
+        boolean released = bitmap.release(1);
+
+        // Assert
+        assertThat(released).isTrue();
+        assertThat(bitmap.release(1)).isFalse();
+        assertThat(bitmap.allocate()).isEqualTo(1);
+    }
+
+    @Test
+    void occupy_ShouldRejectAlreadyOccupiedOrMissingSpots() {
+        // Arrange
+        SpotBitmap bitmap = new SpotBitmap(130);
+
+        // Act & Assert
+        assertThat(bitmap.occupy(129)).isTrue();
+        assertThat(bitmap.occupy(129)).isFalse();
+        assertThat(bitmap.countOccupied(64, 130)).isEqualTo(1);
+        assertThat(bitmap.countOccupied(0, 129)).isZero();
+        assertThatThrownBy(() -> bitmap.occupy(130)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void allocate_ShouldNeverHandOutTheSameSpotTwiceUnderContention() throws Exception {
+        // Arrange
+        int capacity = 1000;
+        SpotBitmap bitmap = new SpotBitmap(capacity);
+        Set<Integer> allocated = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                start.await();
+                int spot;
+                while ((spot = bitmap.allocate()) >= 0) {
+                    assertThat(allocated.add(spot)).isTrue();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Assert
+        assertThat(allocated).hasSize(capacity);
+        assertThat(bitmap.occupied()).isEqualTo(capacity);
+    }
+}
@@ -0,0 +1,93 @@
+package com.parking.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimerWheelTest {
+
+    @Test
+    void advance_ShouldFireTimersAtTheirDeadlineAcrossLevels() {
+        // Arrange
+        TimerWheel<Long> wheel = new TimerWheel<>(1000, 0);
+        long[] deadlines = {5_000, 63_000, 64_000, 3_600_000, 12 * 3_600_000L, 10 * 86_400_000L};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+        List<long[]> fired = new ArrayList<>();
+
+        // Act
+        for (long now = 0; now <= 11 * 86_400_000L; now += 1000) {
+            long tick = now;
+            wheel.advance(now, deadline -> fired.add(new long[]{deadline, tick}));
+        }
+
+        // Assert
+        assertThat(fired).hasSize(deadlines.length);
+        for (long[] event : fired) {
+            assertThat(event[1]).as("disparo de %d", event[0]).isEqualTo(event[0]);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advance_ShouldFireOverdueTimersOnNextAdvance() {
+        // Arrange
+        TimerWheel<String> wheel = new TimerWheel<>(1000, 100_000);
+        wheel.schedule(10_000, "vencido");
+        List<String> fired = new ArrayList<>();
+
+        // Act
+        wheel.advance(100_000, fired::add);
+
+        // Assert
+        assertThat(fired).containsExactly("vencido");
+    }
+
+    @Test
+    void cancel_ShouldPreventFiring() {
+        // Arrange
+        TimerWheel<String> wheel = new TimerWheel<>(1000, 0);
+        TimerWheel.Timeout<String> cancelled = wheel.schedule(7_200_000, "cancelado");
+        wheel.schedule(7_200_000, "mantido");
+        List<String> fired = new ArrayList<>();
+
+        // Act
+        boolean result = wheel.cancel(cancelled);
+        wheel.advance(7_200_000, fired::add);
+
+        // Assert
+        assertThat(result).isTrue();
+        assertThat(wheel.cancel(cancelled)).isFalse();
+        assertThat(fired).containsExactly("mantido");
+    }
+
+    @Test
+    void advance_ShouldFireRandomTimersInDeadlineOrder_WhenAdvancingInLargeSteps() {
+        // Arrange
+        TimerWheel<Long> wheel = new TimerWheel<>(1000, 1_700_000_000_000L);
+        Random random = new Random(3);
+        for (int i = 0; i < 10_000; i++) {
+            long deadline = 1_700_000_000_000L + random.nextInt(3 * 86_400) * 1000L;
+            wheel.schedule(deadline, deadline);
+        }
+        List<Long> fired = new ArrayList<>();
+
+        // Act
+        long end = 1_700_000_000_000L + 3 * 86_400_000L;
+        for (long now = 1_700_000_000_000L; now < end + 37_000; now += 37_000) {
+            long limit = now;
+            wheel.advance(now, deadline -> {
+                assertThat(deadline).isLessThanOrEqualTo(limit);
+                fired.add(deadline);
+            });
+        }
+
+        // Assert
+        assertThat(fired).hasSize(10_000).isSorted();
+    }
+}
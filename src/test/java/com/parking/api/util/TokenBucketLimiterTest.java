@@ -0,0 +1,122 @@
+package com.parking.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong(100 * SECOND);
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenRefillAtRate() {
+        // Arrange
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 3, 100, now::get);
+
+        // Act & Assert - rajada de 3
+        assertThat(limiter.tryAcquire("ip:10.0.0.1").remaining()).isEqualTo(2);
+        assertThat(limiter.tryAcquire("ip:10.0.0.1").remaining()).isEqualTo(1);
+        assertThat(limiter.tryAcquire("ip:10.0.0.1").remaining()).isZero();
+        TokenBucketLimiter.Decision rejected = limiter.tryAcquire("ip:10.0.0.1");
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.waitNanos()).isEqualTo(SECOND / 2);
+
+        // Act & Assert - meia segundo depois há uma ficha
+        now.addAndGet(SECOND / 2);
+        assertThat(limiter.tryAcquire("ip:10.0.0.1").allowed()).isTrue();
+        assertThat(limiter.tryAcquire("ip:10.0.0.1").allowed()).isFalse();
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepClientsIndependent() {
+        // Arrange
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1, 100, now::get);
+
+        // Act
+        limiter.tryAcquire("user:1");
+
+        // Assert
+        assertThat(limiter.tryAcquire("user:1").allowed()).isFalse();
+        assertThat(limiter.tryAcquire("user:2").allowed()).isTrue();
+    }
+
+    @Test
+    void evictIdle_ShouldDropOnlyRefilledBuckets() {
+        // Arrange
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 5, 100, now::get);
+        limiter.tryAcquire("ip:ocioso");
+        now.addAndGet(2 * SECOND);
+        limiter.tryAcquire("ip:ativo");
+        limiter.tryAcquire("ip:ativo");
+
+        // Act
+        int removed = limiter.evictIdle();
+
+        // Assert
+        assertThat(removed).isEqualTo(1);
+        assertThat(limiter.clients()).isEqualTo(1);
+    }
+
+    @Test
+    void tryAcquire_ShouldShareOneBucketAmongNewClientsWhenFull() {
+        // Arrange
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1, 2, now::get);
+        limiter.tryAcquire("ip:a");
+        limiter.tryAcquire("ip:b");
+
+        // Act
+        TokenBucketLimiter.Decision first = limiter.tryAcquire("ip:c");
+        TokenBucketLimiter.Decision second = limiter.tryAcquire("ip:d");
+
+        // Assert - sem limpeza no caminho da requisição, os novos dividem a mesma cota
+        assertThat(first.allowed()).isTrue();
+        assertThat(second.allowed()).isFalse();
+        assertThat(limiter.clients()).isEqualTo(2);
+        now.addAndGet(2 * SECOND);
+        assertThat(limiter.evictIdle()).isEqualTo(2);
+        assertThat(limiter.tryAcquire("ip:d").allowed()).isTrue();
+        assertThat(limiter.clients()).isEqualTo(1);
+    }
+
+    @Test
+    void tryAcquire_ShouldNeverGrantMoreThanBurstUnderContention() throws Exception {
+        // Arrange
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 50, 100, now::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            // Act
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    int granted = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (limiter.tryAcquire("quiosque").allowed()) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(10, TimeUnit.SECONDS);
+            }
+
+            // Assert
+            assertThat(total).isEqualTo(50);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
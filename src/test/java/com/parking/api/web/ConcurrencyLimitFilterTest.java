@@ -0,0 +1,57 @@
+package com.parking.api.web;
+
+import com.parking.api.util.AdaptiveLimiter;
+import com.parking.api.util.AdaptiveLimiter.Priority;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final AtomicLong now = new AtomicLong(1_000 * MS);
+    private final AdaptiveLimiter limiter = new AdaptiveLimiter(20, 2, 100, 2.0, 0.5, 30_000 * MS, now::get);
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiter);
+
+    @Test
+    void doFilter_ShouldNotLowerLimit_WhenLoginBurstIsSlow() throws Exception {
+        // Arrange - referência de um servidor folgado
+        perform("PATCH", "/api/cars/1/exit", 5 * MS);
+
+        // Act - troca de turno: cada login gasta ~80 ms no BCrypt
+        for (int i = 0; i < 30; i++) {
+            perform("POST", "/api/auth/login", 80 * MS);
+        }
+
+        // Assert
+        assertThat(limiter.limit()).isEqualTo(20);
+        assertThat(perform("POST", "/api/cars", 5 * MS).getStatus()).isEqualTo(200);
+        assertThat(limiter.rejected(Priority.CRITICAL)).isZero();
+    }
+
+    @Test
+    void doFilter_ShouldLowerLimit_WhenGateRequestsSlowDown() throws Exception {
+        // Arrange
+        perform("PATCH", "/api/cars/1/exit", 5 * MS);
+
+        // Act
+        perform("POST", "/api/cars", 80 * MS);
+
+        // Assert
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    private MockHttpServletResponse perform(String method, String path, long latency) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> now.addAndGet(latency);
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,133 @@
+package com.parking.api.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyStoreTest {
+
+    private static final IdempotencyStore.StoredResponse CREATED =
+            new IdempotencyStore.StoredResponse(201, "application/json", "{\"id\":1}".getBytes());
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-15T10:00:00Z"));
+    private final IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(10), 3, clock);
+
+    @Test
+    void shouldShareInFlightEntryWithDuplicates() {
+        // Arrange
+        IdempotencyStore.Claim first = store.begin("POST /api/cars key=a", "f1");
+
+        // Act
+        IdempotencyStore.Claim duplicate = store.begin("POST /api/cars key=a", "f1");
+
+        // Assert
+        assertThat(first.owner()).isTrue();
+        assertThat(duplicate.owner()).isFalse();
+        assertThat(duplicate.entry()).isSameAs(first.entry());
+        assertThat(duplicate.entry().response()).isNotDone();
+
+        store.complete(first.entry(), CREATED);
+        assertThat(duplicate.entry().response().join()).isSameAs(CREATED);
+    }
+
+    @Test
+    void shouldLetNextRequestOwnAbandonedKey() {
+        // Arrange
+        IdempotencyStore.Claim first = store.begin("k", "f1");
+        IdempotencyStore.Claim waiting = store.begin("k", "f1");
+
+        // Act
+        store.abandon(first.entry());
+        IdempotencyStore.Claim retry = store.begin("k", "f1");
+
+        // Assert
+        assertThat(waiting.entry().response().join()).isNull();
+        assertThat(retry.owner()).isTrue();
+    }
+
+    @Test
+    void shouldExpireCompletedEntriesAfterTtl() {
+        // Arrange
+        IdempotencyStore.Claim first = store.begin("k", "f1");
+        store.complete(first.entry(), CREATED);
+
+        // Act
+        clock.advance(Duration.ofMinutes(9));
+        IdempotencyStore.Claim beforeTtl = store.begin("k", "f1");
+        clock.advance(Duration.ofMinutes(2));
+        IdempotencyStore.Claim afterTtl = store.begin("k", "f1");
+
+        // Assert
+        assertThat(beforeTtl.owner()).isFalse();
+        assertThat(afterTtl.owner()).isTrue();
+    }
+
+    @Test
+    void shouldEvictOldestEntriesOverLimit() {
+        // Arrange
+        for (String key : new String[]{"a", "b", "c", "d"}) {
+            store.complete(store.begin(key, "f").entry(), CREATED);
+        }
+
+        // Act
+        IdempotencyStore.Claim oldest = store.begin("a", "f");
+        IdempotencyStore.Claim newest = store.begin("d", "f");
+
+        // Assert
+        assertThat(store.size()).isLessThanOrEqualTo(3);
+        assertThat(oldest.owner()).isTrue();
+        assertThat(newest.owner()).isFalse();
+    }
+
+    @Test
+    void shouldKeepInFlightEntriesOverLimit() {
+        // Arrange
+        IdempotencyStore.Claim inFlight = store.begin("a", "f");
+        for (String key : new String[]{"b", "c", "d"}) {
+            store.complete(store.begin(key, "f").entry(), CREATED);
+        }
+
+        // Act
+        IdempotencyStore.Claim duplicate = store.begin("a", "f");
+        IdempotencyStore.Claim evicted = store.begin("b", "f");
+
+        // Assert
+        assertThat(duplicate.owner()).isFalse();
+        assertThat(duplicate.entry()).isSameAs(inFlight.entry());
+        assertThat(evicted.owner()).isTrue();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}